@@ -0,0 +1,98 @@
+package com.couriersync.benchmarks.tracking;
+
+import com.couriersync.common.dto.LocationUpdateDto;
+import com.couriersync.common.events.DeliveryEvent;
+import com.couriersync.common.events.LocationUpdateEvent;
+import com.couriersync.tracking.model.LocationUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Representative payloads shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    static final UUID DRIVER_ID = UUID.fromString("6f1c2a44-2f0e-4c5d-9a53-2b8f0f4e7d11");
+    static final UUID DELIVERY_ID = UUID.fromString("b7d9e8a1-3c4f-4e2a-8d6b-1a2b3c4d5e6f");
+
+    private BenchmarkFixtures() {
+    }
+
+    static LocationUpdate locationUpdate() {
+        return LocationUpdate.builder()
+                .id("65f1a2b3c4d5e6f7a8b9c0d1")
+                .driverId(DRIVER_ID)
+                .deliveryId(DELIVERY_ID)
+                .latitude(new BigDecimal("48.856613"))
+                .longitude(new BigDecimal("2.352222"))
+                .accuracy(new BigDecimal("8.5"))
+                .speed(new BigDecimal("32.4"))
+                .heading(new BigDecimal("187.0"))
+                .timestamp(LocalDateTime.of(2024, 5, 1, 12, 30, 15))
+                .batteryLevel(76)
+                .deviceId("device-4711")
+                .createdAt(LocalDateTime.of(2024, 5, 1, 12, 30, 16))
+                .build();
+    }
+
+    static LocationUpdateDto locationUpdateDto() {
+        return LocationUpdateDto.builder()
+                .driverId(DRIVER_ID)
+                .deliveryId(DELIVERY_ID)
+                .latitude(new BigDecimal("48.856613"))
+                .longitude(new BigDecimal("2.352222"))
+                .accuracy(new BigDecimal("8.5"))
+                .speed(new BigDecimal("32.4"))
+                .heading(new BigDecimal("187.0"))
+                .timestamp(LocalDateTime.of(2024, 5, 1, 12, 30, 15))
+                .batteryLevel(76)
+                .deviceId("device-4711")
+                .build();
+    }
+
+    static LocationUpdateEvent locationUpdateEvent() {
+        LocationUpdateEvent event = new LocationUpdateEvent("tracking-service");
+        event.setDriverId(DRIVER_ID);
+        event.setDeliveryId(DELIVERY_ID);
+        event.setLatitude(new BigDecimal("48.856613"));
+        event.setLongitude(new BigDecimal("2.352222"));
+        event.setAccuracy(new BigDecimal("8.5"));
+        event.setSpeed(new BigDecimal("32.4"));
+        event.setHeading(new BigDecimal("187.0"));
+        event.setTimestamp(LocalDateTime.of(2024, 5, 1, 12, 30, 15));
+        event.setBatteryLevel(76);
+        event.setDeviceId("device-4711");
+        return event;
+    }
+
+    static DeliveryEvent deliveryEvent() {
+        DeliveryEvent event = new DeliveryEvent("dispatch-service");
+        event.setDeliveryId(DELIVERY_ID);
+        event.setOrderNumber("ORD-2024-000123");
+        event.setCustomerId(UUID.fromString("0c8a3f52-9d1e-4b7a-a6c4-5e2f1d3b9a70"));
+        event.setDriverId(DRIVER_ID);
+        event.setStatus(DeliveryEvent.DeliveryStatus.PICKED_UP);
+        event.setStatusChangedAt(LocalDateTime.of(2024, 5, 1, 12, 15, 0));
+        event.setStatusChangeReason("Package picked up from sender");
+        event.setPickupLatitude(new BigDecimal("48.856613"));
+        event.setPickupLongitude(new BigDecimal("2.352222"));
+        event.setDropoffLatitude(new BigDecimal("48.873792"));
+        event.setDropoffLongitude(new BigDecimal("2.295028"));
+        event.setActualPickupTime(LocalDateTime.of(2024, 5, 1, 12, 15, 0));
+        return event;
+    }
+
+    /**
+     * Mirrors the ObjectMapper Spring Boot configures for REST, STOMP and Kafka JSON payloads.
+     */
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,85 @@
+package com.couriersync.benchmarks.tracking;
+
+import com.couriersync.common.events.BaseEvent;
+import com.couriersync.common.events.serialization.BinaryEventDeserializer;
+import com.couriersync.common.events.serialization.BinaryEventSerializer;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka value encoding of the shared events: Spring's {@link JsonSerializer} with type headers,
+ * as configured on the topics today, against {@link BinaryEventSerializer}. The record size
+ * (value plus type headers) of each encoding is printed at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSerializationBenchmark {
+
+    private static final String TOPIC = "events";
+
+    @Param({"location", "delivery"})
+    public String eventType;
+
+    private JsonSerializer<Object> jsonSerializer;
+    private JsonDeserializer<Object> jsonDeserializer;
+    private BinaryEventSerializer binarySerializer;
+    private BinaryEventDeserializer binaryDeserializer;
+    private BaseEvent event;
+    private byte[] jsonValue;
+    private RecordHeaders jsonHeaders;
+    private byte[] binaryValue;
+
+    @Setup
+    public void setUp() {
+        jsonSerializer = new JsonSerializer<>(BenchmarkFixtures.objectMapper());
+        jsonDeserializer = new JsonDeserializer<>(BenchmarkFixtures.objectMapper());
+        jsonDeserializer.addTrustedPackages("com.couriersync.common.events");
+        // Type headers are read again on every invocation
+        jsonDeserializer.setRemoveTypeHeaders(false);
+        binarySerializer = new BinaryEventSerializer();
+        binaryDeserializer = new BinaryEventDeserializer();
+        binaryDeserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.couriersync.common.events"), false);
+        event = "delivery".equals(eventType) ? BenchmarkFixtures.deliveryEvent() : BenchmarkFixtures.locationUpdateEvent();
+
+        jsonHeaders = new RecordHeaders();
+        jsonValue = jsonSerializer.serialize(TOPIC, jsonHeaders, event);
+        binaryValue = binarySerializer.serialize(TOPIC, new RecordHeaders(), event);
+
+        int headerBytes = 0;
+        for (Header header : jsonHeaders) {
+            headerBytes += header.key().length() + header.value().length;
+        }
+        System.out.printf("%n%s event size (bytes): json=%d (+%d type headers) binary=%d%n",
+                eventType, jsonValue.length, headerBytes, binaryValue.length);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return jsonDeserializer.deserialize(TOPIC, jsonHeaders, jsonValue);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public Object deserializeBinary() {
+        return binaryDeserializer.deserialize(TOPIC, new RecordHeaders(), binaryValue);
+    }
+}
@@ -0,0 +1,217 @@
+package com.couriersync.benchmarks.tracking;
+
+import com.couriersync.tracking.model.LocationUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of the WebSocket fan-out across tracking-service nodes. Subscribers are spread
+ * round-robin over the nodes and each follows one driver; positions are published round-robin
+ * to the nodes at a fixed rate, so with N nodes only 1/N of the deliveries are node-local.
+ *
+ * <p>Reports the delivery ratio (deliveries received / deliveries expected), the delivery
+ * throughput and the publish-to-delivery latency. Run it with 1, 2, 3... nodes and the same
+ * per-node load to check that capacity grows linearly; see the README.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.couriersync.benchmarks.tracking.FanoutLoadTest \
+ *     --nodes ws://node-1:8083/ws/tracking/websocket,ws://node-2:8083/ws/tracking/websocket \
+ *     --token $JWT --subscribers 2000 --drivers 500 --rate 1000 --duration 60
+ * </pre>
+ */
+public final class FanoutLoadTest {
+
+    // Latency histogram with 100 µs buckets, up to 10 s
+    private static final int BUCKET_MICROS = 100;
+    private static final int BUCKETS = 100_000;
+
+    private final List<String> nodes;
+    private final String token;
+    private final int subscribers;
+    private final int drivers;
+    private final int rate;
+    private final int durationSeconds;
+
+    private final ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+    private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS + 1);
+    private final LongAdder received = new LongAdder();
+    private final LongAdder[] receivedPerNode;
+    private final AtomicLong expected = new AtomicLong();
+
+    private FanoutLoadTest(Map<String, String> options) {
+        this.nodes = List.of(options.getOrDefault("nodes", "ws://localhost:8083/ws/tracking/websocket").split(","));
+        this.token = options.getOrDefault("token", "");
+        this.subscribers = Integer.parseInt(options.getOrDefault("subscribers", "1000"));
+        this.drivers = Integer.parseInt(options.getOrDefault("drivers", "250"));
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "500"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        this.receivedPerNode = new LongAdder[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            receivedPerNode[i] = new LongAdder();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        new FanoutLoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        // Payloads are (de)serialized here, the default converter passes byte[] through
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+
+        List<UUID> driverIds = new ArrayList<>(drivers);
+        for (int i = 0; i < drivers; i++) {
+            driverIds.add(UUID.randomUUID());
+        }
+
+        // Subscribers per driver, to know how many deliveries each publish should produce
+        int[] followers = new int[drivers];
+        List<StompSession> sessions = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            int node = i % nodes.size();
+            int driver = i % drivers;
+            StompSession session = connect(client, nodes.get(node));
+            session.subscribe("/topic/driver/" + driverIds.get(driver), new DeliveryHandler(node));
+            followers[driver]++;
+            sessions.add(session);
+        }
+
+        List<StompSession> publishers = new ArrayList<>();
+        for (String node : nodes) {
+            publishers.add(connect(client, node));
+        }
+        System.out.printf("Connected %d subscribers and %d publishers to %d nodes%n",
+                subscribers, publishers.size(), nodes.size());
+
+        AtomicLong sequence = new AtomicLong();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        scheduler.scheduleAtFixedRate(() -> {
+            long seq = sequence.getAndIncrement();
+            int driver = (int) (seq % drivers);
+            StompSession publisher = publishers.get((int) (seq % publishers.size()));
+            StompHeaders headers = new StompHeaders();
+            headers.setDestination("/app/location/update");
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            try {
+                publisher.send(headers, objectMapper.writeValueAsBytes(position(driverIds.get(driver))));
+                expected.addAndGet(followers[driver]);
+            } catch (Exception e) {
+                System.err.println("Publish failed: " + e.getMessage());
+            }
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+        long start = System.nanoTime();
+        for (int second = 1; second <= durationSeconds; second++) {
+            Thread.sleep(1000);
+            System.out.printf("%3ds published=%d received=%d%n", second, sequence.get(), received.sum());
+        }
+        scheduler.shutdown();
+        // Let in-flight deliveries arrive
+        Thread.sleep(2000);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        report(sequence.get(), elapsedSeconds);
+        sessions.forEach(StompSession::disconnect);
+        publishers.forEach(StompSession::disconnect);
+        client.stop();
+    }
+
+    private StompSession connect(WebSocketStompClient client, String url) throws Exception {
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        handshakeHeaders.add("Authorization", "Bearer " + token);
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        return client.connectAsync(url, handshakeHeaders, connectHeaders, new StompSessionHandlerAdapter() { })
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private LocationUpdate position(UUID driverId) {
+        return LocationUpdate.builder()
+                .driverId(driverId)
+                .latitude(new BigDecimal("48.856613"))
+                .longitude(new BigDecimal("2.352222"))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private void report(long published, double elapsedSeconds) {
+        long delivered = received.sum();
+        System.out.println();
+        System.out.printf("Nodes:              %d%n", nodes.size());
+        System.out.printf("Published:          %d (%.0f/s)%n", published, published / elapsedSeconds);
+        System.out.printf("Deliveries:         %d of %d expected (%.2f%%)%n",
+                delivered, expected.get(), expected.get() == 0 ? 0.0 : 100.0 * delivered / expected.get());
+        System.out.printf("Delivery rate:      %.0f/s%n", delivered / elapsedSeconds);
+        for (int i = 0; i < nodes.size(); i++) {
+            System.out.printf("  %s: %.0f/s%n", nodes.get(i), receivedPerNode[i].sum() / elapsedSeconds);
+        }
+        System.out.printf("Latency p50/p99/p99.9: %.1f / %.1f / %.1f ms%n",
+                percentile(delivered, 0.50), percentile(delivered, 0.99), percentile(delivered, 0.999));
+    }
+
+    private double percentile(long count, double quantile) {
+        long threshold = (long) Math.ceil(count * quantile);
+        long seen = 0;
+        for (int i = 0; i <= BUCKETS; i++) {
+            seen += latencies.get(i);
+            if (seen >= threshold && seen > 0) {
+                return i * BUCKET_MICROS / 1000.0;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private final class DeliveryHandler implements StompFrameHandler {
+        private final int node;
+
+        private DeliveryHandler(int node) {
+            this.node = node;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            received.increment();
+            receivedPerNode[node].increment();
+            try {
+                LocationUpdate update = objectMapper.readValue((byte[]) payload, LocationUpdate.class);
+                long micros = Duration.between(update.getTimestamp(), LocalDateTime.now()).toNanos() / 1000;
+                latencies.incrementAndGet((int) Math.min(Math.max(micros, 0) / BUCKET_MICROS, BUCKETS));
+            } catch (Exception e) {
+                // Not a position payload, counted without latency
+            }
+        }
+    }
+}
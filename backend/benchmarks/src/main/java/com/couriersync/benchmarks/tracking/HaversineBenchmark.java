@@ -0,0 +1,40 @@
+package com.couriersync.benchmarks.tracking;
+
+import com.couriersync.tracking.service.GeoDistance;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distance estimate used by the tracking EventConsumer when a delivery is assigned,
+ * on BigDecimal inputs (current call site) and on primitives.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HaversineBenchmark {
+
+    private final BigDecimal lat1 = new BigDecimal("48.856613");
+    private final BigDecimal lon1 = new BigDecimal("2.352222");
+    private final BigDecimal lat2 = new BigDecimal("48.873792");
+    private final BigDecimal lon2 = new BigDecimal("2.295028");
+
+    private double dLat1 = 48.856613;
+    private double dLon1 = 2.352222;
+    private double dLat2 = 48.873792;
+    private double dLon2 = 2.295028;
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        return GeoDistance.haversineKm(lat1, lon1, lat2, lon2);
+    }
+
+    @Benchmark
+    public double primitive() {
+        return GeoDistance.haversineKm(dLat1, dLon1, dLat2, dLon2);
+    }
+}
@@ -0,0 +1,56 @@
+package com.couriersync.benchmarks.tracking;
+
+import com.couriersync.common.events.LocationUpdateEvent;
+import com.couriersync.tracking.model.LocationUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encoding and decoding of the location payloads used over REST and Kafka.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private LocationUpdate locationUpdate;
+    private LocationUpdateEvent locationUpdateEvent;
+    private byte[] locationUpdateJson;
+    private byte[] locationUpdateEventJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        locationUpdate = BenchmarkFixtures.locationUpdate();
+        locationUpdateEvent = BenchmarkFixtures.locationUpdateEvent();
+        locationUpdateJson = objectMapper.writeValueAsBytes(locationUpdate);
+        locationUpdateEventJson = objectMapper.writeValueAsBytes(locationUpdateEvent);
+    }
+
+    @Benchmark
+    public byte[] serializeLocationUpdate() throws IOException {
+        return objectMapper.writeValueAsBytes(locationUpdate);
+    }
+
+    @Benchmark
+    public LocationUpdate deserializeLocationUpdate() throws IOException {
+        return objectMapper.readValue(locationUpdateJson, LocationUpdate.class);
+    }
+
+    @Benchmark
+    public byte[] serializeLocationUpdateEvent() throws IOException {
+        return objectMapper.writeValueAsBytes(locationUpdateEvent);
+    }
+
+    @Benchmark
+    public LocationUpdateEvent deserializeLocationUpdateEvent() throws IOException {
+        return objectMapper.readValue(locationUpdateEventJson, LocationUpdateEvent.class);
+    }
+}
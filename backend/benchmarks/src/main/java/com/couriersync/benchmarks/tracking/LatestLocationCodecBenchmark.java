@@ -0,0 +1,80 @@
+package com.couriersync.benchmarks.tracking;
+
+import com.couriersync.tracking.config.CachedLocationRedisSerializer;
+import com.couriersync.tracking.mapper.CompactLocationMapper;
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.LocationUpdate;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write (model to Redis value) and read (Redis value to model) cost of the latest-location cache
+ * encodings: JDK serialization of {@link CachedLocation} (default {@code RedisTemplate}), JSON of
+ * the whole {@link LocationUpdate}, and the fixed-layout {@link CachedLocationRedisSerializer}.
+ * Payload sizes are printed at setup; memory per key in Redis is measured by
+ * {@link LatestLocationRedisMemoryReport}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatestLocationCodecBenchmark {
+
+    private JdkSerializationRedisSerializer jdkSerializer;
+    private Jackson2JsonRedisSerializer<LocationUpdate> jsonSerializer;
+    private CachedLocationRedisSerializer binarySerializer;
+    private LocationUpdate locationUpdate;
+    private byte[] jdkValue;
+    private byte[] jsonValue;
+    private byte[] binaryValue;
+
+    @Setup
+    public void setUp() {
+        jdkSerializer = new JdkSerializationRedisSerializer();
+        jsonSerializer = new Jackson2JsonRedisSerializer<>(BenchmarkFixtures.objectMapper(), LocationUpdate.class);
+        binarySerializer = new CachedLocationRedisSerializer();
+        locationUpdate = BenchmarkFixtures.locationUpdate();
+
+        CachedLocation cachedLocation = CompactLocationMapper.toCachedLocation(locationUpdate);
+        jdkValue = jdkSerializer.serialize(cachedLocation);
+        jsonValue = jsonSerializer.serialize(locationUpdate);
+        binaryValue = binarySerializer.serialize(cachedLocation);
+        System.out.printf("%nValue size (bytes): jdk=%d json=%d binary=%d%n",
+                jdkValue.length, jsonValue.length, binaryValue.length);
+    }
+
+    @Benchmark
+    public byte[] writeJdk() {
+        return jdkSerializer.serialize(CompactLocationMapper.toCachedLocation(locationUpdate));
+    }
+
+    @Benchmark
+    public LocationUpdate readJdk() {
+        return CompactLocationMapper.toLocationUpdate((CachedLocation) jdkSerializer.deserialize(jdkValue));
+    }
+
+    @Benchmark
+    public byte[] writeJson() {
+        return jsonSerializer.serialize(locationUpdate);
+    }
+
+    @Benchmark
+    public LocationUpdate readJson() {
+        return jsonSerializer.deserialize(jsonValue);
+    }
+
+    @Benchmark
+    public byte[] writeBinary() {
+        return binarySerializer.serialize(CompactLocationMapper.toCachedLocation(locationUpdate));
+    }
+
+    @Benchmark
+    public LocationUpdate readBinary() {
+        return CompactLocationMapper.toLocationUpdate(binarySerializer.deserialize(binaryValue));
+    }
+}
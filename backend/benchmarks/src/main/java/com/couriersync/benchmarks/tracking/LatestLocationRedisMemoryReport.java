@@ -0,0 +1,160 @@
+package com.couriersync.benchmarks.tracking;
+
+import com.couriersync.tracking.config.CachedLocationRedisSerializer;
+import com.couriersync.tracking.mapper.CompactLocationMapper;
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.LocationUpdate;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Memory per key and MGET round-trip latency of the latest-location cache encodings, measured
+ * against a real Redis. Writes {@code --keys} entries per encoding under a {@code bench:} prefix,
+ * reads {@code used_memory} before and after, times MGETs of {@code --batch} keys including
+ * decoding, then deletes the entries. Use a Redis instance with no other traffic.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.couriersync.benchmarks.tracking.LatestLocationRedisMemoryReport \
+ *     --redis redis://localhost:6379 --keys 100000 --batch 500 --rounds 200
+ * </pre>
+ */
+public final class LatestLocationRedisMemoryReport {
+
+    private final String redisUri;
+    private final int keyCount;
+    private final int batchSize;
+    private final int rounds;
+
+    private LatestLocationRedisMemoryReport(Map<String, String> options) {
+        this.redisUri = options.getOrDefault("redis", "redis://localhost:6379");
+        this.keyCount = Integer.parseInt(options.getOrDefault("keys", "100000"));
+        this.batchSize = Integer.parseInt(options.getOrDefault("batch", "500"));
+        this.rounds = Integer.parseInt(options.getOrDefault("rounds", "200"));
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        new LatestLocationRedisMemoryReport(options).run();
+    }
+
+    private void run() {
+        JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+        Jackson2JsonRedisSerializer<LocationUpdate> json =
+                new Jackson2JsonRedisSerializer<>(BenchmarkFixtures.objectMapper(), LocationUpdate.class);
+        CachedLocationRedisSerializer binary = new CachedLocationRedisSerializer();
+
+        // Same tag length for every encoding so that keys have the same size
+        Map<String, Codec> codecs = new LinkedHashMap<>();
+        codecs.put("jdk", new Codec(update -> jdk.serialize(CompactLocationMapper.toCachedLocation(update)),
+                bytes -> CompactLocationMapper.toLocationUpdate((CachedLocation) jdk.deserialize(bytes))));
+        codecs.put("jsn", new Codec(json::serialize, json::deserialize));
+        codecs.put("bin", new Codec(update -> binary.serialize(CompactLocationMapper.toCachedLocation(update)),
+                bytes -> CompactLocationMapper.toLocationUpdate(binary.deserialize(bytes))));
+
+        List<LocationUpdate> locations = locations();
+        RedisClient client = RedisClient.create(redisUri);
+        try (StatefulRedisConnection<byte[], byte[]> connection = client.connect(ByteArrayCodec.INSTANCE)) {
+            RedisCommands<byte[], byte[]> redis = connection.sync();
+            System.out.printf("%-6s %12s %14s %16s %14s %14s%n",
+                    "codec", "value bytes", "MEMORY USAGE", "used_memory/key", "MGET mean ms", "MGET p99 ms");
+            codecs.forEach((name, codec) -> report(redis, name, codec, locations));
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    private void report(RedisCommands<byte[], byte[]> redis, String name, Codec codec, List<LocationUpdate> locations) {
+        List<byte[]> keys = new ArrayList<>(keyCount);
+        for (LocationUpdate location : locations) {
+            keys.add(key(name, location.getDriverId()));
+        }
+
+        long before = usedMemory(redis);
+        for (int from = 0; from < keyCount; from += 1000) {
+            Map<byte[], byte[]> chunk = new HashMap<>();
+            for (int i = from; i < Math.min(from + 1000, keyCount); i++) {
+                chunk.put(keys.get(i), codec.encoder().apply(locations.get(i)));
+            }
+            redis.mset(chunk);
+        }
+        long after = usedMemory(redis);
+        Long sampleUsage = redis.memoryUsage(keys.get(0));
+
+        Random random = new Random(42);
+        long[] nanos = new long[rounds];
+        for (int round = 0; round < rounds; round++) {
+            byte[][] batch = new byte[batchSize][];
+            for (int i = 0; i < batchSize; i++) {
+                batch[i] = keys.get(random.nextInt(keyCount));
+            }
+            long start = System.nanoTime();
+            for (KeyValue<byte[], byte[]> value : redis.mget(batch)) {
+                codec.decoder().apply(value.getValue());
+            }
+            nanos[round] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        for (int from = 0; from < keyCount; from += 1000) {
+            redis.del(keys.subList(from, Math.min(from + 1000, keyCount)).toArray(new byte[0][]));
+        }
+
+        System.out.printf("%-6s %12d %14d %16.1f %14.3f %14.3f%n",
+                name,
+                codec.encoder().apply(locations.get(0)).length,
+                sampleUsage != null ? sampleUsage : -1,
+                (after - before) / (double) keyCount,
+                Arrays.stream(nanos).average().orElse(0) / 1e6,
+                nanos[Math.min(rounds - 1, (int) Math.ceil(rounds * 0.99) - 1)] / 1e6);
+    }
+
+    private List<LocationUpdate> locations() {
+        Random random = new Random(7);
+        List<LocationUpdate> locations = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            LocationUpdate location = BenchmarkFixtures.locationUpdate();
+            location.setDriverId(UUID.randomUUID());
+            location.setDeliveryId(UUID.randomUUID());
+            location.setLatitude(BigDecimal.valueOf(48.8 + random.nextInt(100_000) / 1e6));
+            location.setLongitude(BigDecimal.valueOf(2.3 + random.nextInt(100_000) / 1e6));
+            locations.add(location);
+        }
+        return locations;
+    }
+
+    private static byte[] key(String codec, UUID driverId) {
+        return ("bench:" + codec + ":driver:latest_location:" + driverId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long usedMemory(RedisCommands<byte[], byte[]> redis) {
+        for (String line : redis.info("memory").split("\r?\n")) {
+            if (line.startsWith("used_memory:")) {
+                return Long.parseLong(line.substring("used_memory:".length()).trim());
+            }
+        }
+        throw new IllegalStateException("used_memory not found in INFO memory");
+    }
+
+    private record Codec(Function<LocationUpdate, byte[]> encoder, Function<byte[], LocationUpdate> decoder) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.couriersync.benchmarks.tracking;
+
+import com.couriersync.common.dto.LocationUpdateDto;
+import com.couriersync.tracking.mapper.LocationUpdateMapper;
+import com.couriersync.tracking.model.LocationUpdate;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions between the tracking entity and the shared DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocationUpdateMapperBenchmark {
+
+    private LocationUpdateMapper mapper;
+    private LocationUpdate entity;
+    private LocationUpdateDto dto;
+
+    @Setup
+    public void setUp() {
+        mapper = Mappers.getMapper(LocationUpdateMapper.class);
+        entity = BenchmarkFixtures.locationUpdate();
+        dto = BenchmarkFixtures.locationUpdateDto();
+    }
+
+    @Benchmark
+    public LocationUpdateDto toDto() {
+        return mapper.toDto(entity);
+    }
+
+    @Benchmark
+    public LocationUpdate toEntity() {
+        return mapper.toEntity(dto);
+    }
+}
@@ -0,0 +1,77 @@
+package com.couriersync.benchmarks.tracking;
+
+import com.couriersync.tracking.mapper.CompactLocationMapper;
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.DeliveryRoute;
+import com.couriersync.tracking.model.LocationUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation comparison between the BigDecimal/LocalDateTime point models and the compact
+ * primitive model. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}
+ * (bytes allocated per operation).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PointRepresentationBenchmark {
+
+    private MappingMongoConverter converter;
+    private ObjectMapper objectMapper;
+    private LocationUpdate locationUpdate;
+
+    @Setup
+    public void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+        objectMapper = BenchmarkFixtures.objectMapper();
+        locationUpdate = BenchmarkFixtures.locationUpdate();
+    }
+
+    @Benchmark
+    public Document routePointBigDecimal() {
+        DeliveryRoute.LocationPoint point = DeliveryRoute.LocationPoint.builder()
+                .latitude(locationUpdate.getLatitude())
+                .longitude(locationUpdate.getLongitude())
+                .timestamp(locationUpdate.getTimestamp())
+                .speed(locationUpdate.getSpeed())
+                .heading(locationUpdate.getHeading())
+                .build();
+        Document document = new Document();
+        converter.write(point, document);
+        return document;
+    }
+
+    @Benchmark
+    public Document routePointCompact() {
+        CompactLocationPoint point = CompactLocationMapper.toPoint(locationUpdate);
+        Document document = new Document();
+        converter.write(point, document);
+        return document;
+    }
+
+    @Benchmark
+    public byte[] latestLocationBigDecimal() throws IOException {
+        return objectMapper.writeValueAsBytes(locationUpdate);
+    }
+
+    @Benchmark
+    public byte[] latestLocationCompact() throws IOException {
+        CachedLocation cachedLocation = CompactLocationMapper.toCachedLocation(locationUpdate);
+        return objectMapper.writeValueAsBytes(cachedLocation);
+    }
+}
@@ -0,0 +1,101 @@
+package com.couriersync.benchmarks.tracking;
+
+import com.couriersync.tracking.mapper.CompactLocationMapper;
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.DeliveryRoute;
+import com.couriersync.tracking.model.LocationUpdate;
+import com.couriersync.tracking.model.RoutePointChunk;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-ping cost of appending a point to a route, measured up to the BSON document handed to
+ * the Mongo driver: rewriting the whole route document (embedded routePoints) versus the
+ * bucketed {@code $push} update on route_point_chunks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteAppendBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int routeLength;
+
+    private MongoMappingContext mappingContext;
+    private MappingMongoConverter converter;
+    private UpdateMapper updateMapper;
+    private DeliveryRoute route;
+    private LocationUpdate locationUpdate;
+
+    @Setup
+    public void setUp() {
+        mappingContext = new MongoMappingContext();
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+        updateMapper = new UpdateMapper(converter);
+
+        locationUpdate = BenchmarkFixtures.locationUpdate();
+
+        List<DeliveryRoute.LocationPoint> points = new ArrayList<>(routeLength + 1);
+        for (int i = 0; i < routeLength; i++) {
+            points.add(legacyPoint(locationUpdate));
+        }
+        route = DeliveryRoute.builder()
+                .id("65f1a2b3c4d5e6f7a8b9c0d1")
+                .deliveryId(BenchmarkFixtures.DELIVERY_ID)
+                .driverId(BenchmarkFixtures.DRIVER_ID)
+                .routePoints(points)
+                .estimatedDistance(new BigDecimal("12.40"))
+                .estimatedDuration(25)
+                .status(DeliveryRoute.RouteStatus.IN_PROGRESS)
+                .build();
+    }
+
+    @Benchmark
+    public Document embeddedRewrite() {
+        // Previous behaviour: append to the in-memory list and re-encode the whole document
+        List<DeliveryRoute.LocationPoint> points = route.getRoutePoints();
+        points.add(legacyPoint(locationUpdate));
+        Document document = new Document();
+        converter.write(route, document);
+        points.remove(points.size() - 1);
+        return document;
+    }
+
+    @Benchmark
+    public Document bucketedPush() {
+        CompactLocationPoint point = CompactLocationMapper.toPoint(locationUpdate);
+        Update update = new Update()
+                .push("points", point)
+                .inc("count", 1)
+                .setOnInsert("deliveryId", BenchmarkFixtures.DELIVERY_ID)
+                .setOnInsert("bucketStart", point.getTimestampMillis());
+        return updateMapper.getMappedObject(update.getUpdateObject(),
+                mappingContext.getPersistentEntity(RoutePointChunk.class));
+    }
+
+    private static DeliveryRoute.LocationPoint legacyPoint(LocationUpdate locationUpdate) {
+        return DeliveryRoute.LocationPoint.builder()
+                .latitude(locationUpdate.getLatitude())
+                .longitude(locationUpdate.getLongitude())
+                .timestamp(locationUpdate.getTimestamp())
+                .speed(locationUpdate.getSpeed())
+                .heading(locationUpdate.getHeading())
+                .build();
+    }
+}
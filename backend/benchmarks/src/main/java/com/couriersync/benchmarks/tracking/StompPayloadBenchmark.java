@@ -0,0 +1,47 @@
+package com.couriersync.benchmarks.tracking;
+
+import com.couriersync.tracking.model.LocationUpdate;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload conversion performed by SimpMessagingTemplate.convertAndSend for every
+ * /topic/driver and /topic/delivery broadcast.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StompPayloadBenchmark {
+
+    private MappingJackson2MessageConverter messageConverter;
+    private MessageHeaders headers;
+    private LocationUpdate locationUpdate;
+    private Message<?> message;
+
+    @Setup
+    public void setUp() {
+        messageConverter = new MappingJackson2MessageConverter();
+        messageConverter.setObjectMapper(BenchmarkFixtures.objectMapper());
+        headers = new MessageHeaders(Map.of());
+        locationUpdate = BenchmarkFixtures.locationUpdate();
+        message = messageConverter.toMessage(locationUpdate, headers);
+    }
+
+    @Benchmark
+    public Message<?> toMessage() {
+        return messageConverter.toMessage(locationUpdate, headers);
+    }
+
+    @Benchmark
+    public Object fromMessage() {
+        return messageConverter.fromMessage(message, LocationUpdate.class);
+    }
+}
@@ -27,6 +27,8 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.PUT, "/api/invoices/**").hasAnyRole("ADMIN", "FINANCE")
                 .requestMatchers(HttpMethod.DELETE, "/api/invoices/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/pricing/**").hasAnyRole("ADMIN", "FINANCE", "DISPATCHER")
+                .requestMatchers(HttpMethod.POST, "/api/pricing/calculate", "/api/pricing/calculate/batch")
+                        .hasAnyRole("ADMIN", "FINANCE", "DISPATCHER")
                 .requestMatchers(HttpMethod.POST, "/api/pricing/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/pricing/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/pricing/**").hasRole("ADMIN")
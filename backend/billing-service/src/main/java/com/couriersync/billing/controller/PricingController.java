@@ -1,5 +1,7 @@
 package com.couriersync.billing.controller;
 
+import com.couriersync.billing.model.PriceQuoteBatch;
+import com.couriersync.billing.model.PriceQuoteRequest;
 import com.couriersync.billing.model.PricingRule;
 import com.couriersync.billing.service.PricingService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @RestController
@@ -59,8 +62,8 @@ public class PricingController {
             priorityLevel = PricingRule.PriorityLevel.NORMAL;
         }
 
-        if (weightKm == null) {
-            weightKm = 1.0;
+        if (weightKg == null) {
+            weightKg = 1.0;
         }
 
         if (deliveryTime == null) {
@@ -73,6 +76,32 @@ public class PricingController {
         return ResponseEntity.ok(calculation);
     }
 
+    @PostMapping("/calculate/batch")
+    @Operation(summary = "Calculate delivery prices for a batch of deliveries",
+            description = "Quotes are returned in request order. Phase timings are reported in the Server-Timing header.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Prices calculated successfully"),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch, or a request without distance"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'FINANCE', 'DISPATCHER')")
+    public ResponseEntity<List<PricingService.PricingCalculation>> calculateDeliveryPrices(
+            @RequestBody List<PriceQuoteRequest> requests) {
+        try {
+            PriceQuoteBatch batch = pricingService.calculateDeliveryPrices(requests);
+            return ResponseEntity.ok()
+                    .header("Server-Timing", String.format(Locale.ROOT,
+                            "resolve;dur=%.3f, evaluate;dur=%.3f, total;dur=%.3f",
+                            batch.getRuleResolutionMs(), batch.getEvaluationMs(), batch.getTotalMs()))
+                    .header("X-Batch-Size", String.valueOf(batch.getQuotes().size()))
+                    .header("X-Batch-Rule-Sets", String.valueOf(batch.getRuleSets()))
+                    .body(batch.getQuotes());
+        } catch (IllegalArgumentException e) {
+            log.debug("Rejected batch quote request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/rules")
     @Operation(summary = "Get all active pricing rules")
     @ApiResponses(value = {
@@ -0,0 +1,30 @@
+package com.couriersync.billing.model;
+
+import com.couriersync.billing.service.PricingService;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Quotes of a batch, in request order, with the time spent on each phase.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteBatch {
+
+    private List<PricingService.PricingCalculation> quotes;
+
+    // Distinct (customer, customer type, priority) combinations the rules were resolved for
+    private int ruleSets;
+
+    private double ruleResolutionMs;
+
+    private double evaluationMs;
+
+    private double totalMs;
+}
@@ -0,0 +1,32 @@
+package com.couriersync.billing.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One delivery to price in a batch quote. Optional fields get the same defaults as the single
+ * quote endpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteRequest {
+
+    private UUID customerId;
+
+    private PricingRule.CustomerType customerType;
+
+    private PricingRule.PriorityLevel priorityLevel;
+
+    private Double distanceKm;
+
+    private Double weightKg;
+
+    private LocalDateTime deliveryTime;
+}
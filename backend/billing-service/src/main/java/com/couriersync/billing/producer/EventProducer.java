@@ -1,10 +1,10 @@
 package com.couriersync.billing.producer;
 
 import com.couriersync.common.events.InvoiceEvent;
+import com.couriersync.common.kafka.KafkaEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -15,7 +15,7 @@ import java.util.UUID;
 @Slf4j
 public class EventProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaEventPublisher eventPublisher;
 
     @Value("${app.kafka.topics.invoice-events}")
     private String invoiceEventsTopic;
@@ -31,7 +31,7 @@ public class EventProducer {
         event.setIssueDate(LocalDate.now());
         event.setStatusChangedAt(java.time.LocalDateTime.now());
 
-        kafkaTemplate.send(invoiceEventsTopic, invoiceId.toString(), event);
+        eventPublisher.publish(invoiceEventsTopic, invoiceId.toString(), event);
     }
 
     public void publishInvoiceStatusUpdatedEvent(UUID invoiceId, String invoiceNumber, UUID customerId,
@@ -46,7 +46,7 @@ public class EventProducer {
         event.setStatusChangedAt(java.time.LocalDateTime.now());
         event.setNotes(notes);
 
-        kafkaTemplate.send(invoiceEventsTopic, invoiceId.toString(), event);
+        eventPublisher.publish(invoiceEventsTopic, invoiceId.toString(), event);
     }
 
     public void publishInvoiceSentEvent(UUID invoiceId, String invoiceNumber, UUID customerId) {
@@ -60,7 +60,7 @@ public class EventProducer {
         event.setStatusChangedAt(java.time.LocalDateTime.now());
         event.setNotes("Invoice sent to customer");
 
-        kafkaTemplate.send(invoiceEventsTopic, invoiceId.toString(), event);
+        eventPublisher.publish(invoiceEventsTopic, invoiceId.toString(), event);
     }
 
     public void publishInvoicePaidEvent(UUID invoiceId, String invoiceNumber, UUID customerId,
@@ -78,7 +78,7 @@ public class EventProducer {
         event.setStatusChangedAt(java.time.LocalDateTime.now());
         event.setNotes("Payment received");
 
-        kafkaTemplate.send(invoiceEventsTopic, invoiceId.toString(), event);
+        eventPublisher.publish(invoiceEventsTopic, invoiceId.toString(), event);
     }
 
     public void publishInvoiceOverdueEvent(UUID invoiceId, String invoiceNumber, UUID customerId) {
@@ -92,7 +92,7 @@ public class EventProducer {
         event.setStatusChangedAt(java.time.LocalDateTime.now());
         event.setNotes("Invoice is overdue");
 
-        kafkaTemplate.send(invoiceEventsTopic, invoiceId.toString(), event);
+        eventPublisher.publish(invoiceEventsTopic, invoiceId.toString(), event);
     }
 
     public void publishInvoiceCancelledEvent(UUID invoiceId, String invoiceNumber, UUID customerId, String reason) {
@@ -106,6 +106,6 @@ public class EventProducer {
         event.setStatusChangedAt(java.time.LocalDateTime.now());
         event.setNotes(reason);
 
-        kafkaTemplate.send(invoiceEventsTopic, invoiceId.toString(), event);
+        eventPublisher.publish(invoiceEventsTopic, invoiceId.toString(), event);
     }
 }
@@ -0,0 +1,78 @@
+package com.couriersync.billing.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable interval tree over closed intervals, answering "which intervals contain this point"
+ * in O(log n + k). Intervals are kept sorted by lower bound in an implicit balanced tree where
+ * each node also stores the highest upper bound of its subtree.
+ */
+final class IntervalTree<T> {
+
+    private final double[] low;
+    private final double[] high;
+    private final double[] maxHigh;
+    private final List<T> values;
+
+    IntervalTree(List<T> items, ToDoubleFunction<T> lowBound, ToDoubleFunction<T> highBound) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingDouble(lowBound));
+
+        int size = sorted.size();
+        this.values = sorted;
+        this.low = new double[size];
+        this.high = new double[size];
+        this.maxHigh = new double[size];
+        for (int i = 0; i < size; i++) {
+            low[i] = lowBound.applyAsDouble(sorted.get(i));
+            high[i] = highBound.applyAsDouble(sorted.get(i));
+        }
+        computeMaxHigh(0, size);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    /**
+     * Passes every interval containing {@code point} (bounds inclusive) to the visitor.
+     */
+    void stab(double point, Consumer<T> visitor) {
+        stab(point, 0, values.size(), visitor);
+    }
+
+    private void stab(double point, int from, int to, Consumer<T> visitor) {
+        if (from >= to) {
+            return;
+        }
+
+        int mid = (from + to) >>> 1;
+        if (maxHigh[mid] < point) {
+            return;
+        }
+
+        stab(point, from, mid, visitor);
+        // Intervals to the right start at or after this one, so they can only match if it does
+        if (low[mid] <= point) {
+            if (high[mid] >= point) {
+                visitor.accept(values.get(mid));
+            }
+            stab(point, mid + 1, to, visitor);
+        }
+    }
+
+    private double computeMaxHigh(int from, int to) {
+        if (from >= to) {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        int mid = (from + to) >>> 1;
+        double max = Math.max(high[mid], Math.max(computeMaxHigh(from, mid), computeMaxHigh(mid + 1, to)));
+        maxHigh[mid] = max;
+        return max;
+    }
+}
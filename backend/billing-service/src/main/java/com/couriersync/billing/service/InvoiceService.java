@@ -4,11 +4,11 @@ import com.couriersync.billing.model.Invoice;
 import com.couriersync.billing.model.InvoiceItem;
 import com.couriersync.billing.repository.InvoiceRepository;
 import com.couriersync.billing.repository.InvoiceItemRepository;
+import com.couriersync.common.kafka.KafkaEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,7 +28,7 @@ public class InvoiceService {
     private final InvoiceRepository invoiceRepository;
     private final InvoiceItemRepository invoiceItemRepository;
     private final PricingService pricingService;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaEventPublisher eventPublisher;
 
     private static final String INVOICE_EVENTS_TOPIC = "billing.invoices";
 
@@ -93,7 +93,7 @@ public class InvoiceService {
         Invoice finalInvoice = invoiceRepository.save(savedInvoice);
 
         // Send to Kafka
-        kafkaTemplate.send(INVOICE_EVENTS_TOPIC, finalInvoice);
+        eventPublisher.publish(INVOICE_EVENTS_TOPIC, finalInvoice.getId().toString(), finalInvoice);
 
         log.info("Created invoice with ID: {} and number: {}", finalInvoice.getId(), invoiceNumber);
         return finalInvoice;
@@ -142,7 +142,7 @@ public class InvoiceService {
                     Invoice updatedInvoice = invoiceRepository.save(invoice);
 
                     // Send to Kafka
-                    kafkaTemplate.send(INVOICE_EVENTS_TOPIC, updatedInvoice);
+                    eventPublisher.publish(INVOICE_EVENTS_TOPIC, updatedInvoice.getId().toString(), updatedInvoice);
 
                     return updatedInvoice;
                 })
@@ -167,7 +167,7 @@ public class InvoiceService {
                     Invoice updatedInvoice = invoiceRepository.save(invoice);
 
                     // Send to Kafka
-                    kafkaTemplate.send(INVOICE_EVENTS_TOPIC, updatedInvoice);
+                    eventPublisher.publish(INVOICE_EVENTS_TOPIC, updatedInvoice.getId().toString(), updatedInvoice);
 
                     return updatedInvoice;
                 })
@@ -187,7 +187,7 @@ public class InvoiceService {
                     Invoice updatedInvoice = invoiceRepository.save(invoice);
 
                     // Send to Kafka
-                    kafkaTemplate.send(INVOICE_EVENTS_TOPIC, updatedInvoice);
+                    eventPublisher.publish(INVOICE_EVENTS_TOPIC, updatedInvoice.getId().toString(), updatedInvoice);
 
                     return updatedInvoice;
                 })
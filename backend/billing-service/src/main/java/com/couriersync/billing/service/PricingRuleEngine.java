@@ -0,0 +1,275 @@
+package com.couriersync.billing.service;
+
+import com.couriersync.billing.model.PricingRule;
+import com.couriersync.billing.repository.PricingRuleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory snapshot of the active pricing rules, so quotes are resolved without any database
+ * round trip. Rules are indexed by (rule type, customer, customer type, priority), with a null
+ * condition acting as a wildcard, and distance/weight ranges are held in interval trees.
+ *
+ * <p>The snapshot is immutable and swapped atomically: {@link PricingService} rebuilds it after
+ * every rule change, and it is reloaded periodically to pick up changes made on other nodes.
+ * It is loaded once before the application starts, which fails if the rules cannot be read, and
+ * quotes are refused rather than priced with default rates while no snapshot was loaded. A failed
+ * periodic reload keeps the current snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PricingRuleEngine {
+
+    private final PricingRuleRepository pricingRuleRepository;
+
+    // Null until the first load
+    private volatile Map<RuleKey, IntervalTree<CompiledRule>> rules;
+
+    @PostConstruct
+    public void initialize() {
+        reload();
+        log.info("Loaded {} active pricing rules", size());
+    }
+
+    @Scheduled(fixedDelayString = "${billing.pricing.rule-engine.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Failed to reload pricing rules, keeping the current snapshot", e);
+        }
+    }
+
+    /**
+     * Reloads all active rules from the database. Serialized so a slow rebuild cannot replace the
+     * result of a later one.
+     */
+    public synchronized void reload() {
+        List<PricingRule> activeRules = pricingRuleRepository.findByActive(true);
+        rules = compile(activeRules);
+        log.debug("Compiled {} active pricing rules", activeRules.size());
+    }
+
+    /**
+     * Returns the most specific active rule of the given type that applies: customer-specific
+     * rules win over customer-type rules, which win over global ones, and a rule for the exact
+     * priority wins over one for any priority. Among equally specific rules the most recently
+     * changed one is used.
+     *
+     * <p>Distance-based rule types (PER_KM_RATE, DISTANCE_SURCHARGE) match on {@code distanceKm}
+     * and WEIGHT_SURCHARGE on {@code weightKg}; range bounds are inclusive and such rules never
+     * match when the corresponding value is unknown.
+     */
+    public Optional<PricingRule> findApplicableRule(PricingRule.RuleType ruleType,
+                                                    UUID customerId,
+                                                    PricingRule.CustomerType customerType,
+                                                    PricingRule.PriorityLevel priorityLevel,
+                                                    Double distanceKm,
+                                                    Double weightKg,
+                                                    LocalDate date) {
+        return resolve(customerId, customerType, priorityLevel, date).find(ruleType, distanceKm, weightKg);
+    }
+
+    /**
+     * Resolves the rules that apply to a customer, customer type and priority on the given date,
+     * so quotes sharing them only have to match distance and weight ranges. The result is bound
+     * to the current snapshot and can be shared between threads.
+     *
+     * @throws IllegalStateException if the rules have not been loaded yet
+     */
+    public RuleSet resolve(UUID customerId,
+                           PricingRule.CustomerType customerType,
+                           PricingRule.PriorityLevel priorityLevel,
+                           LocalDate date) {
+        Map<RuleKey, IntervalTree<CompiledRule>> snapshot = rules;
+        if (snapshot == null) {
+            throw new IllegalStateException("Pricing rules have not been loaded");
+        }
+        Map<PricingRule.RuleType, List<IntervalTree<CompiledRule>>> buckets = new EnumMap<>(PricingRule.RuleType.class);
+        for (PricingRule.RuleType ruleType : PricingRule.RuleType.values()) {
+            List<IntervalTree<CompiledRule>> matching = new ArrayList<>();
+            // Most specific condition combination first
+            for (UUID customer : candidates(customerId)) {
+                for (PricingRule.CustomerType type : candidates(customerType)) {
+                    for (PricingRule.PriorityLevel priority : candidates(priorityLevel)) {
+                        IntervalTree<CompiledRule> bucket = snapshot.get(new RuleKey(ruleType, customer, type, priority));
+                        if (bucket != null) {
+                            matching.add(bucket);
+                        }
+                    }
+                }
+            }
+            if (!matching.isEmpty()) {
+                buckets.put(ruleType, matching);
+            }
+        }
+        return new RuleSet(buckets, date);
+    }
+
+    public int size() {
+        Map<RuleKey, IntervalTree<CompiledRule>> snapshot = rules;
+        return snapshot != null ? snapshot.values().stream().mapToInt(IntervalTree::size).sum() : 0;
+    }
+
+    static Map<RuleKey, IntervalTree<CompiledRule>> compile(List<PricingRule> activeRules) {
+        // Rank 0 is the most recently changed rule, used to break ties between equally specific rules
+        List<PricingRule> ordered = new ArrayList<>(activeRules);
+        ordered.sort(Comparator.comparing(PricingRuleEngine::lastChange, Comparator.nullsLast(Comparator.reverseOrder())));
+
+        Map<RuleKey, List<CompiledRule>> grouped = new HashMap<>();
+        for (int rank = 0; rank < ordered.size(); rank++) {
+            PricingRule rule = ordered.get(rank);
+            if (rule.getRuleType() == null || rule.getValue() == null) {
+                continue;
+            }
+
+            RuleKey key = new RuleKey(rule.getRuleType(), rule.getCustomerId(), rule.getCustomerType(),
+                    rule.getPriorityLevel());
+            grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(new CompiledRule(rule, rank));
+        }
+
+        Map<RuleKey, IntervalTree<CompiledRule>> compiled = new HashMap<>();
+        grouped.forEach((key, bucket) -> compiled.put(key,
+                new IntervalTree<>(bucket, compiledRule -> compiledRule.low, compiledRule -> compiledRule.high)));
+        return Map.copyOf(compiled);
+    }
+
+    private static CompiledRule firstMatch(List<IntervalTree<CompiledRule>> buckets, double point, LocalDate date) {
+        for (IntervalTree<CompiledRule> bucket : buckets) {
+            CompiledRule best = bestMatch(bucket, point, date);
+            if (best != null) {
+                return best;
+            }
+        }
+        return null;
+    }
+
+    private static CompiledRule bestMatch(IntervalTree<CompiledRule> bucket, double point, LocalDate date) {
+        CompiledRule[] best = new CompiledRule[1];
+        bucket.stab(point, candidate -> {
+            if (candidate.isValidOn(date) && (best[0] == null || candidate.rank < best[0].rank)) {
+                best[0] = candidate;
+            }
+        });
+        return best[0];
+    }
+
+    private static <T> List<T> candidates(T value) {
+        List<T> candidates = new ArrayList<>(2);
+        if (value != null) {
+            candidates.add(value);
+        }
+        candidates.add(null);
+        return candidates;
+    }
+
+    private static Dimension dimensionOf(PricingRule.RuleType ruleType) {
+        return switch (ruleType) {
+            case PER_KM_RATE, DISTANCE_SURCHARGE -> Dimension.DISTANCE;
+            case WEIGHT_SURCHARGE -> Dimension.WEIGHT;
+            default -> Dimension.NONE;
+        };
+    }
+
+    private enum Dimension {
+        NONE, DISTANCE, WEIGHT
+    }
+
+    private static LocalDateTime lastChange(PricingRule rule) {
+        return rule.getUpdatedAt() != null ? rule.getUpdatedAt() : rule.getCreatedAt();
+    }
+
+    /**
+     * Rules applying to one customer, customer type and priority on one date.
+     */
+    public static final class RuleSet {
+        private final Map<PricingRule.RuleType, List<IntervalTree<CompiledRule>>> buckets;
+        // Rules that do not depend on distance or weight are resolved up front
+        private final Map<PricingRule.RuleType, PricingRule> resolved = new EnumMap<>(PricingRule.RuleType.class);
+        private final LocalDate date;
+
+        private RuleSet(Map<PricingRule.RuleType, List<IntervalTree<CompiledRule>>> buckets, LocalDate date) {
+            this.buckets = buckets;
+            this.date = date;
+            buckets.forEach((ruleType, matching) -> {
+                if (dimensionOf(ruleType) == Dimension.NONE) {
+                    CompiledRule match = firstMatch(matching, 0.0, date);
+                    if (match != null) {
+                        resolved.put(ruleType, match.rule);
+                    }
+                }
+            });
+        }
+
+        public Optional<PricingRule> find(PricingRule.RuleType ruleType, Double distanceKm, Double weightKg) {
+            Double point;
+            switch (dimensionOf(ruleType)) {
+                case DISTANCE -> point = distanceKm;
+                case WEIGHT -> point = weightKg;
+                default -> {
+                    return Optional.ofNullable(resolved.get(ruleType));
+                }
+            }
+            if (point == null) {
+                return Optional.empty();
+            }
+
+            CompiledRule match = firstMatch(buckets.getOrDefault(ruleType, List.of()), point, date);
+            return match != null ? Optional.of(match.rule) : Optional.empty();
+        }
+    }
+
+    record RuleKey(PricingRule.RuleType ruleType,
+                   UUID customerId,
+                   PricingRule.CustomerType customerType,
+                   PricingRule.PriorityLevel priorityLevel) {
+    }
+
+    static final class CompiledRule {
+        private final PricingRule rule;
+        private final int rank;
+        private final double low;
+        private final double high;
+        private final LocalDate validFrom;
+        private final LocalDate validUntil;
+
+        private CompiledRule(PricingRule rule, int rank) {
+            this.rule = rule;
+            this.rank = rank;
+            this.validFrom = rule.getValidFrom();
+            this.validUntil = rule.getValidUntil();
+
+            Dimension dimension = dimensionOf(rule.getRuleType());
+            if (dimension == Dimension.DISTANCE) {
+                this.low = rule.getMinDistanceKm() != null ? rule.getMinDistanceKm().doubleValue() : Double.NEGATIVE_INFINITY;
+                this.high = rule.getMaxDistanceKm() != null ? rule.getMaxDistanceKm().doubleValue() : Double.POSITIVE_INFINITY;
+            } else if (dimension == Dimension.WEIGHT) {
+                this.low = rule.getMinWeightKg() != null ? rule.getMinWeightKg().doubleValue() : Double.NEGATIVE_INFINITY;
+                this.high = rule.getMaxWeightKg() != null ? rule.getMaxWeightKg().doubleValue() : Double.POSITIVE_INFINITY;
+            } else {
+                this.low = Double.NEGATIVE_INFINITY;
+                this.high = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        private boolean isValidOn(LocalDate date) {
+            return (validFrom == null || !validFrom.isAfter(date))
+                    && (validUntil == null || !validUntil.isBefore(date));
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.couriersync.billing.service;
 
+import com.couriersync.billing.model.PriceQuoteBatch;
+import com.couriersync.billing.model.PriceQuoteRequest;
 import com.couriersync.billing.model.PricingRule;
 import com.couriersync.billing.repository.PricingRuleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -12,8 +15,13 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +29,12 @@ import java.util.UUID;
 public class PricingService {
 
     private final PricingRuleRepository pricingRuleRepository;
+    private final PricingRuleEngine pricingRuleEngine;
+
+    private static final double DEFAULT_WEIGHT_KG = 1.0;
+
+    @Value("${billing.pricing.batch.max-size:10000}")
+    private int maxBatchSize;
 
     public PricingCalculation calculateDeliveryPrice(
             UUID customerId,
@@ -33,40 +47,88 @@ public class PricingService {
         log.debug("Calculating price for delivery: customer={}, type={}, priority={}, distance={}km, weight={}kg",
                 customerId, customerType, priorityLevel, distanceKm, weightKg);
 
-        PricingCalculation calculation = new PricingCalculation();
+        PricingRuleEngine.RuleSet rules = pricingRuleEngine.resolve(customerId, customerType, priorityLevel, LocalDate.now());
+        PricingCalculation calculation = calculate(rules, priorityLevel, distanceKm, weightKg, deliveryTime);
 
-        // Get applicable base rate
-        List<PricingRule> baseRateRules = pricingRuleRepository.findApplicableRules(
-                PricingRule.RuleType.BASE_RATE,
-                customerId,
-                customerType,
-                priorityLevel,
-                LocalDate.now());
-
-        if (baseRateRules.isEmpty()) {
-            // Use default base rate
-            calculation.setBaseRate(new BigDecimal("15.00"));
-        } else {
-            // Use the most specific rule (customer-specific > customer-type > global)
-            calculation.setBaseRate(baseRateRules.get(0).getValue());
+        log.debug("Calculated price: base={}, distance={}, urgent={}, afterHours={}, weekend={}, weight={}, extraDistance={}, subtotal={}, tax={}, total={}",
+                calculation.getBaseRate(), calculation.getDistanceCharge(), calculation.getUrgentSurcharge(),
+                calculation.getAfterHoursSurcharge(), calculation.getWeekendSurcharge(), calculation.getWeightSurcharge(),
+                calculation.getDistanceSurcharge(), calculation.getSubtotal(), calculation.getTaxAmount(), calculation.getTotal());
+
+        return calculation;
+    }
+
+    /**
+     * Prices a batch of deliveries. Rules are resolved once per distinct customer, customer type
+     * and priority, then the quotes are evaluated in parallel; quotes are returned in request order.
+     *
+     * @throws IllegalArgumentException if the batch is empty, too large, or a request has no distance
+     */
+    public PriceQuoteBatch calculateDeliveryPrices(List<PriceQuoteRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one quote request is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch holds at most " + maxBatchSize + " quote requests");
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i) == null || requests.get(i).getDistanceKm() == null) {
+                throw new IllegalArgumentException("Quote request " + i + " has no distance");
+            }
         }
 
-        // Get per-km rate
-        List<PricingRule> perKmRateRules = pricingRuleRepository.findApplicableRulesByDistance(
-                PricingRule.RuleType.PER_KM_RATE,
-                customerId,
-                customerType,
-                priorityLevel,
-                distanceKm,
-                LocalDate.now());
-
-        if (perKmRateRules.isEmpty()) {
-            // Use default per-km rate
-            calculation.setPerKmRate(new BigDecimal("1.20"));
-        } else {
-            // Use the most specific rule
-            calculation.setPerKmRate(perKmRateRules.get(0).getValue());
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<QuoteKey, PricingRuleEngine.RuleSet> ruleSets = new HashMap<>();
+        PricingRuleEngine.RuleSet[] requestRules = new PricingRuleEngine.RuleSet[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            QuoteKey key = QuoteKey.of(requests.get(i));
+            requestRules[i] = ruleSets.computeIfAbsent(key, k -> pricingRuleEngine.resolve(
+                    k.customerId(), k.customerType(), k.priorityLevel(), today));
         }
+        long resolvedAt = System.nanoTime();
+
+        List<PricingCalculation> quotes = IntStream.range(0, requests.size())
+                .parallel()
+                .mapToObj(i -> {
+                    PriceQuoteRequest request = requests.get(i);
+                    return calculate(requestRules[i],
+                            QuoteKey.of(request).priorityLevel(),
+                            request.getDistanceKm(),
+                            request.getWeightKg() != null ? request.getWeightKg() : DEFAULT_WEIGHT_KG,
+                            request.getDeliveryTime() != null ? request.getDeliveryTime() : now);
+                })
+                .toList();
+        long evaluatedAt = System.nanoTime();
+
+        PriceQuoteBatch batch = PriceQuoteBatch.builder()
+                .quotes(quotes)
+                .ruleSets(ruleSets.size())
+                .ruleResolutionMs((resolvedAt - start) / 1_000_000.0)
+                .evaluationMs((evaluatedAt - resolvedAt) / 1_000_000.0)
+                .totalMs((evaluatedAt - start) / 1_000_000.0)
+                .build();
+        log.debug("Calculated {} quotes with {} rule sets in {} ms", quotes.size(), ruleSets.size(), batch.getTotalMs());
+        return batch;
+    }
+
+    private PricingCalculation calculate(PricingRuleEngine.RuleSet rules,
+                                         PricingRule.PriorityLevel priorityLevel,
+                                         Double distanceKm,
+                                         Double weightKg,
+                                         LocalDateTime deliveryTime) {
+        PricingCalculation calculation = new PricingCalculation();
+        Function<PricingRule.RuleType, Optional<BigDecimal>> ruleValue = ruleType -> rules
+                .find(ruleType, distanceKm, weightKg)
+                .map(PricingRule::getValue);
+
+        // Use the most specific rule (customer-specific > customer-type > global), or the default
+        calculation.setBaseRate(ruleValue.apply(PricingRule.RuleType.BASE_RATE)
+                .orElse(new BigDecimal("15.00")));
+        calculation.setPerKmRate(ruleValue.apply(PricingRule.RuleType.PER_KM_RATE)
+                .orElse(new BigDecimal("1.20")));
 
         // Calculate distance charge
         BigDecimal distanceCharge = calculation.getPerKmRate()
@@ -76,19 +138,8 @@ public class PricingService {
 
         // Check for priority surcharges
         if (priorityLevel == PricingRule.PriorityLevel.URGENT) {
-            List<PricingRule> urgentRules = pricingRuleRepository.findApplicableRules(
-                    PricingRule.RuleType.URGENT_SURCHARGE,
-                    customerId,
-                    customerType,
-                    priorityLevel,
-                    LocalDate.now());
-
-            if (!urgentRules.isEmpty()) {
-                calculation.setUrgentSurcharge(urgentRules.get(0).getValue());
-            } else {
-                // Use default urgent surcharge
-                calculation.setUrgentSurcharge(new BigDecimal("5.00"));
-            }
+            calculation.setUrgentSurcharge(ruleValue.apply(PricingRule.RuleType.URGENT_SURCHARGE)
+                    .orElse(new BigDecimal("5.00")));
         }
 
         // Check for after-hours surcharge
@@ -97,19 +148,8 @@ public class PricingService {
                               deliveryTimeTime.isAfter(LocalTime.of(18, 0));
 
         if (isAfterHours) {
-            List<PricingRule> afterHoursRules = pricingRuleRepository.findApplicableRules(
-                    PricingRule.RuleType.AFTER_HOURS_SURCHARGE,
-                    customerId,
-                    customerType,
-                    priorityLevel,
-                    LocalDate.now());
-
-            if (!afterHoursRules.isEmpty()) {
-                calculation.setAfterHoursSurcharge(afterHoursRules.get(0).getValue());
-            } else {
-                // Use default after-hours surcharge
-                calculation.setAfterHoursSurcharge(new BigDecimal("7.50"));
-            }
+            calculation.setAfterHoursSurcharge(ruleValue.apply(PricingRule.RuleType.AFTER_HOURS_SURCHARGE)
+                    .orElse(new BigDecimal("7.50")));
         }
 
         // Check for weekend surcharge
@@ -117,49 +157,18 @@ public class PricingService {
         boolean isWeekend = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
 
         if (isWeekend) {
-            List<PricingRule> weekendRules = pricingRuleRepository.findApplicableRules(
-                    PricingRule.RuleType.WEEKEND_SURCHARGE,
-                    customerId,
-                    customerType,
-                    priorityLevel,
-                    LocalDate.now());
-
-            if (!weekendRules.isEmpty()) {
-                calculation.setWeekendSurcharge(weekendRules.get(0).getValue());
-            } else {
-                // Use default weekend surcharge
-                calculation.setWeekendSurcharge(new BigDecimal("10.00"));
-            }
+            calculation.setWeekendSurcharge(ruleValue.apply(PricingRule.RuleType.WEEKEND_SURCHARGE)
+                    .orElse(new BigDecimal("10.00")));
         }
 
         // Check for weight surcharge
-        if (weightKg > 10.0) { // Example threshold
-            List<PricingRule> weightRules = pricingRuleRepository.findApplicableRulesByWeight(
-                    PricingRule.RuleType.WEIGHT_SURCHARGE,
-                    customerId,
-                    customerType,
-                    priorityLevel,
-                    weightKg,
-                    LocalDate.now());
-
-            if (!weightRules.isEmpty()) {
-                calculation.setWeightSurcharge(weightRules.get(0).getValue());
-            }
+        if (weightKg != null && weightKg > 10.0) { // Example threshold
+            ruleValue.apply(PricingRule.RuleType.WEIGHT_SURCHARGE).ifPresent(calculation::setWeightSurcharge);
         }
 
         // Check for distance surcharge
         if (distanceKm > 50.0) { // Example threshold
-            List<PricingRule> distanceRules = pricingRuleRepository.findApplicableRulesByDistance(
-                    PricingRule.RuleType.DISTANCE_SURCHARGE,
-                    customerId,
-                    customerType,
-                    priorityLevel,
-                    distanceKm,
-                    LocalDate.now());
-
-            if (!distanceRules.isEmpty()) {
-                calculation.setDistanceSurcharge(distanceRules.get(0).getValue());
-            }
+            ruleValue.apply(PricingRule.RuleType.DISTANCE_SURCHARGE).ifPresent(calculation::setDistanceSurcharge);
         }
 
         // Calculate subtotal
@@ -181,11 +190,6 @@ public class PricingService {
         BigDecimal total = subtotal.add(taxAmount);
         calculation.setTotal(total);
 
-        log.debug("Calculated price: base={}, distance={}, urgent={}, afterHours={}, weekend={}, weight={}, extraDistance={}, subtotal={}, tax={}, total={}",
-                calculation.getBaseRate(), calculation.getDistanceCharge(), calculation.getUrgentSurcharge(),
-                calculation.getAfterHoursSurcharge(), calculation.getWeekendSurcharge(), calculation.getWeightSurcharge(),
-                calculation.getDistanceSurcharge(), calculation.getSubtotal(), calculation.getTaxAmount(), calculation.getTotal());
-
         return calculation;
     }
 
@@ -203,12 +207,14 @@ public class PricingService {
 
     public PricingRule createRule(PricingRule rule) {
         log.info("Creating new pricing rule: {}", rule.getName());
-        return pricingRuleRepository.save(rule);
+        PricingRule savedRule = pricingRuleRepository.save(rule);
+        pricingRuleEngine.reload();
+        return savedRule;
     }
 
     public PricingRule updateRule(UUID id, PricingRule ruleDetails) {
         log.info("Updating pricing rule with ID: {}", id);
-        return pricingRuleRepository.findById(id)
+        PricingRule updatedRule = pricingRuleRepository.findById(id)
                 .map(rule -> {
                     rule.setName(ruleDetails.getName());
                     rule.setDescription(ruleDetails.getDescription());
@@ -231,6 +237,8 @@ public class PricingService {
                     return pricingRuleRepository.save(rule);
                 })
                 .orElseThrow(() -> new RuntimeException("Pricing rule not found with ID: " + id));
+        pricingRuleEngine.reload();
+        return updatedRule;
     }
 
     public void deleteRule(UUID id) {
@@ -239,6 +247,19 @@ public class PricingService {
             throw new RuntimeException("Pricing rule not found with ID: " + id);
         }
         pricingRuleRepository.deleteById(id);
+        pricingRuleEngine.reload();
+    }
+
+    private record QuoteKey(UUID customerId,
+                            PricingRule.CustomerType customerType,
+                            PricingRule.PriorityLevel priorityLevel) {
+
+        // Same defaults as the single quote endpoint
+        private static QuoteKey of(PriceQuoteRequest request) {
+            return new QuoteKey(request.getCustomerId(),
+                    request.getCustomerType() != null ? request.getCustomerType() : PricingRule.CustomerType.INDIVIDUAL,
+                    request.getPriorityLevel() != null ? request.getPriorityLevel() : PricingRule.PriorityLevel.NORMAL);
+        }
     }
 
     public static class PricingCalculation {
@@ -0,0 +1,181 @@
+package com.couriersync.billing.service;
+
+import com.couriersync.billing.model.PricingRule;
+import com.couriersync.billing.repository.PricingRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PricingRuleEngineTest {
+
+    @Mock
+    private PricingRuleRepository pricingRuleRepository;
+
+    @InjectMocks
+    private PricingRuleEngine pricingRuleEngine;
+
+    private UUID customerId;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        customerId = UUID.randomUUID();
+        today = LocalDate.now();
+    }
+
+    @Test
+    void testMostSpecificRuleWins() {
+        // Given
+        PricingRule global = rule(PricingRule.RuleType.BASE_RATE, "15.00");
+        PricingRule businessRule = rule(PricingRule.RuleType.BASE_RATE, "12.00");
+        businessRule.setCustomerType(PricingRule.CustomerType.BUSINESS);
+        PricingRule customerRule = rule(PricingRule.RuleType.BASE_RATE, "10.00");
+        customerRule.setCustomerId(customerId);
+        load(global, businessRule, customerRule);
+
+        // When
+        Optional<PricingRule> forCustomer = find(PricingRule.RuleType.BASE_RATE, customerId, 10.0, 1.0);
+        Optional<PricingRule> forOtherCustomer = find(PricingRule.RuleType.BASE_RATE, UUID.randomUUID(), 10.0, 1.0);
+
+        // Then
+        assertEquals(customerRule, forCustomer.get());
+        assertEquals(businessRule, forOtherCustomer.get());
+    }
+
+    @Test
+    void testDistanceRangeIsInclusive() {
+        // Given
+        PricingRule shortRange = rule(PricingRule.RuleType.PER_KM_RATE, "1.50");
+        shortRange.setMaxDistanceKm(new BigDecimal("10"));
+        PricingRule longRange = rule(PricingRule.RuleType.PER_KM_RATE, "1.00");
+        longRange.setMinDistanceKm(new BigDecimal("10.01"));
+        load(shortRange, longRange);
+
+        // When / Then
+        assertEquals(shortRange, find(PricingRule.RuleType.PER_KM_RATE, customerId, 10.0, 1.0).get());
+        assertEquals(longRange, find(PricingRule.RuleType.PER_KM_RATE, customerId, 25.0, 1.0).get());
+    }
+
+    @Test
+    void testWeightRangeMatchesOnWeight() {
+        // Given
+        PricingRule heavy = rule(PricingRule.RuleType.WEIGHT_SURCHARGE, "8.00");
+        heavy.setMinWeightKg(new BigDecimal("20"));
+        load(heavy);
+
+        // When / Then
+        assertTrue(find(PricingRule.RuleType.WEIGHT_SURCHARGE, customerId, 100.0, 15.0).isEmpty());
+        assertEquals(heavy, find(PricingRule.RuleType.WEIGHT_SURCHARGE, customerId, 1.0, 25.0).get());
+    }
+
+    @Test
+    void testExpiredRuleIsIgnored() {
+        // Given
+        PricingRule expired = rule(PricingRule.RuleType.BASE_RATE, "9.00");
+        expired.setCustomerId(customerId);
+        expired.setValidUntil(today.minusDays(1));
+        PricingRule global = rule(PricingRule.RuleType.BASE_RATE, "15.00");
+        load(expired, global);
+
+        // When
+        Optional<PricingRule> result = find(PricingRule.RuleType.BASE_RATE, customerId, 10.0, 1.0);
+
+        // Then
+        assertEquals(global, result.get());
+    }
+
+    @Test
+    void testMostRecentlyChangedRuleWinsBetweenEquallySpecificRules() {
+        // Given
+        PricingRule older = rule(PricingRule.RuleType.BASE_RATE, "15.00");
+        older.setCreatedAt(LocalDateTime.now().minusDays(2));
+        PricingRule newer = rule(PricingRule.RuleType.BASE_RATE, "16.00");
+        newer.setCreatedAt(LocalDateTime.now().minusDays(3));
+        newer.setUpdatedAt(LocalDateTime.now().minusDays(1));
+        load(older, newer);
+
+        // When
+        Optional<PricingRule> result = find(PricingRule.RuleType.BASE_RATE, customerId, 10.0, 1.0);
+
+        // Then
+        assertEquals(newer, result.get());
+    }
+
+    @Test
+    void testReloadReplacesSnapshot() {
+        // Given
+        load(rule(PricingRule.RuleType.BASE_RATE, "15.00"));
+        when(pricingRuleRepository.findByActive(true)).thenReturn(List.of());
+
+        // When
+        pricingRuleEngine.reload();
+
+        // Then
+        assertEquals(0, pricingRuleEngine.size());
+        assertTrue(find(PricingRule.RuleType.BASE_RATE, customerId, 10.0, 1.0).isEmpty());
+    }
+
+    @Test
+    void testRefusesToResolveBeforeFirstLoad() {
+        assertThrows(IllegalStateException.class,
+                () -> find(PricingRule.RuleType.BASE_RATE, customerId, 10.0, 1.0));
+    }
+
+    @Test
+    void testStartupFailsWhenRulesCannotBeLoaded() {
+        // Given
+        when(pricingRuleRepository.findByActive(true)).thenThrow(new RuntimeException("database unavailable"));
+
+        // When / Then
+        assertThrows(RuntimeException.class, () -> pricingRuleEngine.initialize());
+    }
+
+    @Test
+    void testFailedRefreshKeepsCurrentSnapshot() {
+        // Given
+        PricingRule baseRate = rule(PricingRule.RuleType.BASE_RATE, "15.00");
+        load(baseRate);
+        when(pricingRuleRepository.findByActive(true)).thenThrow(new RuntimeException("database unavailable"));
+
+        // When
+        pricingRuleEngine.refresh();
+
+        // Then
+        assertEquals(baseRate, find(PricingRule.RuleType.BASE_RATE, customerId, 10.0, 1.0).get());
+    }
+
+    private void load(PricingRule... rules) {
+        when(pricingRuleRepository.findByActive(true)).thenReturn(List.of(rules));
+        pricingRuleEngine.reload();
+    }
+
+    private Optional<PricingRule> find(PricingRule.RuleType ruleType, UUID customerId, Double distanceKm, Double weightKg) {
+        return pricingRuleEngine.findApplicableRule(ruleType, customerId, PricingRule.CustomerType.BUSINESS,
+                PricingRule.PriorityLevel.NORMAL, distanceKm, weightKg, today);
+    }
+
+    private PricingRule rule(PricingRule.RuleType ruleType, String value) {
+        return PricingRule.builder()
+                .id(UUID.randomUUID())
+                .name(ruleType.name())
+                .ruleType(ruleType)
+                .value(new BigDecimal(value))
+                .active(true)
+                .createdAt(LocalDateTime.now().minusDays(7))
+                .build();
+    }
+}
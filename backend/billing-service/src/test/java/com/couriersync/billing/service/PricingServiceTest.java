@@ -0,0 +1,144 @@
+package com.couriersync.billing.service;
+
+import com.couriersync.billing.model.PriceQuoteBatch;
+import com.couriersync.billing.model.PriceQuoteRequest;
+import com.couriersync.billing.model.PricingRule;
+import com.couriersync.billing.repository.PricingRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PricingServiceTest {
+
+    @Mock
+    private PricingRuleRepository pricingRuleRepository;
+
+    private PricingRuleEngine pricingRuleEngine;
+    private PricingService pricingService;
+    private UUID customerId;
+    private LocalDateTime weekdayNoon;
+
+    @BeforeEach
+    void setUp() {
+        pricingRuleEngine = spy(new PricingRuleEngine(pricingRuleRepository));
+        pricingService = new PricingService(pricingRuleRepository, pricingRuleEngine);
+        ReflectionTestUtils.setField(pricingService, "maxBatchSize", 100);
+        customerId = UUID.randomUUID();
+        weekdayNoon = LocalDateTime.of(2024, 6, 12, 12, 0);
+    }
+
+    @Test
+    void testCalculateDeliveryPriceUsesMostSpecificRule() {
+        // Given
+        PricingRule customerBaseRate = rule(PricingRule.RuleType.BASE_RATE, "10.00");
+        customerBaseRate.setCustomerId(customerId);
+        loadRules(rule(PricingRule.RuleType.BASE_RATE, "20.00"), customerBaseRate);
+
+        // When
+        PricingService.PricingCalculation calculation = pricingService.calculateDeliveryPrice(customerId,
+                PricingRule.CustomerType.BUSINESS, PricingRule.PriorityLevel.NORMAL, 10.0, 1.0, weekdayNoon);
+
+        // Then
+        assertEquals(new BigDecimal("10.00"), calculation.getBaseRate());
+        assertEquals(new BigDecimal("12.00"), calculation.getDistanceCharge());
+        assertEquals(new BigDecimal("24.20"), calculation.getTotal());
+        verify(pricingRuleRepository, never()).findApplicableRules(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testBatchReturnsQuotesInRequestOrder() {
+        // Given
+        loadRules();
+        List<PriceQuoteRequest> requests = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            requests.add(quote(customerId, (double) i));
+        }
+
+        // When
+        PriceQuoteBatch batch = pricingService.calculateDeliveryPrices(requests);
+
+        // Then
+        assertEquals(50, batch.getQuotes().size());
+        for (int i = 0; i < 50; i++) {
+            BigDecimal expectedDistanceCharge = new BigDecimal("1.20").multiply(BigDecimal.valueOf(i + 1))
+                    .setScale(2);
+            assertEquals(expectedDistanceCharge, batch.getQuotes().get(i).getDistanceCharge());
+        }
+    }
+
+    @Test
+    void testBatchResolvesRulesOncePerKey() {
+        // Given
+        loadRules();
+        UUID otherCustomerId = UUID.randomUUID();
+        List<PriceQuoteRequest> requests = List.of(
+                quote(customerId, 5.0), quote(otherCustomerId, 6.0), quote(customerId, 7.0), quote(customerId, 8.0));
+
+        // When
+        PriceQuoteBatch batch = pricingService.calculateDeliveryPrices(requests);
+
+        // Then
+        assertEquals(2, batch.getRuleSets());
+        verify(pricingRuleEngine, times(2)).resolve(any(), any(), any(), any());
+    }
+
+    @Test
+    void testBatchRejectsRequestWithoutDistance() {
+        // Given
+        List<PriceQuoteRequest> requests = List.of(quote(customerId, 5.0), quote(customerId, null));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> pricingService.calculateDeliveryPrices(requests));
+    }
+
+    @Test
+    void testBatchRejectsOversizedBatch() {
+        // Given
+        List<PriceQuoteRequest> requests = Collections.nCopies(101, quote(customerId, 5.0));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> pricingService.calculateDeliveryPrices(requests));
+    }
+
+    private void loadRules(PricingRule... rules) {
+        when(pricingRuleRepository.findByActive(true)).thenReturn(List.of(rules));
+        pricingRuleEngine.reload();
+    }
+
+    private PriceQuoteRequest quote(UUID customerId, Double distanceKm) {
+        return PriceQuoteRequest.builder()
+                .customerId(customerId)
+                .customerType(PricingRule.CustomerType.BUSINESS)
+                .priorityLevel(PricingRule.PriorityLevel.NORMAL)
+                .distanceKm(distanceKm)
+                .weightKg(1.0)
+                .deliveryTime(weekdayNoon)
+                .build();
+    }
+
+    private PricingRule rule(PricingRule.RuleType ruleType, String value) {
+        return PricingRule.builder()
+                .id(UUID.randomUUID())
+                .name(ruleType.name())
+                .ruleType(ruleType)
+                .value(new BigDecimal(value))
+                .active(true)
+                .createdAt(LocalDateTime.now().minusDays(1))
+                .build();
+    }
+}
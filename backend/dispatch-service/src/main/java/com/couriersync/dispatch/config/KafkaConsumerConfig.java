@@ -0,0 +1,37 @@
+package com.couriersync.dispatch.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Batch listener factory for the high-volume location events topic. Each poll is handed to
+     * the listener as one list, one consumer thread per partition up to the configured
+     * concurrency, and offsets are committed only once the listener has returned. A failing
+     * batch is retried before being logged and skipped.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> locationEventsListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${dispatch.location-events.concurrency:3}") int concurrency,
+            @Value("${dispatch.location-events.retry-interval-ms:1000}") long retryIntervalMs,
+            @Value("${dispatch.location-events.max-retries:3}") long maxRetries) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(retryIntervalMs, maxRetries)));
+        return factory;
+    }
+}
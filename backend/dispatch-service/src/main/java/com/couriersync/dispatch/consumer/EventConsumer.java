@@ -3,6 +3,7 @@ package com.couriersync.dispatch.consumer;
 import com.couriersync.common.events.DeliveryEvent;
 import com.couriersync.common.events.LocationUpdateEvent;
 import com.couriersync.dispatch.model.DeliveryOrder;
+import com.couriersync.dispatch.model.DriverLocation;
 import com.couriersync.dispatch.service.DeliveryOrderService;
 import com.couriersync.dispatch.service.DriverService;
 import lombok.RequiredArgsConstructor;
@@ -11,7 +12,11 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -65,21 +70,47 @@ public class EventConsumer {
         }
     }
 
-    @KafkaListener(topics = "${app.kafka.topics.location-events}", groupId = "${spring.application.name}")
-    public void handleLocationUpdateEvent(@Payload LocationUpdateEvent event) {
-        log.debug("Received location update event for driver: {}", event.getDriverId());
+    /**
+     * Consumes location events one poll at a time. Only the latest position of each driver in
+     * the batch is kept, and exceptions are not swallowed so that the offsets are committed only
+     * once the positions are in the database.
+     */
+    @KafkaListener(topics = "${app.kafka.topics.location-events}", groupId = "${spring.application.name}",
+            containerFactory = "locationEventsListenerContainerFactory",
+            properties = "max.poll.records=${dispatch.location-events.max-poll-records:500}")
+    public void handleLocationUpdateEvents(@Payload List<LocationUpdateEvent> events) {
+        log.debug("Received batch of {} location update events", events.size());
 
-        try {
-            // Update driver location
-            if (event.getDriverId() != null && event.getLatitude() != null && event.getLongitude() != null) {
-                driverService.updateDriverLocation(
-                        event.getDriverId(), 
-                        event.getLatitude(), 
-                        event.getLongitude()
-                );
+        Map<UUID, LocationUpdateEvent> latestByDriver = new LinkedHashMap<>();
+        for (LocationUpdateEvent event : events) {
+            // Records that failed deserialization arrive as null
+            if (event == null || event.getDriverId() == null
+                    || event.getLatitude() == null || event.getLongitude() == null) {
+                continue;
             }
-        } catch (Exception e) {
-            log.error("Error processing location update event: {}", event, e);
+            latestByDriver.merge(event.getDriverId(), event, (current, candidate) ->
+                    isOlder(candidate, current) ? current : candidate);
+        }
+
+        if (latestByDriver.isEmpty()) {
+            return;
         }
+
+        List<DriverLocation> locations = new ArrayList<>(latestByDriver.size());
+        for (LocationUpdateEvent event : latestByDriver.values()) {
+            locations.add(DriverLocation.builder()
+                    .driverId(event.getDriverId())
+                    .latitude(event.getLatitude())
+                    .longitude(event.getLongitude())
+                    .timestamp(event.getTimestamp())
+                    .build());
+        }
+        driverService.saveDriverLocations(locations);
+    }
+
+    // Records of a partition arrive in order; only an explicitly older timestamp loses
+    private boolean isOlder(LocationUpdateEvent candidate, LocationUpdateEvent current) {
+        return candidate.getTimestamp() != null && current.getTimestamp() != null
+                && candidate.getTimestamp().isBefore(current.getTimestamp());
     }
 }
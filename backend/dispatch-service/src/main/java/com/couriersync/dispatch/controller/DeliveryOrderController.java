@@ -1,7 +1,9 @@
 package com.couriersync.dispatch.controller;
 
+import com.couriersync.dispatch.model.AssignmentRoundResult;
 import com.couriersync.dispatch.model.DeliveryOrder;
 import com.couriersync.dispatch.service.DeliveryOrderService;
+import com.couriersync.dispatch.service.DriverAssignmentEngine;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -32,6 +34,7 @@ import java.util.UUID;
 public class DeliveryOrderController {
 
     private final DeliveryOrderService deliveryOrderService;
+    private final DriverAssignmentEngine driverAssignmentEngine;
 
     @PostMapping
     @Operation(summary = "Create a new delivery order")
@@ -162,6 +165,18 @@ public class DeliveryOrderController {
         }
     }
 
+    @PostMapping("/auto-assign")
+    @Operation(summary = "Run an automatic assignment round for open delivery orders")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Assignment round completed",
+                content = @Content(schema = @Schema(implementation = AssignmentRoundResult.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER')")
+    public ResponseEntity<AssignmentRoundResult> runAutoAssignment() {
+        return ResponseEntity.ok(driverAssignmentEngine.runAssignmentRound());
+    }
+
     @PutMapping("/{id}/status")
     @Operation(summary = "Update delivery order status")
     @ApiResponses(value = {
@@ -0,0 +1,74 @@
+package com.couriersync.dispatch.controller;
+
+import com.couriersync.dispatch.model.Driver;
+import com.couriersync.dispatch.model.DriverLocation;
+import com.couriersync.dispatch.model.NearbyDriver;
+import com.couriersync.dispatch.service.DriverService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/drivers")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Driver API", description = "API for querying delivery drivers")
+@SecurityRequirement(name = "bearerAuth")
+public class DriverController {
+
+    private final DriverService driverService;
+
+    @GetMapping("/{id}/location")
+    @Operation(summary = "Get the current location of a driver")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Driver location found",
+                content = @Content(schema = @Schema(implementation = DriverLocation.class))),
+        @ApiResponse(responseCode = "404", description = "Driver or location not found"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER') or @driverAuthorizationGuard.canAccessDriver(#id)")
+    public ResponseEntity<DriverLocation> getCurrentLocation(
+            @Parameter(description = "Driver ID") @PathVariable UUID id) {
+        return driverService.getCurrentLocation(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/nearest")
+    @Operation(summary = "Find the nearest available drivers around a point")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Nearest drivers retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid coordinates, radius or limit"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER')")
+    public ResponseEntity<List<NearbyDriver>> findNearestAvailableDrivers(
+            @Parameter(description = "Latitude of the search point") @RequestParam BigDecimal latitude,
+            @Parameter(description = "Longitude of the search point") @RequestParam BigDecimal longitude,
+            @Parameter(description = "Search radius in km") @RequestParam(defaultValue = "5") double radiusKm,
+            @Parameter(description = "Required vehicle type") @RequestParam(required = false) Driver.VehicleType vehicleType,
+            @Parameter(description = "Maximum number of drivers") @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<NearbyDriver> drivers = driverService.findNearestAvailableDrivers(
+                    latitude, longitude, radiusKm, vehicleType, limit);
+            return ResponseEntity.ok(drivers);
+        } catch (IllegalArgumentException e) {
+            log.debug("Rejected nearest driver query: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.couriersync.dispatch.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one automatic assignment round.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignmentRoundResult {
+
+    private int openOrders;
+
+    private int candidateDrivers;
+
+    private int matched;
+
+    private int assigned;
+
+    private long scoringMs;
+
+    private long solvingMs;
+
+    private long totalMs;
+}
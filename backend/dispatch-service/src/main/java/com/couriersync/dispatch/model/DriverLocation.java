@@ -0,0 +1,28 @@
+package com.couriersync.dispatch.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Current position of a driver, either still pending in the write buffer or read from the database.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverLocation {
+
+    private UUID driverId;
+
+    private BigDecimal latitude;
+
+    private BigDecimal longitude;
+
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,32 @@
+package com.couriersync.dispatch.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Available driver returned by a nearest-driver lookup, read from the in-memory driver index.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyDriver {
+
+    private UUID driverId;
+
+    private Driver.VehicleType vehicleType;
+
+    private BigDecimal latitude;
+
+    private BigDecimal longitude;
+
+    private LocalDateTime lastLocationUpdate;
+
+    private BigDecimal distanceKm;
+}
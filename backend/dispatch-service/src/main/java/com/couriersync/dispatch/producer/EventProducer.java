@@ -1,10 +1,10 @@
 package com.couriersync.dispatch.producer;
 
 import com.couriersync.common.events.DeliveryEvent;
+import com.couriersync.common.kafka.KafkaEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
@@ -14,7 +14,7 @@ import java.util.UUID;
 @Slf4j
 public class EventProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaEventPublisher eventPublisher;
 
     @Value("${app.kafka.topics.delivery-events}")
     private String deliveryEventsTopic;
@@ -28,7 +28,7 @@ public class EventProducer {
         event.setCustomerId(customerId);
         event.setStatus(DeliveryEvent.DeliveryStatus.CREATED);
 
-        kafkaTemplate.send(deliveryEventsTopic, deliveryId.toString(), event);
+        eventPublisher.publish(deliveryEventsTopic, deliveryId.toString(), event);
     }
 
     public void publishDeliveryStatusUpdatedEvent(UUID deliveryId, String orderNumber, UUID customerId, 
@@ -45,7 +45,7 @@ public class EventProducer {
         event.setStatusChangedAt(java.time.LocalDateTime.now());
         event.setStatusChangeReason(reason);
 
-        kafkaTemplate.send(deliveryEventsTopic, deliveryId.toString(), event);
+        eventPublisher.publish(deliveryEventsTopic, deliveryId.toString(), event);
     }
 
     public void publishDeliveryAssignedEvent(UUID deliveryId, String orderNumber, UUID customerId, UUID driverId) {
@@ -60,7 +60,7 @@ public class EventProducer {
         event.setStatusChangedAt(java.time.LocalDateTime.now());
         event.setStatusChangeReason("Delivery assigned to driver");
 
-        kafkaTemplate.send(deliveryEventsTopic, deliveryId.toString(), event);
+        eventPublisher.publish(deliveryEventsTopic, deliveryId.toString(), event);
     }
 
     public void publishDeliveryPickedUpEvent(UUID deliveryId, String orderNumber, UUID customerId, UUID driverId) {
@@ -76,7 +76,7 @@ public class EventProducer {
         event.setStatusChangeReason("Package picked up from sender");
         event.setActualPickupTime(java.time.LocalDateTime.now());
 
-        kafkaTemplate.send(deliveryEventsTopic, deliveryId.toString(), event);
+        eventPublisher.publish(deliveryEventsTopic, deliveryId.toString(), event);
     }
 
     public void publishDeliveryInTransitEvent(UUID deliveryId, String orderNumber, UUID customerId, UUID driverId) {
@@ -91,7 +91,7 @@ public class EventProducer {
         event.setStatusChangedAt(java.time.LocalDateTime.now());
         event.setStatusChangeReason("Package in transit to recipient");
 
-        kafkaTemplate.send(deliveryEventsTopic, deliveryId.toString(), event);
+        eventPublisher.publish(deliveryEventsTopic, deliveryId.toString(), event);
     }
 
     public void publishDeliveryDeliveredEvent(UUID deliveryId, String orderNumber, UUID customerId, UUID driverId) {
@@ -107,7 +107,7 @@ public class EventProducer {
         event.setStatusChangeReason("Package delivered to recipient");
         event.setActualDeliveryTime(java.time.LocalDateTime.now());
 
-        kafkaTemplate.send(deliveryEventsTopic, deliveryId.toString(), event);
+        eventPublisher.publish(deliveryEventsTopic, deliveryId.toString(), event);
     }
 
     public void publishDeliveryCancelledEvent(UUID deliveryId, String orderNumber, UUID customerId, UUID driverId, String reason) {
@@ -123,6 +123,6 @@ public class EventProducer {
         event.setStatusChangeReason(reason);
         event.setNotes(reason);
 
-        kafkaTemplate.send(deliveryEventsTopic, deliveryId.toString(), event);
+        eventPublisher.publish(deliveryEventsTopic, deliveryId.toString(), event);
     }
 }
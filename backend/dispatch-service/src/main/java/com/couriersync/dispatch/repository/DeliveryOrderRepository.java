@@ -4,6 +4,7 @@ import com.couriersync.dispatch.model.DeliveryOrder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -39,4 +40,26 @@ public interface DeliveryOrderRepository extends JpaRepository<DeliveryOrder, UU
 
     @Query("SELECT COUNT(d) FROM DeliveryOrder d WHERE d.status = :status")
     long countByStatus(@Param("status") DeliveryOrder.Status status);
+
+    /**
+     * Number of orders per driver in the given statuses, as (driverId, count) rows.
+     */
+    @Query("SELECT d.assignedDriverId, COUNT(d) FROM DeliveryOrder d "
+            + "WHERE d.assignedDriverId IS NOT NULL AND d.status IN :statuses GROUP BY d.assignedDriverId")
+    List<Object[]> countByDriverIdAndStatusIn(@Param("statuses") List<DeliveryOrder.Status> statuses);
+
+    /**
+     * Assigns the driver only if the order is still CREATED and unassigned, so concurrent
+     * assignments of the same order cannot both succeed.
+     *
+     * @return 1 if the order was assigned, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE DeliveryOrder d SET d.assignedDriverId = :driverId, d.assignedAt = :assignedAt, "
+            + "d.status = com.couriersync.dispatch.model.DeliveryOrder.Status.ASSIGNED, d.updatedAt = :assignedAt "
+            + "WHERE d.id = :id AND d.status = com.couriersync.dispatch.model.DeliveryOrder.Status.CREATED "
+            + "AND d.assignedDriverId IS NULL")
+    int assignIfUnassigned(@Param("id") UUID id,
+                           @Param("driverId") UUID driverId,
+                           @Param("assignedAt") LocalDateTime assignedAt);
 }
@@ -0,0 +1,61 @@
+package com.couriersync.dispatch.repository;
+
+import com.couriersync.dispatch.model.DriverLocation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Bulk position writes for the drivers table, bypassing JPA so that many drivers are updated
+ * in a single statement without loading the entities first.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DriverLocationJdbcRepository {
+
+    private static final String UPDATE_PREFIX =
+            "UPDATE drivers AS d SET current_latitude = v.latitude, current_longitude = v.longitude, "
+            + "last_location_update = v.recorded_at, updated_at = CURRENT_TIMESTAMP FROM (VALUES ";
+
+    private static final String VALUES_ROW =
+            "(CAST(? AS uuid), CAST(? AS numeric), CAST(? AS numeric), CAST(? AS timestamp))";
+
+    // Never let an older buffered position overwrite a newer one written elsewhere
+    private static final String UPDATE_SUFFIX =
+            ") AS v(id, latitude, longitude, recorded_at) WHERE d.id = v.id "
+            + "AND (d.last_location_update IS NULL OR d.last_location_update <= v.recorded_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the given positions with one {@code UPDATE ... FROM (VALUES ...)} statement.
+     *
+     * @return the number of driver rows updated
+     */
+    public int updateLocations(List<DriverLocation> locations) {
+        if (locations.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX.length() + UPDATE_SUFFIX.length()
+                + locations.size() * (VALUES_ROW.length() + 2));
+        Object[] args = new Object[locations.size() * 4];
+        sql.append(UPDATE_PREFIX);
+        for (int i = 0; i < locations.size(); i++) {
+            DriverLocation location = locations.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(VALUES_ROW);
+            args[i * 4] = location.getDriverId();
+            args[i * 4 + 1] = location.getLatitude();
+            args[i * 4 + 2] = location.getLongitude();
+            args[i * 4 + 3] = location.getTimestamp();
+        }
+        sql.append(UPDATE_SUFFIX);
+
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+}
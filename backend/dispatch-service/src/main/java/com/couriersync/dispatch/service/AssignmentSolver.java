@@ -0,0 +1,75 @@
+package com.couriersync.dispatch.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Sparse auction algorithm (Bertsekas) for matching orders to drivers. Each order only bids on
+ * its candidate drivers and may stay unassigned, which is worth 0; the result maximizes the total
+ * benefit to within {@code orderCount * epsilon}.
+ */
+final class AssignmentSolver {
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * @param candidates per order, the indexes of the drivers it may be matched with
+     * @param benefits   per order, the benefit of each candidate (same order as {@code candidates})
+     * @param driverCount number of distinct drivers referenced by {@code candidates}
+     * @param epsilon    minimum bid increment; smaller is closer to optimal but slower
+     * @return per order, the index of the assigned driver or -1
+     */
+    static int[] solve(int[][] candidates, double[][] benefits, int driverCount, double epsilon) {
+        int orderCount = candidates.length;
+        int[] assignment = new int[orderCount];
+        int[] owner = new int[driverCount];
+        double[] prices = new double[driverCount];
+        Arrays.fill(assignment, -1);
+        Arrays.fill(owner, -1);
+
+        ArrayDeque<Integer> unassigned = new ArrayDeque<>(orderCount);
+        for (int order = 0; order < orderCount; order++) {
+            if (candidates[order].length > 0) {
+                unassigned.add(order);
+            }
+        }
+
+        while (!unassigned.isEmpty()) {
+            int order = unassigned.poll();
+            int[] drivers = candidates[order];
+            double[] values = benefits[order];
+
+            int bestDriver = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            // Staying unassigned is always an option worth 0
+            double secondValue = 0;
+            for (int k = 0; k < drivers.length; k++) {
+                double value = values[k] - prices[drivers[k]];
+                if (value > bestValue) {
+                    secondValue = Math.max(secondValue, bestValue);
+                    bestValue = value;
+                    bestDriver = drivers[k];
+                } else if (value > secondValue) {
+                    secondValue = value;
+                }
+            }
+
+            // Prices only go up, so an order priced out now stays unassigned
+            if (bestValue <= 0) {
+                continue;
+            }
+
+            prices[bestDriver] += bestValue - secondValue + epsilon;
+            int previousOwner = owner[bestDriver];
+            if (previousOwner >= 0) {
+                assignment[previousOwner] = -1;
+                unassigned.add(previousOwner);
+            }
+            owner[bestDriver] = order;
+            assignment[order] = bestDriver;
+        }
+
+        return assignment;
+    }
+}
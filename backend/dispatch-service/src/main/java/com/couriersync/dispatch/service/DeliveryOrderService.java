@@ -130,6 +130,24 @@ public class DeliveryOrderService {
                 .orElseThrow(() -> new RuntimeException("Delivery order not found with ID: " + deliveryId));
     }
 
+    /**
+     * Assigns a driver chosen by the assignment engine. Unlike {@link #assignDriver}, this only
+     * succeeds while the order is still CREATED and unassigned.
+     *
+     * @return {@code true} if the order was assigned
+     */
+    public boolean autoAssignDriver(UUID deliveryId, UUID driverId) {
+        if (deliveryOrderRepository.assignIfUnassigned(deliveryId, driverId, LocalDateTime.now()) == 0) {
+            log.debug("Delivery order {} was assigned or changed before automatic assignment", deliveryId);
+            return false;
+        }
+
+        createStatusHistoryEntry(deliveryId, DeliveryOrder.Status.CREATED, DeliveryOrder.Status.ASSIGNED,
+                null, "Driver assigned automatically");
+        log.info("Automatically assigned driver {} to delivery order {}", driverId, deliveryId);
+        return true;
+    }
+
     public DeliveryOrder updateDeliveryStatus(UUID deliveryId, DeliveryOrder.Status fromStatus, DeliveryOrder.Status toStatus, UUID changedBy, String notes) {
         log.info("Updating delivery order {} status from {} to {}", deliveryId, fromStatus, toStatus);
 
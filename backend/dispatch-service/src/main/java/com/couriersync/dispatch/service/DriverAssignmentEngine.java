@@ -0,0 +1,240 @@
+package com.couriersync.dispatch.service;
+
+import com.couriersync.dispatch.model.AssignmentRoundResult;
+import com.couriersync.dispatch.model.DeliveryOrder;
+import com.couriersync.dispatch.model.Driver;
+import com.couriersync.dispatch.model.NearbyDriver;
+import com.couriersync.dispatch.repository.DeliveryOrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Assigns open (CREATED) delivery orders to available drivers in rounds. Candidate drivers of each
+ * order are scored in parallel from the in-memory driver index, then the whole round is solved as
+ * a bipartite matching so contested drivers go where they are worth the most.
+ *
+ * <p>Scores are in km: the maximum pickup distance plus a priority bonus, minus the distance to
+ * the pickup and a penalty per order the driver already carries.
+ */
+@Service
+@Slf4j
+public class DriverAssignmentEngine {
+
+    private static final List<DeliveryOrder.Status> ACTIVE_STATUSES = List.of(
+            DeliveryOrder.Status.ASSIGNED, DeliveryOrder.Status.PICKED_UP, DeliveryOrder.Status.IN_TRANSIT);
+
+    // Heaviest package (kg) each vehicle type can take
+    private static final BigDecimal BIKE_MAX_WEIGHT = new BigDecimal("5");
+    private static final BigDecimal MOTORCYCLE_MAX_WEIGHT = new BigDecimal("15");
+
+    private static final Map<DeliveryOrder.Priority, Double> PRIORITY_BONUS_KM = new EnumMap<>(Map.of(
+            DeliveryOrder.Priority.LOW, 0.0,
+            DeliveryOrder.Priority.NORMAL, 5.0,
+            DeliveryOrder.Priority.HIGH, 15.0,
+            DeliveryOrder.Priority.URGENT, 30.0));
+
+    private final DeliveryOrderRepository deliveryOrderRepository;
+    private final DeliveryOrderService deliveryOrderService;
+    private final DriverLocationIndex driverLocationIndex;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final boolean enabled;
+    private final int maxOrders;
+    private final int candidatesPerOrder;
+    private final double maxPickupDistanceKm;
+    private final double loadPenaltyKm;
+    private final int maxActiveOrdersPerDriver;
+    private final double epsilon;
+
+    public DriverAssignmentEngine(DeliveryOrderRepository deliveryOrderRepository,
+                                  DeliveryOrderService deliveryOrderService,
+                                  DriverLocationIndex driverLocationIndex,
+                                  @Value("${dispatch.assignment.enabled:false}") boolean enabled,
+                                  @Value("${dispatch.assignment.max-orders:5000}") int maxOrders,
+                                  @Value("${dispatch.assignment.candidates-per-order:25}") int candidatesPerOrder,
+                                  @Value("${dispatch.assignment.max-pickup-distance-km:30}") double maxPickupDistanceKm,
+                                  @Value("${dispatch.assignment.load-penalty-km:5}") double loadPenaltyKm,
+                                  @Value("${dispatch.assignment.max-active-orders-per-driver:2}") int maxActiveOrdersPerDriver,
+                                  @Value("${dispatch.assignment.epsilon-km:0.05}") double epsilon) {
+        this.deliveryOrderRepository = deliveryOrderRepository;
+        this.deliveryOrderService = deliveryOrderService;
+        this.driverLocationIndex = driverLocationIndex;
+        this.enabled = enabled;
+        this.maxOrders = maxOrders;
+        this.candidatesPerOrder = candidatesPerOrder;
+        this.maxPickupDistanceKm = maxPickupDistanceKm;
+        this.loadPenaltyKm = loadPenaltyKm;
+        this.maxActiveOrdersPerDriver = maxActiveOrdersPerDriver;
+        this.epsilon = epsilon;
+    }
+
+    @Scheduled(fixedDelayString = "${dispatch.assignment.interval-ms:30000}",
+            initialDelayString = "${dispatch.assignment.interval-ms:30000}")
+    public void scheduledAssignmentRound() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            runAssignmentRound();
+        } catch (Exception e) {
+            log.error("Error running automatic assignment round", e);
+        }
+    }
+
+    /**
+     * Runs one assignment round. Returns an empty result if a round is already running.
+     */
+    public AssignmentRoundResult runAssignmentRound() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Assignment round already running, skipping");
+            return AssignmentRoundResult.builder().build();
+        }
+
+        try {
+            return assign();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private AssignmentRoundResult assign() {
+        long start = System.nanoTime();
+
+        List<DeliveryOrder> orders = deliveryOrderRepository
+                .findByStatus(DeliveryOrder.Status.CREATED, PageRequest.of(0, maxOrders, Sort.by("createdAt")))
+                .stream()
+                .filter(order -> order.getAssignedDriverId() == null
+                        && order.getPickupLatitude() != null && order.getPickupLongitude() != null)
+                .toList();
+        if (orders.isEmpty()) {
+            return AssignmentRoundResult.builder().build();
+        }
+
+        Map<UUID, Long> loads = new HashMap<>();
+        for (Object[] row : deliveryOrderRepository.countByDriverIdAndStatusIn(ACTIVE_STATUSES)) {
+            loads.put((UUID) row[0], (Long) row[1]);
+        }
+
+        // Score each order's nearby drivers in parallel
+        List<List<ScoredDriver>> scored = IntStream.range(0, orders.size())
+                .parallel()
+                .mapToObj(i -> scoreCandidates(orders.get(i), loads))
+                .toList();
+        long scoredAt = System.nanoTime();
+
+        Map<UUID, Integer> driverIndexes = new HashMap<>();
+        List<UUID> drivers = new ArrayList<>();
+        int[][] candidates = new int[orders.size()][];
+        double[][] benefits = new double[orders.size()][];
+        for (int i = 0; i < orders.size(); i++) {
+            List<ScoredDriver> orderCandidates = scored.get(i);
+            candidates[i] = new int[orderCandidates.size()];
+            benefits[i] = new double[orderCandidates.size()];
+            for (int k = 0; k < orderCandidates.size(); k++) {
+                ScoredDriver candidate = orderCandidates.get(k);
+                candidates[i][k] = driverIndexes.computeIfAbsent(candidate.driverId, id -> {
+                    drivers.add(id);
+                    return drivers.size() - 1;
+                });
+                benefits[i][k] = candidate.benefit;
+            }
+        }
+
+        int[] assignment = AssignmentSolver.solve(candidates, benefits, drivers.size(), epsilon);
+        long solvedAt = System.nanoTime();
+
+        int matched = 0;
+        int assigned = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] < 0) {
+                continue;
+            }
+            matched++;
+            try {
+                if (deliveryOrderService.autoAssignDriver(orders.get(i).getId(), drivers.get(assignment[i]))) {
+                    assigned++;
+                }
+            } catch (Exception e) {
+                log.error("Error assigning driver to delivery order {}", orders.get(i).getId(), e);
+            }
+        }
+
+        AssignmentRoundResult result = AssignmentRoundResult.builder()
+                .openOrders(orders.size())
+                .candidateDrivers(drivers.size())
+                .matched(matched)
+                .assigned(assigned)
+                .scoringMs((scoredAt - start) / 1_000_000)
+                .solvingMs((solvedAt - scoredAt) / 1_000_000)
+                .totalMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+        log.info("Assignment round: {} open orders, {} candidate drivers, {} assigned (scoring {} ms, solving {} ms)",
+                result.getOpenOrders(), result.getCandidateDrivers(), result.getAssigned(),
+                result.getScoringMs(), result.getSolvingMs());
+        return result;
+    }
+
+    private List<ScoredDriver> scoreCandidates(DeliveryOrder order, Map<UUID, Long> loads) {
+        List<NearbyDriver> nearby = driverLocationIndex.findNearest(
+                order.getPickupLatitude().doubleValue(), order.getPickupLongitude().doubleValue(),
+                maxPickupDistanceKm, null, candidatesPerOrder);
+        double priorityBonus = PRIORITY_BONUS_KM.getOrDefault(order.getPriority(), 0.0);
+
+        List<ScoredDriver> scored = new ArrayList<>(nearby.size());
+        for (NearbyDriver driver : nearby) {
+            long load = loads.getOrDefault(driver.getDriverId(), 0L);
+            if (load >= maxActiveOrdersPerDriver || !canCarry(driver.getVehicleType(), order)) {
+                continue;
+            }
+
+            double benefit = maxPickupDistanceKm + priorityBonus
+                    - driver.getDistanceKm().doubleValue() - loadPenaltyKm * load;
+            if (benefit > 0) {
+                scored.add(new ScoredDriver(driver.getDriverId(), benefit));
+            }
+        }
+        return scored;
+    }
+
+    static boolean canCarry(Driver.VehicleType vehicleType, DeliveryOrder order) {
+        boolean temperatureControlled = Boolean.TRUE.equals(order.getTemperatureControlled());
+        BigDecimal weight = order.getPackageWeight();
+
+        if (vehicleType == null) {
+            return !temperatureControlled && weight == null;
+        }
+
+        return switch (vehicleType) {
+            case VAN, CAR -> true;
+            case MOTORCYCLE -> !temperatureControlled
+                    && (weight == null || weight.compareTo(MOTORCYCLE_MAX_WEIGHT) <= 0);
+            case BIKE -> !temperatureControlled
+                    && (weight == null || weight.compareTo(BIKE_MAX_WEIGHT) <= 0);
+        };
+    }
+
+    private static final class ScoredDriver {
+        private final UUID driverId;
+        private final double benefit;
+
+        private ScoredDriver(UUID driverId, double benefit) {
+            this.driverId = driverId;
+            this.benefit = benefit;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.couriersync.dispatch.service;
+
+import com.couriersync.dispatch.model.Driver;
+import com.couriersync.dispatch.model.NearbyDriver;
+import com.couriersync.dispatch.repository.DriverRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid index of AVAILABLE drivers with a known position, used for nearest-driver
+ * lookups without scanning the fleet. The world is split into square lat/lon cells and a query
+ * visits rings of cells around the search point until the k nearest drivers are settled.
+ *
+ * <p>The index is kept current by {@link DriverService} on every driver change and is rebuilt
+ * from the database periodically, which also picks up changes made on other nodes.
+ */
+@Component
+@Slf4j
+public class DriverLocationIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    private final DriverRepository driverRepository;
+    private final double cellSizeDegrees;
+    private final int latitudeCells;
+    private final int longitudeCells;
+
+    private volatile Grid grid = new Grid();
+
+    public DriverLocationIndex(DriverRepository driverRepository,
+                               @Value("${dispatch.driver-index.cell-size-degrees:0.01}") double cellSizeDegrees) {
+        this.driverRepository = driverRepository;
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.latitudeCells = (int) Math.ceil(180.0 / cellSizeDegrees);
+        this.longitudeCells = (int) Math.ceil(360.0 / cellSizeDegrees);
+    }
+
+    /**
+     * Reloads the index from the database. Runs once at startup and then periodically; updates
+     * applied while the new grid is being built are superseded by it and come back with the
+     * driver's next change.
+     */
+    @Scheduled(fixedDelayString = "${dispatch.driver-index.resync-interval-ms:60000}")
+    public void rebuild() {
+        Grid rebuilt = new Grid();
+        for (Driver driver : driverRepository.findByStatus(Driver.Status.AVAILABLE)) {
+            Entry entry = toEntry(driver);
+            if (entry != null) {
+                put(rebuilt, entry);
+            }
+        }
+        grid = rebuilt;
+        log.debug("Rebuilt driver location index with {} available drivers", rebuilt.drivers.size());
+    }
+
+    /**
+     * Indexes the driver if it is AVAILABLE with a known position, removes it otherwise.
+     */
+    public void update(Driver driver) {
+        if (driver == null || driver.getId() == null) {
+            return;
+        }
+
+        Entry entry = toEntry(driver);
+        if (entry == null) {
+            remove(driver.getId());
+        } else {
+            put(grid, entry);
+        }
+    }
+
+    /**
+     * Moves an indexed driver. Drivers that are not indexed (not available) are ignored.
+     */
+    public void updateLocation(UUID driverId, BigDecimal latitude, BigDecimal longitude, LocalDateTime timestamp) {
+        if (driverId == null || latitude == null || longitude == null) {
+            return;
+        }
+
+        Grid current = grid;
+        Entry existing = current.drivers.get(driverId);
+        if (existing != null) {
+            put(current, new Entry(driverId, existing.vehicleType, latitude, longitude, timestamp));
+        }
+    }
+
+    public void remove(UUID driverId) {
+        Grid current = grid;
+        current.drivers.computeIfPresent(driverId, (id, existing) -> {
+            removeFromCell(current, existing);
+            return null;
+        });
+    }
+
+    public int size() {
+        return grid.drivers.size();
+    }
+
+    /**
+     * Returns up to {@code limit} indexed drivers within {@code radiusKm} of the given point,
+     * nearest first.
+     *
+     * @param vehicleType required vehicle type, or {@code null} for any
+     */
+    public List<NearbyDriver> findNearest(double latitude, double longitude, double radiusKm,
+                                          Driver.VehicleType vehicleType, int limit) {
+        if (limit <= 0 || radiusKm <= 0) {
+            return List.of();
+        }
+
+        Grid current = grid;
+        int centerLat = latitudeCell(latitude);
+        int centerLon = longitudeCell(longitude);
+
+        // Cells narrow towards the poles; size the rings for the narrowest cell in the search band
+        double cellHeightKm = cellSizeDegrees * KM_PER_DEGREE_LATITUDE;
+        double maxAbsLatitude = Math.min(90.0, Math.abs(latitude) + radiusKm / KM_PER_DEGREE_LATITUDE);
+        double cellWidthKm = Math.max(cellHeightKm * Math.cos(Math.toRadians(maxAbsLatitude)), 1e-3);
+        double minCellKm = Math.min(cellHeightKm, cellWidthKm);
+        int latRings = (int) Math.ceil(radiusKm / cellHeightKm);
+        int lonRings = Math.min((int) Math.ceil(radiusKm / cellWidthKm), (longitudeCells - 1) / 2);
+
+        PriorityQueue<Candidate> nearest = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble((Candidate c) -> c.distanceKm).reversed());
+        Set<UUID> seen = new HashSet<>();
+
+        int maxRing = Math.max(latRings, lonRings);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int dLat = -Math.min(ring, latRings); dLat <= Math.min(ring, latRings); dLat++) {
+                int latCell = centerLat + dLat;
+                if (latCell < 0 || latCell >= latitudeCells) {
+                    continue;
+                }
+
+                if (Math.abs(dLat) == ring) {
+                    // Top and bottom rows of the ring
+                    for (int dLon = -Math.min(ring, lonRings); dLon <= Math.min(ring, lonRings); dLon++) {
+                        scanCell(current, latCell, centerLon + dLon, latitude, longitude, radiusKm,
+                                vehicleType, limit, nearest, seen);
+                    }
+                } else if (ring <= lonRings) {
+                    // Left and right columns of the ring
+                    scanCell(current, latCell, centerLon - ring, latitude, longitude, radiusKm,
+                            vehicleType, limit, nearest, seen);
+                    scanCell(current, latCell, centerLon + ring, latitude, longitude, radiusKm,
+                            vehicleType, limit, nearest, seen);
+                }
+            }
+
+            // Every driver closer than the outer edge of this ring has been visited
+            if (nearest.size() == limit && nearest.peek().distanceKm <= ring * minCellKm) {
+                break;
+            }
+        }
+
+        List<NearbyDriver> result = new ArrayList<>(nearest.size());
+        while (!nearest.isEmpty()) {
+            result.add(toNearbyDriver(nearest.poll()));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void scanCell(Grid current, int latCell, int lonCell, double latitude, double longitude,
+                          double radiusKm, Driver.VehicleType vehicleType, int limit,
+                          PriorityQueue<Candidate> nearest, Set<UUID> seen) {
+        Set<Entry> entries = current.cells.get(cellKey(latCell, Math.floorMod(lonCell, longitudeCells)));
+        if (entries == null) {
+            return;
+        }
+
+        for (Entry entry : entries) {
+            if (vehicleType != null && entry.vehicleType != vehicleType) {
+                continue;
+            }
+            double distanceKm = haversineKm(latitude, longitude, entry.lat, entry.lon);
+            if (distanceKm > radiusKm) {
+                continue;
+            }
+            if (nearest.size() == limit && distanceKm >= nearest.peek().distanceKm) {
+                continue;
+            }
+            // A driver being moved can briefly be visible in two cells
+            if (!seen.add(entry.driverId)) {
+                continue;
+            }
+            nearest.offer(new Candidate(entry, distanceKm));
+            if (nearest.size() > limit) {
+                nearest.poll();
+            }
+        }
+    }
+
+    private void put(Grid target, Entry entry) {
+        target.drivers.compute(entry.driverId, (id, existing) -> {
+            // Add before removing so concurrent lookups never miss the driver
+            target.cells.computeIfAbsent(entry.cellKey, key -> ConcurrentHashMap.newKeySet()).add(entry);
+            if (existing != null) {
+                removeFromCell(target, existing);
+            }
+            return entry;
+        });
+    }
+
+    private void removeFromCell(Grid target, Entry entry) {
+        target.cells.computeIfPresent(entry.cellKey, (key, entries) -> {
+            entries.remove(entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private Entry toEntry(Driver driver) {
+        if (driver.getStatus() != Driver.Status.AVAILABLE
+                || driver.getCurrentLatitude() == null || driver.getCurrentLongitude() == null) {
+            return null;
+        }
+        return new Entry(driver.getId(), driver.getVehicleType(),
+                driver.getCurrentLatitude(), driver.getCurrentLongitude(), driver.getLastLocationUpdate());
+    }
+
+    private NearbyDriver toNearbyDriver(Candidate candidate) {
+        return NearbyDriver.builder()
+                .driverId(candidate.entry.driverId)
+                .vehicleType(candidate.entry.vehicleType)
+                .latitude(candidate.entry.latitude)
+                .longitude(candidate.entry.longitude)
+                .lastLocationUpdate(candidate.entry.lastLocationUpdate)
+                .distanceKm(BigDecimal.valueOf(candidate.distanceKm).setScale(3, RoundingMode.HALF_UP))
+                .build();
+    }
+
+    private int latitudeCell(double latitude) {
+        int cell = (int) Math.floor((latitude + 90.0) / cellSizeDegrees);
+        return Math.max(0, Math.min(latitudeCells - 1, cell));
+    }
+
+    private int longitudeCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / cellSizeDegrees), longitudeCells);
+    }
+
+    private long cellKey(int latCell, int lonCell) {
+        return (long) latCell * longitudeCells + lonCell;
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private static final class Grid {
+        private final ConcurrentHashMap<UUID, Entry> drivers = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, Set<Entry>> cells = new ConcurrentHashMap<>();
+    }
+
+    private final class Entry {
+        private final UUID driverId;
+        private final Driver.VehicleType vehicleType;
+        private final BigDecimal latitude;
+        private final BigDecimal longitude;
+        private final LocalDateTime lastLocationUpdate;
+        private final double lat;
+        private final double lon;
+        private final long cellKey;
+
+        private Entry(UUID driverId, Driver.VehicleType vehicleType, BigDecimal latitude, BigDecimal longitude,
+                      LocalDateTime lastLocationUpdate) {
+            this.driverId = driverId;
+            this.vehicleType = vehicleType;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.lastLocationUpdate = lastLocationUpdate;
+            this.lat = latitude.doubleValue();
+            this.lon = longitude.doubleValue();
+            this.cellKey = cellKey(latitudeCell(lat), longitudeCell(lon));
+        }
+    }
+
+    private static final class Candidate {
+        private final Entry entry;
+        private final double distanceKm;
+
+        private Candidate(Entry entry, double distanceKm) {
+            this.entry = entry;
+            this.distanceKm = distanceKm;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.couriersync.dispatch.service;
+
+import com.couriersync.dispatch.model.DriverLocation;
+import com.couriersync.dispatch.repository.DriverLocationJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for driver positions. Only the latest position per driver is kept and
+ * pending positions are flushed periodically in bulk, so a stream of pings costs one batched
+ * UPDATE per interval instead of a SELECT and an UPDATE per ping.
+ */
+@Component
+@Slf4j
+public class DriverLocationWriteBuffer {
+
+    private final DriverLocationJdbcRepository driverLocationJdbcRepository;
+    private final int batchSize;
+    private final ConcurrentHashMap<UUID, DriverLocation> pending = new ConcurrentHashMap<>();
+
+    public DriverLocationWriteBuffer(DriverLocationJdbcRepository driverLocationJdbcRepository,
+                                     @Value("${dispatch.location-write-buffer.batch-size:500}") int batchSize) {
+        this.driverLocationJdbcRepository = driverLocationJdbcRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Buffers a position, replacing any older pending position of the same driver.
+     */
+    public void record(DriverLocation location) {
+        pending.merge(location.getDriverId(), location,
+                (current, candidate) -> candidate.getTimestamp().isBefore(current.getTimestamp()) ? current : candidate);
+    }
+
+    /**
+     * Position recorded for the driver but not yet written to the database.
+     */
+    public Optional<DriverLocation> getPending(UUID driverId) {
+        return Optional.ofNullable(pending.get(driverId));
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${dispatch.location-write-buffer.flush-interval-ms:2000}")
+    public void flush() {
+        writePending();
+    }
+
+    /**
+     * Writes all pending positions before returning, for callers that must know the positions
+     * reached the database.
+     *
+     * @throws IllegalStateException if some positions could not be written; they stay buffered
+     */
+    public void flushOrThrow() {
+        if (!writePending()) {
+            throw new IllegalStateException("Could not write buffered driver positions");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Serialized so concurrent callers group-commit instead of writing the same positions twice
+    private synchronized boolean writePending() {
+        if (pending.isEmpty()) {
+            return true;
+        }
+
+        boolean written = true;
+        List<DriverLocation> batch = new ArrayList<>(Math.min(pending.size(), batchSize));
+        for (DriverLocation location : pending.values()) {
+            batch.add(location);
+            if (batch.size() == batchSize) {
+                written &= write(batch);
+                // The repository may keep the list it was given, so never reuse it
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        return written & write(batch);
+    }
+
+    private boolean write(List<DriverLocation> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+
+        try {
+            int updated = driverLocationJdbcRepository.updateLocations(batch);
+            // Keep positions that were superseded while the batch was being written
+            batch.forEach(location -> pending.remove(location.getDriverId(), location));
+            log.debug("Flushed {} driver positions ({} rows updated)", batch.size(), updated);
+            return true;
+        } catch (Exception e) {
+            // Pending positions stay buffered and are retried on the next flush
+            log.error("Error flushing {} driver positions", batch.size(), e);
+            return false;
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.couriersync.dispatch.service;
 
 import com.couriersync.dispatch.model.Driver;
+import com.couriersync.dispatch.model.DriverLocation;
+import com.couriersync.dispatch.model.NearbyDriver;
 import com.couriersync.dispatch.repository.DriverRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,6 +25,14 @@ import java.util.UUID;
 public class DriverService {
 
     private final DriverRepository driverRepository;
+    private final DriverLocationIndex driverLocationIndex;
+    private final DriverLocationWriteBuffer driverLocationWriteBuffer;
+
+    @Value("${dispatch.driver-index.max-radius-km:50}")
+    private double maxRadiusKm;
+
+    @Value("${dispatch.driver-index.max-results:50}")
+    private int maxResults;
 
     public Driver createDriver(Driver driver) {
         log.info("Creating new driver for user: {}", driver.getUserId());
@@ -30,6 +43,7 @@ public class DriverService {
         }
 
         Driver savedDriver = driverRepository.save(driver);
+        refreshIndex(savedDriver);
         log.info("Created driver with ID: {}", savedDriver.getId());
         return savedDriver;
     }
@@ -78,7 +92,9 @@ public class DriverService {
                         driver.setLastLocationUpdate(java.time.LocalDateTime.now());
                     }
 
-                    return driverRepository.save(driver);
+                    Driver savedDriver = driverRepository.save(driver);
+                    refreshIndex(savedDriver);
+                    return savedDriver;
                 })
                 .orElseThrow(() -> new RuntimeException("Driver not found with ID: " + id));
     }
@@ -92,18 +108,62 @@ public class DriverService {
                     driver.setCurrentLongitude(longitude);
                     driver.setLastLocationUpdate(java.time.LocalDateTime.now());
 
-                    return driverRepository.save(driver);
+                    Driver savedDriver = driverRepository.save(driver);
+                    refreshIndex(savedDriver);
+                    return savedDriver;
                 })
                 .orElseThrow(() -> new RuntimeException("Driver not found with ID: " + driverId));
     }
 
+    /**
+     * Saves positions reported by drivers' devices. Positions go through the write buffer, so
+     * they are visible to {@link #getCurrentLocation(UUID)} and nearest-driver lookups at once,
+     * and are written together with whatever else is buffered before this method returns.
+     *
+     * @throws IllegalStateException if the positions could not be written to the database
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void saveDriverLocations(List<DriverLocation> locations) {
+        for (DriverLocation location : locations) {
+            if (location.getTimestamp() == null) {
+                location.setTimestamp(LocalDateTime.now());
+            }
+            driverLocationWriteBuffer.record(location);
+            driverLocationIndex.updateLocation(location.getDriverId(), location.getLatitude(),
+                    location.getLongitude(), location.getTimestamp());
+        }
+        driverLocationWriteBuffer.flushOrThrow();
+    }
+
+    /**
+     * Latest known position of the driver, including positions not yet flushed to the database.
+     */
+    @Transactional(readOnly = true)
+    public Optional<DriverLocation> getCurrentLocation(UUID driverId) {
+        Optional<DriverLocation> pending = driverLocationWriteBuffer.getPending(driverId);
+        if (pending.isPresent()) {
+            return pending;
+        }
+
+        return driverRepository.findById(driverId)
+                .filter(driver -> driver.getCurrentLatitude() != null && driver.getCurrentLongitude() != null)
+                .map(driver -> DriverLocation.builder()
+                        .driverId(driver.getId())
+                        .latitude(driver.getCurrentLatitude())
+                        .longitude(driver.getCurrentLongitude())
+                        .timestamp(driver.getLastLocationUpdate())
+                        .build());
+    }
+
     public Driver updateDriverStatus(UUID driverId, Driver.Status status) {
         log.info("Updating status for driver {} to {}", driverId, status);
 
         return driverRepository.findById(driverId)
                 .map(driver -> {
                     driver.setStatus(status);
-                    return driverRepository.save(driver);
+                    Driver savedDriver = driverRepository.save(driver);
+                    refreshIndex(savedDriver);
+                    return savedDriver;
                 })
                 .orElseThrow(() -> new RuntimeException("Driver not found with ID: " + driverId));
     }
@@ -116,6 +176,7 @@ public class DriverService {
         }
 
         driverRepository.deleteById(id);
+        driverLocationIndex.remove(id);
     }
 
     public List<Driver> findDriversWithExpiringLicense(LocalDate expiryDate) {
@@ -130,7 +191,41 @@ public class DriverService {
         return driverRepository.findAvailableDriversOrderByLocationUpdate(Driver.Status.AVAILABLE);
     }
 
+    /**
+     * Nearest AVAILABLE drivers around a point, served from the in-memory driver index.
+     *
+     * @param vehicleType required vehicle type, or {@code null} for any
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<NearbyDriver> findNearestAvailableDrivers(BigDecimal latitude, BigDecimal longitude, double radiusKm,
+                                                          Driver.VehicleType vehicleType, int limit) {
+        if (latitude == null || longitude == null
+                || latitude.abs().compareTo(BigDecimal.valueOf(90)) > 0
+                || longitude.abs().compareTo(BigDecimal.valueOf(180)) > 0) {
+            throw new IllegalArgumentException("Invalid coordinates: " + latitude + ", " + longitude);
+        }
+        if (radiusKm <= 0 || radiusKm > maxRadiusKm) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + maxRadiusKm + " km");
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxResults);
+        }
+
+        return driverLocationIndex.findNearest(latitude.doubleValue(), longitude.doubleValue(),
+                radiusKm, vehicleType, limit);
+    }
+
     public long countDriversByStatus(Driver.Status status) {
         return driverRepository.countByStatus(status);
     }
+
+    private void refreshIndex(Driver driver) {
+        driverLocationIndex.update(driver);
+        // The saved row may not hold the driver's latest position yet
+        driverLocationWriteBuffer.getPending(driver.getId())
+                .filter(location -> driver.getLastLocationUpdate() == null
+                        || location.getTimestamp().isAfter(driver.getLastLocationUpdate()))
+                .ifPresent(location -> driverLocationIndex.updateLocation(location.getDriverId(), location.getLatitude(),
+                        location.getLongitude(), location.getTimestamp()));
+    }
 }
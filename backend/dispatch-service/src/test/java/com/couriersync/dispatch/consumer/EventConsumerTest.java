@@ -0,0 +1,79 @@
+package com.couriersync.dispatch.consumer;
+
+import com.couriersync.common.events.LocationUpdateEvent;
+import com.couriersync.dispatch.model.DriverLocation;
+import com.couriersync.dispatch.service.DeliveryOrderService;
+import com.couriersync.dispatch.service.DriverService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventConsumerTest {
+
+    @Mock
+    private DeliveryOrderService deliveryOrderService;
+
+    @Mock
+    private DriverService driverService;
+
+    @InjectMocks
+    private EventConsumer eventConsumer;
+
+    @Test
+    void testLocationBatchKeepsLatestPositionPerDriver() {
+        // Given
+        UUID driverId = UUID.randomUUID();
+        UUID otherDriverId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        List<LocationUpdateEvent> events = Arrays.asList(
+                event(driverId, "40.7128", now),
+                event(otherDriverId, "40.7500", now),
+                null,
+                event(driverId, "40.7130", now.plusSeconds(1)));
+
+        // When
+        eventConsumer.handleLocationUpdateEvents(events);
+
+        // Then
+        ArgumentCaptor<List<DriverLocation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(driverService).saveDriverLocations(captor.capture());
+        List<DriverLocation> saved = captor.getValue();
+        assertEquals(2, saved.size());
+        assertEquals(new BigDecimal("40.7130"), saved.stream()
+                .filter(location -> location.getDriverId().equals(driverId))
+                .findFirst().get().getLatitude());
+    }
+
+    @Test
+    void testLocationBatchFailurePropagatesSoOffsetsAreNotCommitted() {
+        // Given
+        List<LocationUpdateEvent> events = List.of(event(UUID.randomUUID(), "40.7128", LocalDateTime.now()));
+        doThrow(new IllegalStateException("Database down")).when(driverService).saveDriverLocations(anyList());
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> eventConsumer.handleLocationUpdateEvents(events));
+    }
+
+    private LocationUpdateEvent event(UUID driverId, String latitude, LocalDateTime timestamp) {
+        LocationUpdateEvent event = new LocationUpdateEvent("tracking-service");
+        event.setDriverId(driverId);
+        event.setLatitude(new BigDecimal(latitude));
+        event.setLongitude(new BigDecimal("-74.0060"));
+        event.setTimestamp(timestamp);
+        return event;
+    }
+}
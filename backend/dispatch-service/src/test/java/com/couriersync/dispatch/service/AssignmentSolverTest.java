@@ -0,0 +1,47 @@
+package com.couriersync.dispatch.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentSolverTest {
+
+    @Test
+    void testContestedDriverGoesWhereItIsWorthMost() {
+        // Given: both orders prefer driver 0, but order 1 has no alternative
+        int[][] candidates = {{0, 1}, {0}};
+        double[][] benefits = {{20, 18}, {15}};
+
+        // When
+        int[] assignment = AssignmentSolver.solve(candidates, benefits, 2, 0.01);
+
+        // Then
+        assertArrayEquals(new int[]{1, 0}, assignment);
+    }
+
+    @Test
+    void testMoreOrdersThanDriversLeavesLowestValueOrdersUnassigned() {
+        // Given
+        int[][] candidates = {{0}, {0}, {0}};
+        double[][] benefits = {{5}, {30}, {10}};
+
+        // When
+        int[] assignment = AssignmentSolver.solve(candidates, benefits, 1, 0.01);
+
+        // Then
+        assertArrayEquals(new int[]{-1, 0, -1}, assignment);
+    }
+
+    @Test
+    void testOrderWithoutCandidatesStaysUnassigned() {
+        // Given
+        int[][] candidates = {{}, {0}};
+        double[][] benefits = {{}, {12}};
+
+        // When
+        int[] assignment = AssignmentSolver.solve(candidates, benefits, 1, 0.01);
+
+        // Then
+        assertArrayEquals(new int[]{-1, 0}, assignment);
+    }
+}
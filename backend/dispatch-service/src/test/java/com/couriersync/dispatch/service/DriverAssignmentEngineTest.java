@@ -0,0 +1,118 @@
+package com.couriersync.dispatch.service;
+
+import com.couriersync.dispatch.model.AssignmentRoundResult;
+import com.couriersync.dispatch.model.DeliveryOrder;
+import com.couriersync.dispatch.model.Driver;
+import com.couriersync.dispatch.model.NearbyDriver;
+import com.couriersync.dispatch.repository.DeliveryOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DriverAssignmentEngineTest {
+
+    @Mock
+    private DeliveryOrderRepository deliveryOrderRepository;
+
+    @Mock
+    private DeliveryOrderService deliveryOrderService;
+
+    @Mock
+    private DriverLocationIndex driverLocationIndex;
+
+    private DriverAssignmentEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new DriverAssignmentEngine(deliveryOrderRepository, deliveryOrderService, driverLocationIndex,
+                true, 5000, 25, 30, 5, 2, 0.05);
+    }
+
+    @Test
+    void testUrgentOrderWinsContestedDriver() {
+        // Given
+        DeliveryOrder normal = order(DeliveryOrder.Priority.NORMAL);
+        DeliveryOrder urgent = order(DeliveryOrder.Priority.URGENT);
+        UUID driverId = UUID.randomUUID();
+        when(deliveryOrderRepository.findByStatus(eq(DeliveryOrder.Status.CREATED), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(normal, urgent)));
+        when(deliveryOrderRepository.countByDriverIdAndStatusIn(anyList())).thenReturn(List.of());
+        when(driverLocationIndex.findNearest(anyDouble(), anyDouble(), anyDouble(), isNull(), anyInt()))
+                .thenReturn(List.of(nearby(driverId, Driver.VehicleType.CAR, "2.0")));
+        when(deliveryOrderService.autoAssignDriver(urgent.getId(), driverId)).thenReturn(true);
+
+        // When
+        AssignmentRoundResult result = engine.runAssignmentRound();
+
+        // Then
+        assertEquals(2, result.getOpenOrders());
+        assertEquals(1, result.getAssigned());
+        verify(deliveryOrderService).autoAssignDriver(urgent.getId(), driverId);
+        verify(deliveryOrderService, never()).autoAssignDriver(eq(normal.getId()), any());
+    }
+
+    @Test
+    void testFullyLoadedDriverIsNotAssigned() {
+        // Given
+        DeliveryOrder order = order(DeliveryOrder.Priority.HIGH);
+        UUID driverId = UUID.randomUUID();
+        when(deliveryOrderRepository.findByStatus(eq(DeliveryOrder.Status.CREATED), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(order)));
+        when(deliveryOrderRepository.countByDriverIdAndStatusIn(anyList()))
+                .thenReturn(List.<Object[]>of(new Object[]{driverId, 2L}));
+        when(driverLocationIndex.findNearest(anyDouble(), anyDouble(), anyDouble(), isNull(), anyInt()))
+                .thenReturn(List.of(nearby(driverId, Driver.VehicleType.VAN, "1.0")));
+
+        // When
+        AssignmentRoundResult result = engine.runAssignmentRound();
+
+        // Then
+        assertEquals(0, result.getMatched());
+        verify(deliveryOrderService, never()).autoAssignDriver(any(), any());
+    }
+
+    @Test
+    void testTemperatureControlledOrderNeedsCarOrVan() {
+        // Given
+        DeliveryOrder order = order(DeliveryOrder.Priority.NORMAL);
+        order.setTemperatureControlled(true);
+
+        // Then
+        assertTrue(DriverAssignmentEngine.canCarry(Driver.VehicleType.VAN, order));
+        assertFalse(DriverAssignmentEngine.canCarry(Driver.VehicleType.BIKE, order));
+        assertFalse(DriverAssignmentEngine.canCarry(Driver.VehicleType.MOTORCYCLE, order));
+    }
+
+    private DeliveryOrder order(DeliveryOrder.Priority priority) {
+        return DeliveryOrder.builder()
+                .id(UUID.randomUUID())
+                .status(DeliveryOrder.Status.CREATED)
+                .priority(priority)
+                .pickupLatitude(new BigDecimal("40.7128"))
+                .pickupLongitude(new BigDecimal("-74.0060"))
+                .packageWeight(new BigDecimal("1.5"))
+                .temperatureControlled(false)
+                .build();
+    }
+
+    private NearbyDriver nearby(UUID driverId, Driver.VehicleType vehicleType, String distanceKm) {
+        return NearbyDriver.builder()
+                .driverId(driverId)
+                .vehicleType(vehicleType)
+                .distanceKm(new BigDecimal(distanceKm))
+                .build();
+    }
+}
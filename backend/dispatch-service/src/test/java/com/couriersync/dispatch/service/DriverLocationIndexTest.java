@@ -0,0 +1,163 @@
+package com.couriersync.dispatch.service;
+
+import com.couriersync.dispatch.model.Driver;
+import com.couriersync.dispatch.model.NearbyDriver;
+import com.couriersync.dispatch.repository.DriverRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DriverLocationIndexTest {
+
+    @Mock
+    private DriverRepository driverRepository;
+
+    private DriverLocationIndex driverLocationIndex;
+
+    @BeforeEach
+    void setUp() {
+        driverLocationIndex = new DriverLocationIndex(driverRepository, 0.01);
+    }
+
+    @Test
+    void testFindNearestReturnsClosestFirstWithinRadius() {
+        // Given
+        Driver near = driver("40.7130", "-74.0060", Driver.VehicleType.CAR);
+        Driver nearer = driver("40.7128", "-74.0061", Driver.VehicleType.VAN);
+        Driver outside = driver("40.9000", "-74.0060", Driver.VehicleType.CAR);
+        List.of(near, nearer, outside).forEach(driverLocationIndex::update);
+
+        // When
+        List<NearbyDriver> result = driverLocationIndex.findNearest(40.7128, -74.0060, 5, null, 10);
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(nearer.getId(), result.get(0).getDriverId());
+        assertEquals(near.getId(), result.get(1).getDriverId());
+    }
+
+    @Test
+    void testFindNearestFiltersByVehicleType() {
+        // Given
+        Driver car = driver("40.7130", "-74.0060", Driver.VehicleType.CAR);
+        Driver van = driver("40.7128", "-74.0061", Driver.VehicleType.VAN);
+        driverLocationIndex.update(car);
+        driverLocationIndex.update(van);
+
+        // When
+        List<NearbyDriver> result = driverLocationIndex.findNearest(40.7128, -74.0060, 5,
+                Driver.VehicleType.CAR, 10);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(car.getId(), result.get(0).getDriverId());
+    }
+
+    @Test
+    void testUnavailableDriverIsRemoved() {
+        // Given
+        Driver driver = driver("40.7128", "-74.0060", Driver.VehicleType.CAR);
+        driverLocationIndex.update(driver);
+
+        // When
+        driver.setStatus(Driver.Status.ON_DUTY);
+        driverLocationIndex.update(driver);
+
+        // Then
+        assertEquals(0, driverLocationIndex.size());
+        assertTrue(driverLocationIndex.findNearest(40.7128, -74.0060, 5, null, 10).isEmpty());
+    }
+
+    @Test
+    void testUpdateLocationMovesIndexedDriver() {
+        // Given
+        Driver driver = driver("40.7128", "-74.0060", Driver.VehicleType.CAR);
+        driverLocationIndex.update(driver);
+
+        // When
+        driverLocationIndex.updateLocation(driver.getId(), new BigDecimal("48.8566"), new BigDecimal("2.3522"),
+                LocalDateTime.now());
+
+        // Then
+        assertTrue(driverLocationIndex.findNearest(40.7128, -74.0060, 5, null, 10).isEmpty());
+        List<NearbyDriver> result = driverLocationIndex.findNearest(48.8566, 2.3522, 1, null, 10);
+        assertEquals(1, result.size());
+        assertEquals(0, result.get(0).getDistanceKm().signum());
+    }
+
+    @Test
+    void testRebuildLoadsAvailableDriversFromRepository() {
+        // Given
+        Driver driver = driver("40.7128", "-74.0060", Driver.VehicleType.CAR);
+        when(driverRepository.findByStatus(Driver.Status.AVAILABLE)).thenReturn(List.of(driver));
+
+        // When
+        driverLocationIndex.rebuild();
+
+        // Then
+        assertEquals(1, driverLocationIndex.size());
+    }
+
+    @Test
+    void testFindNearestMatchesFullScan() {
+        // Given
+        Random random = new Random(42);
+        List<Driver> drivers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Driver driver = driver(
+                    String.valueOf(40.5 + random.nextDouble() * 0.5),
+                    String.valueOf(-74.3 + random.nextDouble() * 0.6),
+                    Driver.VehicleType.values()[random.nextInt(Driver.VehicleType.values().length)]);
+            drivers.add(driver);
+            driverLocationIndex.update(driver);
+        }
+
+        // When
+        List<NearbyDriver> result = driverLocationIndex.findNearest(40.75, -74.0, 10, Driver.VehicleType.VAN, 20);
+
+        // Then
+        List<UUID> expected = drivers.stream()
+                .filter(driver -> driver.getVehicleType() == Driver.VehicleType.VAN)
+                .sorted(Comparator.comparingDouble(driver -> distanceKm(40.75, -74.0, driver)))
+                .limit(20)
+                .map(Driver::getId)
+                .toList();
+        assertEquals(expected, result.stream().map(NearbyDriver::getDriverId).toList());
+    }
+
+    private Driver driver(String latitude, String longitude, Driver.VehicleType vehicleType) {
+        return Driver.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .vehicleType(vehicleType)
+                .status(Driver.Status.AVAILABLE)
+                .currentLatitude(new BigDecimal(latitude))
+                .currentLongitude(new BigDecimal(longitude))
+                .build();
+    }
+
+    private double distanceKm(double latitude, double longitude, Driver driver) {
+        double lat2 = driver.getCurrentLatitude().doubleValue();
+        double lon2 = driver.getCurrentLongitude().doubleValue();
+        double dLat = Math.toRadians(lat2 - latitude);
+        double dLon = Math.toRadians(lon2 - longitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 6371.0 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
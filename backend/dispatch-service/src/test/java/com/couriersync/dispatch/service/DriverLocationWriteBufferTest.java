@@ -0,0 +1,117 @@
+package com.couriersync.dispatch.service;
+
+import com.couriersync.dispatch.model.DriverLocation;
+import com.couriersync.dispatch.repository.DriverLocationJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DriverLocationWriteBufferTest {
+
+    @Mock
+    private DriverLocationJdbcRepository driverLocationJdbcRepository;
+
+    private DriverLocationWriteBuffer writeBuffer;
+    private UUID driverId;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        writeBuffer = new DriverLocationWriteBuffer(driverLocationJdbcRepository, 2);
+        driverId = UUID.randomUUID();
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void testKeepsOnlyLatestPositionPerDriver() {
+        // Given
+        writeBuffer.record(location(driverId, "40.7128", now));
+        writeBuffer.record(location(driverId, "40.7130", now.plusSeconds(2)));
+
+        // When
+        writeBuffer.record(location(driverId, "40.7000", now.plusSeconds(1)));
+
+        // Then
+        assertEquals(1, writeBuffer.getPendingCount());
+        assertEquals(new BigDecimal("40.7130"), writeBuffer.getPending(driverId).get().getLatitude());
+    }
+
+    @Test
+    void testFlushWritesPendingPositionsInBatches() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            writeBuffer.record(location(UUID.randomUUID(), "40.7128", now));
+        }
+
+        // When
+        writeBuffer.flush();
+
+        // Then
+        ArgumentCaptor<List<DriverLocation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(driverLocationJdbcRepository, times(3)).updateLocations(captor.capture());
+        assertEquals(5, captor.getAllValues().stream().mapToInt(List::size).sum());
+        assertEquals(0, writeBuffer.getPendingCount());
+    }
+
+    @Test
+    void testFailedFlushKeepsPositionsForRetry() {
+        // Given
+        writeBuffer.record(location(driverId, "40.7128", now));
+        when(driverLocationJdbcRepository.updateLocations(anyList())).thenThrow(new RuntimeException("Database down"));
+
+        // When
+        writeBuffer.flush();
+
+        // Then
+        assertTrue(writeBuffer.getPending(driverId).isPresent());
+    }
+
+    @Test
+    void testFlushOrThrowReportsFailedWrite() {
+        // Given
+        writeBuffer.record(location(driverId, "40.7128", now));
+        when(driverLocationJdbcRepository.updateLocations(anyList())).thenThrow(new RuntimeException("Database down"));
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> writeBuffer.flushOrThrow());
+        assertTrue(writeBuffer.getPending(driverId).isPresent());
+    }
+
+    @Test
+    void testPositionRecordedDuringFlushIsKept() {
+        // Given
+        writeBuffer.record(location(driverId, "40.7128", now));
+        when(driverLocationJdbcRepository.updateLocations(anyList())).thenAnswer(invocation -> {
+            writeBuffer.record(location(driverId, "40.7130", now.plusSeconds(1)));
+            return 1;
+        });
+
+        // When
+        writeBuffer.flush();
+
+        // Then
+        assertEquals(new BigDecimal("40.7130"), writeBuffer.getPending(driverId).get().getLatitude());
+    }
+
+    private DriverLocation location(UUID driverId, String latitude, LocalDateTime timestamp) {
+        return DriverLocation.builder()
+                .driverId(driverId)
+                .latitude(new BigDecimal(latitude))
+                .longitude(new BigDecimal("-74.0060"))
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.couriersync.common.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A point appended to a delivery route. Carries the new point only; the route itself is
+ * published on the route snapshot topic.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class RoutePointAppendedEvent extends BaseEvent {
+    private String routeId;
+    private UUID deliveryId;
+    private UUID driverId;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private BigDecimal speed;
+    private BigDecimal heading;
+    private LocalDateTime recordedAt;
+
+    public RoutePointAppendedEvent(String sourceService) {
+        super("route.point.appended", sourceService);
+    }
+}
@@ -0,0 +1,37 @@
+package com.couriersync.common.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A delivery route created ({@code PLANNED}) or moved to another status. Actual distance and
+ * durations are set once the route is completed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class RouteStatusChangedEvent extends BaseEvent {
+    private String routeId;
+    private UUID deliveryId;
+    private UUID driverId;
+    private RouteStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private BigDecimal actualDistance; // in km
+    private Integer actualDuration; // in minutes
+
+    public RouteStatusChangedEvent(String sourceService) {
+        super("route.status.changed", sourceService);
+    }
+
+    public enum RouteStatus {
+        PLANNED, IN_PROGRESS, COMPLETED, CANCELLED
+    }
+}
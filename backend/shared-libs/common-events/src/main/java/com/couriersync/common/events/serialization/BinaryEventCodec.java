@@ -0,0 +1,163 @@
+package com.couriersync.common.events.serialization;
+
+import com.couriersync.common.events.BaseEvent;
+import com.couriersync.common.events.DeliveryEvent;
+import com.couriersync.common.events.InvoiceEvent;
+import com.couriersync.common.events.LocationUpdateEvent;
+import com.couriersync.common.events.RoutePointAppendedEvent;
+import com.couriersync.common.events.RouteStatusChangedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the shared events:
+ *
+ * <pre>
+ * magic:1 (0xCE) formatVersion:1 typeId:varint { tag:varint value }*
+ * </pre>
+ *
+ * <p>Each field is tagged with its number and wire type, in the manner of Protocol Buffers,
+ * which gives the schema evolution described in {@link EventSchema}. Values are exact:
+ * decimals keep their scale and date-times their nanoseconds. Field numbers 1 to 9 are reserved
+ * for {@link BaseEvent}.
+ */
+public final class BinaryEventCodec {
+
+    static final byte MAGIC = (byte) 0xCE;
+    static final byte FORMAT_VERSION = 1;
+
+    private static final Map<Integer, EventSchema<?>> SCHEMAS_BY_ID = new HashMap<>();
+    private static final Map<Class<?>, EventSchema<?>> SCHEMAS_BY_TYPE = new HashMap<>();
+
+    static {
+        register(base(EventSchema.builder(1, DeliveryEvent.class, DeliveryEvent::new))
+                .uuid(10, DeliveryEvent::getDeliveryId, DeliveryEvent::setDeliveryId)
+                .string(11, DeliveryEvent::getOrderNumber, DeliveryEvent::setOrderNumber)
+                .uuid(12, DeliveryEvent::getCustomerId, DeliveryEvent::setCustomerId)
+                .uuid(13, DeliveryEvent::getDriverId, DeliveryEvent::setDriverId)
+                .enumeration(14, DeliveryEvent.DeliveryStatus.class, DeliveryEvent::getStatus, DeliveryEvent::setStatus)
+                .dateTime(15, DeliveryEvent::getStatusChangedAt, DeliveryEvent::setStatusChangedAt)
+                .string(16, DeliveryEvent::getStatusChangeReason, DeliveryEvent::setStatusChangeReason)
+                .decimal(17, DeliveryEvent::getPickupLatitude, DeliveryEvent::setPickupLatitude)
+                .decimal(18, DeliveryEvent::getPickupLongitude, DeliveryEvent::setPickupLongitude)
+                .decimal(19, DeliveryEvent::getDropoffLatitude, DeliveryEvent::setDropoffLatitude)
+                .decimal(20, DeliveryEvent::getDropoffLongitude, DeliveryEvent::setDropoffLongitude)
+                .dateTime(21, DeliveryEvent::getActualPickupTime, DeliveryEvent::setActualPickupTime)
+                .dateTime(22, DeliveryEvent::getActualDeliveryTime, DeliveryEvent::setActualDeliveryTime)
+                .string(23, DeliveryEvent::getNotes, DeliveryEvent::setNotes)
+                .build());
+
+        register(base(EventSchema.builder(2, LocationUpdateEvent.class, LocationUpdateEvent::new))
+                .uuid(10, LocationUpdateEvent::getDriverId, LocationUpdateEvent::setDriverId)
+                .uuid(11, LocationUpdateEvent::getDeliveryId, LocationUpdateEvent::setDeliveryId)
+                .decimal(12, LocationUpdateEvent::getLatitude, LocationUpdateEvent::setLatitude)
+                .decimal(13, LocationUpdateEvent::getLongitude, LocationUpdateEvent::setLongitude)
+                .decimal(14, LocationUpdateEvent::getAccuracy, LocationUpdateEvent::setAccuracy)
+                .decimal(15, LocationUpdateEvent::getSpeed, LocationUpdateEvent::setSpeed)
+                .decimal(16, LocationUpdateEvent::getHeading, LocationUpdateEvent::setHeading)
+                .integer(17, LocationUpdateEvent::getBatteryLevel, LocationUpdateEvent::setBatteryLevel)
+                .string(18, LocationUpdateEvent::getDeviceId, LocationUpdateEvent::setDeviceId)
+                .build());
+
+        register(base(EventSchema.builder(3, InvoiceEvent.class, InvoiceEvent::new))
+                .uuid(10, InvoiceEvent::getInvoiceId, InvoiceEvent::setInvoiceId)
+                .string(11, InvoiceEvent::getInvoiceNumber, InvoiceEvent::setInvoiceNumber)
+                .uuid(12, InvoiceEvent::getCustomerId, InvoiceEvent::setCustomerId)
+                .date(13, InvoiceEvent::getIssueDate, InvoiceEvent::setIssueDate)
+                .date(14, InvoiceEvent::getDueDate, InvoiceEvent::setDueDate)
+                .enumeration(15, InvoiceEvent.InvoiceStatus.class, InvoiceEvent::getStatus, InvoiceEvent::setStatus)
+                .decimal(16, InvoiceEvent::getSubtotal, InvoiceEvent::setSubtotal)
+                .decimal(17, InvoiceEvent::getTaxAmount, InvoiceEvent::setTaxAmount)
+                .decimal(18, InvoiceEvent::getTotalAmount, InvoiceEvent::setTotalAmount)
+                .string(19, InvoiceEvent::getCurrency, InvoiceEvent::setCurrency)
+                .string(20, InvoiceEvent::getPaymentMethod, InvoiceEvent::setPaymentMethod)
+                .date(21, InvoiceEvent::getPaymentDate, InvoiceEvent::setPaymentDate)
+                .string(22, InvoiceEvent::getPaymentReference, InvoiceEvent::setPaymentReference)
+                .dateTime(23, InvoiceEvent::getStatusChangedAt, InvoiceEvent::setStatusChangedAt)
+                .string(24, InvoiceEvent::getNotes, InvoiceEvent::setNotes)
+                .build());
+
+        register(base(EventSchema.builder(4, RoutePointAppendedEvent.class, RoutePointAppendedEvent::new))
+                .string(10, RoutePointAppendedEvent::getRouteId, RoutePointAppendedEvent::setRouteId)
+                .uuid(11, RoutePointAppendedEvent::getDeliveryId, RoutePointAppendedEvent::setDeliveryId)
+                .uuid(12, RoutePointAppendedEvent::getDriverId, RoutePointAppendedEvent::setDriverId)
+                .decimal(13, RoutePointAppendedEvent::getLatitude, RoutePointAppendedEvent::setLatitude)
+                .decimal(14, RoutePointAppendedEvent::getLongitude, RoutePointAppendedEvent::setLongitude)
+                .decimal(15, RoutePointAppendedEvent::getSpeed, RoutePointAppendedEvent::setSpeed)
+                .decimal(16, RoutePointAppendedEvent::getHeading, RoutePointAppendedEvent::setHeading)
+                .dateTime(17, RoutePointAppendedEvent::getRecordedAt, RoutePointAppendedEvent::setRecordedAt)
+                .build());
+
+        register(base(EventSchema.builder(5, RouteStatusChangedEvent.class, RouteStatusChangedEvent::new))
+                .string(10, RouteStatusChangedEvent::getRouteId, RouteStatusChangedEvent::setRouteId)
+                .uuid(11, RouteStatusChangedEvent::getDeliveryId, RouteStatusChangedEvent::setDeliveryId)
+                .uuid(12, RouteStatusChangedEvent::getDriverId, RouteStatusChangedEvent::setDriverId)
+                .enumeration(13, RouteStatusChangedEvent.RouteStatus.class,
+                        RouteStatusChangedEvent::getStatus, RouteStatusChangedEvent::setStatus)
+                .dateTime(14, RouteStatusChangedEvent::getStartedAt, RouteStatusChangedEvent::setStartedAt)
+                .dateTime(15, RouteStatusChangedEvent::getCompletedAt, RouteStatusChangedEvent::setCompletedAt)
+                .decimal(16, RouteStatusChangedEvent::getActualDistance, RouteStatusChangedEvent::setActualDistance)
+                .integer(17, RouteStatusChangedEvent::getActualDuration, RouteStatusChangedEvent::setActualDuration)
+                .build());
+    }
+
+    private BinaryEventCodec() {
+    }
+
+    public static boolean supports(Class<?> type) {
+        return SCHEMAS_BY_TYPE.containsKey(type);
+    }
+
+    /**
+     * Whether {@code data} starts like an event written by this codec.
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 3 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(BaseEvent event) {
+        EventSchema<?> schema = SCHEMAS_BY_TYPE.get(event.getClass());
+        if (schema == null) {
+            throw new SerializationException("No binary schema for " + event.getClass().getName());
+        }
+
+        WireWriter writer = new WireWriter(128);
+        writer.writeByte(MAGIC);
+        writer.writeByte(FORMAT_VERSION);
+        writer.writeVarint(schema.typeId());
+        schema.write(event, writer);
+        return writer.toByteArray();
+    }
+
+    public static BaseEvent decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new SerializationException("Not a binary event");
+        }
+        if (data[1] != FORMAT_VERSION) {
+            throw new SerializationException("Unsupported binary event format version " + data[1]);
+        }
+
+        WireReader reader = new WireReader(data, 2);
+        int typeId = (int) reader.readVarint();
+        EventSchema<?> schema = SCHEMAS_BY_ID.get(typeId);
+        if (schema == null) {
+            throw new SerializationException("Unknown binary event type " + typeId);
+        }
+        return schema.read(reader);
+    }
+
+    private static <T extends BaseEvent> EventSchema.Builder<T> base(EventSchema.Builder<T> builder) {
+        return builder
+                .uuid(1, BaseEvent::getEventId, BaseEvent::setEventId)
+                .string(2, BaseEvent::getEventType, BaseEvent::setEventType)
+                .dateTime(3, BaseEvent::getTimestamp, BaseEvent::setTimestamp)
+                .string(4, BaseEvent::getSourceService, BaseEvent::setSourceService);
+    }
+
+    private static void register(EventSchema<?> schema) {
+        SCHEMAS_BY_ID.put(schema.typeId(), schema);
+        SCHEMAS_BY_TYPE.put(schema.type(), schema);
+    }
+}
@@ -0,0 +1,46 @@
+package com.couriersync.common.events.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value deserializer reading events written by {@link BinaryEventSerializer} and, for any
+ * other record, delegating to a {@link JsonDeserializer} configured with the same properties.
+ *
+ * <p>Consumers switched to it keep reading JSON topics unchanged, and a topic can move from JSON
+ * to binary once all of its consumers run it: records of both formats are read during the
+ * switch.
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (BinaryEventCodec.isBinary(data)) {
+            return BinaryEventCodec.decode(data);
+        }
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (BinaryEventCodec.isBinary(data)) {
+            return BinaryEventCodec.decode(data);
+        }
+        return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,25 @@
+package com.couriersync.common.events.serialization;
+
+import com.couriersync.common.events.BaseEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer writing the shared events with {@link BinaryEventCodec}. It only
+ * accepts those events, so it is selected per topic, for example through Spring Kafka's
+ * {@code DelegatingByTopicSerializer}, and other payloads keep the JSON serializer.
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (!(data instanceof BaseEvent event) || !BinaryEventCodec.supports(data.getClass())) {
+            throw new SerializationException("Binary serialization of " + data.getClass().getName()
+                    + " is not supported on topic " + topic + "; use JSON for this topic");
+        }
+        return BinaryEventCodec.encode(event);
+    }
+}
@@ -0,0 +1,181 @@
+package com.couriersync.common.events.serialization;
+
+import com.couriersync.common.events.BaseEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Field table of one event type: a stable number per field with its getter and setter.
+ *
+ * <p>Evolution rules: a field number is never reused or given another type; new fields get new
+ * numbers; enum constants are only appended. Under these rules older readers skip the fields
+ * they do not know and newer readers leave absent fields {@code null}.
+ */
+final class EventSchema<T extends BaseEvent> {
+
+    private final int typeId;
+    private final Class<T> type;
+    private final Supplier<T> factory;
+    private final FieldCodec<T>[] fields;
+    private final FieldCodec<T>[] byNumber;
+
+    private EventSchema(int typeId, Class<T> type, Supplier<T> factory, List<FieldCodec<T>> fields) {
+        this.typeId = typeId;
+        this.type = type;
+        this.factory = factory;
+        this.fields = newArray(fields.size());
+        fields.toArray(this.fields);
+
+        int maxNumber = fields.stream().mapToInt(FieldCodec::number).max().orElse(0);
+        this.byNumber = newArray(maxNumber + 1);
+        for (FieldCodec<T> field : fields) {
+            if (byNumber[field.number()] != null) {
+                throw new IllegalArgumentException("Duplicate field number " + field.number() + " in " + type.getSimpleName());
+            }
+            byNumber[field.number()] = field;
+        }
+    }
+
+    static <T extends BaseEvent> Builder<T> builder(int typeId, Class<T> type, Supplier<T> factory) {
+        return new Builder<>(typeId, type, factory);
+    }
+
+    int typeId() {
+        return typeId;
+    }
+
+    Class<T> type() {
+        return type;
+    }
+
+    void write(BaseEvent event, WireWriter writer) {
+        T typed = type.cast(event);
+        for (FieldCodec<T> field : fields) {
+            field.write(typed, writer);
+        }
+    }
+
+    T read(WireReader reader) {
+        T event = factory.get();
+        while (reader.hasRemaining()) {
+            long tag = reader.readVarint();
+            int number = (int) (tag >>> 3);
+            int wireType = (int) (tag & 0x7);
+            FieldCodec<T> field = number < byNumber.length ? byNumber[number] : null;
+            if (field == null || field.wireType() != wireType) {
+                reader.skip(wireType);
+            } else {
+                field.read(event, reader);
+            }
+        }
+        return event;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends BaseEvent> FieldCodec<T>[] newArray(int size) {
+        return new FieldCodec[size];
+    }
+
+    private record FieldCodec<T>(int number, int wireType, Writer<T> writer, BiConsumer<T, WireReader> reader) {
+
+        void write(T event, WireWriter out) {
+            writer.write(event, number, out);
+        }
+
+        void read(T event, WireReader in) {
+            reader.accept(event, in);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Writer<T> {
+        void write(T event, int number, WireWriter out);
+    }
+
+    static final class Builder<T extends BaseEvent> {
+
+        private final int typeId;
+        private final Class<T> type;
+        private final Supplier<T> factory;
+        private final List<FieldCodec<T>> fields = new ArrayList<>();
+
+        private Builder(int typeId, Class<T> type, Supplier<T> factory) {
+            this.typeId = typeId;
+            this.type = type;
+            this.factory = factory;
+        }
+
+        Builder<T> uuid(int number, Function<T, UUID> getter, BiConsumer<T, UUID> setter) {
+            return field(number, WireWriter.LENGTH_DELIMITED, getter, WireWriter::writeUuid, setter, WireReader::readUuid);
+        }
+
+        Builder<T> string(int number, Function<T, String> getter, BiConsumer<T, String> setter) {
+            return field(number, WireWriter.LENGTH_DELIMITED, getter, WireWriter::writeString, setter, WireReader::readString);
+        }
+
+        Builder<T> decimal(int number, Function<T, BigDecimal> getter, BiConsumer<T, BigDecimal> setter) {
+            return field(number, WireWriter.LENGTH_DELIMITED, getter, WireWriter::writeDecimal, setter, WireReader::readDecimal);
+        }
+
+        Builder<T> dateTime(int number, Function<T, LocalDateTime> getter, BiConsumer<T, LocalDateTime> setter) {
+            return field(number, WireWriter.LENGTH_DELIMITED, getter, WireWriter::writeDateTime, setter, WireReader::readDateTime);
+        }
+
+        Builder<T> date(int number, Function<T, LocalDate> getter, BiConsumer<T, LocalDate> setter) {
+            return field(number, WireWriter.VARINT, getter, WireWriter::writeDate, setter, WireReader::readDate);
+        }
+
+        Builder<T> integer(int number, Function<T, Integer> getter, BiConsumer<T, Integer> setter) {
+            return field(number, WireWriter.VARINT, getter, WireWriter::writeInt, setter, WireReader::readInt);
+        }
+
+        /**
+         * Enum by ordinal; an ordinal unknown to the reader reads as {@code null}.
+         */
+        <E extends Enum<E>> Builder<T> enumeration(int number, Class<E> enumType,
+                                                   Function<T, E> getter, BiConsumer<T, E> setter) {
+            E[] constants = enumType.getEnumConstants();
+            return field(number, WireWriter.VARINT, getter,
+                    (out, n, value) -> out.writeInt(n, value.ordinal()),
+                    setter,
+                    in -> {
+                        int ordinal = in.readInt();
+                        return ordinal >= 0 && ordinal < constants.length ? constants[ordinal] : null;
+                    });
+        }
+
+        EventSchema<T> build() {
+            return new EventSchema<>(typeId, type, factory, fields);
+        }
+
+        private <V> Builder<T> field(int number, int wireType,
+                                     Function<T, V> getter, ValueWriter<V> valueWriter,
+                                     BiConsumer<T, V> setter, Function<WireReader, V> valueReader) {
+            if (number < 1) {
+                throw new IllegalArgumentException("Field numbers start at 1");
+            }
+            fields.add(new FieldCodec<>(number, wireType,
+                    (event, n, out) -> {
+                        V value = getter.apply(event);
+                        if (value != null) {
+                            valueWriter.write(out, n, value);
+                        }
+                    },
+                    (event, in) -> setter.accept(event, valueReader.apply(in))));
+            return this;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ValueWriter<V> {
+        void write(WireWriter out, int number, V value);
+    }
+}
@@ -0,0 +1,139 @@
+package com.couriersync.common.events.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Reads the tagged fields written by {@link WireWriter}. Malformed input raises a
+ * {@link SerializationException}.
+ */
+final class WireReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    WireReader(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+
+    boolean hasRemaining() {
+        return position < buffer.length;
+    }
+
+    int readByte() {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint at offset " + position);
+    }
+
+    UUID readUuid() {
+        if (readLength() != 16) {
+            throw new SerializationException("UUID field must be 16 bytes");
+        }
+        return new UUID(readLong(), readLong());
+    }
+
+    String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    BigDecimal readDecimal() {
+        int length = readLength();
+        int end = position + length;
+        int scale = (int) unzigzag(readVarint());
+        if (position >= end) {
+            throw new SerializationException("Decimal field without unscaled value");
+        }
+        BigInteger unscaled = new BigInteger(Arrays.copyOfRange(buffer, position, end));
+        position = end;
+        return new BigDecimal(unscaled, scale);
+    }
+
+    LocalDateTime readDateTime() {
+        int length = readLength();
+        int end = position + length;
+        long seconds = unzigzag(readVarint());
+        int nanos = (int) readVarint();
+        if (position != end) {
+            throw new SerializationException("Malformed date-time field");
+        }
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    LocalDate readDate() {
+        return LocalDate.ofEpochDay(unzigzag(readVarint()));
+    }
+
+    int readInt() {
+        return (int) unzigzag(readVarint());
+    }
+
+    /**
+     * Skips the value of a field that the current schema does not know.
+     */
+    void skip(int wireType) {
+        switch (wireType) {
+            case WireWriter.VARINT -> readVarint();
+            case WireWriter.FIXED64 -> skipBytes(8);
+            case WireWriter.LENGTH_DELIMITED -> skipBytes(readLength());
+            case WireWriter.FIXED32 -> skipBytes(4);
+            default -> throw new SerializationException("Unsupported wire type " + wireType);
+        }
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        if (length < 0 || length > buffer.length - position) {
+            throw new SerializationException("Field length " + length + " exceeds the remaining "
+                    + (buffer.length - position) + " bytes");
+        }
+        return (int) length;
+    }
+
+    private long readLong() {
+        require(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (buffer[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    private void skipBytes(int count) {
+        require(count);
+        position += count;
+    }
+
+    private void require(int count) {
+        if (buffer.length - position < count) {
+            throw new SerializationException("Truncated event: " + count + " more bytes expected at offset " + position);
+        }
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
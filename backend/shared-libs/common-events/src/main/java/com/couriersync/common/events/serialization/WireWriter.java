@@ -0,0 +1,130 @@
+package com.couriersync.common.events.serialization;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Appends tagged fields to a growable buffer. Every field starts with a varint tag
+ * {@code fieldNumber << 3 | wireType}, so readers can skip fields they do not know.
+ */
+final class WireWriter {
+
+    static final int VARINT = 0;
+    static final int FIXED64 = 1;
+    static final int LENGTH_DELIMITED = 2;
+    static final int FIXED32 = 5;
+
+    private byte[] buffer;
+    private int position;
+
+    WireWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeTag(int fieldNumber, int wireType) {
+        writeVarint(((long) fieldNumber << 3) | wireType);
+    }
+
+    void writeUuid(int fieldNumber, UUID value) {
+        writeTag(fieldNumber, LENGTH_DELIMITED);
+        writeVarint(16);
+        writeLong(value.getMostSignificantBits());
+        writeLong(value.getLeastSignificantBits());
+    }
+
+    void writeString(int fieldNumber, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeTag(fieldNumber, LENGTH_DELIMITED);
+        writeVarint(bytes.length);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Exact decimal: zigzag scale followed by the two's-complement unscaled value.
+     */
+    void writeDecimal(int fieldNumber, BigDecimal value) {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        long scale = zigzag(value.scale());
+        writeTag(fieldNumber, LENGTH_DELIMITED);
+        writeVarint(varintSize(scale) + unscaled.length);
+        writeVarint(scale);
+        writeBytes(unscaled);
+    }
+
+    /**
+     * Local date-time as zigzag seconds and nanoseconds since the epoch, read as UTC.
+     */
+    void writeDateTime(int fieldNumber, LocalDateTime value) {
+        long seconds = zigzag(value.toEpochSecond(ZoneOffset.UTC));
+        int nanos = value.getNano();
+        writeTag(fieldNumber, LENGTH_DELIMITED);
+        writeVarint(varintSize(seconds) + varintSize(nanos));
+        writeVarint(seconds);
+        writeVarint(nanos);
+    }
+
+    void writeDate(int fieldNumber, LocalDate value) {
+        writeTag(fieldNumber, VARINT);
+        writeVarint(zigzag(value.toEpochDay()));
+    }
+
+    void writeInt(int fieldNumber, int value) {
+        writeTag(fieldNumber, VARINT);
+        writeVarint(zigzag(value));
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (position + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
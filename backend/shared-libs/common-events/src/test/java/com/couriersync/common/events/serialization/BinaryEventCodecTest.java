@@ -0,0 +1,185 @@
+package com.couriersync.common.events.serialization;
+
+import com.couriersync.common.events.DeliveryEvent;
+import com.couriersync.common.events.InvoiceEvent;
+import com.couriersync.common.events.LocationUpdateEvent;
+import com.couriersync.common.events.RoutePointAppendedEvent;
+import com.couriersync.common.events.RouteStatusChangedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryEventCodecTest {
+
+    private final BinaryEventSerializer serializer = new BinaryEventSerializer();
+
+    @Test
+    void testLocationUpdateEventRoundTrip() {
+        // Given
+        LocationUpdateEvent event = locationEvent();
+
+        // When
+        byte[] bytes = serializer.serialize("location-events", event);
+        Object decoded = deserializer().deserialize("location-events", bytes);
+
+        // Then
+        assertEquals(event, decoded);
+        assertEquals(new BigDecimal("48.856613"), ((LocationUpdateEvent) decoded).getLatitude());
+        assertEquals(event.getTimestamp(), ((LocationUpdateEvent) decoded).getTimestamp());
+    }
+
+    @Test
+    void testDeliveryAndInvoiceEventsRoundTrip() {
+        // Given
+        DeliveryEvent delivery = new DeliveryEvent("dispatch-service");
+        delivery.setDeliveryId(UUID.randomUUID());
+        delivery.setOrderNumber("ORD-2024-0001");
+        delivery.setStatus(DeliveryEvent.DeliveryStatus.PICKED_UP);
+        delivery.setPickupLatitude(new BigDecimal("48.8566130"));
+        delivery.setNotes("Fragile – ne pas plier");
+
+        InvoiceEvent invoice = new InvoiceEvent("billing-service");
+        invoice.setInvoiceId(UUID.randomUUID());
+        invoice.setStatus(InvoiceEvent.InvoiceStatus.PAID);
+        invoice.setIssueDate(LocalDate.of(2024, 5, 1));
+        invoice.setTotalAmount(new BigDecimal("-1234.50"));
+
+        // When
+        Object decodedDelivery = BinaryEventCodec.decode(BinaryEventCodec.encode(delivery));
+        Object decodedInvoice = BinaryEventCodec.decode(BinaryEventCodec.encode(invoice));
+
+        // Then
+        assertEquals(delivery, decodedDelivery);
+        assertEquals(invoice, decodedInvoice);
+    }
+
+    @Test
+    void testRouteEventsRoundTrip() {
+        // Given
+        RoutePointAppendedEvent point = new RoutePointAppendedEvent("tracking-service");
+        point.setRouteId("6634f0c2a1b2c3d4e5f60718");
+        point.setDeliveryId(UUID.randomUUID());
+        point.setDriverId(UUID.randomUUID());
+        point.setLatitude(new BigDecimal("48.856613"));
+        point.setLongitude(new BigDecimal("2.352222"));
+        point.setSpeed(new BigDecimal("32.5"));
+        point.setRecordedAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000));
+
+        RouteStatusChangedEvent status = new RouteStatusChangedEvent("tracking-service");
+        status.setRouteId("6634f0c2a1b2c3d4e5f60718");
+        status.setDeliveryId(point.getDeliveryId());
+        status.setStatus(RouteStatusChangedEvent.RouteStatus.COMPLETED);
+        status.setCompletedAt(LocalDateTime.of(2024, 5, 1, 13, 2, 0));
+        status.setActualDistance(new BigDecimal("12.48"));
+        status.setActualDuration(32);
+
+        // When
+        Object decodedPoint = BinaryEventCodec.decode(BinaryEventCodec.encode(point));
+        Object decodedStatus = BinaryEventCodec.decode(BinaryEventCodec.encode(status));
+
+        // Then
+        assertEquals(point, decodedPoint);
+        assertEquals(status, decodedStatus);
+    }
+
+    @Test
+    void testUnknownFieldsAreSkipped() {
+        // Given: a newer writer appends field 99 (string) and field 98 (varint)
+        LocationUpdateEvent event = locationEvent();
+        WireWriter extension = new WireWriter(16);
+        extension.writeString(99, "added later");
+        extension.writeInt(98, 42);
+        byte[] base = BinaryEventCodec.encode(event);
+        byte[] extra = extension.toByteArray();
+        byte[] bytes = Arrays.copyOf(base, base.length + extra.length);
+        System.arraycopy(extra, 0, bytes, base.length, extra.length);
+
+        // When
+        Object decoded = BinaryEventCodec.decode(bytes);
+
+        // Then
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void testAbsentFieldsReadAsNull() {
+        // Given
+        LocationUpdateEvent event = new LocationUpdateEvent();
+        event.setDriverId(UUID.randomUUID());
+
+        // When
+        LocationUpdateEvent decoded = (LocationUpdateEvent) BinaryEventCodec.decode(BinaryEventCodec.encode(event));
+
+        // Then
+        assertEquals(event.getDriverId(), decoded.getDriverId());
+        assertNull(decoded.getLatitude());
+        assertNull(decoded.getBatteryLevel());
+        assertNull(decoded.getTimestamp());
+    }
+
+    @Test
+    void testTruncatedEventIsRejected() {
+        // Given
+        byte[] bytes = BinaryEventCodec.encode(locationEvent());
+
+        // When / Then
+        assertThrows(SerializationException.class,
+                () -> BinaryEventCodec.decode(Arrays.copyOf(bytes, bytes.length - 3)));
+    }
+
+    @Test
+    void testUnsupportedPayloadIsRejected() {
+        assertThrows(SerializationException.class, () -> serializer.serialize("tracking.routes", "not an event"));
+    }
+
+    @Test
+    void testJsonRecordsAreReadThroughJsonDeserializer() {
+        // Given
+        LocationUpdateEvent event = new LocationUpdateEvent();
+        event.setDriverId(UUID.randomUUID());
+        event.setDeviceId("device-4711");
+        byte[] json;
+        try (JsonSerializer<Object> jsonSerializer = new JsonSerializer<>()) {
+            json = jsonSerializer.serialize("location-events", event);
+        }
+
+        // When
+        Object decoded = deserializer().deserialize("location-events", json);
+
+        // Then
+        assertEquals(event, decoded);
+    }
+
+    private static BinaryEventDeserializer deserializer() {
+        BinaryEventDeserializer deserializer = new BinaryEventDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.VALUE_DEFAULT_TYPE, LocationUpdateEvent.class.getName(),
+                JsonDeserializer.TRUSTED_PACKAGES, "com.couriersync.common.events"), false);
+        return deserializer;
+    }
+
+    private static LocationUpdateEvent locationEvent() {
+        LocationUpdateEvent event = new LocationUpdateEvent("tracking-service");
+        event.setDriverId(UUID.randomUUID());
+        event.setDeliveryId(UUID.randomUUID());
+        event.setLatitude(new BigDecimal("48.856613"));
+        event.setLongitude(new BigDecimal("2.352222"));
+        event.setAccuracy(new BigDecimal("8.5"));
+        event.setSpeed(new BigDecimal("32.4"));
+        event.setHeading(new BigDecimal("187.0"));
+        event.setTimestamp(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_789));
+        event.setBatteryLevel(76);
+        event.setDeviceId("device-4711");
+        return event;
+    }
+}
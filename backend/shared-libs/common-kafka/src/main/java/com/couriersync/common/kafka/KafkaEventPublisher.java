@@ -0,0 +1,112 @@
+package com.couriersync.common.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous, keyed Kafka sends with a bounded number of records in flight.
+ *
+ * <p>Each send is keyed by the id of the entity it describes, so that all events of one entity
+ * land on the same partition in order. Completion is observed through the returned future: the
+ * outcome is timed per topic ({@code kafka.publisher.send}) and failures are logged, so callers
+ * that do not wait on the future still get error handling.
+ *
+ * <p>When {@code maxInFlight} records are waiting for an acknowledgement, a send blocks for at
+ * most {@code acquireTimeout} and is then rejected with an {@link IllegalStateException} in the
+ * returned future, instead of letting the producer buffer grow until it blocks every caller.
+ */
+@Slf4j
+public class KafkaEventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final long acquireTimeoutNanos;
+    private final Counter rejectedSends;
+
+    public KafkaEventPublisher(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry,
+                               int maxInFlight, Duration acquireTimeout) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("app.kafka.producer.max-in-flight must be at least 1");
+        }
+
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+
+        this.rejectedSends = Counter.builder("kafka.publisher.rejected")
+                .description("Sends rejected because too many records were awaiting acknowledgement")
+                .register(meterRegistry);
+        Gauge.builder("kafka.publisher.in_flight", this, KafkaEventPublisher::inFlight)
+                .description("Records sent and not yet acknowledged")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends {@code payload} to {@code topic} keyed by {@code key}, typically the entity id.
+     */
+    public CompletableFuture<SendResult<String, Object>> publish(String topic, String key, Object payload) {
+        try {
+            if (!inFlight.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejectedSends.increment();
+                log.warn("Rejected send to {} with key {}: too many records in flight", topic, key);
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("Too many Kafka records in flight, send to " + topic + " rejected"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.send(topic, key, payload);
+        } catch (RuntimeException e) {
+            // Serialization errors and a full producer buffer are raised synchronously
+            inFlight.release();
+            record(topic, "failure", start);
+            log.error("Failed to send to {} with key {}", topic, key, e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, error) -> {
+            inFlight.release();
+            if (error != null) {
+                record(topic, "failure", start);
+                log.error("Failed to send to {} with key {}", topic, key, error);
+            } else {
+                record(topic, "success", start);
+            }
+        });
+    }
+
+    /**
+     * Number of records sent and not yet acknowledged.
+     */
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private void record(String topic, String result, long startNanos) {
+        Timer.builder("kafka.publisher.send")
+                .description("Time from send to broker acknowledgement")
+                .tag("topic", topic)
+                .tag("result", result)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,72 @@
+package com.couriersync.common.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared Kafka producer setup of the services, applied through Spring Boot auto-configuration.
+ *
+ * <p>With {@code app.kafka.producer.profile=high-throughput} (the default) the producer batches
+ * sends for up to {@code linger-ms} into batches of {@code batch-size} bytes, compresses them and
+ * runs idempotent with {@code acks=all}, so retries neither duplicate nor reorder records of a
+ * partition. Settings given explicitly under {@code spring.kafka.producer} take precedence.
+ */
+@AutoConfiguration(after = KafkaAutoConfiguration.class)
+@Slf4j
+public class KafkaProducerAutoConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.kafka.producer.profile", havingValue = "high-throughput", matchIfMissing = true)
+    public DefaultKafkaProducerFactoryCustomizer highThroughputProducerCustomizer(
+            @Value("${app.kafka.producer.linger-ms:10}") int lingerMs,
+            @Value("${app.kafka.producer.batch-size:65536}") int batchSize,
+            @Value("${app.kafka.producer.compression-type:lz4}") String compressionType) {
+        Map<String, Object> profile = new HashMap<>();
+        profile.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        profile.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        profile.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        profile.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        profile.put(ProducerConfig.ACKS_CONFIG, "all");
+        // Idempotence keeps ordering with up to 5 unacknowledged requests per connection
+        profile.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+
+        return producerFactory -> {
+            Map<String, Object> configured = producerFactory.getConfigurationProperties();
+            Map<String, Object> updates = new HashMap<>();
+            profile.forEach((key, value) -> {
+                if (!configured.containsKey(key)) {
+                    updates.put(key, value);
+                }
+            });
+            producerFactory.updateConfigs(updates);
+            log.info("Applied high-throughput Kafka producer profile: {}", updates);
+        };
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(KafkaTemplate.class)
+    public KafkaEventPublisher kafkaEventPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                                                  ObjectProvider<MeterRegistry> meterRegistry,
+                                                  @Value("${app.kafka.producer.max-in-flight:10000}") int maxInFlight,
+                                                  @Value("${app.kafka.producer.acquire-timeout:PT1S}") Duration acquireTimeout) {
+        return new KafkaEventPublisher(kafkaTemplate, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                maxInFlight, acquireTimeout);
+    }
+}
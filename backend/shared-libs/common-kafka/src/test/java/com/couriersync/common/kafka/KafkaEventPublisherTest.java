@@ -0,0 +1,100 @@
+package com.couriersync.common.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaEventPublisherTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new KafkaEventPublisher(kafkaTemplate, meterRegistry, 2, Duration.ZERO);
+    }
+
+    @Test
+    void testSendsKeyedAndReleasesOnAcknowledgement() {
+        // Given
+        CompletableFuture<SendResult<String, Object>> ack = new CompletableFuture<>();
+        when(kafkaTemplate.send("topic", "entity-1", "payload")).thenReturn(ack);
+
+        // When
+        publisher.publish("topic", "entity-1", "payload");
+
+        // Then
+        assertEquals(1, publisher.inFlight());
+
+        // When
+        ack.complete(null);
+
+        // Then
+        assertEquals(0, publisher.inFlight());
+        assertEquals(1, meterRegistry.get("kafka.publisher.send")
+                .tags("topic", "topic", "result", "success").timer().count());
+    }
+
+    @Test
+    void testRejectsWhenTooManyRecordsInFlight() {
+        // Given
+        when(kafkaTemplate.send(eq("topic"), anyString(), any())).thenReturn(new CompletableFuture<>());
+        publisher.publish("topic", "entity-1", "payload");
+        publisher.publish("topic", "entity-2", "payload");
+
+        // When
+        CompletableFuture<SendResult<String, Object>> rejected = publisher.publish("topic", "entity-3", "payload");
+
+        // Then
+        ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        verify(kafkaTemplate, never()).send("topic", "entity-3", "payload");
+        assertEquals(1.0, meterRegistry.get("kafka.publisher.rejected").counter().count());
+    }
+
+    @Test
+    void testFailedSendIsRecordedAndReleased() {
+        // Given
+        when(kafkaTemplate.send("topic", "entity-1", "payload"))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")));
+
+        // When
+        CompletableFuture<SendResult<String, Object>> result = publisher.publish("topic", "entity-1", "payload");
+
+        // Then
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, publisher.inFlight());
+        assertEquals(1, meterRegistry.get("kafka.publisher.send")
+                .tags("topic", "topic", "result", "failure").timer().count());
+    }
+
+    @Test
+    void testSynchronousSendErrorReleasesPermit() {
+        // Given
+        when(kafkaTemplate.send("topic", "entity-1", "payload")).thenThrow(new IllegalArgumentException("not serializable"));
+
+        // When
+        CompletableFuture<SendResult<String, Object>> result = publisher.publish("topic", "entity-1", "payload");
+
+        // Then
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, publisher.inFlight());
+    }
+}
@@ -0,0 +1,127 @@
+package com.couriersync.tracking.config;
+
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.CompactLocationPoint;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Fixed-layout binary encoding of {@link CachedLocation} for the latest-location cache,
+ * big-endian, 30 to 64 bytes:
+ *
+ * <pre>
+ * version:1 flags:1 [driverId:16] [deliveryId:16] latE6:4 lonE6:4 timestampMillis:8
+ * speed:4 heading:4 accuracy:4 [batteryLevel:2]
+ * </pre>
+ *
+ * <p>Optional fields are present when their flag is set. Values written in another format, such
+ * as JDK-serialized entries written before this codec, read as {@code null} and are handled as
+ * cache misses.
+ */
+public class CachedLocationRedisSerializer implements RedisSerializer<CachedLocation> {
+
+    static final byte VERSION = 1;
+
+    private static final int HAS_DRIVER = 1;
+    private static final int HAS_DELIVERY = 1 << 1;
+    private static final int HAS_BATTERY = 1 << 2;
+
+    private static final int FIXED_SIZE = 2 + 4 + 4 + 8 + 4 + 4 + 4;
+    private static final int UUID_SIZE = 16;
+
+    @Override
+    public byte[] serialize(CachedLocation location) throws SerializationException {
+        if (location == null) {
+            return new byte[0];
+        }
+        if (location.getPoint() == null) {
+            throw new SerializationException("Cached location without point for driver " + location.getDriverId());
+        }
+
+        int flags = 0;
+        int size = FIXED_SIZE;
+        if (location.getDriverId() != null) {
+            flags |= HAS_DRIVER;
+            size += UUID_SIZE;
+        }
+        if (location.getDeliveryId() != null) {
+            flags |= HAS_DELIVERY;
+            size += UUID_SIZE;
+        }
+        Integer batteryLevel = location.getBatteryLevel();
+        if (batteryLevel != null) {
+            if (batteryLevel < Short.MIN_VALUE || batteryLevel > Short.MAX_VALUE) {
+                throw new SerializationException("Battery level out of range: " + batteryLevel);
+            }
+            flags |= HAS_BATTERY;
+            size += 2;
+        }
+
+        CompactLocationPoint point = location.getPoint();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION).put((byte) flags);
+        if (location.getDriverId() != null) {
+            putUuid(buffer, location.getDriverId());
+        }
+        if (location.getDeliveryId() != null) {
+            putUuid(buffer, location.getDeliveryId());
+        }
+        buffer.putInt(point.getLatitudeE6())
+                .putInt(point.getLongitudeE6())
+                .putLong(point.getTimestampMillis())
+                .putFloat(point.getSpeed())
+                .putFloat(point.getHeading())
+                .putFloat(point.getAccuracy());
+        if (batteryLevel != null) {
+            buffer.putShort(batteryLevel.shortValue());
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public CachedLocation deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < FIXED_SIZE || bytes[0] != VERSION) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        int flags = buffer.get();
+        int expectedSize = FIXED_SIZE
+                + ((flags & HAS_DRIVER) != 0 ? UUID_SIZE : 0)
+                + ((flags & HAS_DELIVERY) != 0 ? UUID_SIZE : 0)
+                + ((flags & HAS_BATTERY) != 0 ? 2 : 0);
+        if (bytes.length != expectedSize) {
+            return null;
+        }
+
+        UUID driverId = (flags & HAS_DRIVER) != 0 ? getUuid(buffer) : null;
+        UUID deliveryId = (flags & HAS_DELIVERY) != 0 ? getUuid(buffer) : null;
+        CompactLocationPoint point = CompactLocationPoint.builder()
+                .latitudeE6(buffer.getInt())
+                .longitudeE6(buffer.getInt())
+                .timestampMillis(buffer.getLong())
+                .speed(buffer.getFloat())
+                .heading(buffer.getFloat())
+                .accuracy(buffer.getFloat())
+                .build();
+        Integer batteryLevel = (flags & HAS_BATTERY) != 0 ? (int) buffer.getShort() : null;
+
+        return CachedLocation.builder()
+                .driverId(driverId)
+                .deliveryId(deliveryId)
+                .point(point)
+                .batteryLevel(batteryLevel)
+                .build();
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,28 @@
+package com.couriersync.tracking.config;
+
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Listener factory for the topics every node reads in full. Those listeners assign themselves
+     * all partitions instead of joining a consumer group and start from the latest offset. They
+     * never acknowledge, so no offset is committed and restarts or new replicas leave no consumer
+     * group behind.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> broadcastListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+}
@@ -0,0 +1,74 @@
+package com.couriersync.tracking.config;
+
+import com.couriersync.tracking.service.DeliveryRouteService;
+import com.couriersync.tracking.service.LocationUpdateService;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    /**
+     * Location updates, also read in full by every node to refresh its near cache. Those readers
+     * assign themselves {@link #allPartitions(NewTopic) every partition} of this declaration, so
+     * the partition count must match the topic on the brokers.
+     */
+    @Bean
+    public NewTopic locationUpdatesTopic(
+            @Value("${tracking.updates.partitions:6}") int partitions,
+            @Value("${tracking.updates.replicas:1}") int replicas) {
+        return TopicBuilder.name(LocationUpdateService.LOCATION_UPDATES_TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    /**
+     * Route deltas and status changes, also read in full by every node to keep its active route
+     * cache consistent. Those readers assign themselves {@link #allPartitions(NewTopic) every
+     * partition} of this declaration, so the partition count must match the topic on the brokers.
+     */
+    @Bean
+    public NewTopic routeEventsTopic(
+            @Value("${tracking.routes.partitions:6}") int partitions,
+            @Value("${tracking.routes.replicas:1}") int replicas) {
+        return TopicBuilder.name(DeliveryRouteService.ROUTE_EVENTS_TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    /**
+     * Latest state of each delivery route keyed by route id. Log compaction keeps the newest
+     * snapshot per route, so a consumer can rebuild every route's state by reading the topic from
+     * the beginning and then follow the deltas on {@code tracking.routes}.
+     */
+    @Bean
+    public NewTopic routeSnapshotsTopic(
+            @Value("${tracking.routes.snapshots.partitions:6}") int partitions,
+            @Value("${tracking.routes.snapshots.replicas:1}") int replicas) {
+        return TopicBuilder.name(DeliveryRouteService.ROUTE_SNAPSHOTS_TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                // Let a few superseded snapshots accumulate before the log cleaner rewrites a segment
+                .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+                .config(TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(60 * 60 * 1000))
+                .build();
+    }
+
+    /**
+     * Partitions of a declared topic, for the listeners that read all of it on every node instead
+     * of sharing it through a consumer group.
+     */
+    public static List<Integer> allPartitions(NewTopic topic) {
+        return IntStream.range(0, topic.numPartitions()).boxed().toList();
+    }
+}
@@ -0,0 +1,248 @@
+package com.couriersync.tracking.config;
+
+import com.couriersync.tracking.repository.LocationMinuteAggregateRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Creates the {@code location_updates} collection and its indexes at startup, before the first
+ * ping is stored. The collection layout depends on {@code tracking.location-storage.mode}:
+ *
+ * <ul>
+ *   <li>{@code standard}: regular collection, raw pings expired by a TTL index on {@code timestamp}</li>
+ *   <li>{@code time-series}: MongoDB time-series collection bucketed per driver
+ *       ({@code metaField = driver_id}, {@code timeField = timestamp}), raw pings expired through
+ *       the collection's {@code expireAfterSeconds}</li>
+ * </ul>
+ *
+ * <p>The mode only applies when the collection is created; an existing collection of the other
+ * kind is kept as is and a warning is logged, as MongoDB cannot convert it in place. The
+ * retention is applied to existing collections of either kind.
+ *
+ * <p>With downsampling enabled, the retention is only applied once no raw ping older than it is
+ * left to aggregate: the downsampling watermark has passed {@code now - raw-retention}, or there
+ * is no such ping. Until then it is deferred and retried after each downsampling run, so that
+ * enabling it on an existing collection does not expire history before it is downsampled.
+ */
+@Component
+@Slf4j
+public class LocationStorageInitializer {
+
+    public static final String COLLECTION = "location_updates";
+
+    static final String TTL_INDEX = "timestamp_ttl_idx";
+
+    private final MongoTemplate mongoTemplate;
+    private final LocationMinuteAggregateRepository minuteAggregateRepository;
+    private final StorageMode mode;
+    private final Duration rawRetention;
+    private final boolean downsamplingEnabled;
+
+    private volatile boolean timeSeries;
+    private volatile boolean retentionApplied;
+
+    public LocationStorageInitializer(MongoTemplate mongoTemplate,
+                                      LocationMinuteAggregateRepository minuteAggregateRepository,
+                                      @Value("${tracking.location-storage.mode:standard}") String mode,
+                                      @Value("${tracking.location-storage.raw-retention:0}") Duration rawRetention,
+                                      @Value("${tracking.location-storage.downsampling.enabled:true}") boolean downsamplingEnabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.minuteAggregateRepository = minuteAggregateRepository;
+        this.mode = StorageMode.fromValue(mode);
+        this.rawRetention = rawRetention;
+        this.downsamplingEnabled = downsamplingEnabled;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        Document collection = findCollection();
+
+        if (collection == null && !createCollection()) {
+            // Created concurrently by another node
+            collection = findCollection();
+        }
+
+        if (collection == null) {
+            timeSeries = mode == StorageMode.TIME_SERIES;
+        } else {
+            timeSeries = "timeseries".equals(collection.getString("type"));
+            if (timeSeries != (mode == StorageMode.TIME_SERIES)) {
+                log.warn("Collection {} is a {} collection but storage mode is {}; it must be migrated manually",
+                        COLLECTION, timeSeries ? "time-series" : "standard", mode.value);
+            }
+        }
+
+        // The _id orders the updates of a driver or delivery recorded at the same timestamp
+        IndexOperations indexOps = mongoTemplate.indexOps(COLLECTION);
+        indexOps.ensureIndex(new Index()
+                .on("driver_id", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("driver_timestamp_id_idx"));
+        indexOps.ensureIndex(new Index()
+                .on("delivery_id", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("delivery_timestamp_id_idx"));
+        // Superseded by the indexes above
+        dropIndexIfPresent(indexOps, "driver_timestamp_idx");
+        dropIndexIfPresent(indexOps, "delivery_timestamp_idx");
+
+        applyRetention();
+    }
+
+    /**
+     * Applies {@code tracking.location-storage.raw-retention} unless raw pings older than it
+     * still have to be downsampled. No-op once applied.
+     */
+    public synchronized void applyRetention() {
+        if (retentionApplied) {
+            return;
+        }
+
+        if (hasRetention() && downsamplingEnabled) {
+            LocalDateTime expiresBefore = LocalDateTime.now().minus(rawRetention);
+            if (!downsampledBefore(expiresBefore)) {
+                log.info("Raw location retention of {} deferred until location updates before {} are downsampled",
+                        COLLECTION, expiresBefore);
+                return;
+            }
+        }
+
+        if (timeSeries) {
+            applyTimeSeriesRetention(findCollection());
+        } else {
+            applyTtlIndex(mongoTemplate.indexOps(COLLECTION));
+        }
+        retentionApplied = true;
+    }
+
+    private boolean downsampledBefore(LocalDateTime expiresBefore) {
+        boolean watermarkPassed = minuteAggregateRepository.findFirstByOrderByMinuteDesc()
+                .map(aggregate -> !aggregate.getMinute().isBefore(expiresBefore))
+                .orElse(false);
+        return watermarkPassed
+                || !mongoTemplate.exists(Query.query(Criteria.where("timestamp").lt(expiresBefore)), COLLECTION);
+    }
+
+    private Document findCollection() {
+        return mongoTemplate.getDb().listCollections()
+                .filter(new Document("name", COLLECTION))
+                .first();
+    }
+
+    private boolean createCollection() {
+        Document create = new Document("create", COLLECTION);
+        if (mode == StorageMode.TIME_SERIES) {
+            create.append("timeseries", new Document("timeField", "timestamp")
+                    .append("metaField", "driver_id")
+                    .append("granularity", "seconds"));
+            if (hasRetention()) {
+                create.append("expireAfterSeconds", rawRetention.toSeconds());
+            }
+        }
+        try {
+            mongoTemplate.executeCommand(create);
+        } catch (DataAccessException e) {
+            if (mongoTemplate.collectionExists(COLLECTION)) {
+                return false;
+            }
+            throw e;
+        }
+        log.info("Created {} collection {}", mode.value, COLLECTION);
+        return true;
+    }
+
+    private void applyTimeSeriesRetention(Document existing) {
+        if (existing == null) {
+            // Set when the collection was created
+            return;
+        }
+
+        Object current = existing.get("options", new Document()).get("expireAfterSeconds");
+        Long currentSeconds = current instanceof Number ? ((Number) current).longValue() : null;
+        Long wantedSeconds = hasRetention() ? rawRetention.toSeconds() : null;
+        if (Objects.equals(currentSeconds, wantedSeconds)) {
+            return;
+        }
+
+        mongoTemplate.executeCommand(new Document("collMod", COLLECTION)
+                .append("expireAfterSeconds", wantedSeconds != null ? wantedSeconds : "off"));
+        log.info("Set raw location retention of {} to {}", COLLECTION, hasRetention() ? rawRetention : "unlimited");
+    }
+
+    private void applyTtlIndex(IndexOperations indexOps) {
+        Optional<IndexInfo> ttlIndex = indexOps.getIndexInfo().stream()
+                .filter(index -> TTL_INDEX.equals(index.getName()))
+                .findFirst();
+
+        if (!hasRetention()) {
+            if (ttlIndex.isPresent()) {
+                indexOps.dropIndex(TTL_INDEX);
+                log.info("Dropped raw location retention index of {}", COLLECTION);
+            }
+            return;
+        }
+
+        if (ttlIndex.isEmpty()) {
+            indexOps.ensureIndex(new Index()
+                    .on("timestamp", Sort.Direction.ASC)
+                    .expire(rawRetention)
+                    .named(TTL_INDEX));
+            log.info("Set raw location retention of {} to {}", COLLECTION, rawRetention);
+        } else if (!ttlIndex.get().getExpireAfter().map(rawRetention::equals).orElse(false)) {
+            // Changing the options of an existing index requires collMod
+            mongoTemplate.executeCommand(new Document("collMod", COLLECTION)
+                    .append("index", new Document("name", TTL_INDEX)
+                            .append("expireAfterSeconds", rawRetention.toSeconds())));
+            log.info("Set raw location retention of {} to {}", COLLECTION, rawRetention);
+        }
+    }
+
+    private void dropIndexIfPresent(IndexOperations indexOps, String name) {
+        if (indexOps.getIndexInfo().stream().anyMatch(index -> name.equals(index.getName()))) {
+            indexOps.dropIndex(name);
+            log.info("Dropped index {} of {}", name, COLLECTION);
+        }
+    }
+
+    private boolean hasRetention() {
+        return rawRetention != null && rawRetention.toSeconds() > 0;
+    }
+
+    enum StorageMode {
+        STANDARD("standard"),
+        TIME_SERIES("time-series");
+
+        private final String value;
+
+        StorageMode(String value) {
+            this.value = value;
+        }
+
+        static StorageMode fromValue(String value) {
+            for (StorageMode mode : values()) {
+                if (mode.value.equalsIgnoreCase(value)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported tracking.location-storage.mode: " + value);
+        }
+    }
+}
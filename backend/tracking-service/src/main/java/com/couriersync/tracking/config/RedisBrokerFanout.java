@@ -0,0 +1,158 @@
+package com.couriersync.tracking.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Fans /topic broadcasts out to the other tracking-service nodes through Redis pub/sub, so a
+ * subscriber receives them whichever node it is connected to. Each message sent to the local
+ * broker is published once on a shared channel, and each node hands the messages published by
+ * the other nodes to its own broker.
+ *
+ * <p>Payloads are published as already serialized by the sending node, so receiving nodes do not
+ * convert them again.
+ */
+@Component
+@ConditionalOnProperty(name = "tracking.websocket.broker.mode", havingValue = "redis")
+@Slf4j
+public class RedisBrokerFanout implements ChannelInterceptor, MessageListener {
+
+    static final String ORIGIN_HEADER = "fanoutOrigin";
+
+    private static final byte SEPARATOR = '\n';
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final String channel;
+    private final byte[] channelBytes;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RedisBrokerFanout(StringRedisTemplate redisTemplate,
+                             ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+                             @Value("${tracking.websocket.broker.redis.channel:tracking:broadcast}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.channel = channel;
+        this.channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Publishes broadcasts once the local broker has accepted them.
+     */
+    @Override
+    public void postSend(Message<?> message, MessageChannel messageChannel, boolean sent) {
+        MessageHeaders headers = message.getHeaders();
+        if (!sent || headers.containsKey(ORIGIN_HEADER)
+                || SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (destination == null || !destination.startsWith("/topic/") || !(message.getPayload() instanceof byte[] payload)) {
+            return;
+        }
+
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        byte[] envelope = encode(nodeId, destination, contentType != null ? contentType.toString() : "", payload);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channelBytes, envelope));
+        } catch (Exception e) {
+            // Local subscribers already have the message; only other nodes miss it
+            log.warn("Error fanning out broadcast to {}", destination, e);
+        }
+    }
+
+    /**
+     * Delivers a broadcast published by another node to the local subscribers.
+     */
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        Envelope envelope = decode(message.getBody());
+        if (envelope == null) {
+            log.warn("Ignoring malformed broadcast on channel {}", channel);
+            return;
+        }
+        if (nodeId.equals(envelope.origin)) {
+            return;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.destination);
+        if (!envelope.contentType.isEmpty()) {
+            accessor.setContentType(MimeTypeUtils.parseMimeType(envelope.contentType));
+        }
+        accessor.setHeader(ORIGIN_HEADER, envelope.origin);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.getObject().send(envelope.destination,
+                MessageBuilder.createMessage(envelope.payload, accessor.getMessageHeaders()));
+    }
+
+    // origin \n destination \n content type \n payload
+    static byte[] encode(String origin, String destination, String contentType, byte[] payload) {
+        byte[] header = (origin + "\n" + destination + "\n" + contentType + "\n").getBytes(StandardCharsets.UTF_8);
+        byte[] envelope = Arrays.copyOf(header, header.length + payload.length);
+        System.arraycopy(payload, 0, envelope, header.length, payload.length);
+        return envelope;
+    }
+
+    static Envelope decode(byte[] envelope) {
+        int originEnd = indexOf(envelope, 0);
+        int destinationEnd = originEnd < 0 ? -1 : indexOf(envelope, originEnd + 1);
+        int contentTypeEnd = destinationEnd < 0 ? -1 : indexOf(envelope, destinationEnd + 1);
+        if (contentTypeEnd < 0) {
+            return null;
+        }
+
+        return new Envelope(
+                new String(envelope, 0, originEnd, StandardCharsets.UTF_8),
+                new String(envelope, originEnd + 1, destinationEnd - originEnd - 1, StandardCharsets.UTF_8),
+                new String(envelope, destinationEnd + 1, contentTypeEnd - destinationEnd - 1, StandardCharsets.UTF_8),
+                Arrays.copyOfRange(envelope, contentTypeEnd + 1, envelope.length));
+    }
+
+    private static int indexOf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == SEPARATOR) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static final class Envelope {
+        final String origin;
+        final String destination;
+        final String contentType;
+        final byte[] payload;
+
+        private Envelope(String origin, String destination, String contentType, byte[] payload) {
+            this.origin = origin;
+            this.destination = destination;
+            this.contentType = contentType;
+            this.payload = payload;
+        }
+    }
+}
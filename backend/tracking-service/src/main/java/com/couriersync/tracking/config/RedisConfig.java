@@ -0,0 +1,26 @@
+package com.couriersync.tracking.config;
+
+import com.couriersync.tracking.model.CachedLocation;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Template for the latest-location cache: string keys, values in the compact binary
+     * layout of {@link CachedLocationRedisSerializer}.
+     */
+    @Bean
+    public RedisTemplate<String, CachedLocation> latestLocationRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, CachedLocation> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(new CachedLocationRedisSerializer());
+        template.setEnableDefaultSerializer(false);
+        return template;
+    }
+}
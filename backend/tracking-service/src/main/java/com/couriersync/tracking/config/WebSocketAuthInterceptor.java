@@ -1,6 +1,7 @@
 package com.couriersync.tracking.config;
 
 import com.couriersync.tracking.security.LocationAuthorizationGuard;
+import com.couriersync.tracking.service.LiveLocationIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.Message;
@@ -21,6 +22,7 @@ import java.util.UUID;
 public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
     private final LocationAuthorizationGuard locationAuthorizationGuard;
+    private final LiveLocationIndex liveLocationIndex;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -54,6 +56,13 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                     throw new IllegalArgumentException("Not authorized to subscribe to " + destination);
                 }
             }
+        } else if (StompCommand.SEND.equals(accessor.getCommand())) {
+            // Area messages expose every driver of a tile, restrict them like the area topics
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith("/app/area/")
+                    && !locationAuthorizationGuard.canAccessArea()) {
+                throw new IllegalArgumentException("Not authorized to send to " + destination);
+            }
         }
 
         return message;
@@ -64,6 +73,10 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
         if (destination.startsWith("/topic/driver/")) {
             try {
                 String driverIdStr = destination.substring("/topic/driver/".length());
+                // Compact delta stream of the same driver
+                if (driverIdStr.endsWith("/delta")) {
+                    driverIdStr = driverIdStr.substring(0, driverIdStr.length() - "/delta".length());
+                }
                 UUID driverId = UUID.fromString(driverIdStr);
                 return locationAuthorizationGuard.canAccessLocationUpdates(driverId);
             } catch (Exception e) {
@@ -79,6 +92,14 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                 log.error("Error parsing delivery ID from destination: " + destination, e);
                 return false;
             }
+        } else if (destination.startsWith("/topic/area/")) {
+            // One subscription covers every driver inside a geohash tile
+            String area = destination.substring("/topic/area/".length());
+            return liveLocationIndex.isValidArea(area) && locationAuthorizationGuard.canAccessArea();
+        } else if (destination.startsWith("/app/area/")) {
+            // Snapshot of the same tile, answered to this session only
+            String area = destination.substring("/app/area/".length());
+            return liveLocationIndex.isValidArea(area) && locationAuthorizationGuard.canAccessArea();
         }
 
         // Default to false for unknown destinations
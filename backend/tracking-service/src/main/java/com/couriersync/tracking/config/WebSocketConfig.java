@@ -2,13 +2,31 @@ package com.couriersync.tracking.config;
 
 import com.couriersync.tracking.security.LocationAuthorizationGuard;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * STOMP configuration. The broker is selected with {@code tracking.websocket.broker.mode}:
+ * <ul>
+ *     <li>{@code simple}: in-memory broker, subscribers only see broadcasts of the node they are
+ *     connected to (single node deployments)</li>
+ *     <li>{@code redis}: in-memory broker on each node, broadcasts are fanned out to the other
+ *     nodes through Redis pub/sub</li>
+ *     <li>{@code relay}: subscriptions and broadcasts are relayed to an external STOMP broker</li>
+ * </ul>
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
@@ -16,10 +34,43 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final LocationAuthorizationGuard locationAuthorizationGuard;
     private final WebSocketAuthInterceptor authInterceptor;
+    private final ObjectProvider<RedisBrokerFanout> redisBrokerFanout;
+
+    @Value("${tracking.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${tracking.websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${tracking.websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${tracking.websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${tracking.websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        switch (brokerMode) {
+            case "simple" -> config.enableSimpleBroker("/topic", "/queue");
+            case "redis" -> {
+                config.enableSimpleBroker("/topic", "/queue");
+                config.configureBrokerChannel().interceptors(redisBrokerFanout.getObject());
+            }
+            case "relay" -> config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // Lets messages for a user reach sessions connected to other nodes
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+            default -> throw new IllegalStateException("Unknown WebSocket broker mode: " + brokerMode);
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -34,4 +85,16 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(authInterceptor);
     }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracking.websocket.broker.mode", havingValue = "redis")
+    public RedisMessageListenerContainer brokerFanoutListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       RedisBrokerFanout fanout) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // Dispatch on the subscription thread so each destination keeps its publish order
+        container.setTaskExecutor(new SyncTaskExecutor());
+        container.addMessageListener(fanout, new ChannelTopic(fanout.getChannel()));
+        return container;
+    }
 }
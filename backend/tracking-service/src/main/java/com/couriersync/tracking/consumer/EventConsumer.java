@@ -1,7 +1,10 @@
 package com.couriersync.tracking.consumer;
 
 import com.couriersync.common.events.DeliveryEvent;
+import com.couriersync.tracking.model.DeliveryRoute;
+import com.couriersync.tracking.service.ActiveRouteCache;
 import com.couriersync.tracking.service.DeliveryRouteService;
+import com.couriersync.tracking.service.GeoDistance;
 import com.couriersync.tracking.service.LocationUpdateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +13,9 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
@@ -18,6 +24,13 @@ public class EventConsumer {
 
     private final DeliveryRouteService deliveryRouteService;
     private final LocationUpdateService locationUpdateService;
+    private final ActiveRouteCache activeRouteCache;
+
+    // Delivery statuses that change the route
+    private static final Set<DeliveryEvent.DeliveryStatus> ROUTE_STATUSES = EnumSet.of(
+            DeliveryEvent.DeliveryStatus.PICKED_UP,
+            DeliveryEvent.DeliveryStatus.DELIVERED,
+            DeliveryEvent.DeliveryStatus.CANCELLED);
 
     @KafkaListener(topics = "${app.kafka.topics.delivery-events}", groupId = "${spring.application.name}")
     public void handleDeliveryEvent(@Payload DeliveryEvent event) {
@@ -66,25 +79,38 @@ public class EventConsumer {
                 case "delivery.status.updated":
                     // Update route status based on delivery status
                     if (event.getDeliveryId() != null && event.getStatus() != null) {
+                        // The driver's active route is about to change; make the next ping re-resolve it
+                        activeRouteCache.evict(event.getDriverId());
+
+                        if (!ROUTE_STATUSES.contains(event.getStatus())) {
+                            break;
+                        }
+                        Optional<String> routeId = deliveryRouteService.findRouteIdByDeliveryId(event.getDeliveryId());
+                        if (routeId.isEmpty()) {
+                            log.warn("No route found for delivery: {}, ignoring status {}",
+                                    event.getDeliveryId(), event.getStatus());
+                            break;
+                        }
+
                         switch (event.getStatus()) {
                             case PICKED_UP:
                                 deliveryRouteService.updateRouteStatus(
-                                        findRouteIdByDeliveryId(event.getDeliveryId()),
+                                        routeId.get(),
                                         DeliveryRoute.RouteStatus.IN_PROGRESS
                                 );
                                 break;
 
                             case DELIVERED:
                                 deliveryRouteService.finalizeRoute(
-                                        findRouteIdByDeliveryId(event.getDeliveryId()),
-                                        null, // Actual distance would be calculated from route points
-                                        null  // Actual duration would be calculated from timestamps
+                                        routeId.get(),
+                                        null, // Computed from the distance accumulated in the route points
+                                        null  // Computed from the moving and idle time of the route points
                                 );
                                 break;
 
                             case CANCELLED:
                                 deliveryRouteService.updateRouteStatus(
-                                        findRouteIdByDeliveryId(event.getDeliveryId()),
+                                        routeId.get(),
                                         DeliveryRoute.RouteStatus.CANCELLED
                                 );
                                 break;
@@ -100,27 +126,9 @@ public class EventConsumer {
         }
     }
 
-    private String findRouteIdByDeliveryId(java.util.UUID deliveryId) {
-        // In a real implementation, this would query the database
-        // For now, return a placeholder
-        return "route-" + deliveryId.toString().substring(0, 8);
-    }
-
     private BigDecimal calculateDistance(BigDecimal lat1, BigDecimal lon1, BigDecimal lat2, BigDecimal lon2) {
         // Simplified distance calculation using Haversine formula
         // In a real system, use a proper mapping service
-
-        double earthRadius = 6371; // km
-
-        double dLat = Math.toRadians(lat2.doubleValue() - lat1.doubleValue());
-        double dLon = Math.toRadians(lon2.doubleValue() - lon1.doubleValue());
-
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.cos(Math.toRadians(lat1.doubleValue())) * Math.cos(Math.toRadians(lat2.doubleValue())) *
-                Math.sin(dLon / 2) * Math.sin(dLon / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return new BigDecimal(earthRadius * c).setScale(2, BigDecimal.ROUND_HALF_UP);
+        return GeoDistance.haversineKm(lat1, lon1, lat2, lon2);
     }
 }
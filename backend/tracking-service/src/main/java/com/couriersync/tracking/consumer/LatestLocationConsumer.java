@@ -0,0 +1,45 @@
+package com.couriersync.tracking.consumer;
+
+import com.couriersync.tracking.mapper.CompactLocationMapper;
+import com.couriersync.tracking.model.LocationUpdate;
+import com.couriersync.tracking.service.LatestLocationNearCache;
+import com.couriersync.tracking.service.LocationUpdateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the near cache of every node up to date with the location updates ingested by the
+ * others. Each node reads every partition of the topic from the latest offset, without a
+ * consumer group and without committing offsets.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LatestLocationConsumer {
+
+    private final LatestLocationNearCache latestLocationNearCache;
+
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = LocationUpdateService.LOCATION_UPDATES_TOPIC,
+                    partitions = "#{T(com.couriersync.tracking.config.KafkaTopicConfig).allPartitions(@locationUpdatesTopic)}"),
+            containerFactory = "broadcastListenerContainerFactory",
+            autoStartup = "${tracking.latest-location.near-cache.kafka-refresh:true}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "enable.auto.commit=false",
+                    "spring.json.trusted.packages=com.couriersync.tracking.model"
+            })
+    public void handleLocationUpdate(@Payload LocationUpdate locationUpdate) {
+        if (locationUpdate.getDriverId() == null || locationUpdate.getLatitude() == null
+                || locationUpdate.getLongitude() == null || locationUpdate.getTimestamp() == null) {
+            log.debug("Ignoring incomplete location update: {}", locationUpdate.getId());
+            return;
+        }
+        latestLocationNearCache.put(CompactLocationMapper.toCachedLocation(locationUpdate));
+    }
+}
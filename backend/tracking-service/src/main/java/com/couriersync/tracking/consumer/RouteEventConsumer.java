@@ -0,0 +1,50 @@
+package com.couriersync.tracking.consumer;
+
+import com.couriersync.common.events.BaseEvent;
+import com.couriersync.common.events.RouteStatusChangedEvent;
+import com.couriersync.tracking.model.DeliveryRoute;
+import com.couriersync.tracking.service.ActiveRouteCache;
+import com.couriersync.tracking.service.DeliveryRouteService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the active route cache of every node consistent with the route status changes made by
+ * the others, so that no node keeps appending points to a completed or cancelled route. Each node
+ * reads every partition of the topic from the latest offset, without a consumer group and without
+ * committing offsets.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RouteEventConsumer {
+
+    private final ActiveRouteCache activeRouteCache;
+
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = DeliveryRouteService.ROUTE_EVENTS_TOPIC,
+                    partitions = "#{T(com.couriersync.tracking.config.KafkaTopicConfig).allPartitions(@routeEventsTopic)}"),
+            containerFactory = "broadcastListenerContainerFactory",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "enable.auto.commit=false"
+            })
+    public void handleRouteEvent(@Payload BaseEvent event) {
+        // Point appended events share the topic and do not change the active route
+        if (!(event instanceof RouteStatusChangedEvent statusChanged) || statusChanged.getStatus() == null) {
+            return;
+        }
+
+        log.debug("Route {} of driver {} is now {}",
+                statusChanged.getRouteId(), statusChanged.getDriverId(), statusChanged.getStatus());
+        activeRouteCache.onRemoteRouteChanged(
+                statusChanged.getDriverId(),
+                statusChanged.getRouteId(),
+                DeliveryRoute.RouteStatus.valueOf(statusChanged.getStatus().name()));
+    }
+}
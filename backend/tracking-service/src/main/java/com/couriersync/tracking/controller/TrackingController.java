@@ -1,9 +1,15 @@
 package com.couriersync.tracking.controller;
 
 import com.couriersync.tracking.model.DeliveryRoute;
+import com.couriersync.tracking.model.LocationHistoryPage;
 import com.couriersync.tracking.model.LocationUpdate;
+import com.couriersync.tracking.model.RouteGeometry;
 import com.couriersync.tracking.service.DeliveryRouteService;
+import com.couriersync.tracking.service.LocationIngestionService;
 import com.couriersync.tracking.service.LocationUpdateService;
+import com.couriersync.tracking.service.Polyline;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,16 +20,24 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/tracking")
@@ -34,52 +48,131 @@ import java.util.UUID;
 public class TrackingController {
 
     private final LocationUpdateService locationUpdateService;
+    private final LocationIngestionService locationIngestionService;
     private final DeliveryRouteService deliveryRouteService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tracking.latest-location.max-drivers:5000}")
+    private int maxLatestLocationDrivers;
+
+    @Value("${tracking.history.max-page-size:1000}")
+    private int maxHistoryPageSize;
+
+    @Value("${tracking.route-geometry.max-tolerance-meters:1000}")
+    private double maxGeometryToleranceMeters;
 
     @PostMapping("/location")
     @Operation(summary = "Submit a location update")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "201", description = "Location update submitted successfully", 
+        @ApiResponse(responseCode = "202", description = "Location update accepted for processing", 
                 content = @Content(schema = @Schema(implementation = LocationUpdate.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input"),
-        @ApiResponse(responseCode = "403", description = "Access denied")
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "503", description = "Ingestion buffer full, retry later")
     })
     @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER', 'DRIVER')")
     public ResponseEntity<LocationUpdate> submitLocationUpdate(@Valid @RequestBody LocationUpdate locationUpdate) {
-        log.info("Submitting location update for driver: {}, delivery: {}", 
+        log.debug("Submitting location update for driver: {}, delivery: {}", 
                 locationUpdate.getDriverId(), locationUpdate.getDeliveryId());
-        LocationUpdate savedUpdate = locationUpdateService.saveLocationUpdate(locationUpdate);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedUpdate);
+        try {
+            if (!locationIngestionService.submit(locationUpdate)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(locationUpdate);
     }
 
     @PostMapping("/location/batch")
     @Operation(summary = "Submit multiple location updates in batch")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "201", description = "Location updates submitted successfully"),
+        @ApiResponse(responseCode = "202", description = "Location updates accepted for processing"),
         @ApiResponse(responseCode = "400", description = "Invalid input"),
-        @ApiResponse(responseCode = "403", description = "Access denied")
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "503", description = "Ingestion buffer full, retry the rejected updates later")
     })
     @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER', 'DRIVER')")
     public ResponseEntity<Void> submitLocationUpdatesBatch(@Valid @RequestBody List<LocationUpdate> locationUpdates) {
         log.info("Submitting batch of {} location updates", locationUpdates.size());
-        locationUpdateService.saveLocationUpdatesBatch(locationUpdates);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        int accepted;
+        try {
+            accepted = locationIngestionService.submitAll(locationUpdates);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        HttpStatus status = accepted == locationUpdates.size() ? HttpStatus.ACCEPTED : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .header("X-Accepted-Count", String.valueOf(accepted))
+                .build();
     }
 
     @GetMapping("/location/driver/{driverId}")
     @Operation(summary = "Get latest location updates for a driver")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Location updates retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit"),
         @ApiResponse(responseCode = "403", description = "Access denied")
     })
     @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER', 'DRIVER')")
     public ResponseEntity<List<LocationUpdate>> getLatestLocationUpdates(
             @Parameter(description = "Driver ID") @PathVariable UUID driverId,
             @Parameter(description = "Maximum number of updates to return") @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > maxHistoryPageSize) {
+            return ResponseEntity.badRequest().build();
+        }
         List<LocationUpdate> updates = locationUpdateService.getLatestLocationUpdates(driverId, limit);
         return ResponseEntity.ok(updates);
     }
 
+    @GetMapping("/location/driver/{driverId}/history")
+    @Operation(summary = "Get a page of a driver's location history, oldest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page retrieved successfully; pass nextCursor as cursor for the next page"),
+        @ApiResponse(responseCode = "400", description = "Invalid time range, cursor or limit"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER', 'DRIVER')")
+    public ResponseEntity<LocationHistoryPage> getDriverHistory(
+            @Parameter(description = "Driver ID") @PathVariable UUID driverId,
+            @Parameter(description = "Start time, inclusive") @RequestParam(required = false)
+                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @Parameter(description = "End time, exclusive") @RequestParam(required = false)
+                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @Parameter(description = "Cursor returned with the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of updates to return") @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > maxHistoryPageSize
+                || (startTime != null && endTime != null && !startTime.isBefore(endTime))) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(locationUpdateService.getDriverHistory(driverId, startTime, endTime, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(value = "/location/driver/{driverId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream a driver's location updates in a time range as NDJSON, oldest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One location update per line"),
+        @ApiResponse(responseCode = "400", description = "Invalid time range"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER')")
+    public ResponseEntity<StreamingResponseBody> exportDriverHistory(
+            @Parameter(description = "Driver ID") @PathVariable UUID driverId,
+            @Parameter(description = "Start time") @RequestParam
+                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @Parameter(description = "End time") @RequestParam
+                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+        if (!startTime.isBefore(endTime)) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("Exporting location history for driver: {} between {} and {}", driverId, startTime, endTime);
+        return ndjson(() -> locationUpdateService.streamLocationUpdatesForDriverInTimeRange(driverId, startTime, endTime));
+    }
+
     @GetMapping("/location/driver/{driverId}/latest")
     @Operation(summary = "Get the latest location update for a driver")
     @ApiResponses(value = {
@@ -95,6 +188,39 @@ public class TrackingController {
         return update != null ? ResponseEntity.ok(update) : ResponseEntity.notFound().build();
     }
 
+    @GetMapping("/location/latest")
+    @Operation(summary = "Get the latest location of several drivers")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Latest locations retrieved successfully; drivers without a recent location are omitted"),
+        @ApiResponse(responseCode = "400", description = "No driver IDs or too many driver IDs"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER')")
+    public ResponseEntity<List<LocationUpdate>> getLatestLocations(
+            @Parameter(description = "Driver IDs, comma separated") @RequestParam List<UUID> driverIds) {
+        return latestLocations(driverIds);
+    }
+
+    @PostMapping("/location/latest")
+    @Operation(summary = "Get the latest location of several drivers, for ID lists too long for a query string")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Latest locations retrieved successfully; drivers without a recent location are omitted"),
+        @ApiResponse(responseCode = "400", description = "No driver IDs or too many driver IDs"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER')")
+    public ResponseEntity<List<LocationUpdate>> findLatestLocations(@RequestBody List<UUID> driverIds) {
+        return latestLocations(driverIds);
+    }
+
+    private ResponseEntity<List<LocationUpdate>> latestLocations(List<UUID> driverIds) {
+        if (driverIds.isEmpty() || driverIds.size() > maxLatestLocationDrivers) {
+            log.warn("Rejecting latest location lookup for {} drivers", driverIds.size());
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(locationUpdateService.getLatestLocations(driverIds));
+    }
+
     @GetMapping("/location/delivery/{deliveryId}")
     @Operation(summary = "Get location updates for a delivery")
     @ApiResponses(value = {
@@ -108,6 +234,41 @@ public class TrackingController {
         return ResponseEntity.ok(updates);
     }
 
+    @GetMapping("/location/delivery/{deliveryId}/history")
+    @Operation(summary = "Get a page of a delivery's location history, oldest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page retrieved successfully; pass nextCursor as cursor for the next page"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER', 'DRIVER')")
+    public ResponseEntity<LocationHistoryPage> getDeliveryHistory(
+            @Parameter(description = "Delivery ID") @PathVariable UUID deliveryId,
+            @Parameter(description = "Cursor returned with the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of updates to return") @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > maxHistoryPageSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(locationUpdateService.getDeliveryHistory(deliveryId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(value = "/location/delivery/{deliveryId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream a delivery's location updates as NDJSON, oldest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One location update per line"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER')")
+    public ResponseEntity<StreamingResponseBody> exportDeliveryHistory(
+            @Parameter(description = "Delivery ID") @PathVariable UUID deliveryId) {
+        log.info("Exporting location history for delivery: {}", deliveryId);
+        return ndjson(() -> locationUpdateService.streamLocationUpdatesForDelivery(deliveryId));
+    }
+
     @GetMapping("/location/driver/{driverId}/coordinates")
     @Operation(summary = "Get coordinates for a driver in a time range")
     @ApiResponses(value = {
@@ -131,6 +292,30 @@ public class TrackingController {
         }
     }
 
+    // The cursor is opened on the async response thread and closed once written, so the export
+    // holds one cursor batch in memory whatever its length
+    private ResponseEntity<StreamingResponseBody> ndjson(Supplier<Stream<LocationUpdate>> updates) {
+        StreamingResponseBody body = out -> {
+            try (Stream<LocationUpdate> stream = updates.get()) {
+                writeNdjson(stream, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeNdjson(Stream<LocationUpdate> updates, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (LocationUpdate update : (Iterable<LocationUpdate>) updates::iterator) {
+                generator.writeObject(update);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
     @PostMapping("/route")
     @Operation(summary = "Create a new delivery route")
     @ApiResponses(value = {
@@ -227,15 +412,48 @@ public class TrackingController {
     public ResponseEntity<List<DeliveryRoute.LocationPoint>> getRoutePoints(
             @Parameter(description = "Route ID") @PathVariable String routeId) {
         try {
-            // Get route by ID and extract route points
+            List<DeliveryRoute.LocationPoint> routePoints = deliveryRouteService.getRoutePoints(routeId);
+            if (!routePoints.isEmpty()) {
+                return ResponseEntity.ok(routePoints);
+            }
+
+            // No bucketed points yet: distinguish an empty route from a missing one
             return deliveryRouteService.getRouteById(routeId)
-                    .map(route -> ResponseEntity.ok(route.getRoutePoints()))
+                    .map(route -> ResponseEntity.ok(route.getRoutePoints() != null
+                            ? route.getRoutePoints() : routePoints))
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @GetMapping("/route/{routeId}/geometry")
+    @Operation(summary = "Get a route's track as an encoded polyline, optionally simplified")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Geometry retrieved successfully",
+                content = @Content(schema = @Schema(implementation = RouteGeometry.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid tolerance or precision"),
+        @ApiResponse(responseCode = "404", description = "Route not found"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER', 'DRIVER')")
+    public ResponseEntity<RouteGeometry> getRouteGeometry(
+            @Parameter(description = "Route ID") @PathVariable String routeId,
+            @Parameter(description = "Douglas-Peucker tolerance in meters, 0 keeps every point")
+                @RequestParam(defaultValue = "0") double tolerance,
+            @Parameter(description = "Polyline precision in decimals (5 or 6)")
+                @RequestParam(defaultValue = "5") int precision) {
+        if (!(tolerance >= 0 && tolerance <= maxGeometryToleranceMeters)
+                || precision < Polyline.DEFAULT_PRECISION || precision > Polyline.MAX_PRECISION) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Tenths of a meter are enough and keep the number of cached variants small
+        double roundedTolerance = Math.round(tolerance * 10) / 10.0;
+        return deliveryRouteService.getRouteGeometry(routeId, roundedTolerance, precision)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/route/delivery/{deliveryId}/points")
     @Operation(summary = "Get route points for a delivery")
     @ApiResponses(value = {
@@ -261,8 +479,10 @@ public class TrackingController {
     @PreAuthorize("hasAnyRole('ADMIN', 'DISPATCHER', 'DRIVER')")
     public ResponseEntity<DeliveryRoute> finalizeRoute(
             @Parameter(description = "Route ID") @PathVariable String routeId,
-            @Parameter(description = "Actual distance in km") @RequestParam BigDecimal actualDistance,
-            @Parameter(description = "Actual duration in minutes") @RequestParam Integer actualDuration) {
+            @Parameter(description = "Actual distance in km, computed from the route points when omitted")
+            @RequestParam(required = false) BigDecimal actualDistance,
+            @Parameter(description = "Actual duration in minutes, computed from the route points when omitted")
+            @RequestParam(required = false) Integer actualDuration) {
         try {
             DeliveryRoute finalizedRoute = deliveryRouteService.finalizeRoute(
                     routeId, actualDistance, actualDuration);
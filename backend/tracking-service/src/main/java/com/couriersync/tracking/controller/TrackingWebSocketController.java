@@ -1,13 +1,17 @@
 package com.couriersync.tracking.controller;
 
+import com.couriersync.tracking.model.AreaUpdate;
 import com.couriersync.tracking.model.LocationUpdate;
+import com.couriersync.tracking.service.LiveLocationIndex;
+import com.couriersync.tracking.service.LocationBroadcastService;
+import com.couriersync.tracking.service.LocationIngestionService;
 import com.couriersync.tracking.service.LocationUpdateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 import java.util.UUID;
@@ -18,7 +22,9 @@ import java.util.UUID;
 public class TrackingWebSocketController {
 
     private final LocationUpdateService locationUpdateService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final LocationIngestionService locationIngestionService;
+    private final LocationBroadcastService locationBroadcastService;
+    private final LiveLocationIndex liveLocationIndex;
 
     /**
      * Endpoint for receiving location updates from drivers
@@ -27,21 +33,19 @@ public class TrackingWebSocketController {
     public void receiveLocationUpdate(LocationUpdate locationUpdate) {
         log.debug("Received location update from driver: {}", locationUpdate.getDriverId());
 
-        // Save the location update
-        LocationUpdate savedUpdate = locationUpdateService.createLocationUpdate(
-                com.couriersync.tracking.mapper.LocationUpdateMapper.INSTANCE.toDto(locationUpdate));
-
-        // Broadcast the location update to subscribers of this driver's location
-        messagingTemplate.convertAndSend(
-                "/topic/driver/" + locationUpdate.getDriverId(), 
-                savedUpdate);
+        if (locationUpdate.getLatitude() == null || locationUpdate.getLongitude() == null) {
+            log.warn("Dropping location update from driver {}: no coordinates", locationUpdate.getDriverId());
+            return;
+        }
 
-        // If this location update is associated with a delivery, also broadcast to delivery subscribers
-        if (locationUpdate.getDeliveryId() != null) {
-            messagingTemplate.convertAndSend(
-                    "/topic/delivery/" + locationUpdate.getDeliveryId(), 
-                    savedUpdate);
+        // Hand the update to the ingestion buffer; persistence happens in the background
+        if (!locationIngestionService.submit(locationUpdate)) {
+            log.warn("Dropping location update from driver {}: ingestion buffer full", locationUpdate.getDriverId());
+            return;
         }
+
+        // Broadcast to driver and delivery subscribers, rate limited per driver
+        locationBroadcastService.publish(locationUpdate);
     }
 
     /**
@@ -52,10 +56,8 @@ public class TrackingWebSocketController {
     public LocationUpdate subscribeToDriverLocation(@DestinationVariable UUID driverId) {
         log.debug("Client subscribed to driver location updates: {}", driverId);
 
-        // Return the latest location update for this driver
-        return locationUpdateService.getLatestLocationUpdateByDriverId(driverId)
-                .map(dto -> com.couriersync.tracking.mapper.LocationUpdateMapper.INSTANCE.toEntity(dto))
-                .orElse(null);
+        // Return the latest location update for this driver, usually from the near cache
+        return locationUpdateService.getLatestLocationUpdate(driverId);
     }
 
     /**
@@ -71,4 +73,22 @@ public class TrackingWebSocketController {
                 .map(dto -> com.couriersync.tracking.mapper.LocationUpdateMapper.INSTANCE.toEntity(dto))
                 .orElse(null);
     }
+
+    /**
+     * Initial snapshot of every driver inside a geohash area. The reply goes to the subscribing
+     * session only; live updates follow on {@code /topic/area/{area}}.
+     */
+    @SubscribeMapping("/area/{area}")
+    public AreaUpdate subscribeToArea(@DestinationVariable String area) {
+        log.debug("Client requested area snapshot: {}", area);
+
+        if (!liveLocationIndex.isValidArea(area)) {
+            throw new IllegalArgumentException("Invalid area: " + area);
+        }
+
+        // Return the current position of the drivers inside the area
+        return AreaUpdate.builder()
+                .positions(liveLocationIndex.findInArea(area))
+                .build();
+    }
 }
@@ -0,0 +1,127 @@
+package com.couriersync.tracking.mapper;
+
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.DeliveryRoute;
+import com.couriersync.tracking.model.LocationUpdate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts between the compact primitive point model and the {@code BigDecimal} models exposed
+ * over REST, so the public JSON contract is unaffected by the internal representation.
+ */
+public final class CompactLocationMapper {
+
+    private static final double MICRODEGREES = 1_000_000d;
+
+    private CompactLocationMapper() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the latitude or longitude is missing
+     */
+    public static CompactLocationPoint toPoint(LocationUpdate locationUpdate) {
+        return CompactLocationPoint.builder()
+                .latitudeE6(toMicrodegrees(locationUpdate.getLatitude()))
+                .longitudeE6(toMicrodegrees(locationUpdate.getLongitude()))
+                .timestampMillis(toEpochMillis(locationUpdate.getTimestamp()))
+                .speed(toFloat(locationUpdate.getSpeed()))
+                .heading(toFloat(locationUpdate.getHeading()))
+                .accuracy(toFloat(locationUpdate.getAccuracy()))
+                .build();
+    }
+
+    public static CachedLocation toCachedLocation(LocationUpdate locationUpdate) {
+        return CachedLocation.builder()
+                .driverId(locationUpdate.getDriverId())
+                .deliveryId(locationUpdate.getDeliveryId())
+                .point(toPoint(locationUpdate))
+                .batteryLevel(locationUpdate.getBatteryLevel())
+                .build();
+    }
+
+    public static LocationUpdate toLocationUpdate(CachedLocation cachedLocation) {
+        CompactLocationPoint point = cachedLocation.getPoint();
+        return LocationUpdate.builder()
+                .driverId(cachedLocation.getDriverId())
+                .deliveryId(cachedLocation.getDeliveryId())
+                .latitude(toDecimalDegrees(point.getLatitudeE6()))
+                .longitude(toDecimalDegrees(point.getLongitudeE6()))
+                .accuracy(toBigDecimal(point.getAccuracy()))
+                .speed(toBigDecimal(point.getSpeed()))
+                .heading(toBigDecimal(point.getHeading()))
+                .timestamp(toLocalDateTime(point.getTimestampMillis()))
+                .batteryLevel(cachedLocation.getBatteryLevel())
+                .build();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the latitude or longitude is missing
+     */
+    public static CompactLocationPoint toPoint(DeliveryRoute.LocationPoint locationPoint) {
+        return CompactLocationPoint.builder()
+                .latitudeE6(toMicrodegrees(locationPoint.getLatitude()))
+                .longitudeE6(toMicrodegrees(locationPoint.getLongitude()))
+                .timestampMillis(toEpochMillis(locationPoint.getTimestamp()))
+                .speed(toFloat(locationPoint.getSpeed()))
+                .heading(toFloat(locationPoint.getHeading()))
+                .accuracy(Float.NaN)
+                .build();
+    }
+
+    public static DeliveryRoute.LocationPoint toLocationPoint(CompactLocationPoint point) {
+        return DeliveryRoute.LocationPoint.builder()
+                .latitude(toDecimalDegrees(point.getLatitudeE6()))
+                .longitude(toDecimalDegrees(point.getLongitudeE6()))
+                .timestamp(toLocalDateTime(point.getTimestampMillis()))
+                .speed(toBigDecimal(point.getSpeed()))
+                .heading(toBigDecimal(point.getHeading()))
+                .build();
+    }
+
+    public static List<DeliveryRoute.LocationPoint> toLocationPoints(List<CompactLocationPoint> points) {
+        List<DeliveryRoute.LocationPoint> locationPoints = new ArrayList<>(points.size());
+        for (CompactLocationPoint point : points) {
+            locationPoints.add(toLocationPoint(point));
+        }
+        return locationPoints;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code degrees} is null, which has no compact form: 0 is
+     *                                  a valid coordinate
+     */
+    public static int toMicrodegrees(BigDecimal degrees) {
+        if (degrees == null) {
+            throw new IllegalArgumentException("Missing coordinate");
+        }
+        return (int) Math.round(degrees.doubleValue() * MICRODEGREES);
+    }
+
+    public static BigDecimal toDecimalDegrees(int microdegrees) {
+        return BigDecimal.valueOf(microdegrees, 6);
+    }
+
+    public static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    private static float toFloat(BigDecimal value) {
+        return value != null ? value.floatValue() : Float.NaN;
+    }
+
+    private static BigDecimal toBigDecimal(float value) {
+        // Float.toString keeps the shortest decimal form, e.g. 10.1 rather than 10.100000381...
+        return Float.isNaN(value) ? null : new BigDecimal(Float.toString(value));
+    }
+}
@@ -20,6 +20,8 @@ public interface DeliveryRouteMapper {
     @Mapping(target = "routePoints", ignore = true)
     @Mapping(target = "actualDistance", ignore = true)
     @Mapping(target = "actualDuration", ignore = true)
+    @Mapping(target = "movingDuration", ignore = true)
+    @Mapping(target = "idleDuration", ignore = true)
     @Mapping(target = "status", source = "status", qualifiedByName = "mapStatus")
     DeliveryRoute toEntity(DeliveryRouteDto dto);
 
@@ -37,6 +39,8 @@ public interface DeliveryRouteMapper {
     @Mapping(target = "estimatedDuration", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "movingDuration", ignore = true)
+    @Mapping(target = "idleDuration", ignore = true)
     @Mapping(target = "status", source = "status", qualifiedByName = "mapStatus")
     void updateEntityFromDto(DeliveryRouteDto dto, @MappingTarget DeliveryRoute entity);
 
@@ -0,0 +1,55 @@
+package com.couriersync.tracking.mapper;
+
+import com.couriersync.common.events.RoutePointAppendedEvent;
+import com.couriersync.common.events.RouteStatusChangedEvent;
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.DeliveryRoute;
+
+/**
+ * Builds the route delta events published on {@code tracking.routes} and the snapshot published
+ * on the compacted route snapshot topic.
+ */
+public final class RouteEventMapper {
+
+    private static final String SOURCE_SERVICE = "tracking-service";
+
+    private RouteEventMapper() {
+    }
+
+    public static RoutePointAppendedEvent toPointAppendedEvent(DeliveryRoute route, CompactLocationPoint point) {
+        DeliveryRoute.LocationPoint locationPoint = CompactLocationMapper.toLocationPoint(point);
+
+        RoutePointAppendedEvent event = new RoutePointAppendedEvent(SOURCE_SERVICE);
+        event.setRouteId(route.getId());
+        event.setDeliveryId(route.getDeliveryId());
+        event.setDriverId(route.getDriverId());
+        event.setLatitude(locationPoint.getLatitude());
+        event.setLongitude(locationPoint.getLongitude());
+        event.setSpeed(locationPoint.getSpeed());
+        event.setHeading(locationPoint.getHeading());
+        event.setRecordedAt(locationPoint.getTimestamp());
+        return event;
+    }
+
+    public static RouteStatusChangedEvent toStatusChangedEvent(DeliveryRoute route) {
+        RouteStatusChangedEvent event = new RouteStatusChangedEvent(SOURCE_SERVICE);
+        event.setRouteId(route.getId());
+        event.setDeliveryId(route.getDeliveryId());
+        event.setDriverId(route.getDriverId());
+        event.setStatus(route.getStatus() != null
+                ? RouteStatusChangedEvent.RouteStatus.valueOf(route.getStatus().name())
+                : null);
+        event.setStartedAt(route.getStartedAt());
+        event.setCompletedAt(route.getCompletedAt());
+        event.setActualDistance(route.getActualDistance());
+        event.setActualDuration(route.getActualDuration());
+        return event;
+    }
+
+    /**
+     * Route document without its points, which are kept in the route point buckets.
+     */
+    public static DeliveryRoute toSnapshot(DeliveryRoute route) {
+        return route.toBuilder().routePoints(null).build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.couriersync.tracking.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Payload of {@code /topic/area/{geohash}}: positions of drivers inside the area, and drivers
+ * that left it (moved to another tile, went offline or stopped reporting).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class AreaUpdate {
+
+    private List<LocationUpdate> positions;
+
+    private List<UUID> left;
+}
@@ -0,0 +1,29 @@
+package com.couriersync.tracking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Latest known position of a driver as held in the Redis cache.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedLocation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private UUID driverId;
+
+    private UUID deliveryId;
+
+    private CompactLocationPoint point;
+
+    private Integer batteryLevel;
+}
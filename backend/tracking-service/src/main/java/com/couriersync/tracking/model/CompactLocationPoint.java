@@ -0,0 +1,52 @@
+package com.couriersync.tracking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.io.Serializable;
+
+/**
+ * Allocation-free representation of a GPS fix used internally on the ping hot path.
+ * Coordinates are fixed-point microdegrees, the timestamp is epoch milliseconds (UTC) and
+ * {@link Float#NaN} marks an absent speed, heading or accuracy.
+ *
+ * <p>Convert to and from the public {@code BigDecimal} models with
+ * {@link com.couriersync.tracking.mapper.CompactLocationMapper}.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactLocationPoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Field("lat")
+    private int latitudeE6;
+
+    @Field("lon")
+    private int longitudeE6;
+
+    @Field("ts")
+    private long timestampMillis;
+
+    @Field("spd")
+    private float speed;
+
+    @Field("hdg")
+    private float heading;
+
+    @Field("acc")
+    private float accuracy;
+
+    public double latitude() {
+        return latitudeE6 / 1_000_000d;
+    }
+
+    public double longitude() {
+        return longitudeE6 / 1_000_000d;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -16,8 +17,10 @@ import java.util.List;
 import java.util.UUID;
 
 @Document(collection = "delivery_routes")
+// Delivery events resolve the latest route of a delivery
+@CompoundIndex(name = "delivery_created_idx", def = "{ 'delivery_id': 1, 'created_at': -1 }")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class DeliveryRoute {
@@ -37,6 +40,7 @@ public class DeliveryRoute {
     @Field("dropoff_location")
     private Location dropoffLocation;
 
+    // Only populated for routes created before points moved to route_point_chunks
     @Field("route_points")
     private List<LocationPoint> routePoints;
 
@@ -52,6 +56,12 @@ public class DeliveryRoute {
     @Field("actual_duration")
     private Integer actualDuration; // in minutes
 
+    @Field("moving_duration")
+    private Integer movingDuration; // in minutes
+
+    @Field("idle_duration")
+    private Integer idleDuration; // in minutes
+
     @Field("status")
     private RouteStatus status;
 
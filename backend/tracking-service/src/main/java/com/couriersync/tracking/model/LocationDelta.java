@@ -0,0 +1,61 @@
+package com.couriersync.tracking.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Compact position payload published on {@code /topic/driver/{driverId}/delta}. Only the fields
+ * that changed since the previous message of the stream are set; absent fields keep their last
+ * value on the client.
+ *
+ * <p>A keyframe ({@code k = true}) carries every known field and resets the client state. A gap in
+ * the sequence number means a message was missed: the client should ignore deltas until the next
+ * keyframe, or fetch the full position from {@code /topic/driver/{driverId}}. With a multi-node
+ * broker every message is a keyframe, since the nodes publishing a driver's stream do not share a
+ * delta base.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LocationDelta {
+
+    @JsonProperty("s")
+    private long sequence;
+
+    @JsonProperty("k")
+    private Boolean keyframe;
+
+    @JsonProperty("d")
+    private UUID deliveryId;
+
+    // Epoch milliseconds (UTC)
+    @JsonProperty("t")
+    private Long timestamp;
+
+    @JsonProperty("lat")
+    private BigDecimal latitude;
+
+    @JsonProperty("lon")
+    private BigDecimal longitude;
+
+    @JsonProperty("acc")
+    private BigDecimal accuracy;
+
+    @JsonProperty("spd")
+    private BigDecimal speed;
+
+    @JsonProperty("hdg")
+    private BigDecimal heading;
+
+    @JsonProperty("bat")
+    private Integer batteryLevel;
+}
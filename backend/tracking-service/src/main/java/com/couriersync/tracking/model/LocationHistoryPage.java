@@ -0,0 +1,23 @@
+package com.couriersync.tracking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of location history, oldest first. {@code nextCursor} is passed back as
+ * {@code cursor} to read the following page and is {@code null} on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationHistoryPage {
+
+    private List<LocationUpdate> items;
+
+    private String nextCursor;
+}
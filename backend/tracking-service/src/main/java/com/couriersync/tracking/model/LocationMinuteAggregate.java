@@ -0,0 +1,75 @@
+package com.couriersync.tracking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One minute of a driver's raw location updates, produced by the downsampling job before the
+ * raw pings expire. The unique driver/minute index is the merge key of that job, so re-running
+ * it over the same window replaces the aggregates instead of duplicating them.
+ */
+@Document(collection = "location_updates_1m")
+@CompoundIndex(name = "driver_minute_idx", def = "{ 'driver_id': 1, 'minute': 1 }", unique = true)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationMinuteAggregate {
+
+    public static final String COLLECTION = "location_updates_1m";
+
+    @Id
+    private String id;
+
+    @Field("driver_id")
+    private UUID driverId;
+
+    // Start of the minute; also indexed alone for the job's watermark lookup
+    @Indexed(name = "minute_idx")
+    @Field("minute")
+    private LocalDateTime minute;
+
+    // Delivery of the last ping of the minute
+    @Field("delivery_id")
+    private UUID deliveryId;
+
+    @Field("count")
+    private int count;
+
+    @Field("latitude")
+    private Double latitude;
+
+    @Field("longitude")
+    private Double longitude;
+
+    @Field("last_latitude")
+    private Double lastLatitude;
+
+    @Field("last_longitude")
+    private Double lastLongitude;
+
+    @Field("avg_speed")
+    private Double avgSpeed;
+
+    @Field("max_speed")
+    private Double maxSpeed;
+
+    @Field("min_battery_level")
+    private Integer minBatteryLevel;
+
+    @Field("first_timestamp")
+    private LocalDateTime firstTimestamp;
+
+    @Field("last_timestamp")
+    private LocalDateTime lastTimestamp;
+}
@@ -13,6 +13,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Raw location ping. The collection and its indexes are created by
+ * {@link com.couriersync.tracking.config.LocationStorageInitializer} rather than through index
+ * annotations, which would create it as a regular collection before the storage mode applies.
+ */
 @Document(collection = "location_updates")
 @Data
 @Builder
@@ -0,0 +1,33 @@
+package com.couriersync.tracking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Route track as an encoded polyline, optionally simplified. {@code pointCount} is the number of
+ * points in the polyline and {@code originalPointCount} the number of recorded points.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteGeometry {
+
+    private String routeId;
+
+    private String polyline;
+
+    private int precision;
+
+    private double toleranceMeters;
+
+    private int pointCount;
+
+    private int originalPointCount;
+
+    private LocalDateTime lastPointTimestamp;
+}
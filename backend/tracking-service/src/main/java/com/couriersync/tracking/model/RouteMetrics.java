@@ -0,0 +1,23 @@
+package com.couriersync.tracking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Distance and time travelled along a route, either for a single step between two points or
+ * summed over the route's point buckets.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteMetrics {
+
+    private double distanceMeters;
+
+    private long movingMillis;
+
+    private long idleMillis;
+}
@@ -0,0 +1,80 @@
+package com.couriersync.tracking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixed-size bucket of route points. Points are appended with an atomic upsert into the
+ * newest non-full bucket of a route so the parent {@link DeliveryRoute} document never grows.
+ * Points are stored in the compact {@link CompactLocationPoint} form.
+ *
+ * <p>Buckets of a route are numbered by {@code seq}, unique per route, so that concurrent
+ * appends cannot open two buckets at once. Buckets written before the numbering have no
+ * {@code seq} and sort before the numbered ones.
+ *
+ * <p>The newest bucket also holds the route's metrics {@code reference}, the point the next step
+ * is measured from. Appends are conditional on the bucket's {@code count}, so a step is only
+ * applied against the reference it was computed from.
+ */
+@Document(collection = "route_point_chunks")
+@CompoundIndexes({
+    @CompoundIndex(name = "route_bucket_idx", def = "{ 'route_id': 1, 'bucket_start': 1 }"),
+    @CompoundIndex(name = "route_seq_idx", def = "{ 'route_id': 1, 'seq': 1 }", unique = true,
+            partialFilter = "{ 'seq': { $exists: true } }"),
+    @CompoundIndex(name = "delivery_route_seq_idx", def = "{ 'delivery_id': 1, 'route_id': 1, 'seq': 1, 'bucket_start': 1 }")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutePointChunk {
+
+    public static final int BUCKET_SIZE = 200;
+
+    @Id
+    private String id;
+
+    @Field("route_id")
+    private String routeId;
+
+    @Field("delivery_id")
+    private UUID deliveryId;
+
+    // Position of the bucket within the route, from 0
+    @Field("seq")
+    private Integer seq;
+
+    // Epoch millis of the first point in the bucket
+    @Field("bucket_start")
+    private Long bucketStart;
+
+    @Field("count")
+    private Integer count;
+
+    @Field("points")
+    private List<CompactLocationPoint> points;
+
+    // Running route metrics of the steps ending in this bucket, incremented with each point
+    @Field("distance_m")
+    private Double distanceMeters;
+
+    @Field("moving_ms")
+    private Long movingMillis;
+
+    @Field("idle_ms")
+    private Long idleMillis;
+
+    // Last valid position of the route, at the time of its latest point; absent on older buckets
+    @Field("reference")
+    private CompactLocationPoint reference;
+}
@@ -0,0 +1,21 @@
+package com.couriersync.tracking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of appending one point to a route: the metrics of the step and the point the next step
+ * is measured from.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteStep {
+
+    private RouteMetrics metrics;
+
+    private CompactLocationPoint reference;
+}
@@ -1,10 +1,10 @@
 package com.couriersync.tracking.producer;
 
 import com.couriersync.common.events.LocationUpdateEvent;
+import com.couriersync.common.kafka.KafkaEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -16,7 +16,7 @@ import java.util.UUID;
 @Slf4j
 public class EventProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaEventPublisher eventPublisher;
 
     @Value("${app.kafka.topics.location-events}")
     private String locationEventsTopic;
@@ -37,14 +37,14 @@ public class EventProducer {
         event.setBatteryLevel(batteryLevel);
         event.setDeviceId(deviceId);
 
-        kafkaTemplate.send(locationEventsTopic, driverId.toString(), event);
+        eventPublisher.publish(locationEventsTopic, driverId.toString(), event);
     }
 
     public void publishLocationUpdateEventBatch(java.util.List<LocationUpdateEvent> events) {
         log.info("Publishing batch of {} location update events", events.size());
 
         for (LocationUpdateEvent event : events) {
-            kafkaTemplate.send(locationEventsTopic, event.getDriverId().toString(), event);
+            eventPublisher.publish(locationEventsTopic, event.getDriverId().toString(), event);
         }
     }
 }
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -14,11 +15,16 @@ public interface DeliveryRouteRepository extends MongoRepository<DeliveryRoute,
 
     List<DeliveryRoute> findByDeliveryId(UUID deliveryId);
 
+    /**
+     * Id of the most recent route of the delivery; only {@code _id} is read.
+     */
+    Optional<RouteIdView> findFirstByDeliveryIdOrderByCreatedAtDesc(UUID deliveryId);
+
     List<DeliveryRoute> findByDriverId(UUID driverId);
 
     List<DeliveryRoute> findByStatus(DeliveryRoute.RouteStatus status);
 
-    @Query(value = "{ 'driverId': ?0, 'status': ?1 }", sort = "{ 'createdAt': -1 }")
+    @Query(value = "{ 'driverId': ?0, 'status': ?1 }", fields = "{ 'routePoints': 0 }", sort = "{ 'createdAt': -1 }")
     DeliveryRoute findLatestByDriverIdAndStatus(UUID driverId, DeliveryRoute.RouteStatus status);
 
     @Query(value = "{ 'driverId': ?0, 'status': ?1, 'createdAt': { $gte: ?2 } }")
@@ -28,9 +34,13 @@ public interface DeliveryRouteRepository extends MongoRepository<DeliveryRoute,
     @Query(value = "{ 'deliveryId': ?0 }", fields = "{ 'routePoints': 1 }")
     DeliveryRoute findRoutePointsByDeliveryId(UUID deliveryId);
 
-    @Query(value = "{ 'deliveryId': ?0 }", fields = "{ 'routePoints': 1, 'status': 1 }")
-    DeliveryRoute findRoutePointsAndStatusByDeliveryId(UUID deliveryId);
+    @Query(value = "{ 'deliveryId': ?0 }", fields = "{ 'status': 1 }")
+    DeliveryRoute findStatusByDeliveryId(UUID deliveryId);
 
     @Query(value = "{ 'deliveryId': ?0 }", fields = "{ 'routePoints': { $slice: -100 } }")
     DeliveryRoute findLast100RoutePointsByDeliveryId(UUID deliveryId);
+
+    interface RouteIdView {
+        String getId();
+    }
 }
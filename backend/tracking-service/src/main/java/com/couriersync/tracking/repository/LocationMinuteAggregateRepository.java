@@ -0,0 +1,19 @@
+package com.couriersync.tracking.repository;
+
+import com.couriersync.tracking.model.LocationMinuteAggregate;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface LocationMinuteAggregateRepository extends MongoRepository<LocationMinuteAggregate, String> {
+
+    List<LocationMinuteAggregate> findByDriverIdAndMinuteBetweenOrderByMinuteAsc(
+            UUID driverId, LocalDateTime startTime, LocalDateTime endTime);
+
+    Optional<LocationMinuteAggregate> findFirstByOrderByMinuteDesc();
+}
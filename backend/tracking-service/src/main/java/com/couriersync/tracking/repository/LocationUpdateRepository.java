@@ -1,6 +1,8 @@
 package com.couriersync.tracking.repository;
 
 import com.couriersync.tracking.model.LocationUpdate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -8,17 +10,26 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface LocationUpdateRepository extends MongoRepository<LocationUpdate, String> {
+public interface LocationUpdateRepository extends MongoRepository<LocationUpdate, String>, LocationUpdateRepositoryCustom {
 
-    List<LocationUpdate> findByDriverIdOrderByTimestampDesc(UUID driverId);
+    List<LocationUpdate> findByDriverIdOrderByTimestampDesc(UUID driverId, Pageable pageable);
 
     List<LocationUpdate> findByDeliveryIdOrderByTimestampAsc(UUID deliveryId);
 
     List<LocationUpdate> findByDriverIdAndTimestampBetweenOrderByTimestampAsc(
             UUID driverId, LocalDateTime startTime, LocalDateTime endTime);
 
+    // Cursor-backed streams for exports; the cursor batch size bounds what is held in memory
+    @Meta(cursorBatchSize = 500)
+    Stream<LocationUpdate> streamByDriverIdAndTimestampBetweenOrderByTimestampAsc(
+            UUID driverId, LocalDateTime startTime, LocalDateTime endTime);
+
+    @Meta(cursorBatchSize = 500)
+    Stream<LocationUpdate> streamByDeliveryIdOrderByTimestampAsc(UUID deliveryId);
+
     @Query(value = "{ 'driverId': ?0, 'timestamp': { $gte: ?1 } }", sort = "{ 'timestamp': -1 }")
     LocationUpdate findLatestByDriverIdAfter(UUID driverId, LocalDateTime timestamp);
 
@@ -0,0 +1,44 @@
+package com.couriersync.tracking.repository;
+
+import com.couriersync.tracking.model.LocationUpdate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface LocationUpdateRepositoryCustom {
+
+    /**
+     * Latest location update of each driver recorded since {@code since}, in a single
+     * aggregation. Drivers without such an update are absent from the result.
+     */
+    List<LocationUpdate> findLatestByDriverIdsAfter(Collection<UUID> driverIds, LocalDateTime since);
+
+    /**
+     * Aggregates the location updates recorded in {@code [from, to)} into one
+     * {@link com.couriersync.tracking.model.LocationMinuteAggregate} per driver and minute,
+     * replacing the aggregates already stored for those minutes.
+     */
+    void downsampleToMinutes(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Timestamp of the oldest location update stored, if any.
+     */
+    Optional<LocalDateTime> findOldestTimestamp();
+
+    /**
+     * Page of a driver's location updates in {@code [from, to)}, oldest first and by id among
+     * updates recorded at the same timestamp, starting right after the update {@code afterId}
+     * recorded at {@code after}. Both bounds and the {@code after} position are optional.
+     */
+    List<LocationUpdate> findDriverHistoryPage(UUID driverId, LocalDateTime from, LocalDateTime to,
+                                               LocalDateTime after, String afterId, int limit);
+
+    /**
+     * Page of a delivery's location updates, oldest first, with the same keyset semantics as
+     * {@link #findDriverHistoryPage}.
+     */
+    List<LocationUpdate> findDeliveryHistoryPage(UUID deliveryId, LocalDateTime after, String afterId, int limit);
+}
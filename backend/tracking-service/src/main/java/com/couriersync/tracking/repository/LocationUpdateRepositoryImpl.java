@@ -0,0 +1,146 @@
+package com.couriersync.tracking.repository;
+
+import com.couriersync.tracking.model.LocationMinuteAggregate;
+import com.couriersync.tracking.model.LocationUpdate;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class LocationUpdateRepositoryImpl implements LocationUpdateRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<LocationUpdate> findLatestByDriverIdsAfter(Collection<UUID> driverIds, LocalDateTime since) {
+        if (driverIds.isEmpty()) {
+            return List.of();
+        }
+
+        // Sorted like driver_timestamp_id_idx, so $group/$first can read one index entry per driver
+        TypedAggregation<LocationUpdate> aggregation = Aggregation.newAggregation(LocationUpdate.class,
+                Aggregation.match(Criteria.where("driverId").in(driverIds).and("timestamp").gte(since)),
+                Aggregation.sort(Sort.by(Sort.Order.asc("driverId"), Sort.Order.desc("timestamp"))),
+                Aggregation.group("driverId").first(Aggregation.ROOT).as("latest"),
+                Aggregation.replaceRoot("latest"));
+
+        return mongoTemplate.aggregate(aggregation, LocationUpdate.class).getMappedResults();
+    }
+
+    @Override
+    public List<LocationUpdate> findDriverHistoryPage(UUID driverId, LocalDateTime from, LocalDateTime to,
+                                                      LocalDateTime after, String afterId, int limit) {
+        return findHistoryPage(Criteria.where("driverId").is(driverId), from, to, after, afterId, limit);
+    }
+
+    @Override
+    public List<LocationUpdate> findDeliveryHistoryPage(UUID deliveryId, LocalDateTime after, String afterId, int limit) {
+        return findHistoryPage(Criteria.where("deliveryId").is(deliveryId), null, null, after, afterId, limit);
+    }
+
+    // Keyset on (timestamp, _id), read along driver_timestamp_id_idx / delivery_timestamp_id_idx.
+    // The _id breaks ties between updates recorded at the same timestamp, for which neither storage
+    // mode guarantees a stable order.
+    private List<LocationUpdate> findHistoryPage(Criteria owner, LocalDateTime from, LocalDateTime to,
+                                                 LocalDateTime after, String afterId, int limit) {
+        LocalDateTime lower = from;
+        boolean resume = false;
+        if (after != null && (from == null || !after.isBefore(from))) {
+            lower = after;
+            resume = true;
+        }
+
+        Criteria criteria = owner;
+        if (lower != null || to != null) {
+            Criteria timestamp = criteria.and("timestamp");
+            if (lower != null) {
+                timestamp.gte(lower);
+            }
+            if (to != null) {
+                timestamp.lt(to);
+            }
+        }
+        if (resume) {
+            // The range above already starts at the cursor timestamp, this only drops what precedes the cursor there
+            criteria.orOperator(Criteria.where("timestamp").gt(after), Criteria.where("id").gt(afterId));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "timestamp", "id"))
+                .limit(limit);
+        return mongoTemplate.find(query, LocationUpdate.class);
+    }
+
+    @Override
+    public void downsampleToMinutes(LocalDateTime from, LocalDateTime to) {
+        // Coordinates and speed are stored as decimal strings, hence the $toDouble
+        AggregationOperation groupByMinute = context -> new Document("$group", new Document()
+                .append("_id", new Document("driver_id", "$driver_id")
+                        .append("minute", new Document("$dateTrunc",
+                                new Document("date", "$timestamp").append("unit", "minute"))))
+                .append("delivery_id", new Document("$last", "$delivery_id"))
+                .append("count", new Document("$sum", 1))
+                .append("latitude", new Document("$avg", toDouble("$latitude")))
+                .append("longitude", new Document("$avg", toDouble("$longitude")))
+                .append("last_latitude", new Document("$last", toDouble("$latitude")))
+                .append("last_longitude", new Document("$last", toDouble("$longitude")))
+                .append("avg_speed", new Document("$avg", toDouble("$speed")))
+                .append("max_speed", new Document("$max", toDouble("$speed")))
+                .append("min_battery_level", new Document("$min", "$battery_level"))
+                .append("first_timestamp", new Document("$first", "$timestamp"))
+                .append("last_timestamp", new Document("$last", "$timestamp")));
+
+        AggregationOperation unwrapKey = context -> new Document("$set", new Document()
+                .append("driver_id", "$_id.driver_id")
+                .append("minute", "$_id.minute"));
+
+        AggregationOperation dropKey = context -> new Document("$unset", "_id");
+
+        // Matches on the unique driver_minute_idx, so a re-run replaces the minutes it covers
+        AggregationOperation mergeIntoMinutes = context -> new Document("$merge", new Document()
+                .append("into", LocationMinuteAggregate.COLLECTION)
+                .append("on", List.of("driver_id", "minute"))
+                .append("whenMatched", "replace")
+                .append("whenNotMatched", "insert"));
+
+        TypedAggregation<LocationUpdate> aggregation = Aggregation.newAggregation(LocationUpdate.class,
+                Aggregation.match(Criteria.where("timestamp").gte(from).lt(to)),
+                Aggregation.sort(Sort.by(Sort.Order.asc("driverId"), Sort.Order.asc("timestamp"))),
+                groupByMinute,
+                unwrapKey,
+                dropKey,
+                mergeIntoMinutes)
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).skipOutput().build());
+
+        mongoTemplate.aggregate(aggregation, Document.class);
+    }
+
+    @Override
+    public Optional<LocalDateTime> findOldestTimestamp() {
+        // $min instead of a sort: no index leads with timestamp while the retention is not applied
+        TypedAggregation<LocationUpdate> aggregation = Aggregation.newAggregation(LocationUpdate.class,
+                Aggregation.group().min("timestamp").as("oldest"));
+
+        return Optional.ofNullable(mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult())
+                .map(result -> result.getDate("oldest"))
+                // Same Date to LocalDateTime conversion as when reading entities
+                .map(oldest -> mongoTemplate.getConverter().getConversionService().convert(oldest, LocalDateTime.class));
+    }
+
+    private static Document toDouble(String field) {
+        return new Document("$toDouble", field);
+    }
+}
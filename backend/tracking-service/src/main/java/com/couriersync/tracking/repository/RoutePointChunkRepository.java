@@ -0,0 +1,26 @@
+package com.couriersync.tracking.repository;
+
+import com.couriersync.tracking.model.RoutePointChunk;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface RoutePointChunkRepository extends MongoRepository<RoutePointChunk, String>, RoutePointChunkRepositoryCustom {
+
+    Stream<RoutePointChunk> streamByRouteIdOrderBySeqAscBucketStartAsc(String routeId);
+
+    // Route ids are ObjectIds, so the routes of a delivery come back in creation order
+    Stream<RoutePointChunk> streamByDeliveryIdOrderByRouteIdAscSeqAscBucketStartAsc(UUID deliveryId);
+
+    List<RoutePointChunk> findTop2ByDeliveryIdOrderByRouteIdDescSeqDescBucketStartDesc(UUID deliveryId);
+
+    RoutePointChunk findFirstByRouteIdOrderBySeqDescBucketStartDesc(String routeId);
+
+    boolean existsByRouteId(String routeId);
+
+    void deleteByRouteId(String routeId);
+}
@@ -0,0 +1,31 @@
+package com.couriersync.tracking.repository;
+
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.RouteMetrics;
+import com.couriersync.tracking.model.RouteStep;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+public interface RoutePointChunkRepositoryCustom {
+
+    /**
+     * Appends a point to the newest non-full bucket of the route, creating the next bucket when
+     * the current one is full. {@code stepper} is given the route's stored reference point (null
+     * for the first point) and the new point; the step it returns is added to the bucket's
+     * metrics and its reference stored, in the same conditional write as the point. When another
+     * writer appended first the step is recomputed against the new reference and retried.
+     *
+     * @throws org.springframework.dao.OptimisticLockingFailureException if every attempt lost to
+     *         a concurrent append
+     */
+    void appendPoint(String routeId, UUID deliveryId, CompactLocationPoint point,
+                     BiFunction<CompactLocationPoint, CompactLocationPoint, RouteStep> stepper);
+
+    /**
+     * Route metrics summed over the route's buckets, without reading their points. Empty if the
+     * route has no bucket, e.g. a route without points or one stored before point bucketing.
+     */
+    Optional<RouteMetrics> sumMetrics(String routeId);
+}
@@ -0,0 +1,113 @@
+package com.couriersync.tracking.repository;
+
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.RouteMetrics;
+import com.couriersync.tracking.model.RoutePointChunk;
+import com.couriersync.tracking.model.RouteStep;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+@RequiredArgsConstructor
+public class RoutePointChunkRepositoryImpl implements RoutePointChunkRepositoryCustom {
+
+    // Each retry follows a point appended or a bucket opened concurrently, so a few attempts are plenty
+    static final int MAX_APPEND_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void appendPoint(String routeId, UUID deliveryId, CompactLocationPoint point,
+                            BiFunction<CompactLocationPoint, CompactLocationPoint, RouteStep> stepper) {
+        for (int attempt = 1; attempt <= MAX_APPEND_ATTEMPTS; attempt++) {
+            RoutePointChunk newest = findNewestBucket(routeId);
+            RouteStep step = stepper.apply(referenceOf(newest), point);
+            RouteMetrics metrics = step.getMetrics();
+
+            if (newest != null && newest.getCount() < RoutePointChunk.BUCKET_SIZE) {
+                // The count only grows, so matching it proves no point was appended since the read
+                Update update = new Update()
+                        .push("points", point)
+                        .inc("count", 1)
+                        .inc("distanceMeters", metrics.getDistanceMeters())
+                        .inc("movingMillis", metrics.getMovingMillis())
+                        .inc("idleMillis", metrics.getIdleMillis())
+                        .set("reference", step.getReference());
+                UpdateResult appended = mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(newest.getId())
+                        .and("count").is(newest.getCount())), update, RoutePointChunk.class);
+                if (appended.getMatchedCount() > 0) {
+                    return;
+                }
+                continue;
+            }
+
+            // No open bucket: open the next one, unless another writer opened it first
+            RoutePointChunk bucket = RoutePointChunk.builder()
+                    .routeId(routeId)
+                    .deliveryId(deliveryId)
+                    .seq(newest == null || newest.getSeq() == null ? 0 : newest.getSeq() + 1)
+                    .bucketStart(point.getTimestampMillis())
+                    .count(1)
+                    .points(new ArrayList<>(List.of(point)))
+                    .distanceMeters(metrics.getDistanceMeters())
+                    .movingMillis(metrics.getMovingMillis())
+                    .idleMillis(metrics.getIdleMillis())
+                    .reference(step.getReference())
+                    .build();
+            try {
+                mongoTemplate.insert(bucket);
+                return;
+            } catch (DuplicateKeyException e) {
+                // Opened concurrently on the unique route/seq index: append to it instead
+            }
+        }
+        throw new OptimisticLockingFailureException("Could not append point to route " + routeId
+                + " after " + MAX_APPEND_ATTEMPTS + " concurrent appends");
+    }
+
+    private RoutePointChunk findNewestBucket(String routeId) {
+        Query newest = Query.query(Criteria.where("routeId").is(routeId))
+                .with(Sort.by(Sort.Order.desc("seq"), Sort.Order.desc("bucketStart")))
+                .limit(1);
+        // The last point stands in for the reference of buckets written before it was stored
+        newest.fields().include("seq").include("count").include("reference").slice("points", -1);
+        return mongoTemplate.findOne(newest, RoutePointChunk.class);
+    }
+
+    private static CompactLocationPoint referenceOf(RoutePointChunk bucket) {
+        if (bucket == null) {
+            return null;
+        }
+        if (bucket.getReference() != null) {
+            return bucket.getReference();
+        }
+        List<CompactLocationPoint> points = bucket.getPoints();
+        return points == null || points.isEmpty() ? null : points.get(points.size() - 1);
+    }
+
+    @Override
+    public Optional<RouteMetrics> sumMetrics(String routeId) {
+        TypedAggregation<RoutePointChunk> aggregation = Aggregation.newAggregation(RoutePointChunk.class,
+                Aggregation.match(Criteria.where("routeId").is(routeId)),
+                Aggregation.group()
+                        .sum("distanceMeters").as("distanceMeters")
+                        .sum("movingMillis").as("movingMillis")
+                        .sum("idleMillis").as("idleMillis"));
+
+        return Optional.ofNullable(mongoTemplate.aggregate(aggregation, RouteMetrics.class).getUniqueMappedResult());
+    }
+}
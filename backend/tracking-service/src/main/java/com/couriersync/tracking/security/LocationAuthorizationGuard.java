@@ -93,6 +93,14 @@ public class LocationAuthorizationGuard {
         return false;
     }
 
+    public boolean canAccessArea() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // Only admin and dispatchers can watch every driver inside an area
+        return authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN")) ||
+               authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_DISPATCHER"));
+    }
+
     public boolean canCreateRoute() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
@@ -0,0 +1,139 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.DeliveryRoute;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of driverId to the driver's active (IN_PROGRESS, else PLANNED) route.
+ * Drivers without an active route are cached as empty for a shorter time so the ping hot path
+ * does not query Mongo for them either.
+ *
+ * <p>Cached routes are snapshots without route points and must not be mutated. Entries are kept
+ * consistent on this node through {@link #onRouteChanged(DeliveryRoute)}, and with the changes
+ * made on the other nodes through {@link #onRemoteRouteChanged(UUID, String, DeliveryRoute.RouteStatus)}
+ * as their route events arrive; the expiry only bounds staleness if those events lag.
+ */
+@Component
+public class ActiveRouteCache {
+
+    private final Cache<UUID, Optional<DeliveryRoute>> cache;
+
+    public ActiveRouteCache(MeterRegistry meterRegistry,
+                            @Value("${tracking.active-route-cache.max-size:50000}") long maxSize,
+                            @Value("${tracking.active-route-cache.ttl:PT10M}") Duration ttl,
+                            @Value("${tracking.active-route-cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ActiveRouteExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tracking.active_routes");
+    }
+
+    /**
+     * Returns the driver's active route, loading it with {@code loader} on a cache miss.
+     */
+    public Optional<DeliveryRoute> get(UUID driverId, Function<UUID, Optional<DeliveryRoute>> loader) {
+        return cache.get(driverId, id -> loader.apply(id).map(this::snapshot));
+    }
+
+    /**
+     * Reflects a persisted route change in the cache.
+     */
+    public void onRouteChanged(DeliveryRoute route) {
+        if (route == null || route.getDriverId() == null) {
+            return;
+        }
+
+        DeliveryRoute.RouteStatus status = route.getStatus();
+        if (status == DeliveryRoute.RouteStatus.IN_PROGRESS) {
+            cache.put(route.getDriverId(), Optional.of(snapshot(route)));
+        } else if (status == DeliveryRoute.RouteStatus.PLANNED) {
+            cache.asMap().compute(route.getDriverId(), (driverId, cached) -> {
+                // An in-progress route keeps precedence over a newly planned one
+                if (cached != null && cached.isPresent()
+                        && cached.get().getStatus() == DeliveryRoute.RouteStatus.IN_PROGRESS
+                        && !cached.get().getId().equals(route.getId())) {
+                    return cached;
+                }
+                // Without a cached entry another in-progress route may exist, let the next lookup decide
+                return cached == null ? null : Optional.of(snapshot(route));
+            });
+        } else {
+            // Route is finished; drop it if it is the one we hold so the next lookup picks up the next route
+            cache.asMap().computeIfPresent(route.getDriverId(), (driverId, cached) ->
+                    cached.isEmpty() || cached.get().getId().equals(route.getId()) ? null : cached);
+        }
+    }
+
+    /**
+     * Reflects a route change known only from its route event, which every node receives,
+     * including the one that made the change. Entries are never filled from the event: the ones
+     * the change may have made wrong are dropped and the next lookup reloads them.
+     */
+    public void onRemoteRouteChanged(UUID driverId, String routeId, DeliveryRoute.RouteStatus status) {
+        if (driverId == null || routeId == null || status == null) {
+            return;
+        }
+
+        cache.asMap().computeIfPresent(driverId, (id, cached) -> {
+            boolean sameRoute = cached.isPresent() && cached.get().getId().equals(routeId);
+            boolean cachedInProgress = cached.isPresent()
+                    && cached.get().getStatus() == DeliveryRoute.RouteStatus.IN_PROGRESS;
+            return switch (status) {
+                case IN_PROGRESS -> sameRoute && cachedInProgress ? cached : null;
+                // An in-progress route keeps precedence over a newly planned one
+                case PLANNED -> sameRoute || cachedInProgress ? cached : null;
+                // Finished; stop appending points to it
+                default -> sameRoute || cached.isEmpty() ? null : cached;
+            };
+        });
+    }
+
+    public void evict(UUID driverId) {
+        if (driverId != null) {
+            cache.invalidate(driverId);
+        }
+    }
+
+    private DeliveryRoute snapshot(DeliveryRoute route) {
+        return route.toBuilder().routePoints(null).build();
+    }
+
+    private static final class ActiveRouteExpiry implements Expiry<UUID, Optional<DeliveryRoute>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private ActiveRouteExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(UUID key, Optional<DeliveryRoute> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID key, Optional<DeliveryRoute> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID key, Optional<DeliveryRoute> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
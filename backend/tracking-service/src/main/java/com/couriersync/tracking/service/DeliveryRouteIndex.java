@@ -0,0 +1,60 @@
+package com.couriersync.tracking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process mapping of deliveryId to the id of the delivery's latest route, filled when
+ * a route is created and on lookup misses. Delivery status events resolve their route from it
+ * without a Mongo round trip, including when a backlog of events is replayed.
+ *
+ * <p>Unknown deliveries are not cached, so a route created on another node is found by the next
+ * lookup; a route re-created for the same delivery on another node is picked up after the expiry.
+ */
+@Component
+public class DeliveryRouteIndex {
+
+    private final Cache<UUID, String> routeIds;
+
+    public DeliveryRouteIndex(MeterRegistry meterRegistry,
+                              @Value("${tracking.delivery-route-index.max-size:100000}") long maxSize,
+                              @Value("${tracking.delivery-route-index.ttl:PT6H}") Duration ttl) {
+        this.routeIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, routeIds, "tracking.delivery_routes");
+    }
+
+    /**
+     * Returns the route id of the delivery, loading it with {@code loader} on a cache miss.
+     */
+    public Optional<String> get(UUID deliveryId, Function<UUID, Optional<String>> loader) {
+        if (deliveryId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(routeIds.get(deliveryId, id -> loader.apply(id).orElse(null)));
+    }
+
+    public void put(UUID deliveryId, String routeId) {
+        if (deliveryId != null && routeId != null) {
+            routeIds.put(deliveryId, routeId);
+        }
+    }
+
+    public void evict(UUID deliveryId) {
+        if (deliveryId != null) {
+            routeIds.invalidate(deliveryId);
+        }
+    }
+}
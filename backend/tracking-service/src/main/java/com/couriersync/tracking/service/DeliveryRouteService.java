@@ -1,18 +1,28 @@
 package com.couriersync.tracking.service;
 
+import com.couriersync.common.kafka.KafkaEventPublisher;
+import com.couriersync.tracking.mapper.CompactLocationMapper;
+import com.couriersync.tracking.mapper.RouteEventMapper;
+import com.couriersync.tracking.model.CompactLocationPoint;
 import com.couriersync.tracking.model.DeliveryRoute;
 import com.couriersync.tracking.model.LocationUpdate;
+import com.couriersync.tracking.model.RouteGeometry;
+import com.couriersync.tracking.model.RouteMetrics;
+import com.couriersync.tracking.model.RoutePointChunk;
 import com.couriersync.tracking.repository.DeliveryRouteRepository;
+import com.couriersync.tracking.repository.RoutePointChunkRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -20,9 +30,17 @@ import java.util.UUID;
 public class DeliveryRouteService {
 
     private final DeliveryRouteRepository deliveryRouteRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-
-    private static final String ROUTE_UPDATES_TOPIC = "tracking.routes";
+    private final RoutePointChunkRepository routePointChunkRepository;
+    private final ActiveRouteCache activeRouteCache;
+    private final DeliveryRouteIndex deliveryRouteIndex;
+    private final RouteGeometryCache routeGeometryCache;
+    private final RouteMetricsAccumulator routeMetricsAccumulator;
+    private final KafkaEventPublisher eventPublisher;
+
+    // Route deltas (points appended, status changes) keyed by route id
+    public static final String ROUTE_EVENTS_TOPIC = "tracking.routes";
+    // Latest state of each route, log-compacted on the route id
+    public static final String ROUTE_SNAPSHOTS_TOPIC = "tracking.routes.snapshots";
 
     public DeliveryRoute createRoute(UUID deliveryId, UUID driverId, 
                                    DeliveryRoute.Location pickupLocation, 
@@ -42,9 +60,10 @@ public class DeliveryRouteService {
                 .build();
 
         DeliveryRoute savedRoute = deliveryRouteRepository.save(route);
+        activeRouteCache.onRouteChanged(savedRoute);
+        deliveryRouteIndex.put(deliveryId, savedRoute.getId());
 
-        // Send to Kafka
-        kafkaTemplate.send(ROUTE_UPDATES_TOPIC, savedRoute);
+        publishRouteChanged(savedRoute);
 
         log.info("Created route with ID: {} for delivery: {}", savedRoute.getId(), deliveryId);
         return savedRoute;
@@ -58,6 +77,15 @@ public class DeliveryRouteService {
         return deliveryRouteRepository.findByDeliveryId(deliveryId);
     }
 
+    /**
+     * Id of the delivery's latest route, from the in-process index when known.
+     */
+    public Optional<String> findRouteIdByDeliveryId(UUID deliveryId) {
+        return deliveryRouteIndex.get(deliveryId, id -> deliveryRouteRepository
+                .findFirstByDeliveryIdOrderByCreatedAtDesc(id)
+                .map(DeliveryRouteRepository.RouteIdView::getId));
+    }
+
     public List<DeliveryRoute> getRoutesByDriverId(UUID driverId) {
         return deliveryRouteRepository.findByDriverId(driverId);
     }
@@ -81,9 +109,9 @@ public class DeliveryRouteService {
                     }
 
                     DeliveryRoute updatedRoute = deliveryRouteRepository.save(route);
+                    activeRouteCache.onRouteChanged(updatedRoute);
 
-                    // Send to Kafka
-                    kafkaTemplate.send(ROUTE_UPDATES_TOPIC, updatedRoute);
+                    publishRouteChanged(updatedRoute);
 
                     return updatedRoute;
                 })
@@ -92,79 +120,181 @@ public class DeliveryRouteService {
 
     public DeliveryRoute addLocationPointToRoute(UUID deliveryId, LocationUpdate locationUpdate) {
         log.debug("Adding location point to route for delivery: {}", deliveryId);
+        return appendRoutePoint(locationUpdate.getDriverId(), CompactLocationMapper.toPoint(locationUpdate));
+    }
 
-        // Find the most recent active route for this delivery
-        DeliveryRoute route = deliveryRouteRepository.findLatestByDriverIdAndStatus(
-                locationUpdate.getDriverId(), DeliveryRoute.RouteStatus.IN_PROGRESS);
+    public DeliveryRoute appendRoutePoint(UUID driverId, CompactLocationPoint locationPoint) {
+        // Resolve the driver's active route from the in-process cache
+        DeliveryRoute route = activeRouteCache.get(driverId, this::findActiveRoute)
+                .orElse(null);
 
         if (route == null) {
-            // Try to find a planned route
-            route = deliveryRouteRepository.findLatestByDriverIdAndStatus(
-                    locationUpdate.getDriverId(), DeliveryRoute.RouteStatus.PLANNED);
-
-            if (route == null) {
-                log.debug("No active or planned route found for driver: {}", locationUpdate.getDriverId());
-                return null;
-            }
+            log.debug("No active or planned route found for driver: {}", driverId);
+            return null;
+        }
 
-            // Update status to in progress
-            route.setStatus(DeliveryRoute.RouteStatus.IN_PROGRESS);
-            route.setStartedAt(LocalDateTime.now());
+        if (route.getStatus() == DeliveryRoute.RouteStatus.PLANNED) {
+            // First point on a planned route: mark it in progress, which also refreshes the cache
+            route = updateRouteStatus(route.getId(), DeliveryRoute.RouteStatus.IN_PROGRESS);
         }
 
-        // Create a new location point
-        DeliveryRoute.LocationPoint locationPoint = DeliveryRoute.LocationPoint.builder()
-                .latitude(locationUpdate.getLatitude())
-                .longitude(locationUpdate.getLongitude())
-                .timestamp(locationUpdate.getTimestamp())
-                .speed(locationUpdate.getSpeed())
-                .heading(locationUpdate.getHeading())
-                .build();
+        // Append to the route's point buckets without rewriting the route document; the bucket
+        // also accumulates the distance and time travelled since the stored reference point
+        routePointChunkRepository.appendPoint(route.getId(), route.getDeliveryId(), locationPoint,
+                routeMetricsAccumulator::nextStep);
 
-        // Add to route points
-        route.getRoutePoints().add(locationPoint);
+        // Only the new point is published; the route snapshot does not change
+        eventPublisher.publish(ROUTE_EVENTS_TOPIC, route.getId(),
+                RouteEventMapper.toPointAppendedEvent(route, locationPoint));
 
-        // Save the updated route
-        DeliveryRoute updatedRoute = deliveryRouteRepository.save(route);
+        return route;
+    }
 
-        // Send to Kafka
-        kafkaTemplate.send(ROUTE_UPDATES_TOPIC, updatedRoute);
+    private void publishRouteChanged(DeliveryRoute route) {
+        eventPublisher.publish(ROUTE_EVENTS_TOPIC, route.getId(), RouteEventMapper.toStatusChangedEvent(route));
+        eventPublisher.publish(ROUTE_SNAPSHOTS_TOPIC, route.getId(), RouteEventMapper.toSnapshot(route));
+    }
 
-        return updatedRoute;
+    private Optional<DeliveryRoute> findActiveRoute(UUID driverId) {
+        DeliveryRoute route = deliveryRouteRepository.findLatestByDriverIdAndStatus(
+                driverId, DeliveryRoute.RouteStatus.IN_PROGRESS);
+        if (route == null) {
+            route = deliveryRouteRepository.findLatestByDriverIdAndStatus(
+                    driverId, DeliveryRoute.RouteStatus.PLANNED);
+        }
+        return Optional.ofNullable(route);
+    }
+
+    public List<DeliveryRoute.LocationPoint> getRoutePoints(String routeId) {
+        try (Stream<RoutePointChunk> chunks = routePointChunkRepository.streamByRouteIdOrderBySeqAscBucketStartAsc(routeId)) {
+            return flatten(chunks);
+        }
     }
 
     public List<DeliveryRoute.LocationPoint> getRoutePointsByDeliveryId(UUID deliveryId) {
-        Optional<DeliveryRoute> route = deliveryRouteRepository.findRoutePointsByDeliveryId(deliveryId);
-        return route.map(DeliveryRoute::getRoutePoints).orElse(null);
+        try (Stream<RoutePointChunk> chunks = routePointChunkRepository.streamByDeliveryIdOrderByRouteIdAscSeqAscBucketStartAsc(deliveryId)) {
+            List<DeliveryRoute.LocationPoint> points = flatten(chunks);
+            if (!points.isEmpty()) {
+                return points;
+            }
+        }
+
+        // Routes written before point bucketing still carry their points inline
+        DeliveryRoute route = deliveryRouteRepository.findRoutePointsByDeliveryId(deliveryId);
+        return route != null ? route.getRoutePoints() : null;
     }
 
     public DeliveryRoute getRoutePointsAndStatusByDeliveryId(UUID deliveryId) {
-        return deliveryRouteRepository.findRoutePointsAndStatusByDeliveryId(deliveryId);
+        DeliveryRoute route = deliveryRouteRepository.findStatusByDeliveryId(deliveryId);
+        if (route != null) {
+            route.setRoutePoints(getRoutePointsByDeliveryId(deliveryId));
+        }
+        return route;
     }
 
     public List<DeliveryRoute.LocationPoint> getLast100RoutePointsByDeliveryId(UUID deliveryId) {
-        Optional<DeliveryRoute> route = deliveryRouteRepository.findLast100RoutePointsByDeliveryId(deliveryId);
-        return route.map(DeliveryRoute::getRoutePoints).orElse(null);
+        List<RoutePointChunk> latestChunks = routePointChunkRepository.findTop2ByDeliveryIdOrderByRouteIdDescSeqDescBucketStartDesc(deliveryId);
+        if (latestChunks.isEmpty()) {
+            DeliveryRoute route = deliveryRouteRepository.findLast100RoutePointsByDeliveryId(deliveryId);
+            return route != null ? route.getRoutePoints() : null;
+        }
+
+        List<CompactLocationPoint> points = new ArrayList<>();
+        for (int i = latestChunks.size() - 1; i >= 0; i--) {
+            points.addAll(latestChunks.get(i).getPoints());
+        }
+        return CompactLocationMapper.toLocationPoints(points.subList(Math.max(0, points.size() - 100), points.size()));
     }
 
+    /**
+     * Track of the route as an encoded polyline, simplified with Douglas-Peucker at
+     * {@code toleranceMeters} (0 keeps every point). Empty if the route does not exist.
+     */
+    public Optional<RouteGeometry> getRouteGeometry(String routeId, double toleranceMeters, int precision) {
+        RoutePointChunk newest = routePointChunkRepository.findFirstByRouteIdOrderBySeqDescBucketStartDesc(routeId);
+        if (newest == null || newest.getPoints() == null || newest.getPoints().isEmpty()) {
+            // Routes written before point bucketing carry their points inline and are not cached
+            return deliveryRouteRepository.findById(routeId).map(route -> {
+                List<CompactLocationPoint> points = new ArrayList<>();
+                if (route.getRoutePoints() != null) {
+                    route.getRoutePoints().stream()
+                            .filter(point -> point.getLatitude() != null && point.getLongitude() != null)
+                            .forEach(point -> points.add(CompactLocationMapper.toPoint(point)));
+                }
+                return buildGeometry(routeId, points, toleranceMeters, precision);
+            });
+        }
+
+        // Keyed by the last point so that a new point invalidates the cached geometry
+        List<CompactLocationPoint> newestPoints = newest.getPoints();
+        RouteGeometryCache.Key key = new RouteGeometryCache.Key(routeId, toleranceMeters, precision,
+                newestPoints.get(newestPoints.size() - 1).getTimestampMillis());
+        return Optional.of(routeGeometryCache.get(key, k -> {
+            try (Stream<RoutePointChunk> chunks = routePointChunkRepository.streamByRouteIdOrderBySeqAscBucketStartAsc(routeId)) {
+                List<CompactLocationPoint> points = new ArrayList<>();
+                chunks.forEach(chunk -> points.addAll(chunk.getPoints()));
+                return buildGeometry(routeId, points, toleranceMeters, precision);
+            }
+        }));
+    }
+
+    private static RouteGeometry buildGeometry(String routeId, List<CompactLocationPoint> points,
+                                               double toleranceMeters, int precision) {
+        List<CompactLocationPoint> simplified = RouteSimplifier.simplify(points, toleranceMeters);
+        return RouteGeometry.builder()
+                .routeId(routeId)
+                .polyline(Polyline.encode(simplified, precision))
+                .precision(precision)
+                .toleranceMeters(toleranceMeters)
+                .pointCount(simplified.size())
+                .originalPointCount(points.size())
+                .lastPointTimestamp(points.isEmpty() ? null
+                        : CompactLocationMapper.toLocalDateTime(points.get(points.size() - 1).getTimestampMillis()))
+                .build();
+    }
+
+    private List<DeliveryRoute.LocationPoint> flatten(Stream<RoutePointChunk> chunks) {
+        List<DeliveryRoute.LocationPoint> points = new ArrayList<>();
+        chunks.forEach(chunk -> chunk.getPoints().forEach(
+                point -> points.add(CompactLocationMapper.toLocationPoint(point))));
+        return points;
+    }
+
+    /**
+     * Completes the route. A {@code null} distance or duration is taken from the metrics
+     * accumulated while points were appended: distance travelled while moving, and moving plus
+     * idle time between the first and last point. Without such metrics (no point, or a route
+     * stored before point bucketing) they are left {@code null} rather than reported as zero.
+     */
     public DeliveryRoute finalizeRoute(String routeId, BigDecimal actualDistance, Integer actualDuration) {
         log.info("Finalizing route {} with actual distance: {} km and duration: {} minutes", 
                 routeId, actualDistance, actualDuration);
 
         return deliveryRouteRepository.findById(routeId)
                 .map(route -> {
-                    route.setActualDistance(actualDistance);
-                    route.setActualDuration(actualDuration);
+                    // Sums the per-bucket totals; the points themselves are not read
+                    Optional<RouteMetrics> metrics = routePointChunkRepository.sumMetrics(routeId);
+                    route.setActualDistance(actualDistance != null ? actualDistance
+                            : metrics.map(m -> BigDecimal.valueOf(m.getDistanceMeters() / 1000).setScale(2, RoundingMode.HALF_UP))
+                                    .orElse(null));
+                    route.setActualDuration(actualDuration != null ? actualDuration
+                            : metrics.map(m -> toMinutes(m.getMovingMillis() + m.getIdleMillis())).orElse(null));
+                    route.setMovingDuration(metrics.map(m -> toMinutes(m.getMovingMillis())).orElse(null));
+                    route.setIdleDuration(metrics.map(m -> toMinutes(m.getIdleMillis())).orElse(null));
                     route.setStatus(DeliveryRoute.RouteStatus.COMPLETED);
                     route.setCompletedAt(LocalDateTime.now());
 
                     DeliveryRoute updatedRoute = deliveryRouteRepository.save(route);
+                    activeRouteCache.onRouteChanged(updatedRoute);
 
-                    // Send to Kafka
-                    kafkaTemplate.send(ROUTE_UPDATES_TOPIC, updatedRoute);
+                    publishRouteChanged(updatedRoute);
 
                     return updatedRoute;
                 })
                 .orElseThrow(() -> new RuntimeException("Route not found with ID: " + routeId));
     }
+
+    private static int toMinutes(long millis) {
+        return (int) Math.round(millis / 60_000d);
+    }
 }
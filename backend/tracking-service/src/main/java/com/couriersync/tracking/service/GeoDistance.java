@@ -0,0 +1,36 @@
+package com.couriersync.tracking.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Great-circle distance helpers (Haversine formula).
+ */
+public final class GeoDistance {
+
+    public static final double EARTH_RADIUS_KM = 6371;
+
+    private GeoDistance() {
+    }
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /**
+     * Distance in km rounded to two decimals.
+     */
+    public static BigDecimal haversineKm(BigDecimal lat1, BigDecimal lon1, BigDecimal lat2, BigDecimal lon2) {
+        double distance = haversineKm(lat1.doubleValue(), lon1.doubleValue(), lat2.doubleValue(), lon2.doubleValue());
+        return new BigDecimal(distance).setScale(2, RoundingMode.HALF_UP);
+    }
+}
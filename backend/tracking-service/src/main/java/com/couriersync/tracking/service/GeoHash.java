@@ -0,0 +1,74 @@
+package com.couriersync.tracking.service;
+
+/**
+ * Geohash encoding (base32, longitude bit first). Each extra character narrows the cell by
+ * a factor of 32, and a cell contains every cell whose hash starts with its own hash.
+ */
+public final class GeoHash {
+
+    public static final int MAX_PRECISION = 12;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and " + MAX_PRECISION);
+        }
+
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        char[] hash = new char[precision];
+        boolean evenBit = true;
+
+        for (int i = 0; i < precision; i++) {
+            int index = 0;
+            for (int bit = 0; bit < 5; bit++) {
+                index <<= 1;
+                if (evenBit) {
+                    double mid = (minLon + maxLon) / 2;
+                    if (longitude >= mid) {
+                        index |= 1;
+                        minLon = mid;
+                    } else {
+                        maxLon = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (latitude >= mid) {
+                        index |= 1;
+                        minLat = mid;
+                    } else {
+                        maxLat = mid;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+            hash[i] = BASE32[index];
+        }
+        return new String(hash);
+    }
+
+    public static boolean isValid(String hash) {
+        if (hash == null || hash.isEmpty() || hash.length() > MAX_PRECISION) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            if (indexOf(hash.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < BASE32.length; i++) {
+            if (BASE32[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,79 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.CachedLocation;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-process first level in front of the Redis {@code driver:latest_location:} keys, so that
+ * repeated reads of a driver's latest location on this node do not pay a Redis round trip.
+ *
+ * <p>Entries are refreshed by the writes made on this node and by the location updates of every
+ * node read from the {@code tracking.updates} topic. An entry is only replaced by a more recent
+ * location, so updates arriving out of order cannot move a driver back. The expiry bounds how
+ * stale an entry can get if that topic lags.
+ */
+@Component
+public class LatestLocationNearCache {
+
+    private final Cache<UUID, CachedLocation> cache;
+
+    public LatestLocationNearCache(MeterRegistry meterRegistry,
+                                   @Value("${tracking.latest-location.near-cache.max-size:100000}") long maxSize,
+                                   @Value("${tracking.latest-location.near-cache.ttl:PT30S}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tracking.latest_location.near");
+    }
+
+    /**
+     * Returns the cached latest location of the driver, or {@code null} on a miss.
+     */
+    public CachedLocation get(UUID driverId) {
+        return cache.getIfPresent(driverId);
+    }
+
+    /**
+     * Returns the cached latest locations of the given drivers; misses are absent from the map.
+     */
+    public Map<UUID, CachedLocation> getAll(Collection<UUID> driverIds) {
+        return cache.getAllPresent(driverIds);
+    }
+
+    /**
+     * Stores the location unless a more recent one is already cached for the driver.
+     */
+    public void put(CachedLocation location) {
+        if (location == null || location.getDriverId() == null || location.getPoint() == null) {
+            return;
+        }
+        cache.asMap().merge(location.getDriverId(), location, (current, candidate) ->
+                candidate.getPoint().getTimestampMillis() < current.getPoint().getTimestampMillis() ? current : candidate);
+    }
+
+    public void putAll(Collection<CachedLocation> locations) {
+        locations.forEach(this::put);
+    }
+
+    public void evict(UUID driverId) {
+        if (driverId != null) {
+            cache.invalidate(driverId);
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,119 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.LocationUpdate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Spatial index of the last broadcast position of each live driver, used for the
+ * {@code /topic/area/{geohash}} subscriptions.
+ *
+ * <p>Positions are keyed by geohash and sorted, so all drivers inside an area are one range
+ * scan over the area's geohash prefix. Areas can be subscribed to at the precisions between
+ * {@code tracking.area.min-precision} and {@code tracking.area.max-precision}; a map viewport
+ * is covered by subscribing to the few tiles it overlaps.
+ */
+@Component
+public class LiveLocationIndex {
+
+    static final int INDEX_PRECISION = 9;
+
+    private final int minPrecision;
+    private final int maxPrecision;
+
+    // geohash + ':' + driver id -> last position
+    private final ConcurrentSkipListMap<String, LocationUpdate> positions = new ConcurrentSkipListMap<>();
+    private final Map<UUID, String> keys = new ConcurrentHashMap<>();
+
+    public LiveLocationIndex(@Value("${tracking.area.min-precision:4}") int minPrecision,
+                             @Value("${tracking.area.max-precision:6}") int maxPrecision) {
+        if (minPrecision < 1 || maxPrecision > INDEX_PRECISION || minPrecision > maxPrecision) {
+            throw new IllegalArgumentException("Area precisions must satisfy 1 <= min <= max <= " + INDEX_PRECISION);
+        }
+        this.minPrecision = minPrecision;
+        this.maxPrecision = maxPrecision;
+    }
+
+    public int getMinPrecision() {
+        return minPrecision;
+    }
+
+    public int getMaxPrecision() {
+        return maxPrecision;
+    }
+
+    public boolean isValidArea(String area) {
+        return GeoHash.isValid(area) && area.length() >= minPrecision && area.length() <= maxPrecision;
+    }
+
+    /**
+     * Records the position of a driver.
+     *
+     * @return the driver's previous and current cells, or {@code null} if the update has no coordinates
+     */
+    public Move update(LocationUpdate locationUpdate) {
+        if (locationUpdate.getLatitude() == null || locationUpdate.getLongitude() == null) {
+            return null;
+        }
+
+        String cell = GeoHash.encode(locationUpdate.getLatitude().doubleValue(),
+                locationUpdate.getLongitude().doubleValue(), INDEX_PRECISION);
+        String key = cell + ':' + locationUpdate.getDriverId();
+        String[] previousKey = new String[1];
+
+        // Per-driver atomic, so a concurrent remove cannot leave a stale entry behind
+        keys.compute(locationUpdate.getDriverId(), (driverId, oldKey) -> {
+            positions.put(key, locationUpdate);
+            if (oldKey != null && !oldKey.equals(key)) {
+                positions.remove(oldKey);
+            }
+            previousKey[0] = oldKey;
+            return key;
+        });
+
+        return new Move(previousKey[0] != null ? cellOf(previousKey[0]) : null, cell);
+    }
+
+    /**
+     * Removes a driver from the index.
+     *
+     * @return the driver's last cell, or {@code null} if it was not indexed
+     */
+    public String remove(UUID driverId) {
+        String[] previousKey = new String[1];
+        keys.computeIfPresent(driverId, (id, oldKey) -> {
+            positions.remove(oldKey);
+            previousKey[0] = oldKey;
+            return null;
+        });
+        return previousKey[0] != null ? cellOf(previousKey[0]) : null;
+    }
+
+    /**
+     * Last positions of the drivers inside an area.
+     */
+    public List<LocationUpdate> findInArea(String area) {
+        return new ArrayList<>(positions.subMap(area, true, area + Character.MAX_VALUE, false).values());
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    private static String cellOf(String key) {
+        return key.substring(0, key.indexOf(':'));
+    }
+
+    /**
+     * Cells of a driver before and after an update, at {@link #INDEX_PRECISION}.
+     */
+    public record Move(String previousCell, String cell) {
+    }
+}
@@ -0,0 +1,326 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.mapper.CompactLocationMapper;
+import com.couriersync.tracking.model.AreaUpdate;
+import com.couriersync.tracking.model.LocationDelta;
+import com.couriersync.tracking.model.LocationUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate-limited, conflating broadcast of driver positions to WebSocket subscribers.
+ *
+ * <p>Each driver gets one outbound stream shared by all subscribers of its topics, sent at most
+ * once per {@code tracking.broadcast.min-interval-ms}. The first ping after a quiet period goes out
+ * immediately; pings arriving faster than the limit overwrite each other and the latest one is
+ * sent when the interval has elapsed, so subscribers never lag behind the last known position.
+ *
+ * <p>Positions go to {@code /topic/driver/{driverId}} and {@code /topic/delivery/{deliveryId}} as
+ * full {@link LocationUpdate} payloads and, when enabled, to {@code /topic/driver/{driverId}/delta}
+ * as {@link LocationDelta} payloads carrying only the changed fields. They also go to
+ * {@code /topic/area/{geohash}} for each area precision, as {@link AreaUpdate} payloads that
+ * announce when the driver leaves an area (see {@link LiveLocationIndex}).
+ *
+ * <p>The limit applies per node: with several tracking-service nodes receiving pings for the same
+ * driver, subscribers may see up to one message per interval per node. The delta base (the last
+ * position sent and the sequence number) is per node as well, and deltas of two nodes on the same
+ * topic cannot be combined, so unless the broker mode is {@code simple} (a single node) every
+ * message on the delta topic is a keyframe.
+ */
+@Service
+@Slf4j
+public class LocationBroadcastService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final LiveLocationIndex liveLocationIndex;
+    private final long minIntervalNanos;
+    private final long idleTimeoutNanos;
+    private final boolean deltaEnabled;
+    private final int keyframeInterval;
+    private final boolean keyframesOnly;
+
+    private final Map<UUID, DriverStream> streams = new ConcurrentHashMap<>();
+
+    private final Counter receivedCounter;
+    private final Counter conflatedCounter;
+    private final Counter fullSentCounter;
+    private final Counter deltaSentCounter;
+    private final Counter areaSentCounter;
+
+    public LocationBroadcastService(SimpMessagingTemplate messagingTemplate,
+                                    LiveLocationIndex liveLocationIndex,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${tracking.broadcast.min-interval-ms:1000}") long minIntervalMs,
+                                    @Value("${tracking.broadcast.idle-timeout-ms:300000}") long idleTimeoutMs,
+                                    @Value("${tracking.broadcast.delta.enabled:true}") boolean deltaEnabled,
+                                    @Value("${tracking.broadcast.delta.keyframe-interval:20}") int keyframeInterval,
+                                    @Value("${tracking.websocket.broker.mode:simple}") String brokerMode) {
+        this.messagingTemplate = messagingTemplate;
+        this.liveLocationIndex = liveLocationIndex;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMs);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.deltaEnabled = deltaEnabled;
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+        this.keyframesOnly = !"simple".equals(brokerMode);
+
+        Gauge.builder("tracking.broadcast.streams", streams, Map::size)
+                .description("Drivers with an active broadcast stream")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("tracking.broadcast.received")
+                .description("Location updates handed over for broadcast")
+                .register(meterRegistry);
+        this.conflatedCounter = Counter.builder("tracking.broadcast.conflated")
+                .description("Location updates superseded before being broadcast")
+                .register(meterRegistry);
+        this.fullSentCounter = Counter.builder("tracking.broadcast.sent")
+                .tag("payload", "full")
+                .description("Location broadcasts sent to subscribers")
+                .register(meterRegistry);
+        this.deltaSentCounter = Counter.builder("tracking.broadcast.sent")
+                .tag("payload", "delta")
+                .description("Location broadcasts sent to subscribers")
+                .register(meterRegistry);
+        this.areaSentCounter = Counter.builder("tracking.broadcast.sent")
+                .tag("payload", "area")
+                .description("Location broadcasts sent to subscribers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a location update for broadcast, sending it right away if the driver's stream is
+     * not rate limited.
+     */
+    public void publish(LocationUpdate locationUpdate) {
+        publish(locationUpdate, System.nanoTime());
+    }
+
+    /**
+     * Drops the pending update and delta state of a driver, e.g. when it goes offline, and
+     * removes it from the areas it was visible in.
+     */
+    public void reset(UUID driverId) {
+        DriverStream stream = streams.remove(driverId);
+        if (stream != null) {
+            synchronized (stream) {
+                stream.retired = true;
+                leaveAreas(driverId);
+            }
+        }
+    }
+
+    /**
+     * Sends the pending updates whose interval has elapsed and forgets idle drivers.
+     */
+    @Scheduled(fixedDelayString = "${tracking.broadcast.tick-ms:100}")
+    public void flushPending() {
+        flushPending(System.nanoTime());
+    }
+
+    void publish(LocationUpdate locationUpdate, long nowNanos) {
+        if (locationUpdate.getDriverId() == null) {
+            return;
+        }
+        receivedCounter.increment();
+
+        while (true) {
+            DriverStream stream = streams.computeIfAbsent(locationUpdate.getDriverId(), id -> new DriverStream());
+            synchronized (stream) {
+                // Evicted concurrently, retry with a fresh stream
+                if (stream.retired) {
+                    continue;
+                }
+
+                if (isOlder(locationUpdate, stream.pending != null ? stream.pending : stream.lastSent)) {
+                    conflatedCounter.increment();
+                    return;
+                }
+                if (stream.pending != null) {
+                    conflatedCounter.increment();
+                }
+                stream.pending = locationUpdate;
+
+                if (stream.lastSent == null || nowNanos - stream.lastSentNanos >= minIntervalNanos) {
+                    send(stream, nowNanos);
+                }
+                return;
+            }
+        }
+    }
+
+    void flushPending(long nowNanos) {
+        streams.forEach((driverId, stream) -> {
+            synchronized (stream) {
+                if (stream.retired) {
+                    return;
+                }
+                if (stream.pending != null) {
+                    if (nowNanos - stream.lastSentNanos >= minIntervalNanos) {
+                        send(stream, nowNanos);
+                    }
+                } else if (nowNanos - stream.lastSentNanos >= idleTimeoutNanos) {
+                    stream.retired = true;
+                    streams.remove(driverId, stream);
+                    leaveAreas(driverId);
+                }
+            }
+        });
+    }
+
+    int getStreamCount() {
+        return streams.size();
+    }
+
+    // Called with the stream lock held, so messages of one driver leave in order
+    private void send(DriverStream stream, long nowNanos) {
+        LocationUpdate update = stream.pending;
+        stream.pending = null;
+
+        try {
+            messagingTemplate.convertAndSend("/topic/driver/" + update.getDriverId(), update);
+            if (update.getDeliveryId() != null) {
+                messagingTemplate.convertAndSend("/topic/delivery/" + update.getDeliveryId(), update);
+            }
+            fullSentCounter.increment();
+
+            if (deltaEnabled) {
+                messagingTemplate.convertAndSend("/topic/driver/" + update.getDriverId() + "/delta",
+                        toDelta(stream, update));
+                deltaSentCounter.increment();
+            }
+
+            sendToAreas(update);
+        } catch (Exception e) {
+            // The next update of this driver will be sent as usual
+            log.warn("Error broadcasting location update for driver: {}", update.getDriverId(), e);
+        }
+
+        stream.lastSent = update;
+        stream.lastSentNanos = nowNanos;
+    }
+
+    private void sendToAreas(LocationUpdate update) {
+        LiveLocationIndex.Move move = liveLocationIndex.update(update);
+        if (move == null) {
+            return;
+        }
+
+        AreaUpdate position = AreaUpdate.builder().positions(List.of(update)).build();
+        AreaUpdate left = null;
+        for (int precision = liveLocationIndex.getMinPrecision(); precision <= liveLocationIndex.getMaxPrecision(); precision++) {
+            String area = move.cell().substring(0, precision);
+            messagingTemplate.convertAndSend("/topic/area/" + area, position);
+            areaSentCounter.increment();
+
+            // Crossed a tile boundary at this precision
+            if (move.previousCell() != null && !move.previousCell().startsWith(area)) {
+                if (left == null) {
+                    left = AreaUpdate.builder().left(List.of(update.getDriverId())).build();
+                }
+                messagingTemplate.convertAndSend("/topic/area/" + move.previousCell().substring(0, precision), left);
+            }
+        }
+    }
+
+    private void leaveAreas(UUID driverId) {
+        String cell = liveLocationIndex.remove(driverId);
+        if (cell == null) {
+            return;
+        }
+
+        AreaUpdate left = AreaUpdate.builder().left(List.of(driverId)).build();
+        try {
+            for (int precision = liveLocationIndex.getMinPrecision(); precision <= liveLocationIndex.getMaxPrecision(); precision++) {
+                messagingTemplate.convertAndSend("/topic/area/" + cell.substring(0, precision), left);
+            }
+        } catch (Exception e) {
+            log.warn("Error broadcasting area exit for driver: {}", driverId, e);
+        }
+    }
+
+    private LocationDelta toDelta(DriverStream stream, LocationUpdate update) {
+        long sequence = stream.sequence++;
+        LocationUpdate previous = stream.lastSent;
+
+        // A field that disappears cannot be expressed as a delta, resend everything
+        if (keyframesOnly || previous == null || sequence % keyframeInterval == 0 || lostField(previous, update)) {
+            return LocationDelta.builder()
+                    .sequence(sequence)
+                    .keyframe(true)
+                    .deliveryId(update.getDeliveryId())
+                    .timestamp(timestamp(update))
+                    .latitude(update.getLatitude())
+                    .longitude(update.getLongitude())
+                    .accuracy(update.getAccuracy())
+                    .speed(update.getSpeed())
+                    .heading(update.getHeading())
+                    .batteryLevel(update.getBatteryLevel())
+                    .build();
+        }
+
+        return LocationDelta.builder()
+                .sequence(sequence)
+                .deliveryId(Objects.equals(previous.getDeliveryId(), update.getDeliveryId()) ? null : update.getDeliveryId())
+                .timestamp(Objects.equals(previous.getTimestamp(), update.getTimestamp()) ? null : timestamp(update))
+                .latitude(changed(previous.getLatitude(), update.getLatitude()))
+                .longitude(changed(previous.getLongitude(), update.getLongitude()))
+                .accuracy(changed(previous.getAccuracy(), update.getAccuracy()))
+                .speed(changed(previous.getSpeed(), update.getSpeed()))
+                .heading(changed(previous.getHeading(), update.getHeading()))
+                .batteryLevel(Objects.equals(previous.getBatteryLevel(), update.getBatteryLevel()) ? null : update.getBatteryLevel())
+                .build();
+    }
+
+    private static boolean lostField(LocationUpdate previous, LocationUpdate update) {
+        return lost(previous.getDeliveryId(), update.getDeliveryId())
+                || lost(previous.getTimestamp(), update.getTimestamp())
+                || lost(previous.getLatitude(), update.getLatitude())
+                || lost(previous.getLongitude(), update.getLongitude())
+                || lost(previous.getAccuracy(), update.getAccuracy())
+                || lost(previous.getSpeed(), update.getSpeed())
+                || lost(previous.getHeading(), update.getHeading())
+                || lost(previous.getBatteryLevel(), update.getBatteryLevel());
+    }
+
+    private static boolean lost(Object previous, Object current) {
+        return previous != null && current == null;
+    }
+
+    // compareTo, so that 48.8566 and 48.85660 are not reported as a change
+    private static BigDecimal changed(BigDecimal previous, BigDecimal current) {
+        if (current == null || (previous != null && previous.compareTo(current) == 0)) {
+            return null;
+        }
+        return current;
+    }
+
+    private static boolean isOlder(LocationUpdate update, LocationUpdate reference) {
+        return reference != null && update.getTimestamp() != null && reference.getTimestamp() != null
+                && update.getTimestamp().isBefore(reference.getTimestamp());
+    }
+
+    private static Long timestamp(LocationUpdate update) {
+        return update.getTimestamp() != null ? CompactLocationMapper.toEpochMillis(update.getTimestamp()) : null;
+    }
+
+    private static final class DriverStream {
+        private LocationUpdate pending;
+        private LocationUpdate lastSent;
+        private long lastSentNanos;
+        private long sequence;
+        private boolean retired;
+    }
+}
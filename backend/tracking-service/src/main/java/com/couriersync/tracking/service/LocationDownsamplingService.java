@@ -0,0 +1,148 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.config.LocationStorageInitializer;
+import com.couriersync.tracking.model.LocationMinuteAggregate;
+import com.couriersync.tracking.repository.LocationMinuteAggregateRepository;
+import com.couriersync.tracking.repository.LocationUpdateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Aggregates raw location updates older than {@code tracking.location-storage.downsampling.after}
+ * into one {@link LocationMinuteAggregate} per driver and minute, so that history survives the
+ * expiry of the raw pings ({@code tracking.location-storage.raw-retention}).
+ *
+ * <p>Each run resumes from the most recent aggregated minute and works through minute-aligned
+ * slices up to the cutoff. Aggregation is idempotent, so the minute at the watermark is simply
+ * recomputed, and several nodes running the job at the same time only duplicate work. A raw
+ * retention that is still deferred by {@link LocationStorageInitializer} is retried after each run.
+ *
+ * <p>Runs are executed on a dedicated thread rather than on the shared scheduler thread, which
+ * also drives the live location broadcast, and process at most {@code max-slices-per-run}
+ * slices: a large backlog, e.g. on the first run, is caught up over several runs.
+ */
+@Service
+@Slf4j
+public class LocationDownsamplingService {
+
+    private final LocationUpdateRepository locationUpdateRepository;
+    private final LocationMinuteAggregateRepository minuteAggregateRepository;
+    private final LocationStorageInitializer storageInitializer;
+    private final boolean enabled;
+    private final Duration downsampleAfter;
+    private final Duration rawRetention;
+    private final Duration slice;
+    private final int maxSlicesPerRun;
+    private final Timer runTimer;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LocationDownsamplingService(LocationUpdateRepository locationUpdateRepository,
+                                       LocationMinuteAggregateRepository minuteAggregateRepository,
+                                       LocationStorageInitializer storageInitializer,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${tracking.location-storage.downsampling.enabled:true}") boolean enabled,
+                                       @Value("${tracking.location-storage.downsampling.after:P7D}") Duration downsampleAfter,
+                                       @Value("${tracking.location-storage.raw-retention:0}") Duration rawRetention,
+                                       @Value("${tracking.location-storage.downsampling.slice:PT1H}") Duration slice,
+                                       @Value("${tracking.location-storage.downsampling.max-slices-per-run:24}") int maxSlicesPerRun) {
+        if (enabled && rawRetention.toSeconds() > 0 && rawRetention.compareTo(downsampleAfter) <= 0) {
+            throw new IllegalArgumentException("tracking.location-storage.raw-retention (" + rawRetention
+                    + ") must be longer than tracking.location-storage.downsampling.after (" + downsampleAfter + ")");
+        }
+        if (slice.toMinutes() < 1) {
+            throw new IllegalArgumentException("tracking.location-storage.downsampling.slice must be at least one minute");
+        }
+        if (maxSlicesPerRun < 1) {
+            throw new IllegalArgumentException("tracking.location-storage.downsampling.max-slices-per-run must be at least 1");
+        }
+
+        this.locationUpdateRepository = locationUpdateRepository;
+        this.minuteAggregateRepository = minuteAggregateRepository;
+        this.storageInitializer = storageInitializer;
+        this.enabled = enabled;
+        this.downsampleAfter = downsampleAfter;
+        this.rawRetention = rawRetention;
+        this.slice = Duration.ofMinutes(slice.toMinutes());
+        this.maxSlicesPerRun = maxSlicesPerRun;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "location-downsampling");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.runTimer = Timer.builder("tracking.location_storage.downsampling")
+                .description("Time spent aggregating raw location updates into minutes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${tracking.location-storage.downsampling.cron:0 */10 * * * *}")
+    public void downsample() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            // Disabled, or the previous run is still going
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                runTimer.record(() -> downsample(LocalDateTime.now()));
+                storageInitializer.applyRetention();
+            } catch (Exception e) {
+                log.error("Location downsampling failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Aggregates the minutes between the watermark and {@code now - after}, at most
+     * {@code max-slices-per-run} slices; returns the number of slices processed.
+     */
+    int downsample(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(downsampleAfter).truncatedTo(ChronoUnit.MINUTES);
+
+        // Without aggregates yet: with a retention, start at the oldest raw ping so that nothing
+        // expires before it is aggregated (the retention is deferred until then); without one,
+        // start with the last slice rather than scanning the whole history
+        LocalDateTime from = minuteAggregateRepository.findFirstByOrderByMinuteDesc()
+                .map(LocationMinuteAggregate::getMinute)
+                .or(() -> rawRetention.toSeconds() > 0
+                        ? locationUpdateRepository.findOldestTimestamp()
+                        : Optional.empty())
+                .orElse(cutoff.minus(slice))
+                .truncatedTo(ChronoUnit.MINUTES);
+
+        int slices = 0;
+        while (from.isBefore(cutoff) && slices < maxSlicesPerRun) {
+            LocalDateTime to = from.plus(slice).isBefore(cutoff) ? from.plus(slice) : cutoff;
+            locationUpdateRepository.downsampleToMinutes(from, to);
+            from = to;
+            slices++;
+        }
+
+        if (from.isBefore(cutoff)) {
+            log.info("Downsampled location updates up to {} in {} slices, resuming next run (cutoff {})", from, slices, cutoff);
+        } else if (slices > 0) {
+            log.debug("Downsampled location updates up to {} in {} slices", cutoff, slices);
+        }
+        return slices;
+    }
+}
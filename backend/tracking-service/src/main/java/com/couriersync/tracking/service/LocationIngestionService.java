@@ -0,0 +1,297 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.common.kafka.KafkaEventPublisher;
+import com.couriersync.tracking.model.LocationUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Front door for incoming GPS pings. Pings are acknowledged as soon as they are
+ * buffered and a single flusher thread persists them in size- or time-bounded
+ * batches through {@link LocationUpdateService#saveLocationUpdatesBatch(List)}.
+ *
+ * <p>A batch that fails to persist is retried with an exponential backoff, bounded by
+ * {@code max-retry-backoff-ms}; while it is retried the buffer fills up and new pings are
+ * rejected, so clients back off instead of losing data. A retry resumes at the stage that failed
+ * (insert, route points, cache, events), so stored updates are neither inserted nor appended to
+ * their route twice. After {@code max-attempts} a batch that was never inserted is published to
+ * the dead-letter topic; one that was inserted is stored already and only its later stages are
+ * given up.
+ */
+@Service
+@Slf4j
+public class LocationIngestionService {
+
+    private final LocationUpdateService locationUpdateService;
+    private final KafkaEventPublisher eventPublisher;
+    private final BlockingQueue<LocationUpdate> buffer;
+    // Batch being collected or flushed; only touched by the flusher, then by stop() once it has ended
+    private final List<LocationUpdate> pendingBatch;
+    private final int maxBatchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final String deadLetterTopic;
+
+    private final Timer flushTimer;
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter flushFailureCounter;
+    private final Counter deadLetterCounter;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public LocationIngestionService(LocationUpdateService locationUpdateService,
+                                    KafkaEventPublisher eventPublisher,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${tracking.ingestion.buffer-capacity:10000}") int bufferCapacity,
+                                    @Value("${tracking.ingestion.max-batch-size:500}") int maxBatchSize,
+                                    @Value("${tracking.ingestion.flush-interval-ms:200}") long flushIntervalMs,
+                                    @Value("${tracking.ingestion.offer-timeout-ms:50}") long offerTimeoutMs,
+                                    @Value("${tracking.ingestion.max-attempts:5}") int maxAttempts,
+                                    @Value("${tracking.ingestion.retry-backoff-ms:200}") long retryBackoffMs,
+                                    @Value("${tracking.ingestion.max-retry-backoff-ms:5000}") long maxRetryBackoffMs,
+                                    @Value("${tracking.ingestion.dead-letter-topic:tracking.location-updates.dlt}") String deadLetterTopic) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("tracking.ingestion.max-attempts must be at least 1");
+        }
+
+        this.locationUpdateService = locationUpdateService;
+        this.eventPublisher = eventPublisher;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.pendingBatch = new ArrayList<>(maxBatchSize);
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+        this.deadLetterTopic = deadLetterTopic;
+
+        Gauge.builder("tracking.ingestion.queue.depth", buffer, BlockingQueue::size)
+                .description("Location updates waiting to be flushed")
+                .register(meterRegistry);
+        Gauge.builder("tracking.ingestion.queue.capacity", buffer, q -> q.size() + q.remainingCapacity())
+                .description("Maximum number of buffered location updates")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("tracking.ingestion.flush.latency")
+                .description("Time spent persisting one batch of location updates")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.acceptedCounter = Counter.builder("tracking.ingestion.accepted")
+                .description("Location updates accepted into the buffer")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("tracking.ingestion.rejected")
+                .description("Location updates rejected because the buffer was full")
+                .register(meterRegistry);
+        this.flushFailureCounter = Counter.builder("tracking.ingestion.flush.failures")
+                .description("Attempts to persist a batch that failed")
+                .register(meterRegistry);
+        this.deadLetterCounter = Counter.builder("tracking.ingestion.dead_lettered")
+                .description("Location updates sent to the dead-letter topic after the last failed attempt")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "location-ingestion-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Location ingestion started (batch size: {}, flush interval: {} ms)", maxBatchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            try {
+                flusher.join(flushIntervalMs * 5);
+                if (flusher.isAlive()) {
+                    // Stuck in a retry backoff: the batch it holds stays in pendingBatch
+                    flusher.interrupt();
+                    flusher.join(flushIntervalMs * 5);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Persist the batch the flusher was working on and whatever is still buffered
+        List<LocationUpdate> remaining = new ArrayList<>(pendingBatch);
+        pendingBatch.clear();
+        buffer.drainTo(remaining);
+        while (!remaining.isEmpty()) {
+            List<LocationUpdate> batch = remaining.subList(0, Math.min(maxBatchSize, remaining.size()));
+            try {
+                flush(new ArrayList<>(batch));
+            } catch (InterruptedException e) {
+                // No time left to retry: keep the rest out of the way of the shutdown
+                Thread.currentThread().interrupt();
+                deadLetter(remaining);
+                break;
+            }
+            batch.clear();
+        }
+        log.info("Location ingestion stopped");
+    }
+
+    /**
+     * Buffers a location update for asynchronous persistence. Blocks for at most the
+     * configured offer timeout when the buffer is full.
+     *
+     * @return {@code true} if the update was accepted, {@code false} if the caller should back off
+     * @throws IllegalArgumentException if the update has no latitude or longitude
+     */
+    public boolean submit(LocationUpdate locationUpdate) {
+        requireCoordinates(locationUpdate);
+        if (locationUpdate.getTimestamp() == null) {
+            locationUpdate.setTimestamp(LocalDateTime.now());
+        }
+
+        boolean accepted;
+        try {
+            accepted = buffer.offer(locationUpdate, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+
+        if (accepted) {
+            acceptedCounter.increment();
+        } else {
+            rejectedCounter.increment();
+            log.warn("Ingestion buffer full, rejecting location update for driver: {}", locationUpdate.getDriverId());
+        }
+        return accepted;
+    }
+
+    /**
+     * Buffers several location updates, stopping at the first one that does not fit.
+     *
+     * @return the number of updates accepted
+     * @throws IllegalArgumentException if an update has no latitude or longitude, before any is buffered
+     */
+    public int submitAll(List<LocationUpdate> locationUpdates) {
+        locationUpdates.forEach(LocationIngestionService::requireCoordinates);
+        int accepted = 0;
+        for (LocationUpdate locationUpdate : locationUpdates) {
+            if (!submit(locationUpdate)) {
+                break;
+            }
+            accepted++;
+        }
+        return accepted;
+    }
+
+    // A position cannot be made up for an update without one, e.g. 0,0
+    private static void requireCoordinates(LocationUpdate locationUpdate) {
+        if (locationUpdate.getLatitude() == null || locationUpdate.getLongitude() == null) {
+            throw new IllegalArgumentException("Location update without coordinates for driver: "
+                    + locationUpdate.getDriverId());
+        }
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    private void runFlushLoop() {
+        List<LocationUpdate> batch = pendingBatch;
+
+        while (running) {
+            try {
+                LocationUpdate first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Keep collecting until the batch is full or the flush interval has elapsed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < maxBatchSize) {
+                    buffer.drainTo(batch, maxBatchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remainingNanos <= 0) {
+                        break;
+                    }
+                    LocationUpdate next = buffer.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // The batch is left in pendingBatch for stop() to persist
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Persists the batch, retrying failed attempts with an exponential backoff from the stage that
+     * failed, and dead-letters it after the last attempt if it was never inserted. Returns once the batch has been persisted or dead-lettered.
+     *
+     * @throws InterruptedException if interrupted while waiting to retry; the batch was not persisted
+     */
+    private void flush(List<LocationUpdate> batch) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        LocationUpdateService.BatchProgress progress = new LocationUpdateService.BatchProgress();
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flushTimer.record(() -> locationUpdateService.saveLocationUpdatesBatch(batch, progress));
+                return;
+            } catch (Exception e) {
+                flushFailureCounter.increment();
+                if (attempt >= maxAttempts) {
+                    if (progress.isPersisted()) {
+                        // Raw updates are stored; re-sending them would insert them a second time
+                        log.error("Giving up on route, cache and event updates for a stored batch of {} location updates after {} attempts",
+                                batch.size(), attempt, e);
+                    } else {
+                        log.error("Giving up on batch of {} location updates after {} attempts", batch.size(), attempt, e);
+                        deadLetter(batch);
+                    }
+                    return;
+                }
+                log.warn("Error flushing batch of {} location updates (attempt {}/{}), retrying in {} ms",
+                        batch.size(), attempt, maxAttempts, backoffMs, e);
+            }
+
+            TimeUnit.MILLISECONDS.sleep(backoffMs);
+            backoffMs = Math.min(backoffMs * 2, maxRetryBackoffMs);
+        }
+    }
+
+    private void deadLetter(List<LocationUpdate> batch) {
+        for (LocationUpdate locationUpdate : batch) {
+            eventPublisher.publish(deadLetterTopic, String.valueOf(locationUpdate.getDriverId()), locationUpdate);
+        }
+        deadLetterCounter.increment(batch.size());
+    }
+}
@@ -1,20 +1,34 @@
 package com.couriersync.tracking.service;
 
+import com.couriersync.common.kafka.KafkaEventPublisher;
+import com.couriersync.tracking.mapper.CompactLocationMapper;
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.LocationHistoryPage;
 import com.couriersync.tracking.model.LocationUpdate;
 import com.couriersync.tracking.repository.LocationUpdateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -23,11 +37,15 @@ public class LocationUpdateService {
 
     private final LocationUpdateRepository locationUpdateRepository;
     private final DeliveryRouteService deliveryRouteService;
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final RedisTemplate<String, CachedLocation> redisTemplate;
+    private final KafkaEventPublisher eventPublisher;
+    private final LatestLocationNearCache latestLocationNearCache;
 
     private static final String LATEST_LOCATION_KEY_PREFIX = "driver:latest_location:";
-    private static final String LOCATION_UPDATES_TOPIC = "tracking.updates";
+    public static final String LOCATION_UPDATES_TOPIC = "tracking.updates";
+
+    @Value("${tracking.latest-location.mget-batch-size:500}")
+    private int mgetBatchSize;
 
     public LocationUpdate saveLocationUpdate(LocationUpdate locationUpdate) {
         log.debug("Saving location update for driver: {}, delivery: {}", 
@@ -52,7 +70,7 @@ public class LocationUpdateService {
         }
 
         // Send to Kafka for real-time updates
-        kafkaTemplate.send(LOCATION_UPDATES_TOPIC, savedUpdate);
+        eventPublisher.publish(LOCATION_UPDATES_TOPIC, savedUpdate.getDriverId().toString(), savedUpdate);
 
         log.debug("Saved location update with ID: {}", savedUpdate.getId());
         return savedUpdate;
@@ -61,7 +79,55 @@ public class LocationUpdateService {
     public List<LocationUpdate> getLatestLocationUpdates(UUID driverId, int limit) {
         log.debug("Getting latest {} location updates for driver: {}", limit, driverId);
         Pageable pageable = PageRequest.of(0, limit);
-        return locationUpdateRepository.findByDriverIdOrderByTimestampDesc(driverId);
+        return locationUpdateRepository.findByDriverIdOrderByTimestampDesc(driverId, pageable);
+    }
+
+    /**
+     * Page of a driver's location updates in {@code [from, to)}, oldest first. Either bound may be
+     * {@code null}; {@code cursor} is the {@code nextCursor} of the previous page.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public LocationHistoryPage getDriverHistory(UUID driverId, LocalDateTime from, LocalDateTime to,
+                                                String cursor, int limit) {
+        log.debug("Getting location history page for driver: {} between {} and {}", driverId, from, to);
+        HistoryCursor after = HistoryCursor.parse(cursor);
+        List<LocationUpdate> updates = locationUpdateRepository.findDriverHistoryPage(driverId, from, to,
+                after != null ? after.timestamp() : null, after != null ? after.id() : null, limit + 1);
+        return toPage(updates, limit);
+    }
+
+    /**
+     * Page of a delivery's location updates, oldest first.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public LocationHistoryPage getDeliveryHistory(UUID deliveryId, String cursor, int limit) {
+        log.debug("Getting location history page for delivery: {}", deliveryId);
+        HistoryCursor after = HistoryCursor.parse(cursor);
+        List<LocationUpdate> updates = locationUpdateRepository.findDeliveryHistoryPage(deliveryId,
+                after != null ? after.timestamp() : null, after != null ? after.id() : null, limit + 1);
+        return toPage(updates, limit);
+    }
+
+    /**
+     * A driver's location updates between {@code startTime} and {@code endTime}, oldest first,
+     * read through a database cursor. The caller must close the stream.
+     */
+    public Stream<LocationUpdate> streamLocationUpdatesForDriverInTimeRange(
+            UUID driverId, LocalDateTime startTime, LocalDateTime endTime) {
+        log.debug("Streaming location updates for driver: {} between {} and {}", driverId, startTime, endTime);
+        return locationUpdateRepository.streamByDriverIdAndTimestampBetweenOrderByTimestampAsc(
+                driverId, startTime, endTime);
+    }
+
+    /**
+     * A delivery's location updates, oldest first, read through a database cursor. The caller
+     * must close the stream.
+     */
+    public Stream<LocationUpdate> streamLocationUpdatesForDelivery(UUID deliveryId) {
+        log.debug("Streaming location updates for delivery: {}", deliveryId);
+        return locationUpdateRepository.streamByDeliveryIdOrderByTimestampAsc(deliveryId);
     }
 
     public List<LocationUpdate> getLocationUpdatesForDelivery(UUID deliveryId) {
@@ -80,13 +146,16 @@ public class LocationUpdateService {
     public LocationUpdate getLatestLocationUpdate(UUID driverId) {
         log.debug("Getting latest location update for driver: {}", driverId);
 
-        // First try to get from Redis cache
-        LocationUpdate cachedLocation = (LocationUpdate) redisTemplate.opsForValue()
-                .get(LATEST_LOCATION_KEY_PREFIX + driverId);
+        // First try the in-process cache, then Redis
+        CachedLocation cachedLocation = latestLocationNearCache.get(driverId);
+        if (cachedLocation == null) {
+            cachedLocation = redisTemplate.opsForValue().get(LATEST_LOCATION_KEY_PREFIX + driverId);
+            latestLocationNearCache.put(cachedLocation);
+        }
 
         if (cachedLocation != null) {
             log.debug("Found latest location in cache for driver: {}", driverId);
-            return cachedLocation;
+            return CompactLocationMapper.toLocationUpdate(cachedLocation);
         }
 
         // If not in cache, get from database
@@ -101,6 +170,69 @@ public class LocationUpdateService {
         return latestLocation;
     }
 
+    /**
+     * Latest location of several drivers, in the order requested. Locations missing from the
+     * in-process cache are read with pipelined MGETs and the Redis misses are resolved with a
+     * single aggregation.
+     * Drivers without a location in the last 7 days are absent from the result.
+     */
+    public List<LocationUpdate> getLatestLocations(Collection<UUID> driverIds) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(driverIds));
+        log.debug("Getting latest location for {} drivers", ids.size());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, LocationUpdate> latestByDriver = new HashMap<>();
+        List<UUID> nearMisses = new ArrayList<>();
+        Map<UUID, CachedLocation> nearCached = latestLocationNearCache.getAll(ids);
+        for (UUID driverId : ids) {
+            CachedLocation cachedLocation = nearCached.get(driverId);
+            if (cachedLocation != null) {
+                latestByDriver.put(driverId, CompactLocationMapper.toLocationUpdate(cachedLocation));
+            } else {
+                nearMisses.add(driverId);
+            }
+        }
+
+        List<UUID> misses = new ArrayList<>();
+        List<CachedLocation> cached = nearMisses.isEmpty() ? List.of() : multiGetLatestLocations(nearMisses);
+        for (int i = 0; i < cached.size(); i++) {
+            CachedLocation cachedLocation = cached.get(i);
+            if (cachedLocation != null) {
+                latestByDriver.put(nearMisses.get(i), CompactLocationMapper.toLocationUpdate(cachedLocation));
+                latestLocationNearCache.put(cachedLocation);
+            } else {
+                misses.add(nearMisses.get(i));
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            log.debug("{} of {} latest locations not in cache", misses.size(), ids.size());
+            List<LocationUpdate> fromDatabase = locationUpdateRepository.findLatestByDriverIdsAfter(
+                    misses, LocalDateTime.now().minusDays(7));
+
+            List<CachedLocation> toCache = new ArrayList<>(fromDatabase.size());
+            for (LocationUpdate latestLocation : fromDatabase) {
+                latestByDriver.put(latestLocation.getDriverId(), latestLocation);
+                // Updates stored without coordinates have no compact form
+                if (latestLocation.getLatitude() != null && latestLocation.getLongitude() != null) {
+                    toCache.add(CompactLocationMapper.toCachedLocation(latestLocation));
+                }
+            }
+            updateLatestLocationsInRedis(toCache);
+        }
+
+        List<LocationUpdate> result = new ArrayList<>(latestByDriver.size());
+        for (UUID driverId : ids) {
+            LocationUpdate latestLocation = latestByDriver.get(driverId);
+            if (latestLocation != null) {
+                result.add(latestLocation);
+            }
+        }
+        return result;
+    }
+
     public List<LocationUpdate> getCoordinatesForDelivery(UUID deliveryId) {
         log.debug("Getting coordinates for delivery: {}", deliveryId);
         return locationUpdateRepository.findCoordinatesByDeliveryId(deliveryId);
@@ -114,31 +246,169 @@ public class LocationUpdateService {
                 driverId, startTime, endTime);
     }
 
+    // One value per driver id, null for cache misses; MGETs of mgetBatchSize keys in one pipeline
+    private List<CachedLocation> multiGetLatestLocations(List<UUID> driverIds) {
+        List<String> keys = driverIds.stream()
+                .map(driverId -> LATEST_LOCATION_KEY_PREFIX + driverId)
+                .toList();
+        int batchSize = Math.max(1, mgetBatchSize);
+        if (keys.size() <= batchSize) {
+            List<CachedLocation> values = redisTemplate.opsForValue().multiGet(keys);
+            return values != null ? values : Collections.nCopies(keys.size(), null);
+        }
+
+        List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, CachedLocation> ops = (RedisOperations<String, CachedLocation>) operations;
+                for (int from = 0; from < keys.size(); from += batchSize) {
+                    ops.opsForValue().multiGet(keys.subList(from, Math.min(from + batchSize, keys.size())));
+                }
+                return null;
+            }
+        });
+
+        List<CachedLocation> values = new ArrayList<>(keys.size());
+        for (Object reply : replies) {
+            for (Object value : (List<?>) reply) {
+                values.add((CachedLocation) value);
+            }
+        }
+        return values;
+    }
+
     private void updateLatestLocationInRedis(LocationUpdate locationUpdate) {
         String key = LATEST_LOCATION_KEY_PREFIX + locationUpdate.getDriverId();
-        redisTemplate.opsForValue().set(key, locationUpdate, 24, TimeUnit.HOURS);
+        CachedLocation cachedLocation = CompactLocationMapper.toCachedLocation(locationUpdate);
+        redisTemplate.opsForValue().set(key, cachedLocation, 24, TimeUnit.HOURS);
+        latestLocationNearCache.put(cachedLocation);
     }
 
     public void saveLocationUpdatesBatch(List<LocationUpdate> locationUpdates) {
-        log.info("Saving batch of {} location updates", locationUpdates.size());
+        saveLocationUpdatesBatch(locationUpdates, new BatchProgress());
+    }
 
-        // Save all to MongoDB
-        List<LocationUpdate> savedUpdates = locationUpdateRepository.saveAll(locationUpdates);
+    /**
+     * Saves a batch in stages, recording each completed stage in {@code progress}. Calling it again
+     * with the same progress after a failure resumes at the stage (and update) that failed, so
+     * updates are inserted once and route points appended once.
+     */
+    void saveLocationUpdatesBatch(List<LocationUpdate> locationUpdates, BatchProgress progress) {
+        log.debug("Saving batch of {} location updates", locationUpdates.size());
 
-        // Update Redis cache for each driver
-        savedUpdates.forEach(update -> {
-            updateLatestLocationInRedis(update);
+        // Single insertMany round trip to MongoDB
+        if (!progress.persisted) {
+            locationUpdateRepository.insert(locationUpdates);
+            progress.persisted = true;
+        }
 
-            // Update route if delivery ID is provided
+        // Convert once to the compact form used by the cache and route storage
+        List<CachedLocation> cachedLocations = new ArrayList<>(locationUpdates.size());
+        for (LocationUpdate update : locationUpdates) {
+            cachedLocations.add(CompactLocationMapper.toCachedLocation(update));
+        }
+
+        // Route appends are not idempotent: resume after the last one that succeeded
+        for (; progress.routePointsAppended < locationUpdates.size(); progress.routePointsAppended++) {
+            LocationUpdate update = locationUpdates.get(progress.routePointsAppended);
             if (update.getDeliveryId() != null) {
-                deliveryRouteService.addLocationPointToRoute(
-                        update.getDeliveryId(), update);
+                deliveryRouteService.appendRoutePoint(update.getDriverId(),
+                        cachedLocations.get(progress.routePointsAppended).getPoint());
             }
+        }
+
+        if (!progress.cached) {
+            // Only the most recent update per driver needs to reach the Redis cache
+            Map<UUID, CachedLocation> latestByDriver = new HashMap<>();
+            for (CachedLocation cachedLocation : cachedLocations) {
+                latestByDriver.merge(cachedLocation.getDriverId(), cachedLocation, (current, candidate) ->
+                        candidate.getPoint().getTimestampMillis() < current.getPoint().getTimestampMillis() ? current : candidate);
+            }
+            updateLatestLocationsInRedis(latestByDriver.values());
+            progress.cached = true;
+        }
+
+        // Sends are accumulated into producer batches by the Kafka client
+        for (; progress.published < locationUpdates.size(); progress.published++) {
+            LocationUpdate update = locationUpdates.get(progress.published);
+            eventPublisher.publish(LOCATION_UPDATES_TOPIC, update.getDriverId().toString(), update);
+        }
+
+        log.debug("Saved batch of {} location updates", locationUpdates.size());
+    }
+
+    private void updateLatestLocationsInRedis(Collection<CachedLocation> cachedLocations) {
+        if (cachedLocations.isEmpty()) {
+            return;
+        }
 
-            // Send to Kafka
-            kafkaTemplate.send(LOCATION_UPDATES_TOPIC, update);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, CachedLocation> ops = (RedisOperations<String, CachedLocation>) operations;
+                cachedLocations.forEach(location -> ops.opsForValue().set(
+                        LATEST_LOCATION_KEY_PREFIX + location.getDriverId(), location, 24, TimeUnit.HOURS));
+                return null;
+            }
         });
+        latestLocationNearCache.putAll(cachedLocations);
+    }
+
+    /**
+     * Stages of {@link #saveLocationUpdatesBatch(List, BatchProgress)} already applied to a batch.
+     */
+    static final class BatchProgress {
+        private boolean persisted;
+        private int routePointsAppended;
+        private boolean cached;
+        private int published;
+
+        boolean isPersisted() {
+            return persisted;
+        }
+    }
+
+    // One more update than the page size is read to tell whether another page follows
+    private static LocationHistoryPage toPage(List<LocationUpdate> updates, int limit) {
+        if (updates.size() <= limit) {
+            return LocationHistoryPage.builder().items(updates).build();
+        }
 
-        log.info("Saved batch of {} location updates", savedUpdates.size());
+        List<LocationUpdate> items = updates.subList(0, limit);
+        LocationUpdate last = items.get(limit - 1);
+        return LocationHistoryPage.builder()
+                .items(new ArrayList<>(items))
+                .nextCursor(new HistoryCursor(last.getTimestamp(), last.getId()).format())
+                .build();
+    }
+
+    /**
+     * Position in a history: the timestamp and id of the last update returned. Formatted as
+     * {@code <epochMillis>_<id>}.
+     */
+    record HistoryCursor(LocalDateTime timestamp, String id) {
+
+        static HistoryCursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            int separator = cursor.indexOf('_');
+            try {
+                long epochMillis = Long.parseLong(cursor.substring(0, separator));
+                String id = cursor.substring(separator + 1);
+                if (!ObjectId.isValid(id)) {
+                    throw new IllegalArgumentException("Invalid history cursor: " + cursor);
+                }
+                return new HistoryCursor(CompactLocationMapper.toLocalDateTime(epochMillis), id);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid history cursor: " + cursor, e);
+            }
+        }
+
+        String format() {
+            return CompactLocationMapper.toEpochMillis(timestamp) + "_" + id;
+        }
     }
 }
@@ -0,0 +1,54 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.CompactLocationPoint;
+
+import java.util.List;
+
+/**
+ * Encoded polyline algorithm format (as used by Google Maps, Leaflet and OSRM): coordinates
+ * rounded to {@code precision} decimals, delta-encoded against the previous point and written as
+ * variable-length base64-like ASCII. Precision 5 is the common default, 6 keeps the full
+ * resolution of the stored microdegrees.
+ */
+public final class Polyline {
+
+    public static final int DEFAULT_PRECISION = 5;
+    public static final int MAX_PRECISION = 6;
+
+    private Polyline() {
+    }
+
+    public static String encode(List<CompactLocationPoint> points, int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Polyline precision must be between 1 and " + MAX_PRECISION);
+        }
+
+        // Points are stored in microdegrees, scale down to the requested precision
+        long divisor = 1;
+        for (int i = precision; i < MAX_PRECISION; i++) {
+            divisor *= 10;
+        }
+
+        StringBuilder encoded = new StringBuilder(points.size() * 8);
+        long previousLat = 0;
+        long previousLon = 0;
+        for (CompactLocationPoint point : points) {
+            long lat = Math.round((double) point.getLatitudeE6() / divisor);
+            long lon = Math.round((double) point.getLongitudeE6() / divisor);
+            encodeValue(lat - previousLat, encoded);
+            encodeValue(lon - previousLon, encoded);
+            previousLat = lat;
+            previousLon = lon;
+        }
+        return encoded.toString();
+    }
+
+    private static void encodeValue(long delta, StringBuilder encoded) {
+        long value = delta < 0 ? ~(delta << 1) : delta << 1;
+        while (value >= 0x20) {
+            encoded.append((char) ((0x20 | (value & 0x1f)) + 63));
+            value >>= 5;
+        }
+        encoded.append((char) (value + 63));
+    }
+}
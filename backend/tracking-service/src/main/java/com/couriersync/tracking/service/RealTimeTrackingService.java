@@ -18,50 +18,29 @@ public class RealTimeTrackingService {
 
     private final LocationUpdateService locationUpdateService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final LocationBroadcastService locationBroadcastService;
 
     /**
-     * Broadcasts a location update to all subscribers of a driver's location
+     * Broadcasts a location update to all subscribers of a driver's location, rate limited per driver
      */
     @Async
     public CompletableFuture<Void> broadcastLocationUpdate(LocationUpdate locationUpdate) {
         log.debug("Broadcasting location update for driver: {}", locationUpdate.getDriverId());
 
-        // Broadcast to driver subscribers
-        messagingTemplate.convertAndSend(
-                "/topic/driver/" + locationUpdate.getDriverId(), 
-                locationUpdate);
-
-        // If associated with a delivery, also broadcast to delivery subscribers
-        if (locationUpdate.getDeliveryId() != null) {
-            messagingTemplate.convertAndSend(
-                    "/topic/delivery/" + locationUpdate.getDeliveryId(), 
-                    locationUpdate);
-        }
+        locationBroadcastService.publish(locationUpdate);
 
         return CompletableFuture.completedFuture(null);
     }
 
     /**
-     * Broadcasts a batch of location updates to all subscribers
+     * Broadcasts a batch of location updates to all subscribers, rate limited per driver
      */
     @Async
     public CompletableFuture<Void> broadcastLocationUpdates(List<LocationUpdate> locationUpdates) {
         log.debug("Broadcasting {} location updates", locationUpdates.size());
 
-        // Group updates by driver and delivery for efficient broadcasting
-        locationUpdates.forEach(update -> {
-            // Broadcast to driver subscribers
-            messagingTemplate.convertAndSend(
-                    "/topic/driver/" + update.getDriverId(), 
-                    update);
-
-            // If associated with a delivery, also broadcast to delivery subscribers
-            if (update.getDeliveryId() != null) {
-                messagingTemplate.convertAndSend(
-                        "/topic/delivery/" + update.getDeliveryId(), 
-                        update);
-            }
-        });
+        // Updates of the same driver are conflated, only the latest is sent within an interval
+        locationUpdates.forEach(locationBroadcastService::publish);
 
         return CompletableFuture.completedFuture(null);
     }
@@ -116,6 +95,9 @@ public class RealTimeTrackingService {
                 .timestamp(java.time.LocalDateTime.now())
                 .build();
 
+        // A pending position sent after the offline notice would make the driver look online again
+        locationBroadcastService.reset(driverId);
+
         // Broadcast to driver subscribers
         messagingTemplate.convertAndSend(
                 "/topic/driver/" + driverId, 
@@ -0,0 +1,44 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.RouteGeometry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of encoded route geometries. The key includes the timestamp of the
+ * route's last recorded point, so a new point makes the next lookup miss and entries of finished
+ * routes stay valid; superseded entries of routes in progress age out.
+ */
+@Component
+public class RouteGeometryCache {
+
+    private final Cache<Key, RouteGeometry> cache;
+
+    public RouteGeometryCache(MeterRegistry meterRegistry,
+                              @Value("${tracking.route-geometry.cache.max-size:1000}") long maxSize,
+                              @Value("${tracking.route-geometry.cache.ttl:PT30M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tracking.route_geometry");
+    }
+
+    /**
+     * Returns the geometry for the key, building it with {@code loader} on a cache miss.
+     */
+    public RouteGeometry get(Key key, Function<Key, RouteGeometry> loader) {
+        return cache.get(key, loader);
+    }
+
+    public record Key(String routeId, double toleranceMeters, int precision, long lastPointTimestampMillis) {
+    }
+}
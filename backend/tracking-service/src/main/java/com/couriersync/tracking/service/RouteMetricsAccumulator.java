@@ -0,0 +1,67 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.RouteMetrics;
+import com.couriersync.tracking.model.RouteStep;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns each point appended to a route into a metrics step (Haversine distance, moving or idle
+ * time) against the route's reference point, so route totals are maintained incrementally in the
+ * point buckets instead of being recomputed from every point.
+ *
+ * <p>The reference point is stored with the route's newest bucket and the step is applied with a
+ * conditional update on that bucket (see
+ * {@link com.couriersync.tracking.repository.RoutePointChunkRepositoryCustom#appendPoint}), so
+ * nodes receiving pings of the same driver each measure from the last stored reference and never
+ * count a stretch twice. Steps slower than the idle speed count as idle time without distance,
+ * which keeps GPS jitter of a parked vehicle out of the distance, and steps faster than the
+ * maximum speed are treated as position glitches: their time counts as idle, and the previous
+ * position stays the reference for the next point, so the jump back from the glitch is measured
+ * from a valid position and no elapsed time is lost.
+ */
+@Component
+public class RouteMetricsAccumulator {
+
+    private final double idleSpeedMetersPerSecond;
+    private final double maxSpeedMetersPerSecond;
+
+    public RouteMetricsAccumulator(@Value("${tracking.route-metrics.idle-speed-kmh:2}") double idleSpeedKmh,
+                                   @Value("${tracking.route-metrics.max-speed-kmh:200}") double maxSpeedKmh) {
+        this.idleSpeedMetersPerSecond = idleSpeedKmh / 3.6;
+        this.maxSpeedMetersPerSecond = maxSpeedKmh / 3.6;
+    }
+
+    /**
+     * Returns the metrics step from {@code reference}, or from nothing for the first point of a
+     * route, to {@code point}, and the reference for the point after it.
+     */
+    public RouteStep nextStep(CompactLocationPoint reference, CompactLocationPoint point) {
+        if (reference == null) {
+            return step(new RouteMetrics(), point);
+        }
+        if (point.getTimestampMillis() <= reference.getTimestampMillis()) {
+            // Late or duplicate point: no elapsed time to attribute, keep the newest reference
+            return step(new RouteMetrics(), reference);
+        }
+
+        long elapsedMillis = point.getTimestampMillis() - reference.getTimestampMillis();
+        double meters = GeoDistance.haversineKm(reference.latitude(), reference.longitude(),
+                point.latitude(), point.longitude()) * 1000;
+        double speed = meters / (elapsedMillis / 1000d);
+
+        if (speed > maxSpeedMetersPerSecond) {
+            // Position glitch: stay at the previous position, moved forward in time
+            return step(RouteMetrics.builder().idleMillis(elapsedMillis).build(),
+                    reference.toBuilder().timestampMillis(point.getTimestampMillis()).build());
+        }
+        return step(speed < idleSpeedMetersPerSecond
+                ? RouteMetrics.builder().idleMillis(elapsedMillis).build()
+                : RouteMetrics.builder().distanceMeters(meters).movingMillis(elapsedMillis).build(), point);
+    }
+
+    private static RouteStep step(RouteMetrics metrics, CompactLocationPoint reference) {
+        return RouteStep.builder().metrics(metrics).reference(reference).build();
+    }
+}
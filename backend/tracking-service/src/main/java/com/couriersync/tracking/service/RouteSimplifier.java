@@ -0,0 +1,90 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.CompactLocationPoint;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Douglas-Peucker line simplification with a tolerance in meters. Distances are computed on a
+ * local equirectangular projection, accurate to well under a meter over the extent of a route.
+ * The first and last points are always kept.
+ */
+public final class RouteSimplifier {
+
+    private static final double METERS_PER_DEGREE = Math.toRadians(GeoDistance.EARTH_RADIUS_KM * 1000);
+
+    private RouteSimplifier() {
+    }
+
+    public static List<CompactLocationPoint> simplify(List<CompactLocationPoint> points, double toleranceMeters) {
+        if (toleranceMeters <= 0 || points.size() < 3) {
+            return points;
+        }
+
+        // Project once to meters around the mean latitude
+        int size = points.size();
+        double meanLatitude = 0;
+        for (CompactLocationPoint point : points) {
+            meanLatitude += point.latitude();
+        }
+        double lonScale = METERS_PER_DEGREE * Math.cos(Math.toRadians(meanLatitude / size));
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = points.get(i).longitude() * lonScale;
+            y[i] = points.get(i).latitude() * METERS_PER_DEGREE;
+        }
+
+        boolean[] keep = new boolean[size];
+        keep[0] = true;
+        keep[size - 1] = true;
+        double toleranceSquared = toleranceMeters * toleranceMeters;
+
+        // Explicit stack: full-day routes are too long for a recursive implementation
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[] {0, size - 1});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int first = range[0];
+            int last = range[1];
+
+            int farthest = -1;
+            double farthestDistance = toleranceSquared;
+            for (int i = first + 1; i < last; i++) {
+                double distance = segmentDistanceSquared(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (distance > farthestDistance) {
+                    farthest = i;
+                    farthestDistance = distance;
+                }
+            }
+
+            if (farthest >= 0) {
+                keep[farthest] = true;
+                ranges.push(new int[] {first, farthest});
+                ranges.push(new int[] {farthest, last});
+            }
+        }
+
+        List<CompactLocationPoint> simplified = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (keep[i]) {
+                simplified.add(points.get(i));
+            }
+        }
+        return simplified;
+    }
+
+    private static double segmentDistanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        double ex = px - (ax + t * dx);
+        double ey = py - (ay + t * dy);
+        return ex * ex + ey * ey;
+    }
+}
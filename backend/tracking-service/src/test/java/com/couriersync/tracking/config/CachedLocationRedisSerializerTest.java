@@ -0,0 +1,79 @@
+package com.couriersync.tracking.config;
+
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.CompactLocationPoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedLocationRedisSerializerTest {
+
+    private final CachedLocationRedisSerializer serializer = new CachedLocationRedisSerializer();
+
+    @Test
+    void testRoundTripWithAllFields() {
+        // Given
+        CachedLocation location = location(UUID.randomUUID(), 76);
+
+        // When
+        byte[] bytes = serializer.serialize(location);
+        CachedLocation decoded = serializer.deserialize(bytes);
+
+        // Then
+        assertEquals(64, bytes.length);
+        assertEquals(location, decoded);
+    }
+
+    @Test
+    void testRoundTripWithoutOptionalFields() {
+        // Given
+        CachedLocation location = location(null, null);
+        location.getPoint().setSpeed(Float.NaN);
+
+        // When
+        byte[] bytes = serializer.serialize(location);
+        CachedLocation decoded = serializer.deserialize(bytes);
+
+        // Then
+        assertEquals(46, bytes.length);
+        assertNull(decoded.getDeliveryId());
+        assertNull(decoded.getBatteryLevel());
+        assertTrue(Float.isNaN(decoded.getPoint().getSpeed()));
+        assertEquals(location.getPoint().getLatitudeE6(), decoded.getPoint().getLatitudeE6());
+        assertEquals(location.getPoint().getTimestampMillis(), decoded.getPoint().getTimestampMillis());
+    }
+
+    @Test
+    void testUnknownFormatReadsAsCacheMiss() {
+        // Given
+        CachedLocation location = location(UUID.randomUUID(), 76);
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(location);
+        byte[] truncated = Arrays.copyOf(serializer.serialize(location), 40);
+
+        // When / Then
+        assertNull(serializer.deserialize(legacy));
+        assertNull(serializer.deserialize(truncated));
+        assertNull(serializer.deserialize(new byte[0]));
+        assertNull(serializer.deserialize(null));
+    }
+
+    private CachedLocation location(UUID deliveryId, Integer batteryLevel) {
+        return CachedLocation.builder()
+                .driverId(UUID.randomUUID())
+                .deliveryId(deliveryId)
+                .point(CompactLocationPoint.builder()
+                        .latitudeE6(48856613)
+                        .longitudeE6(2352222)
+                        .timestampMillis(1714566615000L)
+                        .speed(32.4f)
+                        .heading(187.0f)
+                        .accuracy(8.5f)
+                        .build())
+                .batteryLevel(batteryLevel)
+                .build();
+    }
+}
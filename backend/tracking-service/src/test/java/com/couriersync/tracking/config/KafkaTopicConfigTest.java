@@ -0,0 +1,27 @@
+package com.couriersync.tracking.config;
+
+import com.couriersync.tracking.service.LocationUpdateService;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KafkaTopicConfigTest {
+
+    private final KafkaTopicConfig kafkaTopicConfig = new KafkaTopicConfig();
+
+    @Test
+    void testAllPartitionsCoverTheDeclaredTopic() {
+        // Given
+        NewTopic topic = kafkaTopicConfig.locationUpdatesTopic(3, 1);
+
+        // When
+        List<Integer> partitions = KafkaTopicConfig.allPartitions(topic);
+
+        // Then
+        assertEquals(LocationUpdateService.LOCATION_UPDATES_TOPIC, topic.name());
+        assertEquals(List.of(0, 1, 2), partitions);
+    }
+}
@@ -0,0 +1,132 @@
+package com.couriersync.tracking.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisBrokerFanoutTest {
+
+    private static final String DESTINATION = "/topic/driver/6f1c2a44-2f0e-4c5d-9a53-2b8f0f4e7d11";
+    private static final byte[] PAYLOAD = "{\"latitude\":48.85}".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ObjectProvider<SimpMessagingTemplate> messagingTemplateProvider;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private MessageChannel brokerChannel;
+
+    private RedisBrokerFanout fanout;
+
+    @BeforeEach
+    void setUp() {
+        fanout = new RedisBrokerFanout(redisTemplate, messagingTemplateProvider, "tracking:broadcast");
+    }
+
+    @Test
+    void testEnvelopeRoundTrip() {
+        // Given
+        byte[] envelope = RedisBrokerFanout.encode("node-1", DESTINATION, "application/json", PAYLOAD);
+
+        // When
+        RedisBrokerFanout.Envelope decoded = RedisBrokerFanout.decode(envelope);
+
+        // Then
+        assertEquals("node-1", decoded.origin);
+        assertEquals(DESTINATION, decoded.destination);
+        assertEquals("application/json", decoded.contentType);
+        assertArrayEquals(PAYLOAD, decoded.payload);
+    }
+
+    @Test
+    void testTopicBroadcastIsPublished() {
+        // When
+        fanout.postSend(message(DESTINATION, null), brokerChannel, true);
+
+        // Then
+        verify(redisTemplate).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    void testNonTopicAndRelayedMessagesAreNotPublished() {
+        // When
+        fanout.postSend(message("/queue/driver/1-user42", null), brokerChannel, true);
+        fanout.postSend(message(DESTINATION, "other-node"), brokerChannel, true);
+        fanout.postSend(message(DESTINATION, null), brokerChannel, false);
+
+        // Then
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testBroadcastFromOtherNodeIsDeliveredLocally() {
+        // Given
+        when(messagingTemplateProvider.getObject()).thenReturn(messagingTemplate);
+        byte[] envelope = RedisBrokerFanout.encode("other-node", DESTINATION, "application/json", PAYLOAD);
+
+        // When
+        fanout.onMessage(new DefaultMessage("tracking:broadcast".getBytes(StandardCharsets.UTF_8), envelope), null);
+
+        // Then
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq(DESTINATION), captor.capture());
+        assertArrayEquals(PAYLOAD, (byte[]) captor.getValue().getPayload());
+        assertEquals("other-node", captor.getValue().getHeaders().get(RedisBrokerFanout.ORIGIN_HEADER));
+    }
+
+    @Test
+    void testOwnBroadcastIsIgnored() {
+        // Given
+        fanout.postSend(message(DESTINATION, null), brokerChannel, true);
+        ArgumentCaptor<RedisCallback<Long>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redisTemplate).execute(callback.capture());
+        RedisConnection connection = mock(RedisConnection.class);
+        callback.getValue().doInRedis(connection);
+        ArgumentCaptor<byte[]> published = ArgumentCaptor.forClass(byte[].class);
+        verify(connection).publish(any(byte[].class), published.capture());
+
+        // When
+        fanout.onMessage(new DefaultMessage("tracking:broadcast".getBytes(StandardCharsets.UTF_8), published.getValue()), null);
+
+        // Then
+        verifyNoInteractions(messagingTemplateProvider);
+    }
+
+    private Message<byte[]> message(String destination, String origin) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (origin != null) {
+            accessor.setHeader(RedisBrokerFanout.ORIGIN_HEADER, origin);
+        }
+        return MessageBuilder.createMessage(PAYLOAD, accessor.getMessageHeaders());
+    }
+}
@@ -1,6 +1,7 @@
 package com.couriersync.tracking.config;
 
 import com.couriersync.tracking.security.LocationAuthorizationGuard;
+import com.couriersync.tracking.service.LiveLocationIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +29,9 @@ class WebSocketAuthInterceptorTest {
     @Mock
     private LocationAuthorizationGuard locationAuthorizationGuard;
 
+    @Mock
+    private LiveLocationIndex liveLocationIndex;
+
     @InjectMocks
     private WebSocketAuthInterceptor authInterceptor;
 
@@ -235,4 +239,77 @@ class WebSocketAuthInterceptorTest {
             authInterceptor.preSend(subscribeMessage, channel);
         });
     }
+
+    @Test
+    void testSubscribeToAreaSnapshotAuthorized() {
+        // Given
+        accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination("/app/area/u09tv");
+        accessor.setUser(new WebSocketAuthentication("valid-jwt-token"));
+        Message<?> subscribeMessage = mock(Message.class);
+        when(subscribeMessage.getHeaders()).thenReturn(accessor.getMessageHeaders());
+
+        when(liveLocationIndex.isValidArea("u09tv")).thenReturn(true);
+        when(locationAuthorizationGuard.canAccessArea()).thenReturn(true);
+
+        // When
+        Message<?> result = authInterceptor.preSend(subscribeMessage, channel);
+
+        // Then
+        assertEquals(result, subscribeMessage);
+        verify(locationAuthorizationGuard).canAccessArea();
+    }
+
+    @Test
+    void testSubscribeToAreaSnapshotUnauthorized() {
+        // Given
+        accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination("/app/area/u09tv");
+        accessor.setUser(new WebSocketAuthentication("valid-jwt-token"));
+        Message<?> subscribeMessage = mock(Message.class);
+        when(subscribeMessage.getHeaders()).thenReturn(accessor.getMessageHeaders());
+
+        when(liveLocationIndex.isValidArea("u09tv")).thenReturn(true);
+        when(locationAuthorizationGuard.canAccessArea()).thenReturn(false);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> {
+            authInterceptor.preSend(subscribeMessage, channel);
+        });
+    }
+
+    @Test
+    void testSendToAreaUnauthorized() {
+        // Given
+        accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setDestination("/app/area/u09tv/subscribe");
+        accessor.setUser(new WebSocketAuthentication("valid-jwt-token"));
+        Message<?> sendMessage = mock(Message.class);
+        when(sendMessage.getHeaders()).thenReturn(accessor.getMessageHeaders());
+
+        when(locationAuthorizationGuard.canAccessArea()).thenReturn(false);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> {
+            authInterceptor.preSend(sendMessage, channel);
+        });
+        verify(locationAuthorizationGuard).canAccessArea();
+    }
+
+    @Test
+    void testSendLocationUpdateSkipsAreaCheck() {
+        // Given
+        accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setDestination("/app/location/update");
+        accessor.setUser(new WebSocketAuthentication("valid-jwt-token"));
+        Message<?> sendMessage = mock(Message.class);
+        when(sendMessage.getHeaders()).thenReturn(accessor.getMessageHeaders());
+
+        // When
+        Message<?> result = authInterceptor.preSend(sendMessage, channel);
+
+        // Then
+        assertEquals(result, sendMessage);
+        verify(locationAuthorizationGuard, never()).canAccessArea();
+    }
 }
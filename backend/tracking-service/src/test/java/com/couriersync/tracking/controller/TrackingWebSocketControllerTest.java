@@ -1,6 +1,10 @@
 package com.couriersync.tracking.controller;
 
+import com.couriersync.tracking.model.AreaUpdate;
 import com.couriersync.tracking.model.LocationUpdate;
+import com.couriersync.tracking.service.LiveLocationIndex;
+import com.couriersync.tracking.service.LocationBroadcastService;
+import com.couriersync.tracking.service.LocationIngestionService;
 import com.couriersync.tracking.service.LocationUpdateService;
 import com.couriersync.tracking.mapper.LocationUpdateMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,14 +13,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -27,7 +32,13 @@ class TrackingWebSocketControllerTest {
     private LocationUpdateService locationUpdateService;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private LocationIngestionService locationIngestionService;
+
+    @Mock
+    private LocationBroadcastService locationBroadcastService;
+
+    @Mock
+    private LiveLocationIndex liveLocationIndex;
 
     @InjectMocks
     private TrackingWebSocketController controller;
@@ -60,39 +71,47 @@ class TrackingWebSocketControllerTest {
     @Test
     void testReceiveLocationUpdate() {
         // Given
-        when(locationUpdateService.createLocationUpdate(any()))
-                .thenReturn(LocationUpdateMapper.INSTANCE.toDto(locationUpdate));
+        when(locationIngestionService.submit(locationUpdate)).thenReturn(true);
 
         // When
         controller.receiveLocationUpdate(locationUpdate);
 
         // Then
-        verify(locationUpdateService).createLocationUpdate(any());
-        verify(messagingTemplate).convertAndSend(eq("/topic/driver/" + driverId), eq(locationUpdate));
-        verify(messagingTemplate).convertAndSend(eq("/topic/delivery/" + deliveryId), eq(locationUpdate));
+        verify(locationIngestionService).submit(locationUpdate);
+        verify(locationBroadcastService).publish(locationUpdate);
     }
 
     @Test
     void testReceiveLocationUpdateWithoutDeliveryId() {
         // Given
         locationUpdate.setDeliveryId(null);
-        when(locationUpdateService.createLocationUpdate(any()))
-                .thenReturn(LocationUpdateMapper.INSTANCE.toDto(locationUpdate));
+        when(locationIngestionService.submit(locationUpdate)).thenReturn(true);
+
+        // When
+        controller.receiveLocationUpdate(locationUpdate);
+
+        // Then
+        verify(locationIngestionService).submit(locationUpdate);
+        verify(locationBroadcastService).publish(locationUpdate);
+    }
+
+    @Test
+    void testReceiveLocationUpdateWhenBufferFull() {
+        // Given
+        when(locationIngestionService.submit(locationUpdate)).thenReturn(false);
 
         // When
         controller.receiveLocationUpdate(locationUpdate);
 
         // Then
-        verify(locationUpdateService).createLocationUpdate(any());
-        verify(messagingTemplate).convertAndSend(eq("/topic/driver/" + driverId), eq(locationUpdate));
-        verify(messagingTemplate, never()).convertAndSend(eq("/topic/delivery/" + deliveryId), eq(locationUpdate));
+        verify(locationIngestionService).submit(locationUpdate);
+        verifyNoInteractions(locationBroadcastService);
     }
 
     @Test
     void testSubscribeToDriverLocation() {
         // Given
-        when(locationUpdateService.getLatestLocationUpdateByDriverId(driverId))
-                .thenReturn(Optional.of(LocationUpdateMapper.INSTANCE.toDto(locationUpdate)));
+        when(locationUpdateService.getLatestLocationUpdate(driverId)).thenReturn(locationUpdate);
 
         // When
         LocationUpdate result = controller.subscribeToDriverLocation(driverId);
@@ -100,21 +119,20 @@ class TrackingWebSocketControllerTest {
         // Then
         assertNotNull(result);
         assertEquals(driverId, result.getDriverId());
-        verify(locationUpdateService).getLatestLocationUpdateByDriverId(driverId);
+        verify(locationUpdateService).getLatestLocationUpdate(driverId);
     }
 
     @Test
     void testSubscribeToDriverLocationNotFound() {
         // Given
-        when(locationUpdateService.getLatestLocationUpdateByDriverId(driverId))
-                .thenReturn(Optional.empty());
+        when(locationUpdateService.getLatestLocationUpdate(driverId)).thenReturn(null);
 
         // When
         LocationUpdate result = controller.subscribeToDriverLocation(driverId);
 
         // Then
         assertNull(result);
-        verify(locationUpdateService).getLatestLocationUpdateByDriverId(driverId);
+        verify(locationUpdateService).getLatestLocationUpdate(driverId);
     }
 
     @Test
@@ -145,4 +163,27 @@ class TrackingWebSocketControllerTest {
         assertNull(result);
         verify(locationUpdateService).getLatestLocationUpdateByDeliveryId(deliveryId);
     }
+
+    @Test
+    void testSubscribeToArea() {
+        // Given
+        when(liveLocationIndex.isValidArea("u09tv")).thenReturn(true);
+        when(liveLocationIndex.findInArea("u09tv")).thenReturn(List.of(locationUpdate));
+
+        // When
+        AreaUpdate result = controller.subscribeToArea("u09tv");
+
+        // Then
+        assertEquals(List.of(locationUpdate), result.getPositions());
+    }
+
+    @Test
+    void testSubscribeToInvalidArea() {
+        // Given
+        when(liveLocationIndex.isValidArea("u0")).thenReturn(false);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> controller.subscribeToArea("u0"));
+        verify(liveLocationIndex, never()).findInArea(anyString());
+    }
 }
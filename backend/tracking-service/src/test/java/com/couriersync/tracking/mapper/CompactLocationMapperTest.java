@@ -0,0 +1,82 @@
+package com.couriersync.tracking.mapper;
+
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.DeliveryRoute;
+import com.couriersync.tracking.model.LocationUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactLocationMapperTest {
+
+    @Test
+    void testRoundTripPreservesPublicValues() {
+        // Given
+        LocationUpdate locationUpdate = LocationUpdate.builder()
+                .driverId(UUID.randomUUID())
+                .deliveryId(UUID.randomUUID())
+                .latitude(new BigDecimal("40.712800"))
+                .longitude(new BigDecimal("-74.006000"))
+                .accuracy(new BigDecimal("10.5"))
+                .speed(new BigDecimal("30.2"))
+                .heading(new BigDecimal("90.0"))
+                .timestamp(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000))
+                .batteryLevel(85)
+                .build();
+
+        // When
+        CachedLocation cachedLocation = CompactLocationMapper.toCachedLocation(locationUpdate);
+        LocationUpdate result = CompactLocationMapper.toLocationUpdate(cachedLocation);
+
+        // Then
+        assertEquals(40_712_800, cachedLocation.getPoint().getLatitudeE6());
+        assertEquals(-74_006_000, cachedLocation.getPoint().getLongitudeE6());
+        assertEquals(0, locationUpdate.getLatitude().compareTo(result.getLatitude()));
+        assertEquals(0, locationUpdate.getLongitude().compareTo(result.getLongitude()));
+        assertEquals(new BigDecimal("10.5"), result.getAccuracy());
+        assertEquals(new BigDecimal("30.2"), result.getSpeed());
+        assertEquals(new BigDecimal("90.0"), result.getHeading());
+        assertEquals(locationUpdate.getTimestamp(), result.getTimestamp());
+        assertEquals(locationUpdate.getDriverId(), result.getDriverId());
+        assertEquals(locationUpdate.getDeliveryId(), result.getDeliveryId());
+        assertEquals(85, result.getBatteryLevel());
+    }
+
+    @Test
+    void testMissingOptionalValuesStayNull() {
+        // Given
+        LocationUpdate locationUpdate = LocationUpdate.builder()
+                .latitude(new BigDecimal("1.5"))
+                .longitude(new BigDecimal("2.5"))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        // When
+        CompactLocationPoint point = CompactLocationMapper.toPoint(locationUpdate);
+        DeliveryRoute.LocationPoint locationPoint = CompactLocationMapper.toLocationPoint(point);
+
+        // Then
+        assertTrue(Float.isNaN(point.getSpeed()));
+        assertNull(locationPoint.getSpeed());
+        assertNull(locationPoint.getHeading());
+        assertEquals(0, new BigDecimal("1.5").compareTo(locationPoint.getLatitude()));
+    }
+
+    @Test
+    void testMissingCoordinatesAreRejected() {
+        // Given
+        LocationUpdate locationUpdate = LocationUpdate.builder()
+                .latitude(new BigDecimal("1.5"))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> CompactLocationMapper.toPoint(locationUpdate));
+        assertThrows(IllegalArgumentException.class, () -> CompactLocationMapper.toCachedLocation(locationUpdate));
+    }
+}
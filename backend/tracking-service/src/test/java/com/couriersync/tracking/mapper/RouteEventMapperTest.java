@@ -0,0 +1,88 @@
+package com.couriersync.tracking.mapper;
+
+import com.couriersync.common.events.RoutePointAppendedEvent;
+import com.couriersync.common.events.RouteStatusChangedEvent;
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.DeliveryRoute;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteEventMapperTest {
+
+    @Test
+    void testPointAppendedEventCarriesOnlyTheNewPoint() {
+        // Given
+        DeliveryRoute route = route();
+        CompactLocationPoint point = CompactLocationPoint.builder()
+                .latitudeE6(48_856_613)
+                .longitudeE6(2_352_222)
+                .timestampMillis(1_714_566_615_000L)
+                .speed(32.5f)
+                .build();
+
+        // When
+        RoutePointAppendedEvent event = RouteEventMapper.toPointAppendedEvent(route, point);
+
+        // Then
+        assertEquals("route.point.appended", event.getEventType());
+        assertEquals(route.getId(), event.getRouteId());
+        assertEquals(route.getDriverId(), event.getDriverId());
+        assertEquals(0, new BigDecimal("48.856613").compareTo(event.getLatitude()));
+        assertEquals(0, new BigDecimal("2.352222").compareTo(event.getLongitude()));
+        assertNotNull(event.getRecordedAt());
+    }
+
+    @Test
+    void testStatusChangedEventCarriesRouteTotals() {
+        // Given
+        DeliveryRoute route = route();
+
+        // When
+        RouteStatusChangedEvent event = RouteEventMapper.toStatusChangedEvent(route);
+
+        // Then
+        assertEquals("route.status.changed", event.getEventType());
+        assertEquals(RouteStatusChangedEvent.RouteStatus.COMPLETED, event.getStatus());
+        assertEquals(route.getActualDistance(), event.getActualDistance());
+        assertEquals(route.getActualDuration(), event.getActualDuration());
+        assertEquals(route.getCompletedAt(), event.getCompletedAt());
+    }
+
+    @Test
+    void testSnapshotDropsRoutePointsWithoutTouchingTheRoute() {
+        // Given
+        DeliveryRoute route = route();
+
+        // When
+        DeliveryRoute snapshot = RouteEventMapper.toSnapshot(route);
+
+        // Then
+        assertNull(snapshot.getRoutePoints());
+        assertEquals(route.getId(), snapshot.getId());
+        assertEquals(route.getActualDistance(), snapshot.getActualDistance());
+        assertEquals(1, route.getRoutePoints().size());
+    }
+
+    private static DeliveryRoute route() {
+        return DeliveryRoute.builder()
+                .id("6634f0c2a1b2c3d4e5f60718")
+                .deliveryId(UUID.randomUUID())
+                .driverId(UUID.randomUUID())
+                .routePoints(List.of(DeliveryRoute.LocationPoint.builder()
+                        .latitude(new BigDecimal("48.856613"))
+                        .longitude(new BigDecimal("2.352222"))
+                        .build()))
+                .status(DeliveryRoute.RouteStatus.COMPLETED)
+                .startedAt(LocalDateTime.of(2024, 5, 1, 12, 30))
+                .completedAt(LocalDateTime.of(2024, 5, 1, 13, 2))
+                .actualDistance(new BigDecimal("12.48"))
+                .actualDuration(32)
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.couriersync.tracking.repository;
+
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.RoutePointChunk;
+import com.couriersync.tracking.service.RouteMetricsAccumulator;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoutePointChunkRepositoryImplTest {
+
+    private static final String ROUTE_ID = "6634f0c2a1b2c3d4e5f60718";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private RoutePointChunkRepositoryImpl repository;
+
+    private final RouteMetricsAccumulator accumulator = new RouteMetricsAccumulator(2, 200);
+
+    @Test
+    void testAppendsToOpenBucketInOneConditionalUpdate() {
+        // Given
+        when(mongoTemplate.findOne(any(Query.class), eq(RoutePointChunk.class)))
+                .thenReturn(bucket(2, 5, point(48856613, 0L)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(RoutePointChunk.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // When
+        append(point(48857613, 20_000L));
+
+        // Then
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(query.capture(), any(Update.class), eq(RoutePointChunk.class));
+        assertEquals(5, query.getValue().getQueryObject().get("count"));
+        verify(mongoTemplate, never()).insert(any(RoutePointChunk.class));
+    }
+
+    @Test
+    void testRecomputesStepWhenAnotherNodeAppendedFirst() {
+        // Given: another node appends the point at 20 s between the read and the update
+        when(mongoTemplate.findOne(any(Query.class), eq(RoutePointChunk.class)))
+                .thenReturn(bucket(2, 5, point(48856613, 0L)))
+                .thenReturn(bucket(2, 6, point(48857613, 20_000L)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(RoutePointChunk.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // When
+        append(point(48858613, 40_000L));
+
+        // Then: only the stretch after the other node's point is counted
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), updates.capture(), eq(RoutePointChunk.class));
+        Document increments = (Document) updates.getAllValues().get(1).getUpdateObject().get("$inc");
+        assertEquals(20_000L, increments.get("movingMillis"));
+        assertEquals(111.2, (Double) increments.get("distanceMeters"), 0.5);
+    }
+
+    @Test
+    void testOpensFirstBucketOfRoute() {
+        // Given
+        when(mongoTemplate.findOne(any(Query.class), eq(RoutePointChunk.class))).thenReturn(null);
+
+        // When
+        append(point(48856613, 0L));
+
+        // Then
+        RoutePointChunk inserted = insertedBuckets().getValue();
+        assertEquals(0, inserted.getSeq());
+        assertEquals(1, inserted.getCount());
+        assertEquals(0L, inserted.getMovingMillis());
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(RoutePointChunk.class));
+    }
+
+    @Test
+    void testOpensNextBucketWhenNewestIsFull() {
+        // Given
+        when(mongoTemplate.findOne(any(Query.class), eq(RoutePointChunk.class)))
+                .thenReturn(bucket(3, RoutePointChunk.BUCKET_SIZE, point(48856613, 0L)));
+
+        // When
+        append(point(48857613, 20_000L));
+
+        // Then: the step from the last point of the full bucket lands in the new one
+        RoutePointChunk inserted = insertedBuckets().getValue();
+        assertEquals(4, inserted.getSeq());
+        assertEquals(20_000L, inserted.getMovingMillis());
+    }
+
+    @Test
+    void testJoinsBucketOpenedConcurrently() {
+        // Given: another writer opens bucket 4 between the lookup and the insert
+        when(mongoTemplate.findOne(any(Query.class), eq(RoutePointChunk.class)))
+                .thenReturn(bucket(3, RoutePointChunk.BUCKET_SIZE, point(48856613, 0L)))
+                .thenReturn(bucket(4, 1, point(48857613, 20_000L)));
+        when(mongoTemplate.insert(any(RoutePointChunk.class))).thenThrow(new DuplicateKeyException("E11000 route_seq_idx"));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(RoutePointChunk.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // When
+        append(point(48858613, 40_000L));
+
+        // Then: appended to the bucket the other writer opened rather than opening a second one
+        verify(mongoTemplate).insert(any(RoutePointChunk.class));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(RoutePointChunk.class));
+    }
+
+    @Test
+    void testGivesUpAfterRepeatedConflicts() {
+        // Given
+        when(mongoTemplate.findOne(any(Query.class), eq(RoutePointChunk.class)))
+                .thenReturn(bucket(2, 5, point(48856613, 0L)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(RoutePointChunk.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // When / Then
+        assertThrows(OptimisticLockingFailureException.class, () -> append(point(48857613, 20_000L)));
+        verify(mongoTemplate, times(RoutePointChunkRepositoryImpl.MAX_APPEND_ATTEMPTS))
+                .updateFirst(any(Query.class), any(Update.class), eq(RoutePointChunk.class));
+    }
+
+    private void append(CompactLocationPoint point) {
+        repository.appendPoint(ROUTE_ID, UUID.randomUUID(), point, accumulator::nextStep);
+    }
+
+    private ArgumentCaptor<RoutePointChunk> insertedBuckets() {
+        ArgumentCaptor<RoutePointChunk> captor = ArgumentCaptor.forClass(RoutePointChunk.class);
+        verify(mongoTemplate, atLeastOnce()).insert(captor.capture());
+        return captor;
+    }
+
+    private static RoutePointChunk bucket(int seq, int count, CompactLocationPoint reference) {
+        return RoutePointChunk.builder()
+                .id("bucket-" + seq)
+                .routeId(ROUTE_ID)
+                .seq(seq)
+                .count(count)
+                .points(new ArrayList<>(List.of(reference)))
+                .reference(reference)
+                .build();
+    }
+
+    private static CompactLocationPoint point(int latitudeE6, long timestampMillis) {
+        return CompactLocationPoint.builder()
+                .latitudeE6(latitudeE6)
+                .longitudeE6(2_352_222)
+                .timestampMillis(timestampMillis)
+                .build();
+    }
+}
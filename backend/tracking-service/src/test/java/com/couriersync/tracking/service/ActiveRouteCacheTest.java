@@ -0,0 +1,155 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.DeliveryRoute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveRouteCacheTest {
+
+    private ActiveRouteCache activeRouteCache;
+    private UUID driverId;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        activeRouteCache = new ActiveRouteCache(new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(10), Duration.ofSeconds(30));
+        driverId = UUID.randomUUID();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testLoadsOnceThenServesFromMemory() {
+        // Given
+        DeliveryRoute route = route("route-1", DeliveryRoute.RouteStatus.IN_PROGRESS);
+
+        // When
+        activeRouteCache.get(driverId, loader(Optional.of(route)));
+        Optional<DeliveryRoute> result = activeRouteCache.get(driverId, loader(Optional.of(route)));
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals("route-1", result.get().getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testCachesDriversWithoutActiveRoute() {
+        // When
+        activeRouteCache.get(driverId, loader(Optional.empty()));
+        Optional<DeliveryRoute> result = activeRouteCache.get(driverId, loader(Optional.empty()));
+
+        // Then
+        assertFalse(result.isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testInProgressRouteTakesPrecedenceOverNewPlannedRoute() {
+        // Given
+        activeRouteCache.get(driverId, loader(Optional.of(route("route-1", DeliveryRoute.RouteStatus.IN_PROGRESS))));
+
+        // When
+        activeRouteCache.onRouteChanged(route("route-2", DeliveryRoute.RouteStatus.PLANNED));
+
+        // Then
+        assertEquals("route-1", activeRouteCache.get(driverId, loader(Optional.empty())).get().getId());
+    }
+
+    @Test
+    void testPlannedRouteReplacesCachedEmptyEntry() {
+        // Given
+        activeRouteCache.get(driverId, loader(Optional.empty()));
+
+        // When
+        activeRouteCache.onRouteChanged(route("route-2", DeliveryRoute.RouteStatus.PLANNED));
+
+        // Then
+        assertEquals("route-2", activeRouteCache.get(driverId, loader(Optional.empty())).get().getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testFinishedRouteIsEvicted() {
+        // Given
+        activeRouteCache.get(driverId, loader(Optional.of(route("route-1", DeliveryRoute.RouteStatus.IN_PROGRESS))));
+
+        // When
+        activeRouteCache.onRouteChanged(route("route-1", DeliveryRoute.RouteStatus.COMPLETED));
+        Optional<DeliveryRoute> result = activeRouteCache.get(driverId, loader(Optional.empty()));
+
+        // Then
+        assertFalse(result.isPresent());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testRouteFinishedOnAnotherNodeIsEvicted() {
+        // Given
+        activeRouteCache.get(driverId, loader(Optional.of(route("route-1", DeliveryRoute.RouteStatus.IN_PROGRESS))));
+
+        // When
+        activeRouteCache.onRemoteRouteChanged(driverId, "route-1", DeliveryRoute.RouteStatus.CANCELLED);
+        Optional<DeliveryRoute> result = activeRouteCache.get(driverId, loader(Optional.empty()));
+
+        // Then
+        assertFalse(result.isPresent());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testRemoteChangeKeepsEntriesItCannotHaveMadeWrong() {
+        // Given
+        activeRouteCache.get(driverId, loader(Optional.of(route("route-1", DeliveryRoute.RouteStatus.IN_PROGRESS))));
+
+        // When
+        activeRouteCache.onRemoteRouteChanged(driverId, "route-1", DeliveryRoute.RouteStatus.IN_PROGRESS);
+        activeRouteCache.onRemoteRouteChanged(driverId, "route-2", DeliveryRoute.RouteStatus.PLANNED);
+        activeRouteCache.onRemoteRouteChanged(driverId, "route-0", DeliveryRoute.RouteStatus.COMPLETED);
+        Optional<DeliveryRoute> result = activeRouteCache.get(driverId, loader(Optional.empty()));
+
+        // Then
+        assertEquals("route-1", result.get().getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testRouteStartedOnAnotherNodeReplacesCachedPlannedRoute() {
+        // Given
+        activeRouteCache.get(driverId, loader(Optional.of(route("route-1", DeliveryRoute.RouteStatus.PLANNED))));
+
+        // When
+        activeRouteCache.onRemoteRouteChanged(driverId, "route-2", DeliveryRoute.RouteStatus.IN_PROGRESS);
+        Optional<DeliveryRoute> result = activeRouteCache.get(driverId,
+                loader(Optional.of(route("route-2", DeliveryRoute.RouteStatus.IN_PROGRESS))));
+
+        // Then
+        assertEquals("route-2", result.get().getId());
+        assertEquals(2, loads.get());
+    }
+
+    private Function<UUID, Optional<DeliveryRoute>> loader(Optional<DeliveryRoute> route) {
+        return id -> {
+            loads.incrementAndGet();
+            return route;
+        };
+    }
+
+    private DeliveryRoute route(String id, DeliveryRoute.RouteStatus status) {
+        return DeliveryRoute.builder()
+                .id(id)
+                .driverId(driverId)
+                .deliveryId(UUID.randomUUID())
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.couriersync.tracking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryRouteIndexTest {
+
+    private DeliveryRouteIndex index;
+    private UUID deliveryId;
+
+    @BeforeEach
+    void setUp() {
+        index = new DeliveryRouteIndex(new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+        deliveryId = UUID.randomUUID();
+    }
+
+    @Test
+    void testCreatedRouteIsResolvedWithoutLoading() {
+        // Given
+        index.put(deliveryId, "route-1");
+
+        // When
+        Optional<String> routeId = index.get(deliveryId, id -> {
+            throw new AssertionError("Loader must not be called");
+        });
+
+        // Then
+        assertEquals(Optional.of("route-1"), routeId);
+    }
+
+    @Test
+    void testLoadsOnMissOnlyOnce() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        index.get(deliveryId, id -> {
+            loads.incrementAndGet();
+            return Optional.of("route-1");
+        });
+        Optional<String> routeId = index.get(deliveryId, id -> {
+            loads.incrementAndGet();
+            return Optional.of("route-2");
+        });
+
+        // Then
+        assertEquals(Optional.of("route-1"), routeId);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testUnknownDeliveryIsNotCached() {
+        // Given
+        index.get(deliveryId, id -> Optional.empty());
+
+        // When
+        Optional<String> routeId = index.get(deliveryId, id -> Optional.of("route-1"));
+
+        // Then
+        assertEquals(Optional.of("route-1"), routeId);
+    }
+
+    @Test
+    void testNewRouteReplacesPreviousOne() {
+        // Given
+        index.put(deliveryId, "route-1");
+
+        // When
+        index.put(deliveryId, "route-2");
+
+        // Then
+        assertEquals(Optional.of("route-2"), index.get(deliveryId, id -> Optional.empty()));
+    }
+}
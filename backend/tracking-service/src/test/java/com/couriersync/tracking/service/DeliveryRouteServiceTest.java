@@ -0,0 +1,205 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.common.kafka.KafkaEventPublisher;
+import com.couriersync.tracking.mapper.CompactLocationMapper;
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.DeliveryRoute;
+import com.couriersync.tracking.model.RouteMetrics;
+import com.couriersync.tracking.model.RoutePointChunk;
+import com.couriersync.tracking.repository.DeliveryRouteRepository;
+import com.couriersync.tracking.repository.RoutePointChunkRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryRouteServiceTest {
+
+    private static final String ROUTE_ID = "6634f0c2a1b2c3d4e5f60718";
+
+    @Mock
+    private DeliveryRouteRepository deliveryRouteRepository;
+
+    @Mock
+    private RoutePointChunkRepository routePointChunkRepository;
+
+    @Mock
+    private ActiveRouteCache activeRouteCache;
+
+    @Mock
+    private DeliveryRouteIndex deliveryRouteIndex;
+
+    @Mock
+    private RouteGeometryCache routeGeometryCache;
+
+    @Mock
+    private RouteMetricsAccumulator routeMetricsAccumulator;
+
+    @Mock
+    private KafkaEventPublisher eventPublisher;
+
+    @InjectMocks
+    private DeliveryRouteService deliveryRouteService;
+
+    @Test
+    void testFinalizeTakesMissingValuesFromBucketMetrics() {
+        // Given
+        givenRoute();
+        when(routePointChunkRepository.sumMetrics(ROUTE_ID)).thenReturn(Optional.of(RouteMetrics.builder()
+                .distanceMeters(12_484.0)
+                .movingMillis(25 * 60_000L)
+                .idleMillis(7 * 60_000L)
+                .build()));
+
+        // When
+        DeliveryRoute route = deliveryRouteService.finalizeRoute(ROUTE_ID, null, null);
+
+        // Then
+        assertEquals(new BigDecimal("12.48"), route.getActualDistance());
+        assertEquals(32, route.getActualDuration());
+        assertEquals(25, route.getMovingDuration());
+        assertEquals(7, route.getIdleDuration());
+        assertEquals(DeliveryRoute.RouteStatus.COMPLETED, route.getStatus());
+    }
+
+    @Test
+    void testFinalizeWithoutBucketsLeavesMetricsUnknown() {
+        // Given
+        givenRoute();
+        when(routePointChunkRepository.sumMetrics(ROUTE_ID)).thenReturn(Optional.empty());
+
+        // When
+        DeliveryRoute route = deliveryRouteService.finalizeRoute(ROUTE_ID, null, null);
+
+        // Then
+        assertNull(route.getActualDistance());
+        assertNull(route.getActualDuration());
+        assertNull(route.getMovingDuration());
+        assertNull(route.getIdleDuration());
+    }
+
+    @Test
+    void testFinalizeKeepsValuesProvidedByTheCaller() {
+        // Given
+        givenRoute();
+        when(routePointChunkRepository.sumMetrics(ROUTE_ID)).thenReturn(Optional.empty());
+
+        // When
+        DeliveryRoute route = deliveryRouteService.finalizeRoute(ROUTE_ID, new BigDecimal("9.80"), 21);
+
+        // Then
+        assertEquals(new BigDecimal("9.80"), route.getActualDistance());
+        assertEquals(21, route.getActualDuration());
+    }
+
+    @Test
+    void testRoutePointsAreReadFromBucketsInOrder() {
+        // Given
+        when(routePointChunkRepository.streamByRouteIdOrderBySeqAscBucketStartAsc(ROUTE_ID))
+                .thenReturn(Stream.of(chunk(0, 0, 2), chunk(1, 2, 1)));
+
+        // When
+        List<DeliveryRoute.LocationPoint> points = deliveryRouteService.getRoutePoints(ROUTE_ID);
+
+        // Then
+        assertEquals(3, points.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(CompactLocationMapper.toLocalDateTime(i * 1000L), points.get(i).getTimestamp());
+        }
+    }
+
+    @Test
+    void testDeliveryPointsAreReadInRouteAndBucketOrder() {
+        // Given
+        UUID deliveryId = UUID.randomUUID();
+        when(routePointChunkRepository.streamByDeliveryIdOrderByRouteIdAscSeqAscBucketStartAsc(deliveryId))
+                .thenReturn(Stream.of(chunk(0, 0, 2), chunk(1, 2, 2)));
+
+        // When
+        List<DeliveryRoute.LocationPoint> points = deliveryRouteService.getRoutePointsByDeliveryId(deliveryId);
+
+        // Then
+        assertEquals(4, points.size());
+        assertEquals(CompactLocationMapper.toLocalDateTime(3000L), points.get(3).getTimestamp());
+        verifyNoInteractions(deliveryRouteRepository);
+    }
+
+    @Test
+    void testLast100PointsSpanTheTwoNewestBuckets() {
+        // Given: newest bucket first, as returned by the repository
+        UUID deliveryId = UUID.randomUUID();
+        when(routePointChunkRepository.findTop2ByDeliveryIdOrderByRouteIdDescSeqDescBucketStartDesc(deliveryId))
+                .thenReturn(List.of(chunk(1, RoutePointChunk.BUCKET_SIZE, 60), chunk(0, 0, RoutePointChunk.BUCKET_SIZE)));
+
+        // When
+        List<DeliveryRoute.LocationPoint> points = deliveryRouteService.getLast100RoutePointsByDeliveryId(deliveryId);
+
+        // Then: points 160 to 259, oldest first
+        assertEquals(100, points.size());
+        assertEquals(CompactLocationMapper.toLocalDateTime(160_000L), points.get(0).getTimestamp());
+        assertEquals(CompactLocationMapper.toLocalDateTime(259_000L), points.get(99).getTimestamp());
+        verifyNoInteractions(deliveryRouteRepository);
+    }
+
+    @Test
+    void testLast100PointsFallBackToInlinePointsWithoutBuckets() {
+        // Given
+        UUID deliveryId = UUID.randomUUID();
+        List<DeliveryRoute.LocationPoint> inline = List.of(DeliveryRoute.LocationPoint.builder()
+                .latitude(new BigDecimal("48.856613"))
+                .longitude(new BigDecimal("2.352222"))
+                .build());
+        when(routePointChunkRepository.findTop2ByDeliveryIdOrderByRouteIdDescSeqDescBucketStartDesc(deliveryId)).thenReturn(List.of());
+        when(deliveryRouteRepository.findLast100RoutePointsByDeliveryId(deliveryId))
+                .thenReturn(DeliveryRoute.builder().routePoints(inline).build());
+
+        // When
+        List<DeliveryRoute.LocationPoint> points = deliveryRouteService.getLast100RoutePointsByDeliveryId(deliveryId);
+
+        // Then
+        assertEquals(inline, points);
+    }
+
+    // Bucket holding points first..first+count-1, point i recorded at i seconds
+    private static RoutePointChunk chunk(int seq, int first, int count) {
+        List<CompactLocationPoint> points = new ArrayList<>();
+        for (int i = first; i < first + count; i++) {
+            points.add(CompactLocationPoint.builder()
+                    .latitudeE6(48_856_613 + i)
+                    .longitudeE6(2_352_222)
+                    .timestampMillis(i * 1000L)
+                    .build());
+        }
+        return RoutePointChunk.builder()
+                .routeId(ROUTE_ID)
+                .seq(seq)
+                .bucketStart(first * 1000L)
+                .count(count)
+                .points(points)
+                .build();
+    }
+
+    private void givenRoute() {
+        DeliveryRoute route = DeliveryRoute.builder()
+                .id(ROUTE_ID)
+                .deliveryId(UUID.randomUUID())
+                .driverId(UUID.randomUUID())
+                .status(DeliveryRoute.RouteStatus.IN_PROGRESS)
+                .build();
+        when(deliveryRouteRepository.findById(ROUTE_ID)).thenReturn(Optional.of(route));
+        when(deliveryRouteRepository.save(any(DeliveryRoute.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+}
@@ -0,0 +1,173 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.common.kafka.KafkaEventPublisher;
+import com.couriersync.tracking.mapper.CompactLocationMapper;
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.LocationUpdate;
+import com.couriersync.tracking.repository.LocationUpdateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LatestLocationLookupTest {
+
+    @Mock
+    private LocationUpdateRepository locationUpdateRepository;
+
+    @Mock
+    private DeliveryRouteService deliveryRouteService;
+
+    @Mock
+    private RedisTemplate<String, CachedLocation> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, CachedLocation> valueOperations;
+
+    @Mock
+    private KafkaEventPublisher eventPublisher;
+
+    private LatestLocationNearCache nearCache;
+    private LocationUpdateService locationUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        nearCache = new LatestLocationNearCache(new SimpleMeterRegistry(), 100, Duration.ofSeconds(30));
+        locationUpdateService = new LocationUpdateService(locationUpdateRepository, deliveryRouteService,
+                redisTemplate, eventPublisher, nearCache);
+        ReflectionTestUtils.setField(locationUpdateService, "mgetBatchSize", 2);
+    }
+
+    @Test
+    void testCachedLocationsAreReadWithOneMget() {
+        // Given
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of(key(first), key(second))))
+                .thenReturn(List.of(cached(first, "48.856600"), cached(second, "45.764000")));
+
+        // When
+        List<LocationUpdate> result = locationUpdateService.getLatestLocations(List.of(first, second, first));
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(first, result.get(0).getDriverId());
+        assertEquals(second, result.get(1).getDriverId());
+        verifyNoInteractions(locationUpdateRepository);
+    }
+
+    @Test
+    void testRepeatedReadIsServedFromNearCache() {
+        // Given
+        UUID driverId = UUID.randomUUID();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(key(driverId))).thenReturn(cached(driverId, "48.856600"));
+
+        // When
+        locationUpdateService.getLatestLocationUpdate(driverId);
+        LocationUpdate result = locationUpdateService.getLatestLocationUpdate(driverId);
+
+        // Then
+        assertEquals(new BigDecimal("48.856600"), result.getLatitude());
+        verify(valueOperations, times(1)).get(key(driverId));
+    }
+
+    @Test
+    void testOnlyNearCacheMissesAreReadFromRedis() {
+        // Given
+        UUID nearDriver = UUID.randomUUID();
+        UUID redisDriver = UUID.randomUUID();
+        nearCache.put(cached(nearDriver, "48.856600"));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of(key(redisDriver)))).thenReturn(List.of(cached(redisDriver, "45.764000")));
+
+        // When
+        List<LocationUpdate> result = locationUpdateService.getLatestLocations(List.of(redisDriver, nearDriver));
+
+        // Then
+        assertEquals(List.of(redisDriver, nearDriver), result.stream().map(LocationUpdate::getDriverId).toList());
+        assertNotNull(nearCache.get(redisDriver));
+        verifyNoInteractions(locationUpdateRepository);
+    }
+
+    @Test
+    void testCacheMissesAreResolvedWithOneAggregation() {
+        // Given
+        UUID cachedDriver = UUID.randomUUID();
+        UUID storedDriver = UUID.randomUUID();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, cached(cachedDriver, "48.856600")));
+        LocationUpdate stored = LocationUpdate.builder()
+                .driverId(storedDriver)
+                .latitude(new BigDecimal("45.764000"))
+                .longitude(new BigDecimal("4.835700"))
+                .timestamp(LocalDateTime.now().minusHours(2))
+                .build();
+        when(locationUpdateRepository.findLatestByDriverIdsAfter(eq(List.of(storedDriver)), any())).thenReturn(List.of(stored));
+
+        // When
+        List<LocationUpdate> result = locationUpdateService.getLatestLocations(List.of(storedDriver, cachedDriver));
+
+        // Then
+        assertEquals(List.of(storedDriver, cachedDriver), result.stream().map(LocationUpdate::getDriverId).toList());
+        verify(locationUpdateRepository, times(1)).findLatestByDriverIdsAfter(anyCollection(), any());
+        // Found locations are written back to the cache
+        verify(redisTemplate).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void testLargeLookupIsSplitIntoPipelinedMgets() {
+        // Given
+        List<UUID> driverIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(
+                List.of(cached(driverIds.get(0), "48.856600"), cached(driverIds.get(1), "48.856700")),
+                List.of(cached(driverIds.get(2), "48.856800"))));
+
+        // When
+        List<LocationUpdate> result = locationUpdateService.getLatestLocations(driverIds);
+
+        // Then
+        assertEquals(driverIds, result.stream().map(LocationUpdate::getDriverId).toList());
+        ArgumentCaptor<SessionCallback<Object>> callback = ArgumentCaptor.forClass(SessionCallback.class);
+        verify(redisTemplate).executePipelined(callback.capture());
+        RedisOperations<String, CachedLocation> operations = mock(RedisOperations.class);
+        when(operations.opsForValue()).thenReturn(valueOperations);
+        callback.getValue().execute(operations);
+        verify(valueOperations).multiGet(List.of(key(driverIds.get(0)), key(driverIds.get(1))));
+        verify(valueOperations).multiGet(List.of(key(driverIds.get(2))));
+    }
+
+    private static String key(UUID driverId) {
+        return "driver:latest_location:" + driverId;
+    }
+
+    private static CachedLocation cached(UUID driverId, String latitude) {
+        return CompactLocationMapper.toCachedLocation(LocationUpdate.builder()
+                .driverId(driverId)
+                .latitude(new BigDecimal(latitude))
+                .longitude(new BigDecimal("2.352200"))
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,98 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.CompactLocationPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatestLocationNearCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LatestLocationNearCache nearCache;
+    private UUID driverId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nearCache = new LatestLocationNearCache(meterRegistry, 100, Duration.ofSeconds(30));
+        driverId = UUID.randomUUID();
+    }
+
+    @Test
+    void testKeepsMostRecentLocation() {
+        // Given
+        nearCache.put(location(driverId, 48856613, 2_000L));
+
+        // When
+        nearCache.put(location(driverId, 48856000, 1_000L));
+
+        // Then
+        assertEquals(48856613, nearCache.get(driverId).getPoint().getLatitudeE6());
+
+        // When
+        nearCache.put(location(driverId, 48857000, 3_000L));
+
+        // Then
+        assertEquals(48857000, nearCache.get(driverId).getPoint().getLatitudeE6());
+    }
+
+    @Test
+    void testGetAllReturnsOnlyCachedDrivers() {
+        // Given
+        UUID otherDriverId = UUID.randomUUID();
+        nearCache.put(location(driverId, 48856613, 1_000L));
+
+        // When
+        Map<UUID, CachedLocation> result = nearCache.getAll(List.of(driverId, otherDriverId));
+
+        // Then
+        assertEquals(1, result.size());
+        assertTrue(result.containsKey(driverId));
+    }
+
+    @Test
+    void testHitsAndMissesAreExposed() {
+        // Given
+        nearCache.put(location(driverId, 48856613, 1_000L));
+
+        // When
+        nearCache.get(driverId);
+        nearCache.get(UUID.randomUUID());
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", "tracking.latest_location.near", "result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", "tracking.latest_location.near", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testIgnoresIncompleteLocations() {
+        // When
+        nearCache.put(null);
+        nearCache.put(CachedLocation.builder().driverId(driverId).build());
+
+        // Then
+        assertNull(nearCache.get(driverId));
+        assertEquals(0, nearCache.size());
+    }
+
+    private static CachedLocation location(UUID driverId, int latitudeE6, long timestampMillis) {
+        return CachedLocation.builder()
+                .driverId(driverId)
+                .point(CompactLocationPoint.builder()
+                        .latitudeE6(latitudeE6)
+                        .longitudeE6(2352222)
+                        .timestampMillis(timestampMillis)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.LocationUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveLocationIndexTest {
+
+    private LiveLocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LiveLocationIndex(4, 6);
+    }
+
+    @Test
+    void testGeoHashEncoding() {
+        // Reference value from the original geohash.org description
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+        assertEquals("u09tvw", GeoHash.encode(48.8566, 2.3522, 6));
+    }
+
+    @Test
+    void testFindInAreaReturnsOnlyDriversInsideTheTile() {
+        // Given
+        LocationUpdate paris = position(UUID.randomUUID(), "48.8566", "2.3522");
+        LocationUpdate versailles = position(UUID.randomUUID(), "48.8049", "2.1204");
+        LocationUpdate lyon = position(UUID.randomUUID(), "45.7640", "4.8357");
+        index.update(paris);
+        index.update(versailles);
+        index.update(lyon);
+
+        // When
+        List<LocationUpdate> inParisTile = index.findInArea("u09tv");
+        List<LocationUpdate> inIleDeFrance = index.findInArea("u09t");
+
+        // Then
+        assertEquals(List.of(paris), inParisTile);
+        assertEquals(2, inIleDeFrance.size());
+        assertTrue(inIleDeFrance.containsAll(List.of(paris, versailles)));
+    }
+
+    @Test
+    void testUpdateMovesDriverAndReportsPreviousCell() {
+        // Given
+        UUID driverId = UUID.randomUUID();
+        index.update(position(driverId, "48.8566", "2.3522"));
+
+        // When
+        LiveLocationIndex.Move move = index.update(position(driverId, "45.7640", "4.8357"));
+
+        // Then
+        assertTrue(move.previousCell().startsWith("u09tvw"));
+        assertTrue(index.findInArea("u09tv").isEmpty());
+        assertEquals(1, index.findInArea(move.cell().substring(0, 4)).size());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testRemoveAndUpdateWithoutCoordinates() {
+        // Given
+        UUID driverId = UUID.randomUUID();
+        index.update(position(driverId, "48.8566", "2.3522"));
+
+        // When
+        LiveLocationIndex.Move move = index.update(LocationUpdate.builder().driverId(driverId).build());
+        String lastCell = index.remove(driverId);
+
+        // Then
+        assertNull(move);
+        assertTrue(lastCell.startsWith("u09tvw"));
+        assertNull(index.remove(driverId));
+        assertEquals(0, index.size());
+        assertTrue(index.findInArea("u09t").isEmpty());
+    }
+
+    @Test
+    void testAreaValidation() {
+        assertTrue(index.isValidArea("u09t"));
+        assertTrue(index.isValidArea("u09tvw"));
+        assertFalse(index.isValidArea("u09"));
+        assertFalse(index.isValidArea("u09tvw0"));
+        assertFalse(index.isValidArea("u09a"));
+        assertFalse(index.isValidArea(null));
+    }
+
+    private LocationUpdate position(UUID driverId, String latitude, String longitude) {
+        return LocationUpdate.builder()
+                .driverId(driverId)
+                .latitude(new BigDecimal(latitude))
+                .longitude(new BigDecimal(longitude))
+                .build();
+    }
+}
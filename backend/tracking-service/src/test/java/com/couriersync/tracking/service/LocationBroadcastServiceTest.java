@@ -0,0 +1,223 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.AreaUpdate;
+import com.couriersync.tracking.model.LocationDelta;
+import com.couriersync.tracking.model.LocationUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationBroadcastServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocationBroadcastService broadcastService;
+    private UUID driverId;
+    private UUID deliveryId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        broadcastService = new LocationBroadcastService(messagingTemplate, new LiveLocationIndex(4, 6), meterRegistry,
+                1000, 60000, true, 3, "simple");
+        driverId = UUID.randomUUID();
+        deliveryId = UUID.randomUUID();
+        start = LocalDateTime.of(2024, 6, 12, 12, 0);
+    }
+
+    @Test
+    void testFirstUpdateIsSentImmediately() {
+        // Given
+        LocationUpdate update = update(0, "48.856600");
+
+        // When
+        broadcastService.publish(update, ms(0));
+
+        // Then
+        verify(messagingTemplate).convertAndSend("/topic/driver/" + driverId, update);
+        verify(messagingTemplate).convertAndSend("/topic/delivery/" + deliveryId, update);
+        verify(messagingTemplate).convertAndSend(eq("/topic/driver/" + driverId + "/delta"), any(LocationDelta.class));
+    }
+
+    @Test
+    void testUpdatesWithinIntervalAreConflatedToLatest() {
+        // Given
+        LocationUpdate first = update(0, "48.856600");
+        LocationUpdate second = update(200, "48.856700");
+        LocationUpdate third = update(400, "48.856800");
+
+        // When
+        broadcastService.publish(first, ms(0));
+        broadcastService.publish(second, ms(200));
+        broadcastService.publish(third, ms(400));
+        broadcastService.flushPending(ms(500));
+        broadcastService.flushPending(ms(1000));
+
+        // Then
+        verify(messagingTemplate).convertAndSend("/topic/driver/" + driverId, first);
+        verify(messagingTemplate, never()).convertAndSend("/topic/driver/" + driverId, second);
+        verify(messagingTemplate).convertAndSend("/topic/driver/" + driverId, third);
+        assertEquals(1.0, meterRegistry.get("tracking.broadcast.conflated").counter().count());
+        assertEquals(2.0, meterRegistry.get("tracking.broadcast.sent").tag("payload", "full").counter().count());
+    }
+
+    @Test
+    void testOutOfOrderUpdateIsDropped() {
+        // Given
+        broadcastService.publish(update(1000, "48.856600"), ms(0));
+        LocationUpdate late = update(500, "48.856500");
+
+        // When
+        broadcastService.publish(late, ms(1500));
+
+        // Then
+        verify(messagingTemplate, never()).convertAndSend("/topic/driver/" + driverId, late);
+    }
+
+    @Test
+    void testDeltaCarriesOnlyChangedFields() {
+        // Given
+        broadcastService.publish(update(0, "48.856600"), ms(0));
+
+        // When
+        broadcastService.publish(update(1000, "48.856700"), ms(1000));
+
+        // Then
+        List<LocationDelta> deltas = deltas(2);
+        assertTrue(deltas.get(0).getKeyframe());
+        assertEquals(new BigDecimal("2.352200"), deltas.get(0).getLongitude());
+        LocationDelta delta = deltas.get(1);
+        assertEquals(1, delta.getSequence());
+        assertNull(delta.getKeyframe());
+        assertEquals(new BigDecimal("48.856700"), delta.getLatitude());
+        assertNotNull(delta.getTimestamp());
+        assertNull(delta.getLongitude());
+        assertNull(delta.getDeliveryId());
+        assertNull(delta.getBatteryLevel());
+    }
+
+    @Test
+    void testOnlyKeyframesAreSentWithAMultiNodeBroker() {
+        // Given
+        broadcastService = new LocationBroadcastService(messagingTemplate, new LiveLocationIndex(4, 6), meterRegistry,
+                1000, 60000, true, 3, "redis");
+        broadcastService.publish(update(0, "48.856600"), ms(0));
+
+        // When
+        broadcastService.publish(update(1000, "48.856700"), ms(1000));
+
+        // Then
+        List<LocationDelta> deltas = deltas(2);
+        assertTrue(deltas.get(1).getKeyframe());
+        assertEquals(new BigDecimal("48.856700"), deltas.get(1).getLatitude());
+        assertNotNull(deltas.get(1).getLongitude());
+    }
+
+    @Test
+    void testKeyframeIsSentPeriodicallyAndWhenFieldIsLost() {
+        // Given
+        broadcastService.publish(update(0, "48.856600"), ms(0));
+        broadcastService.publish(update(1000, "48.856700"), ms(1000));
+        broadcastService.publish(update(2000, "48.856800"), ms(2000));
+        broadcastService.publish(update(3000, "48.856900"), ms(3000));
+        LocationUpdate withoutDelivery = update(4000, "48.857000");
+        withoutDelivery.setDeliveryId(null);
+
+        // When
+        broadcastService.publish(withoutDelivery, ms(4000));
+
+        // Then
+        List<LocationDelta> deltas = deltas(5);
+        assertNull(deltas.get(2).getKeyframe());
+        assertTrue(deltas.get(3).getKeyframe());
+        assertTrue(deltas.get(4).getKeyframe());
+        assertNull(deltas.get(4).getDeliveryId());
+    }
+
+    @Test
+    void testIdleStreamIsEvictedAndResetDropsPending() {
+        // Given
+        broadcastService.publish(update(0, "48.856600"), ms(0));
+        UUID otherDriverId = UUID.randomUUID();
+        LocationUpdate other = update(0, "48.856600");
+        other.setDriverId(otherDriverId);
+        broadcastService.publish(other, ms(59000));
+        LocationUpdate pending = update(100, "48.856700");
+        pending.setDriverId(otherDriverId);
+        broadcastService.publish(pending, ms(59100));
+
+        // When
+        broadcastService.reset(otherDriverId);
+        broadcastService.flushPending(ms(61000));
+
+        // Then
+        assertEquals(0, broadcastService.getStreamCount());
+        verify(messagingTemplate, never()).convertAndSend("/topic/driver/" + otherDriverId, pending);
+    }
+
+    @Test
+    void testAreaSubscribersAreToldWhenDriverCrossesTile() {
+        // Given - u09tvw then u09tvn, same tile at precision 5
+        LocationUpdate before = update(0, "48.856600");
+        LocationUpdate after = update(1000, "48.856600");
+        after.setLongitude(new BigDecimal("2.340000"));
+        broadcastService.publish(before, ms(0));
+
+        // When
+        broadcastService.publish(after, ms(1000));
+
+        // Then
+        String before6 = GeoHash.encode(48.8566, 2.3522, 6);
+        String after6 = GeoHash.encode(48.8566, 2.34, 6);
+        assertNotEquals(before6, after6);
+        assertEquals(before6.substring(0, 5), after6.substring(0, 5));
+        ArgumentCaptor<AreaUpdate> left = ArgumentCaptor.forClass(AreaUpdate.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/area/" + before6), left.capture());
+        assertEquals(List.of(driverId), left.getValue().getLeft());
+        assertNull(left.getValue().getPositions());
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/area/" + before6.substring(0, 5)), any(AreaUpdate.class));
+        verify(messagingTemplate).convertAndSend(eq("/topic/area/" + after6), any(AreaUpdate.class));
+    }
+
+    private List<LocationDelta> deltas(int count) {
+        ArgumentCaptor<LocationDelta> captor = ArgumentCaptor.forClass(LocationDelta.class);
+        verify(messagingTemplate, times(count)).convertAndSend(eq("/topic/driver/" + driverId + "/delta"), captor.capture());
+        return captor.getAllValues();
+    }
+
+    private LocationUpdate update(long offsetMs, String latitude) {
+        return LocationUpdate.builder()
+                .driverId(driverId)
+                .deliveryId(deliveryId)
+                .latitude(new BigDecimal(latitude))
+                .longitude(new BigDecimal("2.352200"))
+                .speed(new BigDecimal("30.0"))
+                .timestamp(start.plusNanos(TimeUnit.MILLISECONDS.toNanos(offsetMs)))
+                .batteryLevel(85)
+                .build();
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,136 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.config.LocationStorageInitializer;
+import com.couriersync.tracking.model.LocationMinuteAggregate;
+import com.couriersync.tracking.repository.LocationMinuteAggregateRepository;
+import com.couriersync.tracking.repository.LocationUpdateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationDownsamplingServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 12, 34, 56);
+
+    @Mock
+    private LocationUpdateRepository locationUpdateRepository;
+
+    @Mock
+    private LocationMinuteAggregateRepository minuteAggregateRepository;
+
+    @Mock
+    private LocationStorageInitializer storageInitializer;
+
+    @Test
+    void testResumesFromWatermarkInMinuteAlignedSlices() {
+        // Given
+        LocationDownsamplingService service = service(Duration.ofDays(30));
+        when(minuteAggregateRepository.findFirstByOrderByMinuteDesc()).thenReturn(Optional.of(
+                LocationMinuteAggregate.builder().minute(LocalDateTime.of(2024, 5, 3, 10, 15)).build()));
+
+        // When
+        int slices = service.downsample(NOW);
+
+        // Then
+        assertEquals(3, slices);
+        InOrder inOrder = inOrder(locationUpdateRepository);
+        inOrder.verify(locationUpdateRepository).downsampleToMinutes(
+                LocalDateTime.of(2024, 5, 3, 10, 15), LocalDateTime.of(2024, 5, 3, 11, 15));
+        inOrder.verify(locationUpdateRepository).downsampleToMinutes(
+                LocalDateTime.of(2024, 5, 3, 11, 15), LocalDateTime.of(2024, 5, 3, 12, 15));
+        inOrder.verify(locationUpdateRepository).downsampleToMinutes(
+                LocalDateTime.of(2024, 5, 3, 12, 15), LocalDateTime.of(2024, 5, 3, 12, 34));
+    }
+
+    @Test
+    void testFirstRunWithRetentionStartsAtOldestRawPing() {
+        // Given
+        LocationDownsamplingService service = service(Duration.ofDays(8));
+        when(minuteAggregateRepository.findFirstByOrderByMinuteDesc()).thenReturn(Optional.empty());
+        when(locationUpdateRepository.findOldestTimestamp()).thenReturn(Optional.of(LocalDateTime.of(2024, 5, 2, 12, 35, 40)));
+
+        // When
+        int slices = service.downsample(NOW);
+
+        // Then
+        assertEquals(24, slices);
+        verify(locationUpdateRepository).downsampleToMinutes(
+                LocalDateTime.of(2024, 5, 2, 12, 35), LocalDateTime.of(2024, 5, 2, 13, 35));
+    }
+
+    @Test
+    void testFirstRunWithoutRetentionStartsWithLastSlice() {
+        // Given
+        LocationDownsamplingService service = service(Duration.ZERO);
+        when(minuteAggregateRepository.findFirstByOrderByMinuteDesc()).thenReturn(Optional.empty());
+
+        // When
+        int slices = service.downsample(NOW);
+
+        // Then
+        assertEquals(1, slices);
+        verify(locationUpdateRepository).downsampleToMinutes(
+                LocalDateTime.of(2024, 5, 3, 11, 34), LocalDateTime.of(2024, 5, 3, 12, 34));
+        verify(locationUpdateRepository, never()).findOldestTimestamp();
+    }
+
+    @Test
+    void testCatchUpIsSpreadOverSeveralRuns() {
+        // Given
+        LocationDownsamplingService service = service(Duration.ofDays(30), 24);
+        when(minuteAggregateRepository.findFirstByOrderByMinuteDesc()).thenReturn(Optional.empty());
+        when(locationUpdateRepository.findOldestTimestamp()).thenReturn(Optional.of(LocalDateTime.of(2024, 4, 10, 12, 35)));
+
+        // When: 23 days of backlog between the oldest raw ping and the cutoff
+        int slices = service.downsample(NOW);
+
+        // Then
+        assertEquals(24, slices);
+        verify(locationUpdateRepository).downsampleToMinutes(
+                LocalDateTime.of(2024, 4, 10, 12, 35), LocalDateTime.of(2024, 4, 10, 13, 35));
+        verify(locationUpdateRepository, never()).downsampleToMinutes(
+                eq(LocalDateTime.of(2024, 4, 11, 12, 35)), any());
+    }
+
+    @Test
+    void testNothingToDoWhenUpToDate() {
+        // Given
+        LocationDownsamplingService service = service(Duration.ofDays(30));
+        when(minuteAggregateRepository.findFirstByOrderByMinuteDesc()).thenReturn(Optional.of(
+                LocationMinuteAggregate.builder().minute(LocalDateTime.of(2024, 5, 3, 12, 34)).build()));
+
+        // When
+        int slices = service.downsample(NOW);
+
+        // Then
+        assertEquals(0, slices);
+        verify(locationUpdateRepository, never()).downsampleToMinutes(any(), any());
+    }
+
+    @Test
+    void testRejectsRetentionShorterThanDownsamplingDelay() {
+        assertThrows(IllegalArgumentException.class, () -> service(Duration.ofDays(7)));
+    }
+
+    private LocationDownsamplingService service(Duration rawRetention) {
+        return service(rawRetention, 1000);
+    }
+
+    private LocationDownsamplingService service(Duration rawRetention, int maxSlicesPerRun) {
+        return new LocationDownsamplingService(locationUpdateRepository, minuteAggregateRepository, storageInitializer,
+                new SimpleMeterRegistry(), true, Duration.ofDays(7), rawRetention, Duration.ofHours(1), maxSlicesPerRun);
+    }
+}
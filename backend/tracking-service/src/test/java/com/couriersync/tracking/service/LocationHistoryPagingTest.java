@@ -0,0 +1,132 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.common.kafka.KafkaEventPublisher;
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.LocationHistoryPage;
+import com.couriersync.tracking.model.LocationUpdate;
+import com.couriersync.tracking.repository.LocationUpdateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationHistoryPagingTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 8, 0);
+
+    @Mock
+    private LocationUpdateRepository locationUpdateRepository;
+
+    @Mock
+    private DeliveryRouteService deliveryRouteService;
+
+    @Mock
+    private RedisTemplate<String, CachedLocation> redisTemplate;
+
+    @Mock
+    private KafkaEventPublisher eventPublisher;
+
+    private LocationUpdateService locationUpdateService;
+    private UUID driverId;
+
+    @BeforeEach
+    void setUp() {
+        locationUpdateService = new LocationUpdateService(locationUpdateRepository, deliveryRouteService,
+                redisTemplate, eventPublisher,
+                new LatestLocationNearCache(new SimpleMeterRegistry(), 100, Duration.ofSeconds(30)));
+        driverId = UUID.randomUUID();
+    }
+
+    @Test
+    void testLatestLocationUpdatesAreLimited() {
+        // When
+        locationUpdateService.getLatestLocationUpdates(driverId, 10);
+
+        // Then
+        verify(locationUpdateRepository).findByDriverIdOrderByTimestampDesc(driverId, PageRequest.of(0, 10));
+    }
+
+    @Test
+    void testLastPageHasNoCursor() {
+        // Given
+        when(locationUpdateRepository.findDriverHistoryPage(driverId, null, null, null, null, 3))
+                .thenReturn(List.of(update(0), update(1)));
+
+        // When
+        LocationHistoryPage page = locationUpdateService.getDriverHistory(driverId, null, null, null, 2);
+
+        // Then
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testCursorResumesAfterLastUpdate() {
+        // Given
+        LocationUpdate last = update(1);
+        when(locationUpdateRepository.findDriverHistoryPage(eq(driverId), any(), any(), any(), any(), eq(3)))
+                .thenReturn(List.of(update(0), last, update(2)))
+                .thenReturn(List.of());
+
+        // When
+        LocationHistoryPage first = locationUpdateService.getDriverHistory(driverId, null, null, null, 2);
+        locationUpdateService.getDriverHistory(driverId, null, null, first.getNextCursor(), 2);
+
+        // Then
+        assertEquals(2, first.getItems().size());
+        verify(locationUpdateRepository).findDriverHistoryPage(driverId, null, null, START.plusSeconds(1), last.getId(), 3);
+    }
+
+    @Test
+    void testCursorKeepsTheIdOfUpdatesSharingTheLastTimestamp() {
+        // Given
+        LocationUpdate firstAtOne = update(1);
+        LocationUpdate secondAtOne = update(1);
+        when(locationUpdateRepository.findDriverHistoryPage(eq(driverId), any(), any(), any(), any(), eq(3)))
+                .thenReturn(List.of(update(0), firstAtOne, secondAtOne))
+                .thenReturn(List.of(secondAtOne, update(1), update(1)));
+
+        // When
+        LocationHistoryPage first = locationUpdateService.getDriverHistory(driverId, null, null, null, 2);
+        LocationHistoryPage second = locationUpdateService.getDriverHistory(driverId, null, null, first.getNextCursor(), 2);
+
+        // Then
+        verify(locationUpdateRepository).findDriverHistoryPage(driverId, null, null, START.plusSeconds(1), firstAtOne.getId(), 3);
+        assertEquals(new LocationUpdateService.HistoryCursor(START.plusSeconds(1), second.getItems().get(1).getId()).format(),
+                second.getNextCursor());
+    }
+
+    @Test
+    void testMalformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> locationUpdateService.getDriverHistory(driverId, null, null, "yesterday", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> locationUpdateService.getDeliveryHistory(UUID.randomUUID(), "1714550400000_-1", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> locationUpdateService.getDeliveryHistory(UUID.randomUUID(), "1714550400000_3", 10));
+        verifyNoInteractions(locationUpdateRepository);
+    }
+
+    private LocationUpdate update(int second) {
+        return LocationUpdate.builder()
+                .id(new ObjectId().toHexString())
+                .driverId(driverId)
+                .timestamp(START.plusSeconds(second))
+                .build();
+    }
+}
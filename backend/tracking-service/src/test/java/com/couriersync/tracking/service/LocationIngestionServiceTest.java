@@ -0,0 +1,184 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.common.kafka.KafkaEventPublisher;
+import com.couriersync.tracking.model.LocationUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationIngestionServiceTest {
+
+    @Mock
+    private LocationUpdateService locationUpdateService;
+
+    @Mock
+    private KafkaEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocationIngestionService ingestionService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ingestionService != null) {
+            ingestionService.stop();
+        }
+    }
+
+    @Test
+    void testSubmitSetsTimestampAndAccepts() {
+        // Given
+        ingestionService = ingestionService(10, 5, 50, 10);
+        LocationUpdate update = locationUpdate();
+
+        // When
+        boolean accepted = ingestionService.submit(update);
+
+        // Then
+        assertTrue(accepted);
+        assertNotNull(update.getTimestamp());
+        assertEquals(1, ingestionService.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("tracking.ingestion.queue.depth").gauge().value());
+    }
+
+    @Test
+    void testSubmitRejectsWhenBufferFull() {
+        // Given
+        ingestionService = ingestionService(2, 5, 50, 1);
+
+        // When
+        int accepted = ingestionService.submitAll(List.of(locationUpdate(), locationUpdate(), locationUpdate()));
+
+        // Then
+        assertEquals(2, accepted);
+        assertEquals(1.0, meterRegistry.get("tracking.ingestion.rejected").counter().count());
+    }
+
+    @Test
+    void testSubmitRejectsUpdatesWithoutCoordinates() {
+        // Given
+        ingestionService = ingestionService(10, 5, 50, 10);
+        LocationUpdate withoutLatitude = locationUpdate();
+        withoutLatitude.setLatitude(null);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> ingestionService.submit(withoutLatitude));
+        assertThrows(IllegalArgumentException.class,
+                () -> ingestionService.submitAll(List.of(locationUpdate(), withoutLatitude)));
+        assertEquals(0, ingestionService.getQueueDepth());
+    }
+
+    @Test
+    void testFlushesInBoundedBatches() {
+        // Given
+        ingestionService = ingestionService(100, 4, 50, 10);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            batchSizes.add(invocation.<List<LocationUpdate>>getArgument(0).size());
+            return null;
+        }).when(locationUpdateService).saveLocationUpdatesBatch(anyList(), any());
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            ingestionService.submit(locationUpdate());
+        }
+        ingestionService.start();
+
+        // Then
+        verify(locationUpdateService, timeout(2000).times(3)).saveLocationUpdatesBatch(anyList(), any());
+        ingestionService.stop();
+        ingestionService = null;
+        assertEquals(10, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 4));
+    }
+
+    @Test
+    void testStopDrainsRemainingUpdates() {
+        // Given
+        ingestionService = ingestionService(100, 4, 50, 10);
+        for (int i = 0; i < 6; i++) {
+            ingestionService.submit(locationUpdate());
+        }
+
+        // When
+        ingestionService.stop();
+
+        // Then
+        ArgumentCaptor<List<LocationUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(locationUpdateService, times(2)).saveLocationUpdatesBatch(captor.capture(), any());
+        assertEquals(4, captor.getAllValues().get(0).size());
+        assertEquals(2, captor.getAllValues().get(1).size());
+        ingestionService = null;
+    }
+
+    @Test
+    void testRetriesFailedBatchUntilPersisted() {
+        // Given
+        ingestionService = ingestionService(100, 4, 50, 10);
+        doThrow(new RuntimeException("primary stepped down"))
+                .doNothing()
+                .when(locationUpdateService).saveLocationUpdatesBatch(anyList(), any());
+        ingestionService.submit(locationUpdate());
+
+        // When
+        ingestionService.start();
+
+        // Then
+        verify(locationUpdateService, timeout(2000).times(2)).saveLocationUpdatesBatch(anyList(), any());
+        assertEquals(1.0, meterRegistry.get("tracking.ingestion.flush.failures").counter().count());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testDeadLettersBatchAfterLastAttempt() {
+        // Given
+        ingestionService = ingestionService(100, 4, 50, 10);
+        doThrow(new RuntimeException("unavailable")).when(locationUpdateService).saveLocationUpdatesBatch(anyList(), any());
+        LocationUpdate first = locationUpdate();
+        LocationUpdate second = locationUpdate();
+        ingestionService.submitAll(List.of(first, second));
+
+        // When
+        ingestionService.start();
+
+        // Then
+        verify(eventPublisher, timeout(2000)).publish("tracking.location-updates.dlt", first.getDriverId().toString(), first);
+        verify(eventPublisher, timeout(2000)).publish("tracking.location-updates.dlt", second.getDriverId().toString(), second);
+        verify(locationUpdateService, times(3)).saveLocationUpdatesBatch(anyList(), any());
+        assertEquals(2.0, meterRegistry.get("tracking.ingestion.dead_lettered").counter().count());
+    }
+
+    private LocationIngestionService ingestionService(int bufferCapacity, int maxBatchSize,
+                                                      long flushIntervalMs, long offerTimeoutMs) {
+        return new LocationIngestionService(locationUpdateService, eventPublisher, meterRegistry,
+                bufferCapacity, maxBatchSize, flushIntervalMs, offerTimeoutMs,
+                3, 10, 40, "tracking.location-updates.dlt");
+    }
+
+    private LocationUpdate locationUpdate() {
+        return LocationUpdate.builder()
+                .driverId(UUID.randomUUID())
+                .latitude(new BigDecimal("40.7128"))
+                .longitude(new BigDecimal("-74.0060"))
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.common.kafka.KafkaEventPublisher;
+import com.couriersync.tracking.model.CachedLocation;
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.LocationUpdate;
+import com.couriersync.tracking.repository.LocationUpdateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationUpdateBatchTest {
+
+    @Mock
+    private LocationUpdateRepository locationUpdateRepository;
+
+    @Mock
+    private DeliveryRouteService deliveryRouteService;
+
+    @Mock
+    private RedisTemplate<String, CachedLocation> redisTemplate;
+
+    @Mock
+    private KafkaEventPublisher eventPublisher;
+
+    private LocationUpdateService locationUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        LatestLocationNearCache nearCache = new LatestLocationNearCache(new SimpleMeterRegistry(), 100, Duration.ofSeconds(30));
+        locationUpdateService = new LocationUpdateService(locationUpdateRepository, deliveryRouteService,
+                redisTemplate, eventPublisher, nearCache);
+    }
+
+    @Test
+    void testRetryResumesAtTheFailedRouteAppend() {
+        // Given
+        List<LocationUpdate> batch = List.of(locationUpdate(0), locationUpdate(1), locationUpdate(2));
+        when(deliveryRouteService.appendRoutePoint(any(UUID.class), any(CompactLocationPoint.class)))
+                .thenReturn(null)
+                .thenThrow(new RuntimeException("route bucket unavailable"))
+                .thenReturn(null);
+        LocationUpdateService.BatchProgress progress = new LocationUpdateService.BatchProgress();
+
+        // When
+        assertThrows(RuntimeException.class, () -> locationUpdateService.saveLocationUpdatesBatch(batch, progress));
+        assertTrue(progress.isPersisted());
+        locationUpdateService.saveLocationUpdatesBatch(batch, progress);
+
+        // Then
+        verify(locationUpdateRepository).insert(batch);
+        verify(deliveryRouteService, times(4)).appendRoutePoint(any(UUID.class), any(CompactLocationPoint.class));
+        verify(deliveryRouteService).appendRoutePoint(eq(batch.get(0).getDriverId()), any(CompactLocationPoint.class));
+        verify(deliveryRouteService, times(2)).appendRoutePoint(eq(batch.get(1).getDriverId()), any(CompactLocationPoint.class));
+        verify(deliveryRouteService).appendRoutePoint(eq(batch.get(2).getDriverId()), any(CompactLocationPoint.class));
+        verify(redisTemplate).executePipelined(any(SessionCallback.class));
+        for (LocationUpdate update : batch) {
+            verify(eventPublisher).publish(LocationUpdateService.LOCATION_UPDATES_TOPIC, update.getDriverId().toString(), update);
+        }
+    }
+
+    @Test
+    void testRetrySkipsCompletedStagesAfterAPublishFailure() {
+        // Given
+        List<LocationUpdate> batch = List.of(locationUpdate(0), locationUpdate(1));
+        when(eventPublisher.publish(anyString(), anyString(), any()))
+                .thenReturn(null)
+                .thenThrow(new RuntimeException("producer closed"))
+                .thenReturn(null);
+        LocationUpdateService.BatchProgress progress = new LocationUpdateService.BatchProgress();
+
+        // When
+        assertThrows(RuntimeException.class, () -> locationUpdateService.saveLocationUpdatesBatch(batch, progress));
+        locationUpdateService.saveLocationUpdatesBatch(batch, progress);
+
+        // Then
+        verify(locationUpdateRepository).insert(batch);
+        verify(deliveryRouteService, times(2)).appendRoutePoint(any(UUID.class), any(CompactLocationPoint.class));
+        verify(redisTemplate).executePipelined(any(SessionCallback.class));
+        verify(eventPublisher).publish(LocationUpdateService.LOCATION_UPDATES_TOPIC, batch.get(0).getDriverId().toString(), batch.get(0));
+        verify(eventPublisher, times(2)).publish(LocationUpdateService.LOCATION_UPDATES_TOPIC, batch.get(1).getDriverId().toString(), batch.get(1));
+    }
+
+    private LocationUpdate locationUpdate(int index) {
+        return LocationUpdate.builder()
+                .id("update-" + index)
+                .driverId(UUID.randomUUID())
+                .deliveryId(UUID.randomUUID())
+                .latitude(new BigDecimal("48.856600"))
+                .longitude(new BigDecimal("2.352200"))
+                .timestamp(LocalDateTime.of(2024, 5, 1, 12, 0).plusSeconds(index))
+                .build();
+    }
+}
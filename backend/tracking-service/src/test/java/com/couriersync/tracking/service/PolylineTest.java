@@ -0,0 +1,53 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.CompactLocationPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolylineTest {
+
+    @Test
+    void testEncodesReferencePolyline() {
+        // Given
+        List<CompactLocationPoint> points = List.of(
+                point(38500000, -120200000),
+                point(40700000, -120950000),
+                point(43252000, -126453000));
+
+        // When
+        String encoded = Polyline.encode(points, 5);
+
+        // Then
+        assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", encoded);
+    }
+
+    @Test
+    void testPrecisionSixKeepsMicrodegrees() {
+        // Given
+        List<CompactLocationPoint> points = List.of(point(48856613, 2352222), point(48856614, 2352222));
+
+        // When
+        String precision5 = Polyline.encode(points, 5);
+        String precision6 = Polyline.encode(points, 6);
+
+        // Then
+        assertTrue(precision5.endsWith("??"));
+        assertFalse(precision6.endsWith("??"));
+    }
+
+    @Test
+    void testRejectsUnsupportedPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> Polyline.encode(List.of(), 7));
+        assertEquals("", Polyline.encode(List.of(), 5));
+    }
+
+    private static CompactLocationPoint point(int latitudeE6, int longitudeE6) {
+        return CompactLocationPoint.builder()
+                .latitudeE6(latitudeE6)
+                .longitudeE6(longitudeE6)
+                .build();
+    }
+}
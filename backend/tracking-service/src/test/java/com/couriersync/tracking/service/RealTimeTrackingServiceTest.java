@@ -16,6 +16,7 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -28,6 +29,9 @@ class RealTimeTrackingServiceTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    @Mock
+    private LocationBroadcastService locationBroadcastService;
+
     @InjectMocks
     private RealTimeTrackingService realTimeTrackingService;
 
@@ -58,17 +62,13 @@ class RealTimeTrackingServiceTest {
 
     @Test
     void testBroadcastLocationUpdate() {
-        // Given
-        when(locationUpdateService.createLocationUpdate(any()))
-                .thenReturn(com.couriersync.tracking.mapper.LocationUpdateMapper.INSTANCE.toDto(locationUpdate));
-
         // When
         CompletableFuture<Void> result = realTimeTrackingService.broadcastLocationUpdate(locationUpdate);
 
         // Then
         assertNotNull(result);
-        verify(messagingTemplate).convertAndSend(eq("/topic/driver/" + driverId), eq(locationUpdate));
-        verify(messagingTemplate).convertAndSend(eq("/topic/delivery/" + deliveryId), eq(locationUpdate));
+        verify(locationBroadcastService).publish(locationUpdate);
+        verifyNoInteractions(messagingTemplate);
     }
 
     @Test
@@ -81,8 +81,7 @@ class RealTimeTrackingServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(messagingTemplate).convertAndSend(eq("/topic/driver/" + driverId), eq(locationUpdate));
-        verify(messagingTemplate, never()).convertAndSend(eq("/topic/delivery/" + deliveryId), eq(locationUpdate));
+        verify(locationBroadcastService).publish(locationUpdate);
     }
 
     @Test
@@ -110,10 +109,8 @@ class RealTimeTrackingServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(messagingTemplate).convertAndSend(eq("/topic/driver/" + driverId), eq(locationUpdate));
-        verify(messagingTemplate).convertAndSend(eq("/topic/delivery/" + deliveryId), eq(locationUpdate));
-        verify(messagingTemplate).convertAndSend(eq("/topic/driver/" + locationUpdate2.getDriverId()), eq(locationUpdate2));
-        verify(messagingTemplate).convertAndSend(eq("/topic/delivery/" + locationUpdate2.getDeliveryId()), eq(locationUpdate2));
+        verify(locationBroadcastService).publish(locationUpdate);
+        verify(locationBroadcastService).publish(locationUpdate2);
     }
 
     @Test
@@ -195,6 +192,7 @@ class RealTimeTrackingServiceTest {
 
         // Then
         assertNotNull(result);
+        verify(locationBroadcastService).reset(driverId);
         verify(messagingTemplate).convertAndSend(
                 eq("/topic/driver/" + driverId),
                 argThat(update -> 
@@ -0,0 +1,100 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.CompactLocationPoint;
+import com.couriersync.tracking.model.RouteMetrics;
+import com.couriersync.tracking.model.RouteStep;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteMetricsAccumulatorTest {
+
+    private RouteMetricsAccumulator accumulator;
+
+    @BeforeEach
+    void setUp() {
+        accumulator = new RouteMetricsAccumulator(2, 200);
+    }
+
+    @Test
+    void testMovingStepAddsDistanceAndMovingTime() {
+        // Given
+        CompactLocationPoint reference = point(48856613, 2352222, 0L);
+        CompactLocationPoint next = point(48857613, 2352222, 20_000L);
+
+        // When: ~111 m north in 20 s (20 km/h)
+        RouteStep step = accumulator.nextStep(reference, next);
+
+        // Then
+        assertEquals(111.2, step.getMetrics().getDistanceMeters(), 0.5);
+        assertEquals(20_000L, step.getMetrics().getMovingMillis());
+        assertEquals(0L, step.getMetrics().getIdleMillis());
+        assertEquals(next, step.getReference());
+    }
+
+    @Test
+    void testSlowStepCountsAsIdleWithoutDistance() {
+        // When: ~5 m of GPS jitter in 60 s
+        RouteStep step = accumulator.nextStep(point(48856613, 2352222, 0L), point(48856658, 2352222, 60_000L));
+
+        // Then
+        assertEquals(0.0, step.getMetrics().getDistanceMeters());
+        assertEquals(0L, step.getMetrics().getMovingMillis());
+        assertEquals(60_000L, step.getMetrics().getIdleMillis());
+    }
+
+    @Test
+    void testGlitchCountsAsIdleAndKeepsPreviousReference() {
+        // Given
+        CompactLocationPoint start = point(48856613, 2352222, 0L);
+
+        // When: ~11 km in 10 s, then back near the start ~111 m north of it after 20 s more
+        RouteStep glitch = accumulator.nextStep(start, point(48956613, 2352222, 10_000L));
+        RouteStep back = accumulator.nextStep(glitch.getReference(), point(48857613, 2352222, 30_000L));
+
+        // Then: no time lost, the distance is measured from the last valid position
+        assertEquals(0.0, glitch.getMetrics().getDistanceMeters());
+        assertEquals(10_000L, glitch.getMetrics().getIdleMillis());
+        assertEquals(start.getLatitudeE6(), glitch.getReference().getLatitudeE6());
+        assertEquals(10_000L, glitch.getReference().getTimestampMillis());
+        assertEquals(111.2, back.getMetrics().getDistanceMeters(), 0.5);
+        assertEquals(20_000L, back.getMetrics().getMovingMillis());
+        assertEquals(30_000L, glitch.getMetrics().getIdleMillis()
+                + back.getMetrics().getMovingMillis() + back.getMetrics().getIdleMillis());
+    }
+
+    @Test
+    void testLatePointKeepsReference() {
+        // Given
+        CompactLocationPoint reference = point(48856613, 2352222, 10_000L);
+
+        // When
+        RouteStep late = accumulator.nextStep(reference, point(48856613, 2352222, 5_000L));
+
+        // Then
+        assertEquals(new RouteMetrics(), late.getMetrics());
+        assertEquals(reference, late.getReference());
+    }
+
+    @Test
+    void testFirstPointOfRouteHasNoMetrics() {
+        // Given
+        CompactLocationPoint first = point(48856613, 2352222, 0L);
+
+        // When
+        RouteStep step = accumulator.nextStep(null, first);
+
+        // Then
+        assertEquals(new RouteMetrics(), step.getMetrics());
+        assertEquals(first, step.getReference());
+    }
+
+    private static CompactLocationPoint point(int latitudeE6, int longitudeE6, long timestampMillis) {
+        return CompactLocationPoint.builder()
+                .latitudeE6(latitudeE6)
+                .longitudeE6(longitudeE6)
+                .timestampMillis(timestampMillis)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.couriersync.tracking.service;
+
+import com.couriersync.tracking.model.CompactLocationPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteSimplifierTest {
+
+    @Test
+    void testStraightLineKeepsEndpoints() {
+        // Given: 10,000 points along a meridian with ~0.2 m of GPS jitter
+        List<CompactLocationPoint> points = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            points.add(point(48856000 + i * 10, 2352000 + (i % 2) * 2, i));
+        }
+
+        // When
+        List<CompactLocationPoint> simplified = RouteSimplifier.simplify(points, 5);
+
+        // Then
+        assertEquals(List.of(points.get(0), points.get(points.size() - 1)), simplified);
+    }
+
+    @Test
+    void testKeepsCornersAboveTolerance() {
+        // Given: an L-shaped route, ~111 m per leg
+        List<CompactLocationPoint> points = new ArrayList<>();
+        for (int i = 0; i <= 10; i++) {
+            points.add(point(48856000 + i * 100, 2352000, i));
+        }
+        for (int i = 1; i <= 10; i++) {
+            points.add(point(48857000, 2352000 + i * 150, 10 + i));
+        }
+
+        // When
+        List<CompactLocationPoint> simplified = RouteSimplifier.simplify(points, 5);
+
+        // Then
+        assertEquals(3, simplified.size());
+        assertEquals(points.get(10), simplified.get(1));
+    }
+
+    @Test
+    void testZeroToleranceKeepsEveryPoint() {
+        // Given
+        List<CompactLocationPoint> points = List.of(point(0, 0, 0), point(1, 1, 1), point(2, 2, 2));
+
+        // When / Then
+        assertSame(points, RouteSimplifier.simplify(points, 0));
+    }
+
+    private static CompactLocationPoint point(int latitudeE6, int longitudeE6, long timestampMillis) {
+        return CompactLocationPoint.builder()
+                .latitudeE6(latitudeE6)
+                .longitudeE6(longitudeE6)
+                .timestampMillis(timestampMillis)
+                .build();
+    }
+}